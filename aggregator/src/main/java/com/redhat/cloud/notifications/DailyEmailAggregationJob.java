@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications;
 
 import com.redhat.cloud.notifications.config.AggregatorConfig;
 import com.redhat.cloud.notifications.db.AggregationOrgConfigRepository;
+import com.redhat.cloud.notifications.db.AggregationShardLeaseRepository;
 import com.redhat.cloud.notifications.db.EmailAggregationRepository;
 import com.redhat.cloud.notifications.ingress.Action;
 import com.redhat.cloud.notifications.ingress.Context;
@@ -22,16 +23,22 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
-import org.eclipse.microprofile.reactive.messaging.Message;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static java.time.ZoneOffset.UTC;
@@ -43,6 +50,7 @@ public class DailyEmailAggregationJob {
     public static final String BUNDLE_NAME = "console";
     public static final String APP_NAME = "notifications";
     public static final String EVENT_TYPE_NAME = "aggregation";
+    private static final String SHARD_LABEL = "shard";
 
     @Inject
     AggregatorConfig aggregatorConfig;
@@ -53,6 +61,9 @@ public class DailyEmailAggregationJob {
     @Inject
     AggregationOrgConfigRepository aggregationOrgConfigRepository;
 
+    @Inject
+    AggregationShardLeaseRepository aggregationShardLeaseRepository;
+
     @ConfigProperty(name = "prometheus.pushgateway.url", defaultValue = "http://localhost:8080")
     String prometheusPushGatewayUrl;
 
@@ -95,18 +106,14 @@ public class DailyEmailAggregationJob {
             Log.infof("found %s commands", aggregationCommands.size());
             Log.debugf("Aggregation commands: %s", aggregationCommands);
 
-            aggregationCommands.stream()
-                .collect(Collectors.groupingBy(AggregationCommand::getOrgId))
-                .values()
-                .forEach(val -> val.stream()
-                    .collect(Collectors.groupingBy(AggregationCommand::getBundleId))
-                    .values()
-                    .forEach(this::sendIt));
+            Map<Integer, Map<String, List<AggregationCommand>>> commandsByShard = aggregationCommands.stream()
+                .collect(Collectors.groupingBy(aggregationCommand -> getShard(aggregationCommand.getOrgId()),
+                    Collectors.groupingBy(AggregationCommand::getOrgId)));
 
-            List<String> orgIdsToUpdate = aggregationCommands.stream().map(aggregationCommand -> aggregationCommand.getOrgId()).collect(Collectors.toList());
-            Log.debugf("Found following org IDs to update: %s", orgIdsToUpdate);
-
-            aggregationOrgConfigRepository.updateLastCronJobRunAccordingOrgPref(orgIdsToUpdate, now);
+            int failedOrgs = processShards(commandsByShard, now, registry);
+            if (failedOrgs > 0) {
+                throw new IllegalStateException(String.format("The aggregation failed for %d orgs", failedOrgs));
+            }
 
             Gauge lastSuccess = Gauge
                     .build()
@@ -171,7 +178,91 @@ public class DailyEmailAggregationJob {
         return pendingAggregationCommands;
     }
 
-    private void sendIt(List<AggregationCommand> aggregationCommands) {
+    int getShard(String orgId) {
+        return Math.floorMod(orgId.hashCode(), aggregatorConfig.getShardCount());
+    }
+
+    /*
+     * Each shard is processed by a virtual thread, but only if its lease can be acquired. The shards processed by
+     * another worker (thread or pod) at the same time or already processed for the same schedule slot are skipped. The number of messages sent to Kafka and not
+     * acknowledged yet is bounded for all shards.
+     */
+    private int processShards(Map<Integer, Map<String, List<AggregationCommand>>> commandsByShard, LocalDateTime now, CollectorRegistry registry) {
+        Gauge shardDuration = Gauge
+                .build()
+                .name("aggregator_job_shard_duration_seconds")
+                .help("Duration of the processing of a shard in seconds.")
+                .labelNames(SHARD_LABEL)
+                .register(registry);
+        Gauge shardLag = Gauge
+                .build()
+                .name("aggregator_job_shard_lag_seconds")
+                .help("Delay between the scheduled execution time and the end of the processing of a shard in seconds.")
+                .labelNames(SHARD_LABEL)
+                .register(registry);
+
+        String leaseOwner = UUID.randomUUID().toString();
+        Semaphore inFlightSends = new Semaphore(aggregatorConfig.getMaxInFlightSends());
+        AtomicInteger failedOrgs = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            commandsByShard.forEach((shard, commandsByOrg) -> executor.execute(() -> {
+                if (!aggregationShardLeaseRepository.tryAcquire(shard, now, leaseOwner, aggregatorConfig.getShardLeaseDuration())) {
+                    Log.infof("Shard %d is being or was already processed by another worker, skipping it", shard);
+                    return;
+                }
+                Gauge.Timer durationTimer = shardDuration.labels(String.valueOf(shard)).startTimer();
+                try {
+                    failedOrgs.addAndGet(processShard(shard, commandsByOrg, now, inFlightSends));
+                } finally {
+                    durationTimer.setDuration();
+                    shardLag.labels(String.valueOf(shard)).set(Duration.between(now, LocalDateTime.now(UTC)).toSeconds());
+                    aggregationShardLeaseRepository.complete(shard, now, leaseOwner);
+                }
+            }));
+        }
+        return failedOrgs.get();
+    }
+
+    /*
+     * The last run of each org is checkpointed from the shard task as soon as all the aggregation messages of that org
+     * are acknowledged by Kafka. If the processing of an org fails, the other orgs are still processed and checkpointed,
+     * and the failed org will be processed again by the next execution of the job.
+     */
+    private int processShard(int shard, Map<String, List<AggregationCommand>> commandsByOrg, LocalDateTime now, Semaphore inFlightSends) {
+        int failedOrgs = 0;
+        Map<String, CompletableFuture<Void>> sendsByOrg = new LinkedHashMap<>();
+
+        commandsByOrg.forEach((orgId, orgCommands) -> {
+            CompletableFuture<Void> orgSends;
+            try {
+                CompletableFuture<?>[] sends = orgCommands.stream()
+                    .collect(Collectors.groupingBy(AggregationCommand::getBundleId))
+                    .values().stream()
+                    .map(bundleCommands -> sendIt(bundleCommands, inFlightSends))
+                    .toArray(CompletableFuture[]::new);
+                orgSends = CompletableFuture.allOf(sends);
+            } catch (Exception e) {
+                orgSends = CompletableFuture.failedFuture(e);
+            }
+            sendsByOrg.put(orgId, orgSends);
+        });
+
+        for (Map.Entry<String, CompletableFuture<Void>> orgSends : sendsByOrg.entrySet()) {
+            try {
+                orgSends.getValue().join();
+                aggregationOrgConfigRepository.updateLastCronJobRunAccordingOrgPref(List.of(orgSends.getKey()), now);
+            } catch (Exception e) {
+                Log.errorf(e, "Aggregation failed for orgId %s", orgSends.getKey());
+                failedOrgs++;
+            }
+        }
+
+        Log.infof("Shard %d processed with %d orgs and %d failures", shard, commandsByOrg.size(), failedOrgs);
+        return failedOrgs;
+    }
+
+    private CompletableFuture<Void> sendIt(List<AggregationCommand> aggregationCommands, Semaphore inFlightSends) {
         List<Event> eventList = new ArrayList<>();
         aggregationCommands.stream().forEach(aggregationCommand -> {
             Payload.PayloadBuilder payloadBuilder = new Payload.PayloadBuilder();
@@ -199,8 +290,16 @@ public class DailyEmailAggregationJob {
 
         String encodedAction = Parser.encode(action);
         Log.infof("Encoded Payload: %s", encodedAction);
-        Message<String> message = Message.of(encodedAction);
-        emitterIngress.send(message);
+
+        inFlightSends.acquireUninterruptibly();
+        try {
+            return emitterIngress.send(encodedAction)
+                .toCompletableFuture()
+                .whenComplete((unused, throwable) -> inFlightSends.release());
+        } catch (RuntimeException e) {
+            inFlightSends.release();
+            throw e;
+        }
     }
 
     Gauge getPairsProcessed() {
@@ -12,6 +12,7 @@ import jakarta.enterprise.event.Startup;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
@@ -23,6 +24,9 @@ public class AggregatorConfig {
      * Env vars configuration
      */
     private static final String CLUSTER_ID = "notifications.aggregator.cluster-id";
+    private static final String SHARD_COUNT = "notifications.aggregator.shard-count";
+    private static final String SHARD_LEASE_DURATION = "notifications.aggregator.shard-lease-duration";
+    private static final String MAX_IN_FLIGHT_SENDS = "notifications.aggregator.max-in-flight-sends";
 
     /*
      * Unleash configuration
@@ -32,6 +36,25 @@ public class AggregatorConfig {
     @ConfigProperty(name = CLUSTER_ID)
     Optional<String> clusterId;
 
+    /**
+     * The orgs are split into this number of shards which are processed in parallel. Each shard is processed by the
+     * worker (thread or pod) that holds its lease.
+     */
+    @ConfigProperty(name = SHARD_COUNT, defaultValue = "4")
+    int shardCount;
+
+    /**
+     * How long a shard lease remains valid if the worker that holds it crashes before completing the shard.
+     */
+    @ConfigProperty(name = SHARD_LEASE_DURATION, defaultValue = "PT15M")
+    Duration shardLeaseDuration;
+
+    /**
+     * Maximum number of aggregation messages sent to Kafka and not acknowledged yet, all shards included.
+     */
+    @ConfigProperty(name = MAX_IN_FLIGHT_SENDS, defaultValue = "64")
+    int maxInFlightSends;
+
     @Inject
     Unleash unleash;
 
@@ -48,6 +71,18 @@ public class AggregatorConfig {
         return clusterId.map(String::trim).filter(value -> !value.isEmpty());
     }
 
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public Duration getShardLeaseDuration() {
+        return shardLeaseDuration;
+    }
+
+    public int getMaxInFlightSends() {
+        return maxInFlightSends;
+    }
+
     /**
      * Gets the active cluster ID from Unleash variant payload.
      * Returns Optional.empty() if:
@@ -86,6 +121,9 @@ public class AggregatorConfig {
     void logConfigAtStartup(@Observes Startup event) {
         Map<String, Object> config = new TreeMap<>();
         config.put(CLUSTER_ID, getClusterId().orElse("not-configured"));
+        config.put(MAX_IN_FLIGHT_SENDS, getMaxInFlightSends());
+        config.put(SHARD_COUNT, getShardCount());
+        config.put(SHARD_LEASE_DURATION, getShardLeaseDuration());
         if (activeClusterToggle != null) {
             config.put(activeClusterToggle, getActiveCluster().orElse("unable-to-determine"));
         }
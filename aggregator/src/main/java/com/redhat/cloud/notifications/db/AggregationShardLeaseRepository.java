@@ -0,0 +1,60 @@
+package com.redhat.cloud.notifications.db;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.time.ZoneOffset.UTC;
+
+@ApplicationScoped
+public class AggregationShardLeaseRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    /**
+     * Acquires the lease of a shard for a schedule slot if it is not held by another worker or if the lease of the other
+     * worker expired. The lease is not acquired if the shard was already processed for that slot.
+     * @param shard the shard index.
+     * @param slot the schedule execution time processed by the worker.
+     * @param owner the unique identifier of the worker.
+     * @param leaseDuration how long the lease is valid if the worker does not complete the shard.
+     * @return {@code true} if the lease was acquired.
+     */
+    @Transactional
+    public boolean tryAcquire(int shard, LocalDateTime slot, String owner, Duration leaseDuration) {
+        String query = "INSERT INTO aggregation_shard_lease (shard, owner, lease_until) VALUES (:shard, :owner, :leaseUntil) " +
+            "ON CONFLICT (shard) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until " +
+            "WHERE aggregation_shard_lease.lease_until <= :now " +
+            "AND (aggregation_shard_lease.completed_slot IS NULL OR aggregation_shard_lease.completed_slot < :slot)";
+
+        LocalDateTime now = LocalDateTime.now(UTC);
+        int acquired = entityManager.createNativeQuery(query)
+            .setParameter("shard", shard)
+            .setParameter("owner", owner)
+            .setParameter("leaseUntil", now.plus(leaseDuration))
+            .setParameter("now", now)
+            .setParameter("slot", slot)
+            .executeUpdate();
+        return acquired == 1;
+    }
+
+    /**
+     * Records that the shard was processed for the schedule slot and ends the lease. The lease of the shard can then
+     * be acquired for the following slots only.
+     */
+    @Transactional
+    public void complete(int shard, LocalDateTime slot, String owner) {
+        entityManager.createNativeQuery("UPDATE aggregation_shard_lease SET completed_slot = :slot, lease_until = :now " +
+                "WHERE shard = :shard AND owner = :owner")
+            .setParameter("slot", slot)
+            .setParameter("now", LocalDateTime.now(UTC))
+            .setParameter("shard", shard)
+            .setParameter("owner", owner)
+            .executeUpdate();
+    }
+}
@@ -9,8 +9,10 @@ import io.smallrye.reactive.messaging.memory.InMemoryConnector;
 import jakarta.enterprise.inject.Any;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -36,10 +38,18 @@ class ClusterCoordinationTest {
     @Inject
     ResourceHelpers helpers;
 
+    @BeforeEach
+    void setUp() {
+        when(aggregatorConfig.getShardCount()).thenReturn(1);
+        when(aggregatorConfig.getShardLeaseDuration()).thenReturn(Duration.ofMinutes(1L));
+        when(aggregatorConfig.getMaxInFlightSends()).thenReturn(10);
+    }
+
     @AfterEach
     void tearDown() {
         connector.sink(DailyEmailAggregationJob.EGRESS_CHANNEL).clear();
         helpers.purgeEventAggregations();
+        helpers.purgeAggregationShardLeases();
     }
 
     @Test
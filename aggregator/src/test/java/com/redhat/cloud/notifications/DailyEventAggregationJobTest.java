@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.db.AggregationShardLeaseRepository;
 import com.redhat.cloud.notifications.helpers.ResourceHelpers;
 import com.redhat.cloud.notifications.helpers.TestHelpers;
 import com.redhat.cloud.notifications.ingress.Action;
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
@@ -36,6 +38,8 @@ import java.util.concurrent.ThreadLocalRandom;
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
 import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
@@ -51,6 +55,9 @@ class DailyEventAggregationJobTest {
     @InjectSpy
     DailyEmailAggregationJob dailyEmailAggregationJob;
 
+    @Inject
+    AggregationShardLeaseRepository aggregationShardLeaseRepository;
+
     @Inject
     @Any
     InMemoryConnector connector;
@@ -85,6 +92,7 @@ class DailyEventAggregationJobTest {
     @AfterEach
     void tearDown() {
         helpers.purgeEventAggregations();
+        helpers.purgeAggregationShardLeases();
         connector.sink(DailyEmailAggregationJob.EGRESS_CHANNEL).clear();
     }
 
@@ -141,6 +149,56 @@ class DailyEventAggregationJobTest {
         checkAggCommand(listCommand, "someOrgId", "rhel", "unknown-application");
     }
 
+    @Test
+    void shouldSkipShardLeasedByAnotherWorker() {
+        addEventEmailAggregation("someOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        addEventEmailAggregation("anotherOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addAggregationOrgConfig(someOrgIdToProceed);
+        helpers.addAggregationOrgConfig(anotherOrgIdToProceed);
+
+        int someOrgIdShard = dailyEmailAggregationJob.getShard("someOrgId");
+        assertNotEquals(someOrgIdShard, dailyEmailAggregationJob.getShard("anotherOrgId"));
+        assertTrue(aggregationShardLeaseRepository.tryAcquire(someOrgIdShard, baseReferenceTime, "another-worker", Duration.ofMinutes(5L)));
+        dailyEmailAggregationJob.processDailyEmail();
+
+        // Only the org of the shard that was not leased by another worker is processed and checkpointed.
+        List<AggregationCommand> listCommand = getRecordsFromKafka();
+        assertEquals(1, listCommand.size());
+        checkAggCommand(listCommand, "anotherOrgId", "rhel", "policies");
+        assertEquals(someOrgIdToProceed.getLastRun(), helpers.findAggregationOrgConfigByOrgId("someOrgId").getLastRun());
+        assertEquals(baseReferenceTime, helpers.findAggregationOrgConfigByOrgId("anotherOrgId").getLastRun());
+    }
+
+    @Test
+    void shouldSkipShardCompletedForTheSameSlot() {
+        int shard = dailyEmailAggregationJob.getShard("someOrgId");
+        assertTrue(aggregationShardLeaseRepository.tryAcquire(shard, baseReferenceTime, "some-worker", Duration.ofMinutes(5L)));
+        aggregationShardLeaseRepository.complete(shard, baseReferenceTime, "some-worker");
+
+        // A worker which starts late for the same slot must not send the digests of the shard again.
+        assertFalse(aggregationShardLeaseRepository.tryAcquire(shard, baseReferenceTime, "late-worker", Duration.ofMinutes(5L)));
+        assertTrue(aggregationShardLeaseRepository.tryAcquire(shard, baseReferenceTime.plusMinutes(15L), "next-worker", Duration.ofMinutes(5L)));
+    }
+
+    @Test
+    void shouldMoveLastRunForwardForEachProcessedOrg() {
+        addEventEmailAggregation("someOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        addEventEmailAggregation("someOrgId", "rhel", "unknown-application", "somePolicyId", "someHostId");
+        addEventEmailAggregation("anotherOrgId", "rhel", "policies", "somePolicyId", "someHostId");
+        helpers.addAggregationOrgConfig(someOrgIdToProceed);
+        helpers.addAggregationOrgConfig(anotherOrgIdToProceed);
+
+        // The orgs are checkpointed after the shard tasks were submitted, the job must not fail because of that.
+        dailyEmailAggregationJob.processDailyEmail();
+
+        assertEquals(3, getRecordsFromKafka().size());
+        for (AggregationOrgConfig orgConfig : List.of(someOrgIdToProceed, anotherOrgIdToProceed)) {
+            LocalDateTime lastRun = helpers.findAggregationOrgConfigByOrgId(orgConfig.getOrgId()).getLastRun();
+            assertTrue(orgConfig.getLastRun().isBefore(lastRun));
+            assertEquals(baseReferenceTime, lastRun);
+        }
+    }
+
     @Test
     void shouldSentFourAggregationsOnTwoBundlesToKafkaTopic() {
         addEventEmailAggregation("someOrgId", "rhel", "policies", "somePolicyId", "someHostId");
@@ -47,6 +47,11 @@ public class ResourceHelpers extends com.redhat.cloud.notifications.models.Resou
         entityManager.clear();
     }
 
+    @Transactional
+    public void purgeAggregationShardLeases() {
+        entityManager.createNativeQuery("DELETE FROM aggregation_shard_lease").executeUpdate();
+    }
+
     @Transactional
     public void purgeEndpoints() {
         entityManager.createQuery("DELETE FROM Endpoint").executeUpdate();
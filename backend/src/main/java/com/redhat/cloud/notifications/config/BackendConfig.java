@@ -1,5 +1,7 @@
 package com.redhat.cloud.notifications.config;
 
+import com.redhat.cloud.notifications.unleash.CompiledToggle;
+import com.redhat.cloud.notifications.unleash.CompiledToggles;
 import com.redhat.cloud.notifications.unleash.ToggleRegistry;
 import io.getunleash.Unleash;
 import io.getunleash.UnleashContext;
@@ -24,10 +26,12 @@ public class BackendConfig {
     private static final String EMAILS_ONLY_MODE = "notifications.emails-only-mode.enabled";
     private static final String SECURED_EMAIL_TEMPLATES = "notifications.use-secured-email-templates.enabled";
     private static final String ERRATA_MIGRATION_BATCH_SIZE = "notifications.errata.migration.batch.size";
+    private static final String EVENT_LOG_COUNT_CAP = "notifications.event-log.count-cap";
     private static final String INSTANT_EMAILS = "notifications.instant-emails.enabled";
     private static final String KESSEL_DOMAIN = "notifications.kessel.domain";
     private static final String KESSEL_ENABLED = "notifications.kessel.enabled";
     private static final String KESSEL_INSECURE_CLIENT_ENABLED = "notifications.kessel.insecure-client.enabled";
+    private static final String KESSEL_MAX_CONCURRENT_CHECKS = "notifications.kessel.max-concurrent-checks";
     private static final String KESSEL_TIMEOUT_MS = "notifications.kessel.timeout-ms";
     private static final String KESSEL_URL = "notifications.kessel.url";
     private static final String OIDC_CLIENT_ID = "notifications.oidc.client-id";
@@ -51,6 +55,7 @@ public class BackendConfig {
     private String showHiddenEventTypesToggle;
     private String useDrawerfilteredQuery;
     private String normalizedQueriesToggle;
+    private CompiledToggle<String> compiledNormalizedQueriesToggle;
 
     // Only used in stage environments.
     @ConfigProperty(name = DEFAULT_TEMPLATE, defaultValue = "false")
@@ -73,6 +78,10 @@ public class BackendConfig {
     @ConfigProperty(name = KESSEL_INSECURE_CLIENT_ENABLED, defaultValue = "false")
     boolean kesselInsecureClientEnabled;
 
+    // The maximum number of Kessel checks run concurrently to filter the events of a single event log or drawer page.
+    @ConfigProperty(name = KESSEL_MAX_CONCURRENT_CHECKS, defaultValue = "8")
+    int kesselMaxConcurrentChecks;
+
     @ConfigProperty(name = KESSEL_TIMEOUT_MS, defaultValue = "30000")
     long kesselTimeoutMs;
 
@@ -94,6 +103,10 @@ public class BackendConfig {
     @ConfigProperty(name = ERRATA_MIGRATION_BATCH_SIZE, defaultValue = "1000")
     int errataMigrationBatchSize;
 
+    // Maximum number of events counted for a cursor-paginated page, 0 or less counts all of them.
+    @ConfigProperty(name = EVENT_LOG_COUNT_CAP, defaultValue = "10000")
+    int eventLogCountCap;
+
     @ConfigProperty(name = RBAC_ENABLED, defaultValue = "true")
     protected boolean rbacEnabled;
 
@@ -107,6 +120,9 @@ public class BackendConfig {
     @Inject
     Unleash unleash;
 
+    @Inject
+    CompiledToggles compiledToggles;
+
     @PostConstruct
     void postConstruct() {
         drawerToggle = toggleRegistry.register("drawer", true);
@@ -121,6 +137,8 @@ public class BackendConfig {
         showHiddenEventTypesToggle = toggleRegistry.register("show-hidden-event-types", true);
         useDrawerfilteredQuery = toggleRegistry.register("remove-drawer-endpoint-from-behavior-group", true);
         normalizedQueriesToggle = toggleRegistry.register("normalized-queries", true);
+        // This toggle is evaluated by each event log and drawer request, its decisions are kept until the toggles change.
+        compiledNormalizedQueriesToggle = compiledToggles.compileWithOrgId(normalizedQueriesToggle);
     }
 
     void logConfigAtStartup(@Observes Startup event) {
@@ -130,8 +148,10 @@ public class BackendConfig {
         config.put(drawerToggle, isDrawerEnabled(null));
         config.put(EMAILS_ONLY_MODE, isEmailsOnlyModeEnabled());
         config.put(ERRATA_MIGRATION_BATCH_SIZE, getErrataMigrationBatchSize());
+        config.put(EVENT_LOG_COUNT_CAP, getEventLogCountCap());
         config.put(KESSEL_DOMAIN, kesselDomain);
         config.put(KESSEL_ENABLED, isKesselEnabled(null));
+        config.put(KESSEL_MAX_CONCURRENT_CHECKS, getKesselMaxConcurrentChecks());
         config.put(KESSEL_TIMEOUT_MS, getKesselTimeoutMs());
         config.put(KESSEL_URL, kesselUrl);
         config.put(OIDC_ISSUER, oidcIssuer);
@@ -166,6 +186,10 @@ public class BackendConfig {
         return this.errataMigrationBatchSize;
     }
 
+    public int getEventLogCountCap() {
+        return eventLogCountCap;
+    }
+
     public boolean isInstantEmailsEnabled() {
         return instantEmailsEnabled;
     }
@@ -183,6 +207,10 @@ public class BackendConfig {
         return kesselInsecureClientEnabled;
     }
 
+    public int getKesselMaxConcurrentChecks() {
+        return kesselMaxConcurrentChecks;
+    }
+
     public long getKesselTimeoutMs() {
         return kesselTimeoutMs;
     }
@@ -270,7 +298,7 @@ public class BackendConfig {
     }
 
     public boolean isNormalizedQueriesEnabled(String orgId) {
-        return unleash.isEnabled(normalizedQueriesToggle, buildUnleashContextWithOrgId(orgId), false);
+        return compiledNormalizedQueriesToggle.isEnabled(orgId);
     }
 
     public boolean isUseDrawerfilteredQuery(String orgId) {
@@ -0,0 +1,39 @@
+package com.redhat.cloud.notifications.db;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of an event in the event log sorted by creation date and ID, both descending. The page which follows the
+ * cursor starts with the first event after that position, so the database seeks to it through the index instead of
+ * scanning and discarding all the preceding events like an offset would.
+ * @param created the creation date of the last event of the previous page.
+ * @param id the ID of the last event of the previous page.
+ */
+public record Cursor(LocalDateTime created, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String value = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String encodedCursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new BadRequestException("Invalid 'cursor' query parameter");
+            }
+            return new Cursor(LocalDateTime.parse(value.substring(0, separatorIndex)), UUID.fromString(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid 'cursor' query parameter", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.redhat.cloud.notifications.db;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.QueryParam;
+
+import java.util.Optional;
+
+/**
+ * Pagination of the event log and of the drawer. On top of the offset pagination, the {@code cursor} query parameter
+ * opts into the keyset pagination: an empty value requests the first page and the other pages are requested with the
+ * cursor returned in the {@code next} link of the previous page.
+ */
+public class EventLogQuery extends Query {
+
+    private static final String CURSOR_SORT_BY = "created:desc";
+
+    @QueryParam("cursor")
+    String cursor;
+
+    @Override
+    public boolean isCursorMode() {
+        if (cursor == null) {
+            return false;
+        }
+        // The cursor is a position in the events sorted by creation date, another sort would skip or repeat events.
+        String sortBy = Sort.getSortBy(this, CURSOR_SORT_BY);
+        if (!CURSOR_SORT_BY.equalsIgnoreCase(sortBy) && !"created".equalsIgnoreCase(sortBy)) {
+            throw new BadRequestException("The 'cursor' query parameter can only be used with the default 'created:desc' sort");
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Cursor> getCursor() {
+        if (!isCursorMode() || cursor.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Cursor.decode(cursor));
+    }
+
+    @Override
+    public Limit getLimit() {
+        Limit limit = super.getLimit();
+        if (isCursorMode()) {
+            // The cursor replaces the offset.
+            return new Limit(limit.getLimit(), 0);
+        }
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return "EventLogQuery{" +
+            "pageSize=" + pageSize +
+            ", pageNumber=" + pageNumber +
+            ", offset=" + offset +
+            ", sortBy='" + sortBy + '\'' +
+            ", cursor='" + cursor + '\'' +
+            '}';
+    }
+}
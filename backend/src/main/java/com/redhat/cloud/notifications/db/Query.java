@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.QueryParam;
 
+import java.util.Optional;
+
 public class Query {
 
     public static final int DEFAULT_RESULTS_PER_PAGE = 20;
@@ -67,6 +69,23 @@ public class Query {
         return new Limit(pageSize, offset);
     }
 
+    /**
+     * Tells whether the results are paginated with a cursor instead of an offset.
+     * @return {@code true} if the query carries a cursor.
+     */
+    public boolean isCursorMode() {
+        return false;
+    }
+
+    /**
+     * Returns the position after which the page starts, if the results are paginated with a cursor and the page is
+     * not the first one.
+     * @return the cursor of the page.
+     */
+    public Optional<Cursor> getCursor() {
+        return Optional.empty();
+    }
+
     @Override
     public String toString() {
         return "Query{" +
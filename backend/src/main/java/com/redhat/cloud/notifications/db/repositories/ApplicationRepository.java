@@ -302,8 +302,10 @@ public class ApplicationRepository {
              * Example:
              *   Before: {"CRITICAL": true, "IMPORTANT": true, "MODERATE": true}
              *   After removing MODERATE: {"CRITICAL": true, "IMPORTANT": true, "MODERATE": false}
+             *
+             * The subscriptions version of each org which had subscriptions is bumped in the same statement.
              */
-            String emailSubscriptionUpdates = "UPDATE email_subscriptions es " +
+            String emailSubscriptionUpdates = "WITH updated AS (UPDATE email_subscriptions es " +
                 "SET severities = ( " +
                     "SELECT jsonb_object_agg(" +  // Aggregate key-value pairs back into a JSONB object
                         "key," +  // The severity name (e.g., "CRITICAL", "MODERATE")
@@ -314,7 +316,10 @@ public class ApplicationRepository {
                         "END" +
                     ") " +
                     "FROM jsonb_each_text(COALESCE(es.severities, '{}'::jsonb))" +  // Iterate through each severity in the JSONB, default to empty if null
-                ") WHERE es.event_type_id = :eventTypeId";  // Only update subscriptions for this specific event type
+                ") WHERE es.event_type_id = :eventTypeId " +  // Only update subscriptions for this specific event type
+                "RETURNING es.org_id) " +
+                "INSERT INTO email_subscriptions_version (org_id, version, updated) SELECT DISTINCT org_id, 1, now() AT TIME ZONE 'UTC' FROM updated " +
+                "ON CONFLICT (org_id) DO UPDATE SET version = email_subscriptions_version.version + 1, updated = EXCLUDED.updated";
 
             entityManager.createNativeQuery(emailSubscriptionUpdates)
                 .setParameter("severityKeys", removedSeveritiesArray)  // Array of removed severity names
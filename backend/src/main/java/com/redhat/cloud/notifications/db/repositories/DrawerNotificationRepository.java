@@ -1,5 +1,6 @@
 package com.redhat.cloud.notifications.db.repositories;
 
+import com.redhat.cloud.notifications.db.Cursor;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.db.Sort;
 import com.redhat.cloud.notifications.models.DrawerEntryPayload;
@@ -35,12 +36,14 @@ public class DrawerNotificationRepository {
     public Integer updateReadStatus(String orgId, String username, Set<UUID> notificationIds, Boolean readStatus) {
         if (readStatus) {
             // Mark as read: INSERT into drawer_read_status
-            // Use unnest to insert multiple rows from the Set<UUID>
+            // The table is partitioned on the creation date of the event, which is read from the event table
+            // The request only carries the event IDs, so the event is looked up with one primary key probe per partition
             String insertSql = """
-                INSERT INTO drawer_read_status (org_id, user_id, event_id)
-                SELECT :orgId, :userId, event_id
-                FROM unnest(CAST(:notificationIds AS uuid[])) AS event_id
-                ON CONFLICT (org_id, user_id, event_id) DO NOTHING
+                INSERT INTO drawer_read_status (org_id, user_id, event_id, event_created)
+                SELECT :orgId, :userId, e.id, e.created
+                FROM event e
+                WHERE e.org_id = :orgId AND e.id = ANY(CAST(:notificationIds AS uuid[]))
+                ON CONFLICT (org_id, user_id, event_id, event_created) DO NOTHING
                 """;
 
             return entityManager.createNativeQuery(insertSql)
@@ -50,6 +53,7 @@ public class DrawerNotificationRepository {
                 .executeUpdate();
         } else {
             // Mark as unread: DELETE from drawer_read_status
+            // Like the insert, this probes the primary key of each partition since the event creation date is unknown
             String deleteSql = """
                 DELETE FROM drawer_read_status
                 WHERE org_id = :orgId
@@ -74,6 +78,45 @@ public class DrawerNotificationRepository {
             return new ArrayList<>();
         }
 
+        TypedQuery<Object[]> typedQuery = buildNotificationsQuery(buildBaseHql(false), Object[].class, orgId, username, subscribedEventTypes,
+            bundleIds, appIds, eventTypeIds, startDate, endDate, readStatus, query, excludedEventIds);
+
+        Query.Limit limit = query.getLimit();
+        typedQuery.setMaxResults(limit.getLimit());
+        typedQuery.setFirstResult(limit.getOffset());
+
+        List<Object[]> results = typedQuery.getResultList();
+        return results.stream().map(DrawerEntryPayload::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves the event IDs of the drawer notifications matching the filters, sorted according to the query. The
+     * pagination of the query is ignored, the IDs are read from the given position instead.
+     * @param firstResult the position of the first ID to read.
+     * @param maxResults the maximum number of IDs to read.
+     * @return the event IDs.
+     */
+    public List<UUID> getNotificationIds(String orgId, String username, Set<UUID> bundleIds, Set<UUID> appIds, Set<UUID> eventTypeIds,
+                                         LocalDateTime startDate, LocalDateTime endDate, Boolean readStatus, Query query, int firstResult, int maxResults) {
+
+        Set<UUID> subscribedEventTypes = getSubscribedEventTypes(orgId, username);
+
+        if (subscribedEventTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        TypedQuery<UUID> typedQuery = buildNotificationsQuery(buildBaseHql("e.id"), UUID.class, orgId, username, subscribedEventTypes,
+            bundleIds, appIds, eventTypeIds, startDate, endDate, readStatus, query, null);
+        typedQuery.setMaxResults(maxResults);
+        typedQuery.setFirstResult(firstResult);
+
+        return typedQuery.getResultList();
+    }
+
+    private <T> TypedQuery<T> buildNotificationsQuery(String hql, Class<T> resultClass, String orgId, String username, Set<UUID> subscribedEventTypes,
+                                                      Set<UUID> bundleIds, Set<UUID> appIds, Set<UUID> eventTypeIds,
+                                                      LocalDateTime startDate, LocalDateTime endDate, Boolean readStatus, Query query, List<UUID> excludedEventIds) {
+
         Optional<Sort> sort = Sort.getSort(query, "created:DESC", Event.getSortFields(true));
 
         boolean bundlesNotEmpty = bundleIds != null && !bundleIds.isEmpty();
@@ -81,26 +124,40 @@ public class DrawerNotificationRepository {
         boolean eventTypesNotEmpty = eventTypeIds != null && !eventTypeIds.isEmpty();
         boolean excludeNotEmpty = excludedEventIds != null && !excludedEventIds.isEmpty();
 
-        String hql = buildBaseHql(false);
         hql = addHqlConditions(hql, bundlesNotEmpty, applicationsNotEmpty, eventTypesNotEmpty, excludeNotEmpty, startDate, endDate, readStatus);
 
-        if (sort.isPresent()) {
+        Optional<Cursor> cursor = query.getCursor();
+        if (cursor.isPresent()) {
+            hql += EventRepository.CURSOR_CONDITION;
+        }
+
+        if (query.isCursorMode()) {
+            hql += EventRepository.CURSOR_ORDER_BY;
+        } else if (sort.isPresent()) {
             hql += getOrderBy(sort.get());
         }
 
-        TypedQuery<Object[]> typedQuery = entityManager.createQuery(hql, Object[].class);
+        TypedQuery<T> typedQuery = entityManager.createQuery(hql, resultClass);
         setQueryParams(typedQuery, orgId, username, subscribedEventTypes, bundleIds, appIds, eventTypeIds, excludedEventIds, startDate, endDate);
-
-        Query.Limit limit = query.getLimit();
-        typedQuery.setMaxResults(limit.getLimit());
-        typedQuery.setFirstResult(limit.getOffset());
-
-        List<Object[]> results = typedQuery.getResultList();
-        return results.stream().map(DrawerEntryPayload::new).collect(Collectors.toList());
+        if (cursor.isPresent()) {
+            typedQuery.setParameter("cursorCreated", cursor.get().created());
+            typedQuery.setParameter("cursorId", cursor.get().id());
+        }
+        return typedQuery;
     }
 
     public Long count(String orgId, String username, Set<UUID> bundleIds, Set<UUID> appIds, Set<UUID> eventTypeIds,
                       LocalDateTime startDate, LocalDateTime endDate, Boolean readStatus, List<UUID> excludedEventIds) {
+        return count(orgId, username, bundleIds, appIds, eventTypeIds, startDate, endDate, readStatus, excludedEventIds, 0);
+    }
+
+    /**
+     * Counts the drawer notifications matching the filters, stopping at the given number of notifications.
+     * @param maxCount the number of notifications after which the count stops, 0 or less to count all of them.
+     * @return the number of matching notifications, at most {@code maxCount} if it is positive.
+     */
+    public Long count(String orgId, String username, Set<UUID> bundleIds, Set<UUID> appIds, Set<UUID> eventTypeIds,
+                      LocalDateTime startDate, LocalDateTime endDate, Boolean readStatus, List<UUID> excludedEventIds, int maxCount) {
 
         Set<UUID> subscribedEventTypes = getSubscribedEventTypes(orgId, username);
 
@@ -113,9 +170,17 @@ public class DrawerNotificationRepository {
         boolean eventTypesNotEmpty = eventTypeIds != null && !eventTypeIds.isEmpty();
         boolean excludeNotEmpty = excludedEventIds != null && !excludedEventIds.isEmpty();
 
-        String hql = buildBaseHql(true);
+        // A capped count only reads the IDs of the first matching notifications instead of scanning all of them.
+        String hql = maxCount > 0 ? buildBaseHql("e.id") : buildBaseHql(true);
         hql = addHqlConditions(hql, bundlesNotEmpty, applicationsNotEmpty, eventTypesNotEmpty, excludeNotEmpty, startDate, endDate, readStatus);
 
+        if (maxCount > 0) {
+            TypedQuery<UUID> typedQuery = entityManager.createQuery(hql, UUID.class);
+            setQueryParams(typedQuery, orgId, username, subscribedEventTypes, bundleIds, appIds, eventTypeIds, excludedEventIds, startDate, endDate);
+            typedQuery.setMaxResults(maxCount);
+            return (long) typedQuery.getResultList().size();
+        }
+
         TypedQuery<Long> typedQuery = entityManager.createQuery(hql, Long.class);
         setQueryParams(typedQuery, orgId, username, subscribedEventTypes, bundleIds, appIds, eventTypeIds, excludedEventIds, startDate, endDate);
 
@@ -138,25 +203,24 @@ public class DrawerNotificationRepository {
 
     private String buildBaseHql(boolean isCountQuery) {
         if (isCountQuery) {
-            return "SELECT COUNT(e.id) FROM Event e " +
-                "JOIN e.eventType et " +
-                "JOIN et.application app " +
-                "JOIN app.bundle bundle " +
-                "LEFT JOIN DrawerReadStatus drs ON drs.id.eventId = e.id AND drs.id.userId = :userid " +
-                "WHERE e.orgId = :orgId AND e.renderedDrawerNotification IS NOT NULL AND et.id IN (:subscribedEventTypes)";
+            return buildBaseHql("COUNT(e.id)");
         } else {
-            return "SELECT e.id, " +
+            return buildBaseHql("e.id, " +
                 "drs.id IS NOT NULL, " +
-                "bundle.displayName, app.displayName, et.displayName, e.created, e.renderedDrawerNotification, bundle.name, e.severity, app.name " +
-                "FROM Event e " +
-                "JOIN e.eventType et " +
-                "JOIN et.application app " +
-                "JOIN app.bundle bundle " +
-                "LEFT JOIN DrawerReadStatus drs ON drs.id.eventId = e.id AND drs.id.userId = :userid " +
-                "WHERE e.orgId = :orgId AND e.renderedDrawerNotification IS NOT NULL AND et.id IN (:subscribedEventTypes)";
+                "bundle.displayName, app.displayName, et.displayName, e.created, e.renderedDrawerNotification, bundle.name, e.severity, app.name");
         }
     }
 
+    private String buildBaseHql(String selectedColumns) {
+        return "SELECT " + selectedColumns + " " +
+            "FROM Event e " +
+            "JOIN e.eventType et " +
+            "JOIN et.application app " +
+            "JOIN app.bundle bundle " +
+            "LEFT JOIN DrawerReadStatus drs ON drs.id.eventId = e.id AND drs.id.userId = :userid " +
+            "WHERE e.orgId = :orgId AND e.renderedDrawerNotification IS NOT NULL AND et.id IN (:subscribedEventTypes)";
+    }
+
     private String getOrderBy(Sort sort) {
         if (!sort.getSortColumn().equals("e.created")) {
             return " " + sort.getSortQuery() + ", e.created DESC";
@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications.db.repositories;
 
 import com.redhat.cloud.notifications.Severity;
+import com.redhat.cloud.notifications.db.Cursor;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.db.Sort;
 import com.redhat.cloud.notifications.models.CompositeEndpointType;
@@ -19,6 +20,7 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -28,46 +30,36 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class EventRepository {
 
+    /*
+     * The ID breaks the ties between the events created at the same time, the order of the pages must be total. The
+     * row comparison bounds the scan of the (org_id, created DESC, id DESC) index, and the redundant condition on the
+     * creation date alone prunes the partitions of the event table.
+     */
+    static final String CURSOR_CONDITION = " AND e.created <= :cursorCreated AND (e.created, e.id) < (:cursorCreated, :cursorId)";
+    static final String CURSOR_ORDER_BY = " ORDER BY e.created DESC, e.id DESC";
+
     @Inject
     EntityManager entityManager;
 
     @Inject
     RecipientsAuthorizationCriterionExtractor recipientsAuthorizationCriterionExtractor;
 
-    public List<EventAuthorizationCriterion> getEventsWithCriterion(String orgId, boolean useNormalized, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
-                                                                    LocalDateTime startDate, LocalDateTime endDate, Set<EndpointType> endpointTypes, Set<CompositeEndpointType> compositeEndpointTypes,
-                                                                    Set<Boolean> invocationResults, Set<NotificationStatus> status) {
-
-        boolean bundlesNotEmpty = bundleIds != null && !bundleIds.isEmpty();
-        boolean applicationsNotEmpty = appIds != null && !appIds.isEmpty();
-        boolean eventTypeNameNotEmpty = eventTypeDisplayName != null;
-
-        String hql = "FROM Event e ";
-
-        // Add selective JOINs for normalized approach - only join what we need
-        if (useNormalized) {
-            hql += "JOIN FETCH e.eventType et JOIN FETCH et.application app JOIN FETCH app.bundle bundle ";
+    /**
+     * Returns the authorization criterion of the given events which carry one. The other events are ignored.
+     * @param orgId the org ID of the events.
+     * @param eventIds the IDs of the events, usually those of a single page of the event log.
+     * @return the events with their authorization criterion.
+     */
+    public List<EventAuthorizationCriterion> getEventsWithCriterion(String orgId, Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        hql += "WHERE e.orgId = :orgId";
-
-        hql = addHqlConditions(hql, useNormalized, bundlesNotEmpty, applicationsNotEmpty, eventTypeNameNotEmpty, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, null, Optional.empty(), true);
-        // we are looking for events with auth criterion only
-        hql += " AND e.hasAuthorizationCriterion is true";
-
-        TypedQuery<Event> typedQuery = entityManager.createQuery(hql, Event.class);
-        setQueryParams(typedQuery, orgId, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, null, Optional.empty());
-
-        List<Event> eventsWithAuthorizationCriterion = typedQuery.getResultList();
-
-        // Populate denormalized display name fields from joined entities
-        if (useNormalized && !eventsWithAuthorizationCriterion.isEmpty()) {
-            for (Event event : eventsWithAuthorizationCriterion) {
-                event.setBundleDisplayName(event.getEventType().getApplication().getBundle().getDisplayName());
-                event.setApplicationDisplayName(event.getEventType().getApplication().getDisplayName());
-                event.setEventTypeDisplayName(event.getEventType().getDisplayName());
-            }
-        }
+        String hql = "FROM Event e WHERE e.orgId = :orgId AND e.id IN (:eventIds) AND e.hasAuthorizationCriterion is true";
+        List<Event> eventsWithAuthorizationCriterion = entityManager.createQuery(hql, Event.class)
+            .setParameter("orgId", orgId)
+            .setParameter("eventIds", eventIds)
+            .getResultList();
 
         List<EventAuthorizationCriterion> eventAuthorizationCriterion = new ArrayList<>();
         for (Event event : eventsWithAuthorizationCriterion) {
@@ -151,13 +143,42 @@ public class EventRepository {
                                       Set<Boolean> invocationResults, boolean fetchNotificationHistory, Set<NotificationStatus> status, Set<Severity> severities, Query query,
                                       Optional<List<UUID>> uuidToExclude, boolean includeEventsWithAuthCriterion) {
 
-        Optional<Sort> sort = Sort.getSort(query, "created:DESC", Event.getSortFields(useNormalized));
+        Query.Limit limit = query.getLimit();
+        List<UUID> eventIds = getEventIds(orgId, useNormalized, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, query, uuidToExclude, includeEventsWithAuthCriterion, limit.getOffset(), limit.getLimit());
+        return getEvents(orgId, useNormalized, eventIds, startDate, endDate, fetchNotificationHistory, query);
+    }
 
-        List<UUID> eventIds = getEventIds(orgId, useNormalized, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, query, uuidToExclude, includeEventsWithAuthCriterion);
+    /**
+     * Returns a window of the IDs of the events matching the filters, sorted like the events returned by
+     * {@link #getEvents}. The events with an authorization criterion are included, the caller is expected to filter
+     * them out if they are not visible to the user.
+     * @param firstResult the position of the first event ID of the window, ignoring the pagination of the query.
+     * @param maxResults the size of the window.
+     * @return the IDs of the events.
+     */
+    public List<UUID> getEventIds(String orgId, boolean useNormalized, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
+                                  LocalDateTime startDate, LocalDateTime endDate, Set<EndpointType> endpointTypes, Set<CompositeEndpointType> compositeEndpointTypes,
+                                  Set<Boolean> invocationResults, Set<NotificationStatus> status, Set<Severity> severities, Query query, int firstResult, int maxResults) {
+        return getEventIds(orgId, useNormalized, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, query, Optional.empty(), true, firstResult, maxResults);
+    }
+
+    /**
+     * Loads the given events, sorted according to the query. The events are partitioned on their creation date, so the
+     * date filters and the cursor which selected the events are applied again to restrict the partitions in which the
+     * events are searched. Without any of them, the events are searched in all partitions.
+     * @param eventIds the IDs of the events, usually those of a single page of the event log.
+     * @param startDate the start date filter which selected the events (optional).
+     * @param endDate the end date filter which selected the events (optional).
+     * @return the events.
+     */
+    public List<Event> getEvents(String orgId, boolean useNormalized, List<UUID> eventIds, LocalDateTime startDate, LocalDateTime endDate,
+                                 boolean fetchNotificationHistory, Query query) {
         if (eventIds.isEmpty()) {
             return new ArrayList<>();
         }
 
+        Optional<Sort> sort = Sort.getSort(query, "created:DESC", Event.getSortFields(useNormalized));
+
         String hql;
         if (useNormalized) {
             String joinClause = "JOIN FETCH e.eventType et JOIN FETCH et.application app JOIN FETCH app.bundle bundle ";
@@ -177,13 +198,37 @@ public class EventRepository {
             }
         }
 
-        if (sort.isPresent()) {
+        hql += " AND e.orgId = :orgId";
+        if (startDate != null) {
+            hql += " AND e.created >= :startDate";
+        }
+        if (endDate != null) {
+            hql += " AND e.created <= :endDate";
+        }
+        Optional<Cursor> cursor = query.getCursor();
+        if (cursor.isPresent()) {
+            hql += " AND e.created <= :cursorCreated";
+        }
+
+        if (query.isCursorMode()) {
+            hql += CURSOR_ORDER_BY;
+        } else if (sort.isPresent()) {
             hql += getOrderBy(sort.get());
         }
 
-        List<Event> events = entityManager.createQuery(hql, Event.class)
+        TypedQuery<Event> typedQuery = entityManager.createQuery(hql, Event.class)
                 .setParameter("eventIds", eventIds)
-                .getResultList();
+                .setParameter("orgId", orgId);
+        if (startDate != null) {
+            typedQuery.setParameter("startDate", Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            typedQuery.setParameter("endDate", Timestamp.valueOf(endDate));
+        }
+        if (cursor.isPresent()) {
+            typedQuery.setParameter("cursorCreated", cursor.get().created());
+        }
+        List<Event> events = typedQuery.getResultList();
 
         if (useNormalized && !events.isEmpty()) {
             // LEFT JOIN FETCH on one-to-many can create duplicate Event objects
@@ -209,13 +254,27 @@ public class EventRepository {
                       LocalDateTime startDate, LocalDateTime endDate, Set<EndpointType> endpointTypes,
                       Set<CompositeEndpointType> compositeEndpointTypes, Set<Boolean> invocationResults,
                       Set<NotificationStatus> status, Set<Severity> severities, Optional<List<UUID>> uuidToExclude, Boolean includeEventsWithAuthCriterion) {
+        return count(orgId, useNormalized, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude, includeEventsWithAuthCriterion, 0);
+    }
+
+    /**
+     * Counts the events matching the filters, stopping at the given number of events. Counting all the events of a
+     * large org means scanning all of them, while a capped count only reads the IDs of the first matching events.
+     * @param maxCount the number of events after which the count stops, 0 or less to count all the matching events.
+     * @return the number of matching events, at most {@code maxCount} if it is positive.
+     */
+    public Long count(String orgId, boolean useNormalized, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
+                      LocalDateTime startDate, LocalDateTime endDate, Set<EndpointType> endpointTypes,
+                      Set<CompositeEndpointType> compositeEndpointTypes, Set<Boolean> invocationResults,
+                      Set<NotificationStatus> status, Set<Severity> severities, Optional<List<UUID>> uuidToExclude, boolean includeEventsWithAuthCriterion,
+                      int maxCount) {
 
         // Calculate once for reuse
         boolean bundlesNotEmpty = bundleIds != null && !bundleIds.isEmpty();
         boolean applicationsNotEmpty = appIds != null && !appIds.isEmpty();
         boolean eventTypeNameNotEmpty = eventTypeDisplayName != null;
 
-        String hql = "SELECT COUNT(*) FROM Event e ";
+        String hql = maxCount > 0 ? "SELECT e.id FROM Event e " : "SELECT COUNT(*) FROM Event e ";
 
         // Add selective JOINs for normalized approach - only join what we need
         if (useNormalized && (bundlesNotEmpty || applicationsNotEmpty || eventTypeNameNotEmpty)) {
@@ -234,6 +293,13 @@ public class EventRepository {
 
         hql = addHqlConditions(hql, useNormalized, bundlesNotEmpty, applicationsNotEmpty, eventTypeNameNotEmpty, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude, includeEventsWithAuthCriterion);
 
+        if (maxCount > 0) {
+            TypedQuery<UUID> query = entityManager.createQuery(hql, UUID.class);
+            setQueryParams(query, orgId, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude);
+            query.setMaxResults(maxCount);
+            return (long) query.getResultList().size();
+        }
+
         TypedQuery<Long> query = entityManager.createQuery(hql, Long.class);
         setQueryParams(query, orgId, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude);
 
@@ -250,7 +316,8 @@ public class EventRepository {
 
     private List<UUID> getEventIds(String orgId, boolean useNormalized, Set<UUID> bundleIds, Set<UUID> appIds, String eventTypeDisplayName,
                                         LocalDateTime startDate, LocalDateTime endDate, Set<EndpointType> endpointTypes, Set<CompositeEndpointType> compositeEndpointTypes,
-                                        Set<Boolean> invocationResults, Set<NotificationStatus> status, Set<Severity> severities, Query query, Optional<List<UUID>> uuidToExclude, boolean includeEventsWithAuthCriterion) {
+                                        Set<Boolean> invocationResults, Set<NotificationStatus> status, Set<Severity> severities, Query query, Optional<List<UUID>> uuidToExclude, boolean includeEventsWithAuthCriterion,
+                                        int firstResult, int maxResults) {
         boolean bundlesNotEmpty = bundleIds != null && !bundleIds.isEmpty();
         boolean applicationsNotEmpty = appIds != null && !appIds.isEmpty();
         boolean eventTypeNameNotEmpty = eventTypeDisplayName != null;
@@ -282,17 +349,26 @@ public class EventRepository {
 
         hql = addHqlConditions(hql, useNormalized, bundlesNotEmpty, applicationsNotEmpty, eventTypeNameNotEmpty, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude, includeEventsWithAuthCriterion);
 
-        if (sort.isPresent()) {
+        Optional<Cursor> cursor = query.getCursor();
+        if (cursor.isPresent()) {
+            hql += CURSOR_CONDITION;
+        }
+
+        if (query.isCursorMode()) {
+            hql += CURSOR_ORDER_BY;
+        } else if (sort.isPresent()) {
             hql += getOrderBy(sort.get());
         }
 
         TypedQuery<UUID> typedQuery = entityManager.createQuery(hql, UUID.class);
         setQueryParams(typedQuery, orgId, bundleIds, appIds, eventTypeDisplayName, startDate, endDate, endpointTypes, compositeEndpointTypes, invocationResults, status, severities, uuidToExclude);
+        if (cursor.isPresent()) {
+            typedQuery.setParameter("cursorCreated", cursor.get().created());
+            typedQuery.setParameter("cursorId", cursor.get().id());
+        }
 
-        Query.Limit limit = query.getLimit();
-
-        typedQuery.setMaxResults(limit.getLimit());
-        typedQuery.setFirstResult(limit.getOffset());
+        typedQuery.setMaxResults(maxResults);
+        typedQuery.setFirstResult(firstResult);
 
         return typedQuery.getResultList();
     }
@@ -87,6 +87,22 @@ public class SubscriptionRepository {
             .setParameter("subscribed", subscribed)
             .setParameter("severities", jsonSeverities)
             .executeUpdate();
+
+        bumpSubscriptionsVersion(orgId);
+    }
+
+    /**
+     * Bumps the subscriptions version of an org, which invalidates the subscribers cached by the engine for that org.
+     * This must be called in the same transaction as the change to the subscriptions of the org.
+     * @param orgId the org ID.
+     */
+    private void bumpSubscriptionsVersion(String orgId) {
+        String sql = "INSERT INTO email_subscriptions_version (org_id, version, updated) VALUES (:orgId, 1, now() AT TIME ZONE 'UTC') " +
+            "ON CONFLICT (org_id) DO UPDATE SET version = email_subscriptions_version.version + 1, updated = EXCLUDED.updated";
+
+        entityManager.createNativeQuery(sql)
+            .setParameter("orgId", orgId)
+            .executeUpdate();
     }
 
     private void checkIfSubscriptionTypeIsSupportedForCurrentEventType(UUID eventTypeId, SubscriptionType subscriptionType) {
@@ -117,10 +133,14 @@ public class SubscriptionRepository {
     public void resubscribeAllUsersIfNeeded(UUID eventTypeId) {
         EventType eventType = entityManager.find(EventType.class, eventTypeId);
         if (eventType != null && eventType.isSubscribedByDefault() && eventType.isSubscriptionLocked()) {
-            // We're not actually subscribing the users but rather removing any existing unsubscriptions from the DB.
-            String hql = "DELETE FROM EventTypeEmailSubscription " +
-                    "WHERE eventType.id = :eventTypeId AND NOT subscribed";
-            entityManager.createQuery(hql)
+            /*
+             * We're not actually subscribing the users but rather removing any existing unsubscriptions from the DB.
+             * The subscriptions version of each org which had unsubscriptions is bumped in the same statement.
+             */
+            String sql = "WITH deleted AS (DELETE FROM email_subscriptions WHERE event_type_id = :eventTypeId AND NOT subscribed RETURNING org_id) " +
+                    "INSERT INTO email_subscriptions_version (org_id, version, updated) SELECT DISTINCT org_id, 1, now() AT TIME ZONE 'UTC' FROM deleted " +
+                    "ON CONFLICT (org_id) DO UPDATE SET version = email_subscriptions_version.version + 1, updated = EXCLUDED.updated";
+            entityManager.createNativeQuery(sql)
                     .setParameter("eventTypeId", eventTypeId)
                     .executeUpdate();
         }
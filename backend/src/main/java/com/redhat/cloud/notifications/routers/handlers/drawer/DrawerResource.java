@@ -1,12 +1,13 @@
 package com.redhat.cloud.notifications.routers.handlers.drawer;
 
-import com.redhat.cloud.notifications.auth.kessel.KesselInventoryAuthorization;
 import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.db.Cursor;
+import com.redhat.cloud.notifications.db.EventLogQuery;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.db.repositories.DrawerNotificationRepository;
 import com.redhat.cloud.notifications.db.repositories.EventRepository;
 import com.redhat.cloud.notifications.models.DrawerEntryPayload;
-import com.redhat.cloud.notifications.routers.handlers.event.EventAuthorizationCriterion;
+import com.redhat.cloud.notifications.routers.handlers.event.EventVisibilityFilter;
 import com.redhat.cloud.notifications.routers.models.Meta;
 import com.redhat.cloud.notifications.routers.models.Page;
 import com.redhat.cloud.notifications.routers.models.PageLinksBuilder;
@@ -27,14 +28,15 @@ import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameters;
 import org.jboss.resteasy.reactive.RestQuery;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -60,7 +62,7 @@ public class DrawerResource {
     EventRepository eventRepository;
 
     @Inject
-    KesselInventoryAuthorization kesselInventoryAuthorization;
+    EventVisibilityFilter eventVisibilityFilter;
 
     @GET
     @Produces(APPLICATION_JSON)
@@ -71,33 +73,84 @@ public class DrawerResource {
             "Sorting can be specified by appending `:asc` or `:desc` to the field, e.g. `bundle:desc`. " +
             "Defaults to `created:desc`."
     )
-    @Parameter(
-        name = "limit",
-        in = ParameterIn.QUERY,
-        description = "Number of items per page, if not specified " + DEFAULT_RESULTS_PER_PAGE + " is used",
-        schema = @Schema(type = SchemaType.INTEGER, defaultValue = DEFAULT_RESULTS_PER_PAGE + "")
-    )
+    @Parameters({
+        @Parameter(
+            name = "limit",
+            in = ParameterIn.QUERY,
+            description = "Number of items per page, if not specified " + DEFAULT_RESULTS_PER_PAGE + " is used",
+            schema = @Schema(type = SchemaType.INTEGER, defaultValue = DEFAULT_RESULTS_PER_PAGE + "")
+        ),
+        @Parameter(
+            name = "cursor",
+            in = ParameterIn.QUERY,
+            description = "Opts into the cursor pagination. Use an empty value for the first page, then follow the 'next' link. "
+                + "Only the default `created:desc` sort is supported and the count may be capped, which is reported by the "
+                + "'countCapped' field of the metadata.",
+            schema = @Schema(type = SchemaType.STRING)
+        )
+    })
     public Page<DrawerEntryPayload> getDrawerEntries(@Context SecurityContext securityContext, @Context UriInfo uriInfo,
                                          @RestQuery Set<UUID> bundleIds, @RestQuery Set<UUID> appIds,
                                          @RestQuery Set<UUID> eventTypeIds, @RestQuery LocalDateTime startDate, @RestQuery LocalDateTime endDate,
                                          @RestQuery Boolean readStatus,
-                                         @BeanParam @Valid Query query) {
+                                         @BeanParam @Valid EventLogQuery query) {
 
         String orgId = getOrgId(securityContext);
         String username = getUsername(securityContext);
         LocalDateTime start = LocalDateTime.now();
         List<DrawerEntryPayload> drawerEntries = new ArrayList<>();
         Long count = 0L;
+        boolean cursorMode = query.isCursorMode();
+        // The next page of a cursor pagination is found without the total count, it does not need to be exact.
+        int countCap = cursorMode ? backendConfig.getEventLogCountCap() : 0;
         if (backendConfig.isDrawerEnabled(orgId)) {
 
-            List<UUID> excludedEventIds = computeExcludedEventIds(
-                securityContext, orgId, username, startDate, endDate
-            );
+            List<UUID> excludedEventIds = new ArrayList<>();
+            boolean visibleEventsCounted = false;
+            if (backendConfig.isKesselChecksOnEventLogEnabled(orgId)) {
+                Log.info("Check for drawer events with authorization criterion");
+                Query.Limit limit = query.getLimit();
+                int visibleEventsNeeded = limit.getOffset() + limit.getLimit();
+                int visibleEventsCount = 0;
+                int firstResult = 0;
+                int windowSize = Math.max(visibleEventsNeeded, EventVisibilityFilter.MIN_WINDOW_SIZE);
+                boolean endReached = false;
+                /*
+                 * Like the event log, the authorization criteria are only evaluated for the events which precede the
+                 * end of the requested page. The hidden events found in the scanned windows are then excluded from the
+                 * page and from the count.
+                 */
+                while (visibleEventsCount < visibleEventsNeeded && !endReached) {
+                    List<UUID> windowEventIds = drawerRepository.getNotificationIds(
+                        orgId, username, bundleIds, appIds, eventTypeIds,
+                        startDate, endDate, readStatus, query, firstResult, windowSize
+                    );
+                    Set<UUID> hiddenEventIds = eventVisibilityFilter.findHiddenEvents(securityContext, eventRepository.getEventsWithCriterion(orgId, windowEventIds));
+                    for (UUID eventId : windowEventIds) {
+                        if (hiddenEventIds.contains(eventId)) {
+                            excludedEventIds.add(eventId);
+                        } else {
+                            visibleEventsCount++;
+                        }
+                    }
+                    endReached = windowEventIds.size() < windowSize;
+                    firstResult += windowEventIds.size();
+                    windowSize = Math.min(windowSize * 2, Math.max(visibleEventsNeeded, EventVisibilityFilter.MAX_WINDOW_SIZE));
+                }
+                // In cursor mode, the hidden events were only searched after the cursor and the count covers all the notifications.
+                if (endReached && !cursorMode) {
+                    count = (long) visibleEventsCount;
+                    visibleEventsCounted = true;
+                }
+            }
 
-            count = drawerRepository.count(
-                orgId, username, bundleIds, appIds, eventTypeIds,
-                startDate, endDate, readStatus, excludedEventIds
-            );
+            if (!visibleEventsCounted) {
+                // The notifications after the page were not checked, the count is an upper bound of the visible notifications.
+                count = drawerRepository.count(
+                    orgId, username, bundleIds, appIds, eventTypeIds,
+                    startDate, endDate, readStatus, excludedEventIds, countCap > 0 ? countCap + 1 : 0
+                );
+            }
             if (count > 0) {
                 drawerEntries = drawerRepository.getNotifications(
                     orgId, username, bundleIds, appIds, eventTypeIds,
@@ -111,9 +164,24 @@ public class DrawerResource {
             orgId,
             username);
         Meta meta = new Meta();
-        meta.setCount(count);
-
-        Map<String, String> links = PageLinksBuilder.build(uriInfo, count, query);
+        Map<String, String> links;
+        if (cursorMode) {
+            if (countCap > 0 && count > countCap) {
+                meta.setCount((long) countCap);
+                meta.setCountCapped(true);
+            } else {
+                meta.setCount(count);
+            }
+            Optional<String> nextCursor = Optional.empty();
+            if (drawerEntries.size() == query.getLimit().getLimit()) {
+                DrawerEntryPayload lastEntry = drawerEntries.getLast();
+                nextCursor = Optional.of(new Cursor(lastEntry.getCreated(), lastEntry.getEventId()).encode());
+            }
+            links = PageLinksBuilder.buildWithCursor(uriInfo, query.getLimit().getLimit(), nextCursor);
+        } else {
+            meta.setCount(count);
+            links = PageLinksBuilder.build(uriInfo, count, query);
+        }
 
         Page<DrawerEntryPayload> page = new Page<>();
         page.setData(drawerEntries);
@@ -133,50 +201,4 @@ public class DrawerResource {
         String username = getUsername(securityContext);
         return drawerRepository.updateReadStatus(orgId, username, drawerStatus.getNotificationIds(), drawerStatus.getReadStatus());
     }
-
-    /**
-     * Compute excluded event IDs based on authorization checks.
-     */
-    private List<UUID> computeExcludedEventIds(SecurityContext securityContext,
-                                               String orgId,
-                                               String username,
-                                               LocalDateTime startDate,
-                                               LocalDateTime endDate) {
-        List<UUID> uuidToExclude = new ArrayList<>();
-
-        if (!backendConfig.isKesselChecksOnEventLogEnabled(orgId)) {
-            return uuidToExclude;
-        }
-
-        boolean useNormalized = backendConfig.isNormalizedQueriesEnabled(orgId);
-        Set<UUID> subscribedEventTypes = drawerRepository.getSubscribedEventTypes(orgId, username);
-
-        if (subscribedEventTypes.isEmpty()) {
-            return uuidToExclude;
-        }
-
-        Log.info("Check for drawer events with authorization criterion");
-        List<EventAuthorizationCriterion> listEventsAuthCriterion =
-            eventRepository.getDrawerEventsWithCriterion(
-                orgId, useNormalized, subscribedEventTypes, startDate, endDate
-            );
-
-        Map<Integer, Boolean> criterionResultCache = new HashMap<>();
-        for (EventAuthorizationCriterion eventAuthorizationCriterion : listEventsAuthCriterion) {
-            int criterionHashCode = eventAuthorizationCriterion.authorizationCriterion().hashCode();
-            if (!criterionResultCache.containsKey(criterionHashCode)) {
-                criterionResultCache.put(criterionHashCode,
-                    kesselInventoryAuthorization.hasPermissionOnResource(
-                        securityContext,
-                        eventAuthorizationCriterion.authorizationCriterion()
-                    ));
-            }
-            if (!criterionResultCache.get(criterionHashCode)) {
-                Log.infof("%s is not visible for current user", eventAuthorizationCriterion.id());
-                uuidToExclude.add(eventAuthorizationCriterion.id());
-            }
-        }
-
-        return uuidToExclude;
-    }
 }
@@ -3,8 +3,9 @@ package com.redhat.cloud.notifications.routers.handlers.event;
 import com.redhat.cloud.notifications.Severity;
 import com.redhat.cloud.notifications.auth.ConsoleIdentityProvider;
 import com.redhat.cloud.notifications.auth.annotation.Authorization;
-import com.redhat.cloud.notifications.auth.kessel.KesselInventoryAuthorization;
 import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.db.Cursor;
+import com.redhat.cloud.notifications.db.EventLogQuery;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.db.repositories.EventRepository;
 import com.redhat.cloud.notifications.models.CompositeEndpointType;
@@ -46,7 +47,6 @@ import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -80,7 +80,7 @@ public class EventResource {
     EventRepository eventRepository;
 
     @Inject
-    KesselInventoryAuthorization kesselInventoryAuthorization;
+    EventVisibilityFilter eventVisibilityFilter;
 
     @Inject
     MeterRegistry meterRegistry;
@@ -105,6 +105,14 @@ public class EventResource {
             description = "Number of items per page, if not specified " + DEFAULT_RESULTS_PER_PAGE + " is used.",
             schema = @Schema(type = SchemaType.INTEGER, defaultValue = DEFAULT_RESULTS_PER_PAGE + "")
         ),
+        @Parameter(
+            name = "cursor",
+            in = ParameterIn.QUERY,
+            description = "Opts into the cursor pagination, which is faster than the offset pagination for large event logs. "
+                + "Use an empty value for the first page, then follow the 'next' link. Only the default 'created:desc' sort is supported "
+                + "and the count may be capped, which is reported by the 'countCapped' field of the metadata.",
+            schema = @Schema(type = SchemaType.STRING)
+        ),
         @Parameter(
             name = "startDate",
             in = ParameterIn.QUERY,
@@ -126,7 +134,7 @@ public class EventResource {
                                          @RestQuery String eventTypeDisplayName, @RestQuery String startDate, @RestQuery String endDate,
                                          @RestQuery Set<String> endpointTypes, @RestQuery Set<Boolean> invocationResults,
                                          @RestQuery Set<EventLogEntryActionStatus> status, @RestQuery Set<Severity> severities,
-                                         @BeanParam @Valid Query query,
+                                         @BeanParam @Valid EventLogQuery query,
                                          @RestQuery boolean includeDetails, @RestQuery boolean includePayload, @RestQuery boolean includeActions) {
         LocalDateTime startDateTime = parseDate(startDate, "startDate", LocalDate::atStartOfDay);
         LocalDateTime endDateTime = parseDate(endDate, "endDate", date -> date.atTime(LocalTime.MAX));
@@ -157,39 +165,67 @@ public class EventResource {
         boolean useNormalizedQueries = backendConfig.isNormalizedQueriesEnabled(orgId);
         Timer.Sample timerSample = Timer.start(meterRegistry);
 
+        boolean cursorMode = query.isCursorMode();
+        // The next page of a cursor pagination is found without the total count, it does not need to be exact.
+        int countCap = cursorMode ? backendConfig.getEventLogCountCap() : 0;
+        int maxCount = countCap > 0 ? countCap + 1 : 0;
+
         try {
             List<Event> events;
             Long count;
             if (backendConfig.isKesselChecksOnEventLogEnabled(orgId)) {
                 Log.info("Check for events with authorization criterion");
-                List<EventAuthorizationCriterion> listEventsAuthCriterion = eventRepository.getEventsWithCriterion(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet);
-                List<UUID> uuidToExclude = new ArrayList<>();
-                Map<Integer, Boolean> criterionResultCache = new HashMap<>();
-                for (EventAuthorizationCriterion eventAuthorizationCriterion : listEventsAuthCriterion) {
-                    int criterionHashCode = eventAuthorizationCriterion.authorizationCriterion().hashCode();
-                    if (!criterionResultCache.containsKey(criterionHashCode)) {
-                        criterionResultCache.put(criterionHashCode, kesselInventoryAuthorization.hasPermissionOnResource(securityContext, eventAuthorizationCriterion.authorizationCriterion()));
-                    }
-                    if (!criterionResultCache.get(criterionHashCode)) {
-                        Log.infof("%s is not visible for current user", eventAuthorizationCriterion.id());
-                        uuidToExclude.add(eventAuthorizationCriterion.id());
+                Query.Limit limit = query.getLimit();
+                int visibleEventsNeeded = limit.getOffset() + limit.getLimit();
+                List<UUID> visibleEventIds = new ArrayList<>();
+                int hiddenEventsCount = 0;
+                int firstResult = 0;
+                int windowSize = Math.max(visibleEventsNeeded, EventVisibilityFilter.MIN_WINDOW_SIZE);
+                boolean endReached = false;
+                /*
+                 * The authorization criteria are only evaluated for the events which precede the end of the requested
+                 * page. The window of events is widened until it contains enough visible events to fill the page.
+                 */
+                while (visibleEventIds.size() < visibleEventsNeeded && !endReached) {
+                    List<UUID> windowEventIds = eventRepository.getEventIds(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet, severities, query, firstResult, windowSize);
+                    Set<UUID> hiddenEventIds = eventVisibilityFilter.findHiddenEvents(securityContext, eventRepository.getEventsWithCriterion(orgId, windowEventIds));
+                    for (UUID eventId : windowEventIds) {
+                        if (!hiddenEventIds.contains(eventId)) {
+                            visibleEventIds.add(eventId);
+                        }
                     }
+                    hiddenEventsCount += hiddenEventIds.size();
+                    endReached = windowEventIds.size() < windowSize;
+                    firstResult += windowEventIds.size();
+                    windowSize = Math.min(windowSize * 2, Math.max(visibleEventsNeeded, EventVisibilityFilter.MAX_WINDOW_SIZE));
                 }
-                if (uuidToExclude.isEmpty()) {
-                    uuidToExclude = null;
+
+                List<UUID> pageEventIds = visibleEventIds.subList(Math.min(limit.getOffset(), visibleEventIds.size()), Math.min(visibleEventsNeeded, visibleEventIds.size()));
+                events = eventRepository.getEvents(orgId, useNormalizedQueries, pageEventIds, startDateTime, endDateTime, includeActions, query);
+                if (endReached && !cursorMode) {
+                    count = (long) visibleEventIds.size();
+                } else {
+                    /*
+                     * The events after the page were not checked, the count is an upper bound of the visible events. In cursor
+                     * mode, the hidden events were only searched after the cursor and the count covers the whole event log.
+                     */
+                    count = eventRepository.count(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet, severities, Optional.empty(), true, maxCount);
+                    if (!isCountCapped(count, countCap)) {
+                        count -= hiddenEventsCount;
+                    }
                 }
-                events = eventRepository.getEvents(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, includeActions, notificationStatusSet, severities, query, Optional.ofNullable(uuidToExclude), true);
-                count = eventRepository.count(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet, severities, Optional.ofNullable(uuidToExclude), true);
             } else {
                 events = eventRepository.getEvents(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, includeActions, notificationStatusSet, severities, query, Optional.empty(), false);
-                count = eventRepository.count(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet, severities, Optional.empty(), false);
+                count = eventRepository.count(orgId, useNormalizedQueries, bundleIds, appIds, eventTypeDisplayName, startDateTime, endDateTime, basicTypes, compositeTypes, invocationResults, notificationStatusSet, severities, Optional.empty(), false, maxCount);
             }
 
             if (events.isEmpty()) {
                 Meta meta = new Meta();
                 meta.setCount(0L);
 
-                Map<String, String> links = PageLinksBuilder.build(uriInfo, 0, query);
+                Map<String, String> links = cursorMode
+                    ? PageLinksBuilder.buildWithCursor(uriInfo, query.getLimit().getLimit(), Optional.empty())
+                    : PageLinksBuilder.build(uriInfo, 0, query);
 
                 Page<EventLogEntry> page = new Page<>();
                 page.setData(new ArrayList<>());
@@ -237,9 +273,24 @@ public class EventResource {
             }).collect(Collectors.toList());
 
             Meta meta = new Meta();
-            meta.setCount(count);
-
-            Map<String, String> links = PageLinksBuilder.build(uriInfo, count, query);
+            Map<String, String> links;
+            if (cursorMode) {
+                if (isCountCapped(count, countCap)) {
+                    meta.setCount((long) countCap);
+                    meta.setCountCapped(true);
+                } else {
+                    meta.setCount(count);
+                }
+                Optional<String> nextCursor = Optional.empty();
+                if (events.size() == query.getLimit().getLimit()) {
+                    Event lastEvent = events.getLast();
+                    nextCursor = Optional.of(new Cursor(lastEvent.getCreated(), lastEvent.getId()).encode());
+                }
+                links = PageLinksBuilder.buildWithCursor(uriInfo, query.getLimit().getLimit(), nextCursor);
+            } else {
+                meta.setCount(count);
+                links = PageLinksBuilder.build(uriInfo, count, query);
+            }
 
             Page<EventLogEntry> page = new Page<>();
             page.setData(eventLogEntries);
@@ -251,6 +302,10 @@ public class EventResource {
         }
     }
 
+    private static boolean isCountCapped(long count, int countCap) {
+        return countCap > 0 && count > countCap;
+    }
+
     // dateOnlyMapper expands a date-only value to start/end of day, preserving the pre-existing whole-day filtering behavior
     private static LocalDateTime parseDate(String value, String paramName, Function<LocalDate, LocalDateTime> dateOnlyMapper) {
         if (value == null) {
@@ -0,0 +1,147 @@
+package com.redhat.cloud.notifications.routers.handlers.event;
+
+import com.redhat.cloud.notifications.auth.kessel.KesselInventoryAuthorization;
+import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.SecurityContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static com.redhat.cloud.notifications.routers.SecurityContextUtil.extractRhIdentity;
+import static com.redhat.cloud.notifications.routers.SecurityContextUtil.getOrgId;
+
+/**
+ * Decides which events carrying an authorization criterion are visible to the user of a request, on behalf of the
+ * event log and the drawer. Each distinct criterion is checked once against Kessel, the checks run concurrently and
+ * the decisions are cached per user for the duration configured for the {@code kessel-event-visibility} cache.
+ */
+@ApplicationScoped
+public class EventVisibilityFilter {
+
+    /*
+     * Bounds of the windows of events scanned by the event log and the drawer to fill a page with visible events. The
+     * first window covers at least the requested page and each following window is twice as large.
+     */
+    public static final int MIN_WINDOW_SIZE = 50;
+    public static final int MAX_WINDOW_SIZE = 1000;
+
+    @Inject
+    BackendConfig backendConfig;
+
+    @Inject
+    KesselInventoryAuthorization kesselInventoryAuthorization;
+
+    @CacheName("kessel-event-visibility")
+    Cache visibilityCache;
+
+    /**
+     * Returns the IDs of the given events which are not visible to the user of the request.
+     * @param securityContext the security context of the request.
+     * @param events the events and their authorization criterion.
+     * @return the IDs of the hidden events.
+     */
+    public Set<UUID> findHiddenEvents(SecurityContext securityContext, List<EventAuthorizationCriterion> events) {
+        Map<RecipientsAuthorizationCriterion, List<UUID>> eventIdsByCriterion = new HashMap<>();
+        for (EventAuthorizationCriterion event : events) {
+            if (event.authorizationCriterion() != null) {
+                eventIdsByCriterion.computeIfAbsent(event.authorizationCriterion(), unused -> new ArrayList<>()).add(event.id());
+            }
+        }
+
+        Set<UUID> hiddenEventIds = new HashSet<>();
+        Map<RecipientsAuthorizationCriterion, Boolean> decisions = checkCriteria(securityContext, eventIdsByCriterion.keySet());
+        decisions.forEach((criterion, visible) -> {
+            if (!visible) {
+                Log.infof("%s is not visible for current user", eventIdsByCriterion.get(criterion));
+                hiddenEventIds.addAll(eventIdsByCriterion.get(criterion));
+            }
+        });
+        return hiddenEventIds;
+    }
+
+    private Map<RecipientsAuthorizationCriterion, Boolean> checkCriteria(SecurityContext securityContext, Set<RecipientsAuthorizationCriterion> criteria) {
+        String orgId = getOrgId(securityContext);
+        String userId = extractRhIdentity(securityContext).getUserId();
+
+        Map<RecipientsAuthorizationCriterion, Boolean> decisions = new HashMap<>();
+        int maxConcurrentChecks = backendConfig.getKesselMaxConcurrentChecks();
+        if (criteria.size() <= 1 || maxConcurrentChecks <= 1) {
+            for (RecipientsAuthorizationCriterion criterion : criteria) {
+                decisions.put(criterion, isVisible(securityContext, orgId, userId, criterion));
+            }
+            return decisions;
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrentChecks);
+        List<Future<Map.Entry<RecipientsAuthorizationCriterion, Boolean>>> checks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // The decisions are awaited in their completion order, so that the first failure cancels the pending checks.
+            CompletionService<Map.Entry<RecipientsAuthorizationCriterion, Boolean>> completionService = new ExecutorCompletionService<>(executor);
+            for (RecipientsAuthorizationCriterion criterion : criteria) {
+                checks.add(completionService.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return Map.entry(criterion, isVisible(securityContext, orgId, userId, criterion));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            try {
+                for (int i = 0; i < checks.size(); i++) {
+                    Map.Entry<RecipientsAuthorizationCriterion, Boolean> decision = awaitNextCheck(completionService);
+                    decisions.put(decision.getKey(), decision.getValue());
+                }
+            } catch (RuntimeException e) {
+                checks.forEach(check -> check.cancel(true));
+                throw e;
+            }
+        }
+        return decisions;
+    }
+
+    /*
+     * KesselInventoryAuthorization#hasPermissionOnResource returns false when Kessel cannot be reached. That decision
+     * is cached like any other, which hides the events until the cache entry expires rather than retrying Kessel for
+     * each page view while it is unavailable.
+     */
+    private boolean isVisible(SecurityContext securityContext, String orgId, String userId, RecipientsAuthorizationCriterion criterion) {
+        return visibilityCache.get(new VisibilityKey(orgId, userId, criterion),
+            unused -> kesselInventoryAuthorization.hasPermissionOnResource(securityContext, criterion)
+        ).await().indefinitely();
+    }
+
+    private static <T> T awaitNextCheck(CompletionService<T> completionService) {
+        try {
+            return completionService.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the visibility of the events", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record VisibilityKey(String orgId, String userId, RecipientsAuthorizationCriterion criterion) { }
+}
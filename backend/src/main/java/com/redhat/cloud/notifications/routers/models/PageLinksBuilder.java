@@ -8,6 +8,7 @@ import jakarta.ws.rs.core.UriInfo;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class PageLinksBuilder {
 
@@ -37,6 +38,35 @@ public class PageLinksBuilder {
         return buildLinks(baseBuilder, count, limit, currentOffset);
     }
 
+    /**
+     * Builds the links of a page paginated with a cursor. There is no 'last' or 'prev' link, the pages can only be
+     * walked forward from the first one.
+     * @param uriInfo the URI of the request, its query parameters are preserved.
+     * @param limit the size of the page.
+     * @param nextCursor the encoded cursor of the next page, empty if the page is the last one.
+     * @return the links of the page.
+     */
+    public static Map<String, String> buildWithCursor(UriInfo uriInfo, long limit, Optional<String> nextCursor) {
+        UriBuilder baseBuilder = UriBuilder.fromPath(uriInfo.getPath());
+
+        MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+        for (Map.Entry<String, List<String>> entry : queryParams.entrySet()) {
+            for (String value : entry.getValue()) {
+                baseBuilder.queryParam(entry.getKey(), value);
+            }
+        }
+
+        // The offset is ignored in cursor mode, it is removed to avoid any confusion.
+        baseBuilder.replaceQueryParam("offset");
+        baseBuilder.replaceQueryParam("pageNumber");
+        baseBuilder.replaceQueryParam("limit", limit);
+
+        Map<String, String> links = new HashMap<>();
+        links.put("first", baseBuilder.clone().replaceQueryParam("cursor", "").toTemplate());
+        nextCursor.ifPresent(cursor -> links.put("next", baseBuilder.clone().replaceQueryParam("cursor", cursor).toTemplate()));
+        return links;
+    }
+
     public static Map<String, String> build(String apiPath, long count, long limit, long currentOffset) {
         UriBuilder baseBuilder = UriBuilder.fromPath(apiPath)
                 .queryParam("limit", limit);
@@ -508,6 +508,8 @@ public class ApplicationRepositoryTest extends DbIsolatedTest {
         newSeverities.add(Severity.IMPORTANT);
         updatedEventType.setAvailableSeverities(newSeverities);
 
+        long initialVersion = getSubscriptionsVersion(testOrgId);
+
         // Call the method under test
         int rowCount = applicationRepository.updateEventType(eventType.getId(), updatedEventType);
 
@@ -529,5 +531,15 @@ public class ApplicationRepositoryTest extends DbIsolatedTest {
         assertTrue(updatedSeverities.contains("\"MODERATE\""), "Severities JSON should contain MODERATE key");
         assertTrue(updatedSeverities.contains("\"MODERATE\":false") || updatedSeverities.contains("\"MODERATE\": false"),
                 "MODERATE severity should be set to false");
+
+        // The subscriptions version of the org must be bumped to invalidate the subscribers cached by the engine
+        assertEquals(initialVersion + 1, getSubscriptionsVersion(testOrgId));
+    }
+
+    private long getSubscriptionsVersion(String orgId) {
+        List<?> versions = entityManager.createNativeQuery("SELECT version FROM email_subscriptions_version WHERE org_id = :orgId")
+                .setParameter("orgId", orgId)
+                .getResultList();
+        return versions.isEmpty() ? 0L : ((Number) versions.getFirst()).longValue();
     }
 }
@@ -1,7 +1,9 @@
 package com.redhat.cloud.notifications.db.repositories;
 
 import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.db.Cursor;
 import com.redhat.cloud.notifications.db.DbIsolatedTest;
+import com.redhat.cloud.notifications.db.EventLogQuery;
 import com.redhat.cloud.notifications.db.Query;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.models.Application;
@@ -260,6 +262,48 @@ public class DrawerNotificationRepositoryTest extends DbIsolatedTest {
         assertNotEquals(page1.get(0).getEventId(), page2.get(0).getEventId());
     }
 
+    @Test
+    void testGetNotifications_CursorPagination() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> eventIds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            // Events created at the same time are ordered by ID, the pages must not skip or repeat them.
+            eventIds.add(createDrawerEventAtTime(orgId, "bundle1", "app1", "event-type-1", now.minusMinutes(i / 2)).getId());
+        }
+
+        EventLogQuery query = new EventLogQuery();
+        setQueryField(query, "pageSize", 2);
+        setCursor(query, "");
+
+        Set<UUID> pagedEventIds = new HashSet<>();
+        int pages = 0;
+        List<DrawerEntryPayload> page;
+        do {
+            page = drawerNotificationRepository.getNotifications(
+                orgId, username, null, null, null, null, null, null, query, null
+            );
+            pages++;
+            page.forEach(entry -> assertTrue(pagedEventIds.add(entry.getEventId()), "An event was returned twice"));
+            if (!page.isEmpty()) {
+                DrawerEntryPayload lastEntry = page.getLast();
+                setCursor(query, new Cursor(lastEntry.getCreated(), lastEntry.getEventId()).encode());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(3, pages);
+        assertEquals(eventIds, pagedEventIds);
+    }
+
+    @Test
+    void testCount_Capped() {
+        for (int i = 0; i < 5; i++) {
+            createDrawerEvent(orgId, "bundle1", "app1", "event-type-1");
+        }
+
+        assertEquals(3L, drawerNotificationRepository.count(orgId, username, null, null, null, null, null, null, null, 3));
+        assertEquals(5L, drawerNotificationRepository.count(orgId, username, null, null, null, null, null, null, null, 10));
+    }
+
     @Test
     void testGetNotifications_DateRangeFilter() {
         LocalDateTime now = LocalDateTime.now();
@@ -452,7 +496,7 @@ public class DrawerNotificationRepositoryTest extends DbIsolatedTest {
     @Transactional
     void markAsRead(UUID eventId, String orgId, String userId) {
         entityManager.createNativeQuery(
-                "INSERT INTO drawer_read_status (org_id, user_id, event_id) VALUES (:orgId, :userId, :eventId)"
+                "INSERT INTO drawer_read_status (org_id, user_id, event_id, event_created) SELECT :orgId, :userId, id, created FROM event WHERE id = :eventId"
             )
             .setParameter("orgId", orgId)
             .setParameter("userId", userId)
@@ -479,6 +523,16 @@ public class DrawerNotificationRepositoryTest extends DbIsolatedTest {
         return query;
     }
 
+    private void setCursor(EventLogQuery query, String cursor) {
+        try {
+            java.lang.reflect.Field field = EventLogQuery.class.getDeclaredField("cursor");
+            field.setAccessible(true);
+            field.set(query, cursor);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to set query cursor", e);
+        }
+    }
+
     private void setQueryField(Query query, String fieldName, Object value) {
         try {
             java.lang.reflect.Field field = Query.class.getDeclaredField(fieldName);
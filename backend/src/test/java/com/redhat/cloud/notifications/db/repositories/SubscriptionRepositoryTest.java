@@ -12,6 +12,7 @@ import com.redhat.cloud.notifications.models.SubscriptionType;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -36,6 +37,9 @@ public class SubscriptionRepositoryTest extends DbIsolatedTest {
     @Inject
     SubscriptionRepository subscriptionRepository;
 
+    @Inject
+    EntityManager entityManager;
+
     /**
      * Tests that the function under test only finds mixed cased user IDs from
      * email subscriptions.
@@ -91,6 +95,34 @@ public class SubscriptionRepositoryTest extends DbIsolatedTest {
         }
     }
 
+    /**
+     * Tests that the subscriptions version of an org is bumped each time a
+     * subscription of that org changes, which invalidates the subscribers
+     * cached by the engine.
+     */
+    @Test
+    void testUpdateSubscriptionBumpsVersion() {
+        Mockito.when(this.backendConfig.isDefaultTemplateEnabled()).thenReturn(true);
+
+        final Bundle bundle = this.resourceHelpers.createBundle("version-bundle");
+        final Application application = this.resourceHelpers.createApplication(bundle.getId(), "version-application");
+        final EventType eventType = this.resourceHelpers.createEventType(application.getId(), "version-event-type");
+
+        final long initialVersion = this.getSubscriptionsVersion(DEFAULT_ORG_ID);
+        this.subscriptionRepository.updateSubscription(DEFAULT_ORG_ID, "username", eventType.getId(), SubscriptionType.INSTANT, true, null);
+        Assertions.assertEquals(initialVersion + 1, this.getSubscriptionsVersion(DEFAULT_ORG_ID));
+
+        this.subscriptionRepository.updateSubscription(DEFAULT_ORG_ID, "username", eventType.getId(), SubscriptionType.INSTANT, false, null);
+        Assertions.assertEquals(initialVersion + 2, this.getSubscriptionsVersion(DEFAULT_ORG_ID));
+    }
+
+    private long getSubscriptionsVersion(final String orgId) {
+        final List<?> versions = this.entityManager.createNativeQuery("SELECT version FROM email_subscriptions_version WHERE org_id = :orgId")
+            .setParameter("orgId", orgId)
+            .getResultList();
+        return versions.isEmpty() ? 0L : ((Number) versions.getFirst()).longValue();
+    }
+
     private Map<Severity, Boolean> buildAllSeveritiesUpdateDetails(boolean subscribed) {
         Map<Severity, Boolean> severitySubscriptionMap = new HashMap<>();
         for (Severity severity : Severity.values()) {
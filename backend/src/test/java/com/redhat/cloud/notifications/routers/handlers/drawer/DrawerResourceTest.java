@@ -13,6 +13,7 @@ import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.DrawerEntryPayload;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.EventType;
+import com.redhat.cloud.notifications.routers.handlers.event.EventVisibilityFilter;
 import com.redhat.cloud.notifications.routers.models.Page;
 import com.redhat.cloud.notifications.routers.models.UpdateNotificationDrawerStatus;
 import io.quarkus.test.InjectMock;
@@ -24,11 +25,13 @@ import io.restassured.specification.RequestSpecification;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.core.SecurityContext;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -43,6 +46,8 @@ import static io.restassured.http.ContentType.JSON;
 import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -63,6 +68,9 @@ public class DrawerResourceTest extends DbIsolatedTest {
     @InjectMock
     BackendConfig backendConfig;
 
+    @InjectMock
+    EventVisibilityFilter eventVisibilityFilter;
+
     @ParameterizedTest
     @ValueSource(booleans = {false, true})
     void testMultiplePages(boolean useNormalizedQueries) {
@@ -109,6 +117,47 @@ public class DrawerResourceTest extends DbIsolatedTest {
         assertTrue(page.getLinks().get("last").contains("limit=3&offset=27"));
     }
 
+    /**
+     * Tests that the drawer scans the events in windows until the requested
+     * page is filled with events visible to the user.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testHiddenEventsPagination(boolean useNormalizedQueries) {
+        when(backendConfig.isDrawerEnabled(anyString())).thenReturn(true);
+        when(backendConfig.isNormalizedQueriesEnabled(anyString())).thenReturn(useNormalizedQueries);
+        when(backendConfig.isKesselChecksOnEventLogEnabled(anyString())).thenReturn(true);
+        final String USERNAME = "user-1";
+        Header defaultIdentityHeader = mockRbac(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, USERNAME, FULL_ACCESS);
+
+        Bundle bundle1 = resourceHelpers.createBundle("bundle-1");
+        Application app1 = resourceHelpers.createApplication(bundle1.getId(), "app-1");
+        EventType eventType1 = resourceHelpers.createEventType(app1.getId(), "event-type-1");
+        markEventTypeAsDrawer(eventType1);
+
+        // The most recent events are hidden, the visible events are only found after the first window.
+        LocalDateTime now = LocalDateTime.now(UTC);
+        Set<UUID> hiddenEventIds = new HashSet<>();
+        for (int i = 0; i < EventVisibilityFilter.MIN_WINDOW_SIZE + 10; i++) {
+            hiddenEventIds.add(createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle1, app1, eventType1, now.minusMinutes(i), Severity.NONE).getId());
+        }
+        Event event1 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle1, app1, eventType1, now.minusDays(1L), Severity.NONE);
+        Event event2 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle1, app1, eventType1, now.minusDays(2L), Severity.NONE);
+        Event event3 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle1, app1, eventType1, now.minusDays(3L), Severity.NONE);
+        when(eventVisibilityFilter.findHiddenEvents(any(SecurityContext.class), anyList())).thenReturn(hiddenEventIds);
+
+        Page<DrawerEntryPayload> page = getDrawerEntries(defaultIdentityHeader, null, null, null, null, null, null, 2, 0, null);
+        assertEquals(3, page.getMeta().getCount());
+        assertEquals(2, page.getData().size());
+        assertEquals(event1.getId(), page.getData().get(0).getEventId());
+        assertEquals(event2.getId(), page.getData().get(1).getEventId());
+
+        page = getDrawerEntries(defaultIdentityHeader, null, null, null, null, null, null, 2, 2, null);
+        assertEquals(3, page.getMeta().getCount());
+        assertEquals(1, page.getData().size());
+        assertEquals(event3.getId(), page.getData().get(0).getEventId());
+    }
+
     /**
      * Tests read status user isolation - each user can mark events as read independently.
      */
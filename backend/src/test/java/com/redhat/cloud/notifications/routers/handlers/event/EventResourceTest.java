@@ -29,6 +29,8 @@ import com.redhat.cloud.notifications.routers.models.EventLogEntry;
 import com.redhat.cloud.notifications.routers.models.EventLogEntryAction;
 import com.redhat.cloud.notifications.routers.models.EventLogEntryActionStatus;
 import com.redhat.cloud.notifications.routers.models.Page;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
@@ -127,6 +129,13 @@ public class EventResourceTest extends DbIsolatedTest {
     @InjectMock
     KesselCheckClient kesselCheckClient;
 
+    /**
+     * The visibility of the events with an authorization criterion is cached
+     * per user, the tests which change the Kessel decisions clear it.
+     */
+    @CacheName("kessel-event-visibility")
+    Cache eventVisibilityCache;
+
     @Inject
     EntityManager entityManager;
 
@@ -162,6 +171,7 @@ public class EventResourceTest extends DbIsolatedTest {
         Mockito.when(this.backendConfig.isRBACEnabled()).thenReturn(true);
         when(workspaceUtils.getDefaultWorkspaceId(DEFAULT_ORG_ID)).thenReturn(KesselTestHelper.RBAC_DEFAULT_WORKSPACE_ID);
         mockKesselDenyAll();
+        eventVisibilityCache.invalidateAll().await().indefinitely();
     }
 
     @ParameterizedTest
@@ -1167,6 +1177,7 @@ public class EventResourceTest extends DbIsolatedTest {
         // Kessel client mock will return allowed status, event2K must be part of results
         CheckResponse kesselInventoryCheckResponse = CheckResponse.newBuilder().setAllowed(ALLOWED_TRUE).build();
         when(kesselCheckClient.check(any(CheckRequest.class))).thenReturn(kesselInventoryCheckResponse);
+        eventVisibilityCache.invalidateAll().await().indefinitely();
         page = getEventLogPage(defaultIdentityHeader, null, null, null, null, null, null, null, null, null, null, null, false, true);
         assertEquals(5, page.getMeta().getCount());
         assertEquals(5, page.getData().size());
@@ -1181,6 +1192,7 @@ public class EventResourceTest extends DbIsolatedTest {
         // Kessel client mock will return not allowed status, event2K must be ignored
         kesselInventoryCheckResponse = CheckResponse.newBuilder().setAllowed(ALLOWED_FALSE).build();
         when(kesselCheckClient.check(any(CheckRequest.class))).thenReturn(kesselInventoryCheckResponse);
+        eventVisibilityCache.invalidateAll().await().indefinitely();
         page = getEventLogPage(defaultIdentityHeader, null, null, null, null, null, null, null, null, null, null, null, false, true);
         assertEquals(3, page.getMeta().getCount());
         assertEquals(3, page.getData().size());
@@ -1192,6 +1204,7 @@ public class EventResourceTest extends DbIsolatedTest {
 
         // Kessel client mock will throw an exception, event2K must be ignored
         when(kesselCheckClient.check(any(CheckRequest.class))).thenThrow(RuntimeException.class);
+        eventVisibilityCache.invalidateAll().await().indefinitely();
         page = getEventLogPage(defaultIdentityHeader, null, null, null, null, null, null, null, null, null, null, null, false, true);
         assertEquals(3, page.getMeta().getCount());
         assertEquals(3, page.getData().size());
@@ -1312,6 +1325,120 @@ public class EventResourceTest extends DbIsolatedTest {
         assertTrue(page.getData().isEmpty());
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testEventsWithKesselCriterionPagination(boolean useNormalizedQueries) {
+        when(backendConfig.isKesselChecksOnEventLogEnabled(anyString())).thenReturn(true);
+        when(backendConfig.isNormalizedQueriesEnabled(anyString())).thenReturn(useNormalizedQueries);
+
+        Header defaultIdentityHeader = mockRbac(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, DEFAULT_USER, FULL_ACCESS);
+        mockDefaultKesselPermission(EVENTS_VIEW, ALLOWED_TRUE);
+
+        Bundle bundle = resourceHelpers.createBundle("bundle-pagination", "Bundle Pagination");
+        Application app = resourceHelpers.createApplication(bundle.getId(), "app-pagination", "Application Pagination");
+        EventType eventType = resourceHelpers.createEventType(app.getId(), "event-type-pagination", "Event type pagination", "Event type pagination");
+
+        // The most recent events are hidden by Kessel, the visible events are only found after the first window.
+        String kesselPayload = buildPayloadWithAuthorizationCriterion(DEFAULT_ORG_ID, bundle.getName(), app.getName(), eventType.getName());
+        int hiddenEvents = EventVisibilityFilter.MIN_WINDOW_SIZE + 10;
+        for (int i = 0; i < hiddenEvents; i++) {
+            createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusMinutes(i), kesselPayload, true, UUID.randomUUID());
+        }
+        Event event1 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(1L));
+        Event event2 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(2L));
+        Event event3 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(3L));
+
+        Page<EventLogEntry> page = getEventLogPage(defaultIdentityHeader, null, null, null, null, null, null, null, null, 2, 0, null, false, false);
+        assertEquals(3, page.getMeta().getCount());
+        assertEquals(2, page.getData().size());
+        assertEquals(event1.getId(), page.getData().get(0).getId());
+        assertEquals(event2.getId(), page.getData().get(1).getId());
+
+        page = getEventLogPage(defaultIdentityHeader, null, null, null, null, null, null, null, null, 2, 2, null, false, false);
+        assertEquals(3, page.getMeta().getCount());
+        assertEquals(1, page.getData().size());
+        assertEquals(event3.getId(), page.getData().get(0).getId());
+
+        // All the hidden events share the same criterion, which is checked once and then served from the cache.
+        verify(kesselAuthorization, times(1)).hasPermissionOnResource(any(SecurityContext.class), any(RecipientsAuthorizationCriterion.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testCursorPagination(boolean useNormalizedQueries) {
+        when(backendConfig.isNormalizedQueriesEnabled(anyString())).thenReturn(useNormalizedQueries);
+        when(backendConfig.getEventLogCountCap()).thenReturn(3);
+        Header defaultIdentityHeader = mockRbac(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, DEFAULT_USER, FULL_ACCESS);
+
+        Bundle bundle = resourceHelpers.createBundle("bundle-cursor", "Bundle Cursor");
+        Application app = resourceHelpers.createApplication(bundle.getId(), "app-cursor", "Application Cursor");
+        EventType eventType = resourceHelpers.createEventType(app.getId(), "event-type-cursor", "Event type cursor", "Event type cursor");
+
+        Event event1 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(1L));
+        // Two events created at the same time must not be skipped or repeated when a page ends between them.
+        Event event2 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(2L));
+        Event event3 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(2L));
+        Event event4 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(3L));
+        Event event5 = createEvent(DEFAULT_ACCOUNT_ID, DEFAULT_ORG_ID, bundle, app, eventType, NOW.minusDays(4L));
+
+        Page<EventLogEntry> page = getEventLogPageWithCursor(defaultIdentityHeader, "");
+        assertEquals(3L, page.getMeta().getCount());
+        assertEquals(TRUE, page.getMeta().getCountCapped());
+        assertLinks(page.getLinks(), "first", "next");
+        assertEquals(event1.getId(), page.getData().get(0).getId());
+
+        Set<UUID> eventIds = new HashSet<>();
+        int pages = 0;
+        while (true) {
+            pages++;
+            page.getData().forEach(entry -> assertTrue(eventIds.add(entry.getId())));
+            String nextLink = page.getLinks().get("next");
+            if (nextLink == null) {
+                break;
+            }
+            page = getEventLogPageWithCursor(defaultIdentityHeader, nextLink.replaceFirst(".*[?&]cursor=([^&]*).*", "$1"));
+        }
+
+        assertEquals(3, pages);
+        assertEquals(Set.of(event1.getId(), event2.getId(), event3.getId(), event4.getId(), event5.getId()), eventIds);
+        assertEquals(event5.getId(), page.getData().getLast().getId());
+        assertLinks(page.getLinks(), "first");
+
+        // Without a cap, the count is exact.
+        when(backendConfig.getEventLogCountCap()).thenReturn(0);
+        page = getEventLogPageWithCursor(defaultIdentityHeader, "");
+        assertEquals(5L, page.getMeta().getCount());
+        assertNull(page.getMeta().getCountCapped());
+
+        given()
+            .header(defaultIdentityHeader)
+            .param("cursor", "I am not valid!")
+            .when().get(PATH)
+            .then()
+            .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+        given()
+            .header(defaultIdentityHeader)
+            .param("cursor", "")
+            .param("sort_by", "bundle:asc")
+            .when().get(PATH)
+            .then()
+            .statusCode(HttpStatus.SC_BAD_REQUEST);
+    }
+
+    private static Page<EventLogEntry> getEventLogPageWithCursor(Header identityHeader, String cursor) {
+        return given()
+                .header(identityHeader)
+                .param("limit", 2)
+                .param("cursor", cursor)
+                .when().get(PATH)
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .contentType(JSON)
+                .extract().body().as(new TypeRef<>() {
+                });
+    }
+
     private void mockKesselDenyAll() {
         when(kesselCheckClient
             .check(any(CheckRequest.class)))
@@ -0,0 +1,167 @@
+package com.redhat.cloud.notifications.routers.handlers.event;
+
+import com.redhat.cloud.notifications.auth.kessel.KesselInventoryAuthorization;
+import com.redhat.cloud.notifications.auth.principal.rhid.RhIdPrincipal;
+import com.redhat.cloud.notifications.auth.principal.rhid.RhIdentity;
+import com.redhat.cloud.notifications.config.BackendConfig;
+import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
+import com.redhat.cloud.notifications.ingress.Type;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.SecurityContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+public class EventVisibilityFilterTest {
+
+    private static final int MAX_CONCURRENT_CHECKS = 4;
+
+    @Inject
+    EventVisibilityFilter eventVisibilityFilter;
+
+    @InjectMock
+    KesselInventoryAuthorization kesselInventoryAuthorization;
+
+    @InjectMock
+    BackendConfig backendConfig;
+
+    @CacheName("kessel-event-visibility")
+    Cache eventVisibilityCache;
+
+    @BeforeEach
+    void beforeEach() {
+        when(backendConfig.getKesselMaxConcurrentChecks()).thenReturn(MAX_CONCURRENT_CHECKS);
+        eventVisibilityCache.invalidateAll().await().indefinitely();
+    }
+
+    /**
+     * Tests that the distinct criteria are checked concurrently, once each and
+     * with at most the configured number of checks in flight, and that the
+     * events of the denied criteria are hidden.
+     */
+    @Test
+    void testConcurrentChecksWithMixedDecisions() {
+        List<RecipientsAuthorizationCriterion> criteria = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            criteria.add(buildCriterion("workspace-" + i));
+        }
+
+        // The first checks wait for each other, so they must run concurrently to complete.
+        CountDownLatch concurrentChecks = new CountDownLatch(MAX_CONCURRENT_CHECKS);
+        AtomicInteger inFlightChecks = new AtomicInteger();
+        AtomicInteger maxInFlightChecks = new AtomicInteger();
+        when(kesselInventoryAuthorization.hasPermissionOnResource(any(SecurityContext.class), any(RecipientsAuthorizationCriterion.class))).thenAnswer(invocation -> {
+            maxInFlightChecks.accumulateAndGet(inFlightChecks.incrementAndGet(), Math::max);
+            try {
+                concurrentChecks.countDown();
+                assertTrue(concurrentChecks.await(10L, TimeUnit.SECONDS));
+                // The criteria with an even ID are denied.
+                RecipientsAuthorizationCriterion criterion = invocation.getArgument(1);
+                return Integer.parseInt(criterion.getId().substring("workspace-".length())) % 2 == 1;
+            } finally {
+                inFlightChecks.decrementAndGet();
+            }
+        });
+
+        // Each criterion is carried by two events, and one event has no criterion.
+        List<EventAuthorizationCriterion> events = new ArrayList<>();
+        List<UUID> deniedEventIds = new ArrayList<>();
+        for (int i = 0; i < criteria.size(); i++) {
+            for (int j = 0; j < 2; j++) {
+                UUID eventId = UUID.randomUUID();
+                events.add(new EventAuthorizationCriterion(eventId, criteria.get(i)));
+                if (i % 2 == 0) {
+                    deniedEventIds.add(eventId);
+                }
+            }
+        }
+        events.add(new EventAuthorizationCriterion(UUID.randomUUID(), null));
+
+        Set<UUID> hiddenEventIds = eventVisibilityFilter.findHiddenEvents(initMockedSecurityContext(), events);
+
+        assertEquals(Set.copyOf(deniedEventIds), hiddenEventIds);
+        assertEquals(MAX_CONCURRENT_CHECKS, maxInFlightChecks.get());
+        for (RecipientsAuthorizationCriterion criterion : criteria) {
+            verify(kesselInventoryAuthorization, times(1)).hasPermissionOnResource(any(SecurityContext.class), argThat(criterion::equals));
+        }
+    }
+
+    /**
+     * Tests that a failed check fails the whole visibility filtering and
+     * cancels the checks which are still pending.
+     */
+    @Test
+    void testFailedCheckCancelsPendingChecks() {
+        RecipientsAuthorizationCriterion failingCriterion = buildCriterion("failing-workspace");
+        List<EventAuthorizationCriterion> events = new ArrayList<>();
+        events.add(new EventAuthorizationCriterion(UUID.randomUUID(), failingCriterion));
+        for (int i = 0; i < MAX_CONCURRENT_CHECKS - 1; i++) {
+            events.add(new EventAuthorizationCriterion(UUID.randomUUID(), buildCriterion("pending-workspace-" + i)));
+        }
+
+        CountDownLatch pendingChecksStarted = new CountDownLatch(MAX_CONCURRENT_CHECKS - 1);
+        CountDownLatch neverReleased = new CountDownLatch(1);
+        AtomicInteger interruptedChecks = new AtomicInteger();
+        when(kesselInventoryAuthorization.hasPermissionOnResource(any(SecurityContext.class), any(RecipientsAuthorizationCriterion.class))).thenAnswer(invocation -> {
+            if (failingCriterion.equals(invocation.getArgument(1))) {
+                // The check only fails once all the other checks are pending.
+                assertTrue(pendingChecksStarted.await(10L, TimeUnit.SECONDS));
+                throw new IllegalStateException("Kessel failure");
+            }
+            pendingChecksStarted.countDown();
+            try {
+                neverReleased.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interruptedChecks.incrementAndGet();
+            }
+            throw new IllegalStateException("Pending check was not cancelled");
+        });
+
+        assertThrows(RuntimeException.class, () -> eventVisibilityFilter.findHiddenEvents(initMockedSecurityContext(), events));
+        assertEquals(MAX_CONCURRENT_CHECKS - 1, interruptedChecks.get());
+    }
+
+    private static RecipientsAuthorizationCriterion buildCriterion(String id) {
+        Type type = new Type();
+        type.setNamespace("rbac");
+        type.setName("workspace");
+        RecipientsAuthorizationCriterion criterion = new RecipientsAuthorizationCriterion();
+        criterion.setId(id);
+        criterion.setRelation("notifications_events_view");
+        criterion.setType(type);
+        return criterion;
+    }
+
+    private static SecurityContext initMockedSecurityContext() {
+        RhIdentity identity = Mockito.mock(RhIdentity.class);
+        when(identity.getOrgId()).thenReturn("org-id");
+        when(identity.getUserId()).thenReturn("user-id");
+        when(identity.getName()).thenReturn("user");
+
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        when(securityContext.getUserPrincipal()).thenReturn(new RhIdPrincipal(identity));
+        return securityContext;
+    }
+}
@@ -22,7 +22,10 @@ import jakarta.enterprise.context.ApplicationScoped;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import java.io.File;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Startup
 @ApplicationScoped
@@ -30,6 +33,8 @@ public class TemplateService {
 
     private static final String SECURED_EMAIL_TEMPLATES = "notifications.use-secured-email-templates.enabled";
     private static final String DEFAULT_TEMPLATE = "notifications.use-default-template";
+    private static final int MAX_RESOLVED_TEMPLATES = 10_000;
+    private static final int MAX_PARSED_TEMPLATES = 500;
 
     // Only used in special environments.
     @ConfigProperty(name = SECURED_EMAIL_TEMPLATES, defaultValue = "false")
@@ -45,6 +50,17 @@ public class TemplateService {
 
     Map<TemplateDefinition, String> templatesConfigMap = new HashMap<>();
 
+    // Final template of each template definition, empty when no template can be found for the definition.
+    final Map<TemplateDefinition, Optional<Template>> resolvedTemplates = new ConcurrentHashMap<>();
+
+    // Templates parsed from their content, with the least recently used ones evicted first. Guarded by itself.
+    final Map<String, Template> parsedTemplates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+            return size() > MAX_PARSED_TEMPLATES;
+        }
+    };
+
     public TemplateService(Engine engine, ObjectMapper objectMapper) {
         this.engine = engine;
         this.objectMapper = objectMapper;
@@ -56,9 +72,17 @@ public class TemplateService {
             + templateFileName;
     }
 
+    /**
+     * Loads the templates configuration and builds the templates resolution table. This method can be called again
+     * to reload the templates, for example after a change of the configuration.
+     */
     @PostConstruct
     public void init() {
         templatesConfigMap.clear();
+        resolvedTemplates.clear();
+        synchronized (parsedTemplates) {
+            parsedTemplates.clear();
+        }
         if (isSecuredEmailTemplatesEnabled()) {
             templatesConfigMap.putAll(SecureEmailTemplates.templatesMap);
         } else {
@@ -76,6 +100,7 @@ public class TemplateService {
             }
         }
         checkTemplatesConsistency();
+        preResolveTemplates();
     }
 
     public boolean isSecuredEmailTemplatesEnabled() {
@@ -102,16 +127,49 @@ public class TemplateService {
     }
 
     /**
-     * This method will load the Qute Template Instance according Template Definition parameters.
+     * Resolves the final template of all the declared template definitions, both in their GA and beta versions,
+     * so that the most common lookups never go through the fallback logic at rendering time.
+     */
+    private void preResolveTemplates() {
+        for (TemplateDefinition templateDefinition : templatesConfigMap.keySet()) {
+            for (boolean isBetaVersion : new boolean[] {false, true}) {
+                getResolvedTemplate(new TemplateDefinition(
+                    templateDefinition.integrationType(),
+                    templateDefinition.bundle(),
+                    templateDefinition.application(),
+                    templateDefinition.eventType(),
+                    isBetaVersion));
+            }
+        }
+    }
+
+    /**
+     * Returns the final template of the given template definition from the resolution table. The definitions that
+     * were not resolved yet are resolved and added to the table, including the ones without any matching template.
+     * @param templateDefinition the template definition
+     * @return the template, or an empty optional if no template can be found for the definition
+     */
+    private Optional<Template> getResolvedTemplate(final TemplateDefinition templateDefinition) {
+        Optional<Template> template = resolvedTemplates.get(templateDefinition);
+        if (template == null) {
+            template = resolveTemplate(templateDefinition);
+            // The definitions come from the event types, this limit only protects the table against unexpected inputs.
+            if (resolvedTemplates.size() < MAX_RESOLVED_TEMPLATES) {
+                resolvedTemplates.put(templateDefinition, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * This method will load the Qute Template according Template Definition parameters.
      * If the template for the selected event type can't be found,
      * it will look for a generic template defined for the selected application,
      * it can't be found, it will look for a generic/system template defined for the selected integration type
      * @param originalTemplateDefinition the template definition
-     * @return the template instance
-     *
-     * @throws TemplateNotFoundException
+     * @return the template, or an empty optional if no template can be found for the definition
      */
-    private Template compileTemplate(final TemplateDefinition originalTemplateDefinition) throws TemplateNotFoundException {
+    private Optional<Template> resolveTemplate(final TemplateDefinition originalTemplateDefinition) {
 
         // try to find template path with full config parameters
         String path = templatesConfigMap.get(originalTemplateDefinition);
@@ -150,15 +208,27 @@ public class TemplateService {
                             originalTemplateDefinition.application(),
                             originalTemplateDefinition.eventType(),
                             false);
-                        return compileTemplate(templateGaVersion);
+                        return getResolvedTemplate(templateGaVersion);
                     }
-                    throw new TemplateNotFoundException(templateDefinition);
+                    return Optional.empty();
                 }
             }
         }
-        final String filePath = buildTemplateFilePath(templateDefinition, templatesConfigMap.get(templateDefinition));
+        final String filePath = buildTemplateFilePath(templateDefinition, path);
         // ask Qute to load the template instance from its file path, such as drawer/Policies/policyTriggeredBody.md
-        return engine.getTemplate(filePath);
+        return Optional.of(engine.getTemplate(filePath));
+    }
+
+    /**
+     * @throws TemplateNotFoundException if no template can be found for the definition
+     */
+    private Template compileTemplate(final TemplateDefinition templateDefinition) throws TemplateNotFoundException {
+        return getResolvedTemplate(templateDefinition).orElseThrow(() -> new TemplateNotFoundException(new TemplateDefinition(
+            templateDefinition.integrationType(),
+            null,
+            null,
+            null
+        )));
     }
 
     public String renderTemplate(final TemplateDefinition config, final Map<String, Object> action) {
@@ -175,7 +245,18 @@ public class TemplateService {
     }
 
     public String renderTemplateWithCustomDataMap(final String templateContent, final Map<String, Object> additionalContext) {
-        return engine.parse(templateContent)
+        // The templates stored in the DB are identified by their content, so an updated template is parsed again.
+        Template template;
+        synchronized (parsedTemplates) {
+            template = parsedTemplates.get(templateContent);
+        }
+        if (template == null) {
+            template = engine.parse(templateContent);
+            synchronized (parsedTemplates) {
+                parsedTemplates.put(templateContent, template);
+            }
+        }
+        return template
             .data(additionalContext)
             .render()
             .trim();
@@ -191,11 +272,6 @@ public class TemplateService {
     }
 
     public boolean isValidTemplateDefinition(final TemplateDefinition config) {
-        try {
-            compileTemplate(config);
-        } catch (TemplateNotFoundException e) {
-            return false;
-        }
-        return true;
+        return getResolvedTemplate(config).isPresent();
     }
 }
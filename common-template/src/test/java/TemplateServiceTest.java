@@ -1,18 +1,23 @@
 
 import com.redhat.cloud.notifications.ingress.Action;
 import com.redhat.cloud.notifications.qute.templates.TemplateDefinition;
+import com.redhat.cloud.notifications.qute.templates.TemplateService;
 import helpers.TestHelpers;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static com.redhat.cloud.notifications.qute.templates.IntegrationType.DRAWER;
+import static com.redhat.cloud.notifications.qute.templates.IntegrationType.EMAIL_DAILY_DIGEST_BODY;
 import static com.redhat.cloud.notifications.qute.templates.mapping.Console.BUNDLE_NAME;
 import static com.redhat.cloud.notifications.qute.templates.mapping.Console.INTEGRATIONS_APP_NAME;
 import static com.redhat.cloud.notifications.qute.templates.mapping.Console.INTEGRATIONS_INTEGRATION_DISABLED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 class TemplateServiceTest {
@@ -20,6 +25,9 @@ class TemplateServiceTest {
     @Inject
     TestHelpers testHelpers;
 
+    @Inject
+    TemplateService templateService;
+
     @Test
     void testBetaToGaFallback() {
         final Action action = TestHelpers.createIntegrationDisabledAction("HTTP_4XX", "Unreliable integration", "Communications", 401);
@@ -46,4 +54,22 @@ class TemplateServiceTest {
         assertEquals(result, defaultTemplateResult);
 
     }
+
+    @Test
+    void testTemplateDefinitionValidity() {
+        // the resolution of these definitions is cached, the results must not change between calls
+        for (int i = 0; i < 2; i++) {
+            assertTrue(templateService.isValidTemplateDefinition(new TemplateDefinition(DRAWER, BUNDLE_NAME, INTEGRATIONS_APP_NAME, INTEGRATIONS_INTEGRATION_DISABLED, true)));
+            assertTrue(templateService.isValidTemplateDefinition(new TemplateDefinition(DRAWER, "unknown-bundle", "unknown-app", "unknown-event-type")));
+            assertFalse(templateService.isValidTemplateDefinition(new TemplateDefinition(EMAIL_DAILY_DIGEST_BODY, "unknown-bundle", "unknown-app", "unknown-event-type")));
+        }
+    }
+
+    @Test
+    void testRenderTemplateWithCustomDataMap() {
+        // the parsed template is reused, but it must be rendered with the data of each call
+        assertEquals("Hello Alice", templateService.renderTemplateWithCustomDataMap("Hello {name}", Map.of("name", "Alice")));
+        assertEquals("Hello Bob", templateService.renderTemplateWithCustomDataMap("Hello {name}", Map.of("name", "Bob")));
+        assertEquals("Bye Bob", templateService.renderTemplateWithCustomDataMap("Bye {name}", Map.of("name", "Bob")));
+    }
 }
@@ -0,0 +1,103 @@
+package com.redhat.cloud.notifications.unleash;
+
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Feature toggle evaluated on the hot path with a single context value, such as an endpoint ID or an org ID. The
+ * decisions are stored in an immutable snapshot which is replaced when the Unleash client fetches a changed toggles
+ * state, a decision is therefore computed by Unleash once per value and per fetched state. Reading a stored decision
+ * is a lock-free map lookup which does not allocate.
+ * <p>
+ * The Unleash client reports a changed state before it applies it to its engine. Until the next fetch, the decisions
+ * may still be computed with the previous state and are not stored.
+ * <p>
+ * The toggle must be deterministic for a given context value: a gradual rollout without stickiness on that value would
+ * be frozen until the next state change.
+ *
+ * @param <K> the type of the context value.
+ */
+public final class CompiledToggle<K> {
+
+    private final String toggleName;
+    private final Function<K, UnleashContext> contextBuilder;
+    private final Unleash unleash;
+    private final int maxEntries;
+    private volatile Snapshot<K> snapshot = new Snapshot<>(true, true);
+
+    CompiledToggle(String toggleName, Function<K, UnleashContext> contextBuilder, Unleash unleash, int maxEntries) {
+        this.toggleName = toggleName;
+        this.contextBuilder = contextBuilder;
+        this.unleash = unleash;
+        this.maxEntries = maxEntries;
+    }
+
+    public String getToggleName() {
+        return toggleName;
+    }
+
+    /**
+     * Returns whether the toggle is enabled for the given context value.
+     * @param value the context value, the toggle is evaluated without it when {@code null}.
+     * @return {@code true} if the toggle is enabled for the value.
+     */
+    public boolean isEnabled(K value) {
+        Snapshot<K> current = snapshot;
+        // The toggle is disabled in the environment, none of its strategies can enable it.
+        if (!current.environmentEnabled) {
+            return false;
+        }
+        if (value == null) {
+            // ConcurrentHashMap does not accept null keys, this only happens outside of the hot path.
+            return unleash.isEnabled(toggleName, contextBuilder.apply(null), false);
+        }
+        Boolean enabled = current.decisions.get(value);
+        if (enabled == null) {
+            enabled = unleash.isEnabled(toggleName, contextBuilder.apply(value), false);
+            // The decisions are no longer stored once the limit is reached, Unleash is then called for the other values.
+            if (current.storeDecisions && current.decisions.size() < maxEntries) {
+                current.decisions.putIfAbsent(value, enabled);
+            }
+        }
+        return enabled;
+    }
+
+    /*
+     * The decisions of the previous snapshot are discarded, they may have been computed with outdated strategies.
+     * A decision computed with the previous state concurrently to the swap can only be stored in the previous snapshot.
+     */
+    void swap(boolean environmentEnabled) {
+        snapshot = new Snapshot<>(environmentEnabled, false);
+    }
+
+    /*
+     * The state reported by the last swap has been applied to the Unleash engine, the decisions can be stored again.
+     * The new snapshot is empty, a decision computed with the previous state can only be stored in the replaced one.
+     */
+    void storeDecisions() {
+        Snapshot<K> current = snapshot;
+        if (!current.storeDecisions) {
+            snapshot = new Snapshot<>(current.environmentEnabled, true);
+        }
+    }
+
+    int size() {
+        return snapshot.decisions.size();
+    }
+
+    private static final class Snapshot<K> {
+
+        private final boolean environmentEnabled;
+        private final boolean storeDecisions;
+        private final Map<K, Boolean> decisions = new ConcurrentHashMap<>();
+
+        private Snapshot(boolean environmentEnabled, boolean storeDecisions) {
+            this.environmentEnabled = environmentEnabled;
+            this.storeDecisions = storeDecisions;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.redhat.cloud.notifications.unleash;
+
+import io.getunleash.FeatureDefinition;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.getunleash.event.ClientFeaturesResponse;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the {@link CompiledToggle} instances and replaces their snapshots each time the {@link Subscriber} reports
+ * a changed toggles state. The decisions are stored again from the following fetch, once the Unleash client has
+ * applied that state to its engine.
+ */
+@ApplicationScoped
+public class CompiledToggles {
+
+    @ConfigProperty(name = "notifications.unleash.compiled-toggles.max-entries", defaultValue = "100000")
+    int maxEntries;
+
+    @Inject
+    Unleash unleash;
+
+    private final List<CompiledToggle<?>> toggles = new CopyOnWriteArrayList<>();
+
+    /**
+     * Compiles a toggle evaluated with a single context property.
+     * @param toggleName the name of the toggle, as returned by {@link ToggleRegistry#register(String, boolean)}.
+     * @param contextProperty the name of the Unleash context property which contains the value.
+     * @return the compiled toggle.
+     */
+    public <K> CompiledToggle<K> compile(String toggleName, String contextProperty) {
+        return compile(toggleName, value -> {
+            UnleashContext.Builder builder = UnleashContext.builder();
+            if (value != null) {
+                builder.addProperty(contextProperty, value.toString());
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * Compiles a toggle evaluated with the org ID of the Unleash context.
+     * @param toggleName the name of the toggle, as returned by {@link ToggleRegistry#register(String, boolean)}.
+     * @return the compiled toggle.
+     */
+    public CompiledToggle<String> compileWithOrgId(String toggleName) {
+        return compile(toggleName, UnleashContextBuilder::buildUnleashContextWithOrgId);
+    }
+
+    private <K> CompiledToggle<K> compile(String toggleName, Function<K, UnleashContext> contextBuilder) {
+        CompiledToggle<K> toggle = new CompiledToggle<>(toggleName, contextBuilder, unleash, maxEntries);
+        toggles.add(toggle);
+        return toggle;
+    }
+
+    void togglesFetched(@Observes ClientFeaturesResponse response) {
+        for (CompiledToggle<?> toggle : toggles) {
+            toggle.storeDecisions();
+        }
+    }
+
+    void swap(@Observes List<FeatureDefinition> featureDefinitions) {
+        Map<String, Boolean> environmentEnabled = featureDefinitions.stream()
+            .collect(Collectors.toMap(FeatureDefinition::getName, FeatureDefinition::environmentEnabled, (first, second) -> first));
+        for (CompiledToggle<?> toggle : toggles) {
+            // A toggle missing from the fetched state is disabled.
+            toggle.swap(environmentEnabled.getOrDefault(toggle.getToggleName(), false));
+        }
+    }
+}
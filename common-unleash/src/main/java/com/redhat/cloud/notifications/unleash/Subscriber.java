@@ -15,11 +15,16 @@ import static io.getunleash.event.ClientFeaturesResponse.Status.CHANGED;
 @Unremovable
 public class Subscriber implements UnleashSubscriber {
 
+    @Inject
+    Event<ClientFeaturesResponse> clientFeaturesResponseEvent;
+
     @Inject
     Event<List<FeatureDefinition>> featureDefinitionsEvent;
 
     @Override
     public void togglesFetched(ClientFeaturesResponse response) {
+        // The state of the previous fetch has been applied to the Unleash engine, this one is applied after this method.
+        clientFeaturesResponseEvent.fire(response);
         if (response.getStatus() == CHANGED) {
             featureDefinitionsEvent.fire(response.getFeatures());
         }
@@ -0,0 +1,150 @@
+package com.redhat.cloud.notifications.unleash;
+
+import io.getunleash.FeatureDefinition;
+import io.getunleash.Unleash;
+import io.getunleash.UnleashContext;
+import io.getunleash.event.ClientFeaturesResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompiledTogglesTest {
+
+    private static final String TOGGLE_NAME = "notifications.compiled-toggle";
+    private static final String CONTEXT_PROPERTY = "endpointId";
+
+    private Unleash unleash;
+    private CompiledToggles compiledToggles;
+
+    @BeforeEach
+    void beforeEach() {
+        unleash = mock(Unleash.class);
+        when(unleash.isEnabled(eq(TOGGLE_NAME), any(UnleashContext.class), eq(false))).thenReturn(true);
+
+        compiledToggles = new CompiledToggles();
+        compiledToggles.unleash = unleash;
+        compiledToggles.maxEntries = 100;
+    }
+
+    @Test
+    void testDecisionIsComputedOncePerValue() {
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+
+        assertTrue(toggle.isEnabled("value"));
+        assertTrue(toggle.isEnabled("value"));
+
+        assertEquals(1, toggle.size());
+        verify(unleash, times(1)).isEnabled(eq(TOGGLE_NAME), argThat(context -> "value".equals(context.getProperties().get(CONTEXT_PROPERTY))), eq(false));
+    }
+
+    @Test
+    void testDecisionsAreDiscardedOnSwap() {
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+        assertTrue(toggle.isEnabled("value"));
+        assertEquals(1, toggle.size());
+
+        // The strategies changed, the stored decision must be computed again with the new state.
+        when(unleash.isEnabled(eq(TOGGLE_NAME), any(UnleashContext.class), eq(false))).thenReturn(false);
+        compiledToggles.swap(List.of(buildFeatureDefinition(TOGGLE_NAME, true)));
+
+        assertEquals(0, toggle.size());
+        assertFalse(toggle.isEnabled("value"));
+        verify(unleash, times(2)).isEnabled(eq(TOGGLE_NAME), any(UnleashContext.class), eq(false));
+    }
+
+    @Test
+    void testDecisionIsNotStoredUntilTheStateIsApplied() {
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+        assertTrue(toggle.isEnabled("value"));
+
+        // The new state is reported before the Unleash engine applies it, the engine still returns the previous decision.
+        compiledToggles.swap(List.of(buildFeatureDefinition(TOGGLE_NAME, true)));
+        assertTrue(toggle.isEnabled("value"));
+        assertEquals(0, toggle.size());
+
+        // The engine applied the new state.
+        when(unleash.isEnabled(eq(TOGGLE_NAME), any(UnleashContext.class), eq(false))).thenReturn(false);
+        assertFalse(toggle.isEnabled("value"));
+        assertEquals(0, toggle.size());
+
+        // The next fetch, whatever its status, happens once the state is applied.
+        compiledToggles.togglesFetched(mock(ClientFeaturesResponse.class));
+        assertFalse(toggle.isEnabled("value"));
+        assertFalse(toggle.isEnabled("value"));
+        assertEquals(1, toggle.size());
+        verify(unleash, times(4)).isEnabled(eq(TOGGLE_NAME), any(UnleashContext.class), eq(false));
+    }
+
+    @Test
+    void testToggleDisabledInEnvironment() {
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+        compiledToggles.swap(List.of(buildFeatureDefinition(TOGGLE_NAME, false)));
+
+        assertFalse(toggle.isEnabled("value"));
+        assertFalse(toggle.isEnabled(null));
+
+        assertEquals(0, toggle.size());
+        verify(unleash, never()).isEnabled(any(String.class), any(UnleashContext.class), anyBoolean());
+    }
+
+    @Test
+    void testToggleMissingFromFetchedStateIsDisabled() {
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+        compiledToggles.swap(List.of(buildFeatureDefinition("notifications.other-toggle", true)));
+
+        assertFalse(toggle.isEnabled("value"));
+
+        verify(unleash, never()).isEnabled(any(String.class), any(UnleashContext.class), anyBoolean());
+    }
+
+    @Test
+    void testMaxEntries() {
+        compiledToggles.maxEntries = 2;
+        CompiledToggle<String> toggle = compiledToggles.compile(TOGGLE_NAME, CONTEXT_PROPERTY);
+
+        assertTrue(toggle.isEnabled("value-1"));
+        assertTrue(toggle.isEnabled("value-2"));
+        assertTrue(toggle.isEnabled("value-3"));
+        assertEquals(2, toggle.size());
+
+        // The decisions stored before the limit was reached are still used, Unleash is called for the other values.
+        assertTrue(toggle.isEnabled("value-1"));
+        assertTrue(toggle.isEnabled("value-3"));
+        assertEquals(2, toggle.size());
+        verify(unleash, times(1)).isEnabled(eq(TOGGLE_NAME), argThat(context -> "value-1".equals(context.getProperties().get(CONTEXT_PROPERTY))), eq(false));
+        verify(unleash, times(2)).isEnabled(eq(TOGGLE_NAME), argThat(context -> "value-3".equals(context.getProperties().get(CONTEXT_PROPERTY))), eq(false));
+    }
+
+    @Test
+    void testNullValueIsEvaluatedByUnleash() {
+        CompiledToggle<String> toggle = compiledToggles.compileWithOrgId(TOGGLE_NAME);
+
+        assertTrue(toggle.isEnabled(null));
+        assertTrue(toggle.isEnabled(null));
+
+        // The decision of a null value is never stored.
+        assertEquals(0, toggle.size());
+        verify(unleash, times(2)).isEnabled(eq(TOGGLE_NAME), argThat(context -> !context.getProperties().containsKey("orgId")), eq(false));
+    }
+
+    private static FeatureDefinition buildFeatureDefinition(String name, boolean environmentEnabled) {
+        FeatureDefinition featureDefinition = mock(FeatureDefinition.class);
+        when(featureDefinition.getName()).thenReturn(name);
+        when(featureDefinition.environmentEnabled()).thenReturn(environmentEnabled);
+        return featureDefinition;
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.MapsId;
 import jakarta.persistence.Table;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import static com.fasterxml.jackson.databind.PropertyNamingStrategies.SnakeCaseStrategy;
@@ -31,6 +32,9 @@ public class DrawerReadStatus {
     @JoinColumn(name = "event_id")
     private Event event;
 
+    // The table is partitioned on the creation date of the event, the read statuses are dropped with their event.
+    private LocalDateTime eventCreated;
+
     public DrawerReadStatus() {
     }
 
@@ -53,4 +57,12 @@ public class DrawerReadStatus {
     public void setEvent(Event event) {
         this.event = event;
     }
+
+    public LocalDateTime getEventCreated() {
+        return eventCreated;
+    }
+
+    public void setEventCreated(LocalDateTime eventCreated) {
+        this.eventCreated = eventCreated;
+    }
 }
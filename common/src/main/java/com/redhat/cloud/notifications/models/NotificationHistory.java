@@ -56,6 +56,10 @@ public class NotificationHistory extends CreationTimestamped {
     @JsonIgnore
     private Event event;
 
+    // The table is partitioned on the creation date of the event, the history entries are dropped with their event.
+    @JsonIgnore
+    private LocalDateTime eventCreated;
+
     @Transient
     private UUID endpointId;
 
@@ -130,6 +134,14 @@ public class NotificationHistory extends CreationTimestamped {
         this.event = event;
     }
 
+    public LocalDateTime getEventCreated() {
+        return eventCreated;
+    }
+
+    public void setEventCreated(LocalDateTime eventCreated) {
+        this.eventCreated = eventCreated;
+    }
+
     public UUID getEndpointId() {
         if (endpointId == null && endpoint != null) {
             endpointId = endpoint.getId();
@@ -173,6 +185,13 @@ public class NotificationHistory extends CreationTimestamped {
         this.details = details;
     }
 
+    @Override
+    protected void additionalPrePersist() {
+        if (eventCreated == null && event != null) {
+            eventCreated = event.getCreated();
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -1,15 +1,24 @@
 package com.redhat.cloud.notifications.routers.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotNull;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
 @JsonSerialize
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Meta {
     @NotNull
     private Long count;
 
+    /*
+     * Set when the counting stopped at a cap, the count is then a lower bound of the number of items (e.g. 10000+).
+     */
+    @JsonInclude(NON_NULL)
+    private Boolean countCapped;
+
     public Meta() {
 
     }
@@ -25,4 +34,12 @@ public class Meta {
     public void setCount(Long count) {
         this.count = count;
     }
+
+    public Boolean getCountCapped() {
+        return countCapped;
+    }
+
+    public void setCountCapped(Boolean countCapped) {
+        this.countCapped = countCapped;
+    }
 }
@@ -34,10 +34,18 @@ public class RecipientsAuthorizationCriterionExtractor {
     ConsoleCloudEventParser cloudEventParser = new ConsoleCloudEventParser();
 
     public RecipientsAuthorizationCriterion extract(Event event) {
+        initEventWrapper(event);
+        return extract(baseTransformer.toJsonObject(event));
+    }
+
+    /**
+     * Parses the payload of the given event and sets its event wrapper if it was not already set.
+     * @param event the event which wrapper is required.
+     */
+    public void initEventWrapper(Event event) {
         if (null == event.getEventWrapper()) {
             event.setEventWrapper(getEventWrapper(event.getPayload()));
         }
-        return extract(baseTransformer.toJsonObject(event));
     }
 
     public RecipientsAuthorizationCriterion extract(EmailAggregation emailAggregation) {
@@ -9,21 +9,53 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static jakarta.ws.rs.core.Response.Status.FORBIDDEN;
+import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @ApplicationScoped
 public class AuthenticationLoader {
 
     private static final String SOURCES_API_PSK = "notifications.connector.authentication.secrets-loader.sources-api-psk";
+    private static final String SECRETS_CACHE_TTL = "notifications.connector.authentication.secrets-loader.cache-ttl";
     private static final String SOURCES_TIMER = "sources.get.secret.request";
+    private static final String SOURCES_CACHE_COUNTER = SOURCES_TIMER + ".cache";
+    private static final int MAX_CACHED_SECRETS = 10_000;
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 128;
 
     @ConfigProperty(name = SOURCES_API_PSK, defaultValue = "development-value-123")
     String sourcesApiPsk;
 
+    /*
+     * How long a secret retrieved from Sources is reused before it is retrieved again.
+     * The cache is disabled if this value is zero.
+     */
+    @ConfigProperty(name = SECRETS_CACHE_TTL, defaultValue = "PT1M")
+    Duration secretsCacheTtl;
+
     @Inject
     ConnectorConfig connectorConfig;
 
@@ -41,6 +73,31 @@ public class AuthenticationLoader {
     @Inject
     ObjectMapper objectMapper;
 
+    /*
+     * The secrets are encrypted with a key that is generated when the connector starts and never leaves its memory,
+     * so that they can't be read as plain strings from a heap dump.
+     */
+    private final Map<CacheKey, CachedSecret> secretsCache = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CompletableFuture<SourcesSecretResponse>> pendingSourcesCalls = new ConcurrentHashMap<>();
+    private final SecureRandom secureRandom = new SecureRandom();
+    private SecretKey encryptionKey;
+
+    record CacheKey(String orgId, long secretId) { }
+
+    record CachedSecret(byte[] iv, byte[] encryptedSecret, Instant expiresAt) { }
+
+    @PostConstruct
+    void postConstruct() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256, secureRandom);
+            encryptionKey = keyGenerator.generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support AES.
+            throw new IllegalStateException(e);
+        }
+    }
+
     public Optional<AuthenticationResult> fetchAuthenticationData(String orgId, JsonObject authenticationData) {
         if (authenticationData == null) {
             return Optional.empty();
@@ -48,17 +105,84 @@ public class AuthenticationLoader {
         AuthenticationRequest secretRequest = objectMapper.convertValue(authenticationData, AuthenticationRequest.class);
         validate(secretRequest);
 
-        Log.debugf("Calling Sources to retrieve a secret [orgId=%s, secretId=%d]", orgId, secretRequest.secretId);
+        if (secretsCacheTtl.isZero()) {
+            return Optional.of(new AuthenticationResult(getSecretFromSources(orgId, secretRequest.secretId), secretRequest.authenticationType));
+        }
+
+        CacheKey key = new CacheKey(orgId, secretRequest.secretId);
+        CachedSecret cachedSecret = secretsCache.get(key);
+        if (cachedSecret != null && cachedSecret.expiresAt().isAfter(Instant.now())) {
+            meterRegistry.counter(SOURCES_CACHE_COUNTER, "result", "hit").increment();
+            return Optional.of(new AuthenticationResult(decrypt(cachedSecret), secretRequest.authenticationType));
+        }
+        meterRegistry.counter(SOURCES_CACHE_COUNTER, "result", "miss").increment();
+
+        // Concurrent misses for the same secret wait for the Sources call of the first one.
+        CompletableFuture<SourcesSecretResponse> sourcesCall = new CompletableFuture<>();
+        CompletableFuture<SourcesSecretResponse> pendingSourcesCall = pendingSourcesCalls.putIfAbsent(key, sourcesCall);
+        if (pendingSourcesCall != null) {
+            return Optional.of(new AuthenticationResult(join(pendingSourcesCall), secretRequest.authenticationType));
+        }
+
+        try {
+            SourcesSecretResponse sourcesSecretResponse = getSecretFromSources(orgId, secretRequest.secretId);
+            cache(key, sourcesSecretResponse);
+            sourcesCall.complete(sourcesSecretResponse);
+            return Optional.of(new AuthenticationResult(sourcesSecretResponse, secretRequest.authenticationType));
+        } catch (RuntimeException e) {
+            sourcesCall.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingSourcesCalls.remove(key, sourcesCall);
+        }
+    }
+
+    /**
+     * Removes a secret from the cache. This should be called when the target of a notification rejects the
+     * credentials, because the secret may have been changed in Sources since it was cached.
+     * @param orgId the org ID of the notification.
+     * @param authenticationData the authentication data of the notification.
+     */
+    public void invalidate(String orgId, JsonObject authenticationData) {
+        if (authenticationData == null) {
+            return;
+        }
+        AuthenticationRequest secretRequest = objectMapper.convertValue(authenticationData, AuthenticationRequest.class);
+        if (secretRequest.secretId != null) {
+            Log.debugf("Invalidating cached secret [orgId=%s, secretId=%d]", orgId, secretRequest.secretId);
+            secretsCache.remove(new CacheKey(orgId, secretRequest.secretId));
+        }
+    }
+
+    /**
+     * Invalidates the secret of a notification if the target responded with a 401 or 403 status.
+     * @param orgId the org ID of the notification.
+     * @param authenticationData the authentication data of the notification.
+     * @param e the exception thrown by the REST client of the target.
+     */
+    public void invalidateIfUnauthorized(String orgId, JsonObject authenticationData, WebApplicationException e) {
+        int status = e.getResponse().getStatus();
+        if (status == UNAUTHORIZED.getStatusCode() || status == FORBIDDEN.getStatusCode()) {
+            invalidate(orgId, authenticationData);
+        }
+    }
+
+    void clearCache() {
+        secretsCache.clear();
+    }
+
+    private SourcesSecretResponse getSecretFromSources(String orgId, Long secretId) {
+        Log.debugf("Calling Sources to retrieve a secret [orgId=%s, secretId=%d]", orgId, secretId);
 
         Timer.Sample timer = Timer.start(meterRegistry);
         SourcesSecretResponse sourcesSecretResponse;
         try {
             if (connectorConfig.isSourcesHccClusterEnabled(orgId)) {
                 Log.debug("Using OIDC Sources client");
-                sourcesSecretResponse = sourcesOidcClient.getById(orgId, secretRequest.secretId);
+                sourcesSecretResponse = sourcesOidcClient.getById(orgId, secretId);
             } else {
                 Log.debug("Using PSK Sources client");
-                sourcesSecretResponse = sourcesPskClient.getById(orgId, sourcesApiPsk, secretRequest.secretId);
+                sourcesSecretResponse = sourcesPskClient.getById(orgId, sourcesApiPsk, secretId);
             }
         } finally {
             timer.stop(meterRegistry.timer(SOURCES_TIMER));
@@ -73,8 +197,54 @@ public class AuthenticationLoader {
             throw new IllegalStateException("Invalid secret: password is missing");
         }
 
-        return Optional.of(new AuthenticationResult(sourcesSecretResponse, secretRequest.authenticationType));
+        return sourcesSecretResponse;
+    }
 
+    private static SourcesSecretResponse join(CompletableFuture<SourcesSecretResponse> sourcesCall) {
+        try {
+            return sourcesCall.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private void cache(CacheKey key, SourcesSecretResponse sourcesSecretResponse) {
+        Instant now = Instant.now();
+        if (secretsCache.size() >= MAX_CACHED_SECRETS) {
+            secretsCache.values().removeIf(cachedSecret -> !cachedSecret.expiresAt().isAfter(now));
+            if (secretsCache.size() >= MAX_CACHED_SECRETS) {
+                return;
+            }
+        }
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        // The username and the password are encrypted together so that each IV is only used once with the key.
+        JsonObject secret = new JsonObject()
+            .put("username", sourcesSecretResponse.username)
+            .put("password", sourcesSecretResponse.password);
+        byte[] encryptedSecret = crypt(Cipher.ENCRYPT_MODE, iv, secret.encode().getBytes(UTF_8));
+        secretsCache.put(key, new CachedSecret(iv, encryptedSecret, now.plus(secretsCacheTtl)));
+    }
+
+    private SourcesSecretResponse decrypt(CachedSecret cachedSecret) {
+        JsonObject secret = new JsonObject(new String(crypt(Cipher.DECRYPT_MODE, cachedSecret.iv(), cachedSecret.encryptedSecret()), UTF_8));
+        SourcesSecretResponse sourcesSecretResponse = new SourcesSecretResponse();
+        sourcesSecretResponse.username = secret.getString("username");
+        sourcesSecretResponse.password = secret.getString("password");
+        return sourcesSecretResponse;
+    }
+
+    private byte[] crypt(int mode, byte[] iv, byte[] input) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(mode, encryptionKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Secret cache encryption failed", e);
+        }
     }
 
     static void validate(AuthenticationRequest secretRequest) {
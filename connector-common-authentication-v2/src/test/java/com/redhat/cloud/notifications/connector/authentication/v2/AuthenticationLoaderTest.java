@@ -8,11 +8,18 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -41,6 +48,11 @@ public class AuthenticationLoaderTest {
     @InjectMock
     ConnectorConfig connectorConfig;
 
+    @BeforeEach
+    void beforeEach() {
+        secretsLoader.clearCache();
+    }
+
     @Test
     void testNoSecretId() {
         Optional<AuthenticationResult> secret = secretsLoader.fetchAuthenticationData("", null);
@@ -158,6 +170,69 @@ public class AuthenticationLoaderTest {
         assertEquals(AuthenticationType.BEARER, secretResult.get().authenticationType);
     }
 
+    @Test
+    void testSecretCached() {
+        SourcesSecretResponse sourcesSecret = new SourcesSecretResponse();
+        sourcesSecret.username = "john_doe";
+        sourcesSecret.password = "passw0rd";
+        when(sourcesClient.getById(anyString(), anyString(), eq(123L))).thenReturn(sourcesSecret);
+
+        secretsLoader.fetchAuthenticationData("default_org", buildAuthentication(AuthenticationType.SECRET_TOKEN.name(), 123L));
+        Optional<AuthenticationResult> secretResult = secretsLoader.fetchAuthenticationData("default_org", buildAuthentication(AuthenticationType.BEARER.name(), 123L));
+
+        verify(sourcesClient, times(1)).getById(anyString(), anyString(), eq(123L));
+        assertTrue(secretResult.isPresent());
+        assertEquals(sourcesSecret.username, secretResult.get().username);
+        assertEquals(sourcesSecret.password, secretResult.get().password);
+        // The authentication type comes from the notification, not from the cache.
+        assertEquals(AuthenticationType.BEARER, secretResult.get().authenticationType);
+
+        // The cache is scoped by org.
+        secretsLoader.fetchAuthenticationData("other_org", buildAuthentication(AuthenticationType.SECRET_TOKEN.name(), 123L));
+        verify(sourcesClient, times(2)).getById(anyString(), anyString(), eq(123L));
+    }
+
+    @Test
+    void testSecretInvalidatedWhenUnauthorized() {
+        SourcesSecretResponse sourcesSecret = new SourcesSecretResponse();
+        sourcesSecret.password = "passw0rd";
+        when(sourcesClient.getById(anyString(), anyString(), eq(123L))).thenReturn(sourcesSecret);
+        JsonObject authentication = buildAuthentication(AuthenticationType.SECRET_TOKEN.name(), 123L);
+
+        secretsLoader.fetchAuthenticationData("default_org", authentication);
+        secretsLoader.invalidateIfUnauthorized("default_org", authentication, new WebApplicationException(500));
+        secretsLoader.fetchAuthenticationData("default_org", authentication);
+        verify(sourcesClient, times(1)).getById(anyString(), anyString(), eq(123L));
+
+        secretsLoader.invalidateIfUnauthorized("default_org", authentication, new WebApplicationException(401));
+        secretsLoader.fetchAuthenticationData("default_org", authentication);
+        verify(sourcesClient, times(2)).getById(anyString(), anyString(), eq(123L));
+    }
+
+    @Test
+    void testConcurrentMissesCoalesced() throws InterruptedException {
+        CountDownLatch sourcesLatch = new CountDownLatch(1);
+        SourcesSecretResponse sourcesSecret = new SourcesSecretResponse();
+        sourcesSecret.password = "passw0rd";
+        when(sourcesClient.getById(anyString(), anyString(), eq(123L))).then(invocation -> {
+            sourcesLatch.await(5, SECONDS);
+            return sourcesSecret;
+        });
+
+        List<CompletableFuture<Optional<AuthenticationResult>>> results = IntStream.range(0, 10)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() ->
+                secretsLoader.fetchAuthenticationData("default_org", buildAuthentication(AuthenticationType.SECRET_TOKEN.name(), 123L))))
+            .toList();
+        // Leaves some time to all the calls to reach the loader before Sources responds.
+        Thread.sleep(500L);
+        sourcesLatch.countDown();
+
+        for (CompletableFuture<Optional<AuthenticationResult>> result : results) {
+            assertEquals("passw0rd", result.join().get().password);
+        }
+        verify(sourcesClient, times(1)).getById(anyString(), anyString(), eq(123L));
+    }
+
     private static JsonObject buildAuthentication(String type, Long secretId) {
         JsonObject authenticationParameters = new JsonObject();
         if (type != null) {
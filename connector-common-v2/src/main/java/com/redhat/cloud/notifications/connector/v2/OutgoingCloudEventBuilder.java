@@ -7,6 +7,7 @@ import io.quarkus.arc.DefaultBean;
 import io.quarkus.logging.Log;
 import io.smallrye.reactive.messaging.ce.IncomingCloudEventMetadata;
 import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadataBuilder;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -23,6 +24,12 @@ public class OutgoingCloudEventBuilder {
 
     public static final String CE_SPEC_VERSION = "1.0";
     public static final String CE_TYPE = "com.redhat.console.notifications.history";
+    /**
+     * Extension holding the creation date of the event of the history item.
+     * It is returned to the engine as is, so that the history item is only
+     * searched in its own partition.
+     */
+    public static final String CE_EVENT_CREATED_EXTENSION = "eventcreated";
 
     @Inject
     ConnectorConfig connectorConfig;
@@ -64,16 +71,17 @@ public class OutgoingCloudEventBuilder {
             data.getLong("duration"),
             successful);
 
-        OutgoingCloudEventMetadata<String> outgoingCloudEventMetadata = OutgoingCloudEventMetadata.<String>builder()
+        OutgoingCloudEventMetadataBuilder<String> outgoingCloudEventMetadata = OutgoingCloudEventMetadata.<String>builder()
             .withId(incomingCloudEvent.getId())
             .withType(CE_TYPE)
             .withSpecVersion(CE_SPEC_VERSION)
             .withSource(URI.create(connectorConfig.getConnectorName()))
             .withTimestamp(ZonedDateTime.now(UTC))
-            .withDataContentType("application/json")
-            .build();
+            .withDataContentType("application/json");
+        incomingCloudEvent.getExtension(CE_EVENT_CREATED_EXTENSION)
+            .ifPresent(eventCreated -> outgoingCloudEventMetadata.withExtension(CE_EVENT_CREATED_EXTENSION, eventCreated));
 
-        return Message.of(data.encode()).addMetadata(outgoingCloudEventMetadata);
+        return Message.of(data.encode()).addMetadata(outgoingCloudEventMetadata.build());
     }
 
     public JsonObject buildSuccess(HandledMessageDetails processedMessageDetails) {
@@ -5,12 +5,14 @@ import com.redhat.cloud.notifications.connector.v2.models.HandledMessageDetails;
 import io.quarkus.test.junit.QuarkusTest;
 import io.smallrye.reactive.messaging.ce.IncomingCloudEventMetadata;
 import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.ce.impl.DefaultIncomingCloudEventMetadata;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -120,6 +122,34 @@ class OutgoingCloudEventBuilderTest {
         assertEquals(expectedId, metadata.getId());
     }
 
+    @Test
+    void testPreservesIncomingEventCreatedExtension() {
+        // Given - an incoming cloud event carrying the creation date of the event
+        String eventCreated = "2026-10-18T09:15:30.123456";
+        IncomingCloudEventMetadata<JsonObject> incomingCloudEvent = new DefaultIncomingCloudEventMetadata<>(
+            "1.0.0",
+            "test-cloud-event-id",
+            URI.create("notification"),
+            "com.redhat.console.notification.toCamel.test",
+            "application/json",
+            null,
+            null,
+            null,
+            Map.of(OutgoingCloudEventBuilder.CE_EVENT_CREATED_EXTENSION, eventCreated),
+            new JsonObject().put("test", "data"));
+
+        HandledMessageDetails processedMessageDetails = new HandledMessageDetails("Event sent successfully");
+
+        // When
+        Message<String> cloudEventMessage = outgoingCloudEventBuilder.buildSuccess(incomingCloudEvent, processedMessageDetails, System.currentTimeMillis());
+
+        // Then - verify the extension is returned to the engine
+        OutgoingCloudEventMetadata<?> metadata = cloudEventMessage.getMetadata(OutgoingCloudEventMetadata.class)
+            .orElseThrow(() -> new AssertionError("CloudEvent metadata not found"));
+
+        assertEquals(eventCreated, metadata.getExtension(OutgoingCloudEventBuilder.CE_EVENT_CREATED_EXTENSION).orElse(null));
+    }
+
     @Test
     void testCalculatesDuration() {
 
@@ -14,6 +14,11 @@ public class ExchangeProperty {
     public static final String KAFKA_REINJECTION_DELAY = "kafkaReinjectionDelay";
     public static final String ORG_ID = "orgId";
     public static final String ENDPOINT_ID = "endpointId";
+    /**
+     * Holds the creation date of the event of the history item, which is
+     * returned to the engine as is.
+     */
+    public static final String EVENT_CREATED = "eventCreated";
     /**
      * Holds the original Cloud Event as received from the "incoming" Kafka
      * topic.
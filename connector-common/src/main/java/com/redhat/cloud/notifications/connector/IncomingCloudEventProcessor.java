@@ -7,6 +7,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ENDPOINT_ID;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.EVENT_CREATED;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORG_ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORIGINAL_CLOUD_EVENT;
@@ -20,6 +21,7 @@ public class IncomingCloudEventProcessor implements Processor {
     public static final String CLOUD_EVENT_ID = "id";
     public static final String CLOUD_EVENT_TYPE = "type";
     public static final String CLOUD_EVENT_DATA = "data";
+    public static final String CLOUD_EVENT_EVENT_CREATED = "eventcreated";
 
     @Inject
     ConnectorConfig connectorConfig;
@@ -35,6 +37,8 @@ public class IncomingCloudEventProcessor implements Processor {
 
         exchange.setProperty(ID, cloudEvent.getString(CLOUD_EVENT_ID));
         exchange.setProperty(TYPE, cloudEvent.getString(CLOUD_EVENT_TYPE));
+        // Extension returned to the engine, it allows the engine to search the history item in its own partition.
+        exchange.setProperty(EVENT_CREATED, cloudEvent.getString(CLOUD_EVENT_EVENT_CREATED));
 
         // This property will be used later to determine the invocation time.
         exchange.setProperty(START_TIME, System.currentTimeMillis());
@@ -11,6 +11,7 @@ import org.apache.camel.util.json.JsonObject;
 import java.time.LocalDateTime;
 
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ENDPOINT_ID;
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.EVENT_CREATED;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORG_ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.OUTCOME;
@@ -19,6 +20,7 @@ import static com.redhat.cloud.notifications.connector.ExchangeProperty.START_TI
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.SUCCESSFUL;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.TARGET_URL;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.TYPE;
+import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_EVENT_CREATED;
 import static java.time.ZoneOffset.UTC;
 
 @DefaultBean
@@ -62,6 +64,10 @@ public class OutgoingCloudEventBuilder implements Processor {
         outgoingCloudEvent.put("specversion", CE_SPEC_VERSION);
         outgoingCloudEvent.put("source", exchange.getProperty(RETURN_SOURCE, String.class));
         outgoingCloudEvent.put("id", exchange.getProperty(ID, String.class));
+        String eventCreated = exchange.getProperty(EVENT_CREATED, String.class);
+        if (eventCreated != null) {
+            outgoingCloudEvent.put(CLOUD_EVENT_EVENT_CREATED, eventCreated);
+        }
         outgoingCloudEvent.put("time", LocalDateTime.now(UTC).toString());
         // TODO The serialization to JSON shouldn't be needed here. Migrate this later!
         outgoingCloudEvent.put("data", data.toJson());
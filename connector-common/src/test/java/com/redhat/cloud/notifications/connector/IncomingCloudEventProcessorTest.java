@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.UUID;
 
+import static com.redhat.cloud.notifications.connector.ExchangeProperty.EVENT_CREATED;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORG_ID;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.ORIGINAL_CLOUD_EVENT;
@@ -17,6 +18,7 @@ import static com.redhat.cloud.notifications.connector.ExchangeProperty.RETURN_S
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.START_TIME;
 import static com.redhat.cloud.notifications.connector.ExchangeProperty.TYPE;
 import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_DATA;
+import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_EVENT_CREATED;
 import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_ID;
 import static com.redhat.cloud.notifications.connector.IncomingCloudEventProcessor.CLOUD_EVENT_TYPE;
 import static org.apache.camel.test.junit6.TestSupport.createExchangeWithBody;
@@ -39,11 +41,13 @@ public class IncomingCloudEventProcessorTest extends CamelQuarkusTestSupport {
         // Prepare the JSON payload.
         final String cloudEventId = UUID.randomUUID().toString();
         final String cloudEventType = "cloud-event-type";
+        final String cloudEventEventCreated = "2026-10-18T09:15:30.123456";
 
         final JsonObject incomingCloudEvent = new JsonObject();
 
         incomingCloudEvent.put(CLOUD_EVENT_ID, cloudEventId);
         incomingCloudEvent.put(CLOUD_EVENT_TYPE, cloudEventType);
+        incomingCloudEvent.put(CLOUD_EVENT_EVENT_CREATED, cloudEventEventCreated);
 
         // Cloud Event's data.
         final String cloudEventOrgId = UUID.randomUUID().toString();
@@ -62,6 +66,7 @@ public class IncomingCloudEventProcessorTest extends CamelQuarkusTestSupport {
         Assertions.assertEquals(incomingCloudEvent.encode(), exchange.getProperty(ORIGINAL_CLOUD_EVENT), "the original Cloud Event was not properly set in the exchange's property");
         Assertions.assertEquals(cloudEventId, exchange.getProperty(ID), "the Cloud Event's ID was not properly extracted");
         Assertions.assertEquals(cloudEventType, exchange.getProperty(TYPE), "the Cloud Event's type was not properly extracted");
+        Assertions.assertEquals(cloudEventEventCreated, exchange.getProperty(EVENT_CREATED), "the Cloud Event's event creation date was not properly extracted");
         Assertions.assertNotNull(exchange.getProperty(START_TIME), "the start time of the processing wsa not properly set in the exchange");
         Assertions.assertEquals(this.connectorConfig.getConnectorName(), exchange.getProperty(RETURN_SOURCE), "the source of the CLoud Event was not properly set in the exchange");
         Assertions.assertEquals(cloudEventOrgId, exchange.getProperty(ORG_ID), "the Cloud Event's ORG ID was not properly set in the exchange");
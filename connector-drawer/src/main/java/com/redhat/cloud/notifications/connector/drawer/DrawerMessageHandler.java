@@ -10,6 +10,7 @@ import com.redhat.cloud.notifications.connector.v2.models.HandledMessageDetails;
 import com.redhat.cloud.notifications.qute.templates.IntegrationType;
 import com.redhat.cloud.notifications.qute.templates.TemplateDefinition;
 import com.redhat.cloud.notifications.qute.templates.TemplateService;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
@@ -20,6 +21,7 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,6 +31,9 @@ import static java.util.stream.Collectors.toSet;
 public class DrawerMessageHandler extends MessageHandler {
 
     static final String RECIPIENTS_RESOLVER_RESPONSE_TIME_METRIC = "email.recipients_resolver.response.time";
+    static final String FAN_OUT_RECIPIENTS_METRIC = "drawer.fan_out.recipients";
+    static final String FAN_OUT_MESSAGES_METRIC = "drawer.fan_out.messages";
+    static final String MESSAGE_SIZE_METRIC = "drawer.message.size";
 
     public static final String DRAWER_CHANNEL = "drawer";
 
@@ -79,15 +84,41 @@ public class DrawerMessageHandler extends MessageHandler {
                     Log.debugf("Legacy and new rendered messages are identical");
                 }
             }
-            Message<JsonObject> builtKafkaMessage = DrawerPayloadBuilder.buildDrawerMessage(notification.getDrawerEntryPayload(), recipientsList);
+            List<Message<JsonObject>> builtKafkaMessages = DrawerPayloadBuilder.buildDrawerMessages(notification.getDrawerEntryPayload(), recipientsList, drawerConnectorConfig.getMaxUsernamesPerMessage());
             if (drawerConnectorConfig.pushNotificationsToKafka()) {
-                emitter.send(builtKafkaMessage);
+                recordMessageSizes(builtKafkaMessages);
+                for (Message<JsonObject> builtKafkaMessage : builtKafkaMessages) {
+                    emitter.send(builtKafkaMessage);
+                }
             }
+            recordFanOutMetrics(recipientsList.size(), builtKafkaMessages.size());
         }
 
         return new HandledDrawerMessageDetails(recipientsList);
     }
 
+    private void recordFanOutMetrics(int recipientsCount, int messagesCount) {
+        DistributionSummary.builder(FAN_OUT_RECIPIENTS_METRIC)
+            .register(meterRegistry)
+            .record(recipientsCount);
+        DistributionSummary.builder(FAN_OUT_MESSAGES_METRIC)
+            .register(meterRegistry)
+            .record(messagesCount);
+    }
+
+    /*
+     * Encoding each message again to measure it would double the encoding cost of the fan-out, the sizes are estimated
+     * from a single encoded message instead.
+     */
+    private void recordMessageSizes(List<Message<JsonObject>> messages) {
+        DistributionSummary messageSize = DistributionSummary.builder(MESSAGE_SIZE_METRIC)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        for (int size : DrawerPayloadBuilder.estimateMessageSizes(messages)) {
+            messageSize.record(size);
+        }
+    }
+
     private Set<String> fetchRecipients(DrawerNotificationToConnector drawerNotification) {
 
         boolean subscribedByDefault = true;
@@ -4,13 +4,19 @@ import com.redhat.cloud.notifications.connector.drawer.models.DrawerEntry;
 import com.redhat.cloud.notifications.connector.drawer.models.DrawerEntryPayload;
 import io.quarkus.logging.Log;
 import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import io.vertx.core.json.JsonObject;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import java.net.URI;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.ZoneOffset.UTC;
 
 public class DrawerPayloadBuilder {
@@ -18,14 +24,68 @@ public class DrawerPayloadBuilder {
     public static final String CE_SPEC_VERSION = "1.0.2";
     public static final String CE_TYPE = "com.redhat.console.notifications.drawer";
 
-    public static Message<JsonObject> buildDrawerMessage(final DrawerEntryPayload entryPayloadModel, final Set<String> recipients) {
+    /**
+     * Builds the drawer messages of an event, each message contains at most {@code maxUsernamesPerMessage} usernames.
+     * The usernames are sorted before they are split, so a retried event produces the same chunks with the same
+     * cloud event IDs and Kafka keys. The first chunk keeps the event ID as cloud event ID, the following chunks use
+     * an ID derived from the event ID and the chunk index. The Kafka key also contains the chunk index, which spreads
+     * the chunks of an org-wide event over the partitions of the topic.
+     * @param entryPayloadModel the drawer entry payload shared by all messages.
+     * @param recipients the usernames of the recipients.
+     * @param maxUsernamesPerMessage the maximum number of usernames per message.
+     * @return the drawer messages.
+     */
+    public static List<Message<JsonObject>> buildDrawerMessages(final DrawerEntryPayload entryPayloadModel, final Set<String> recipients, final int maxUsernamesPerMessage) {
+        List<String> sortedRecipients = recipients.stream().sorted().toList();
+        int chunkSize = Math.max(1, maxUsernamesPerMessage);
+
+        List<Message<JsonObject>> messages = new ArrayList<>();
+        for (int from = 0, chunkIndex = 0; from < sortedRecipients.size(); from += chunkSize, chunkIndex++) {
+            Set<String> chunk = new LinkedHashSet<>(sortedRecipients.subList(from, Math.min(from + chunkSize, sortedRecipients.size())));
+            UUID eventId = entryPayloadModel.getEventId();
+            UUID cloudEventId = chunkIndex == 0 ? eventId : UUID.nameUUIDFromBytes((eventId + "/" + chunkIndex).getBytes(UTF_8));
+            messages.add(buildDrawerMessage(entryPayloadModel, chunk, cloudEventId, eventId + "/" + chunkIndex));
+        }
+        return messages;
+    }
+
+    /**
+     * Estimates the encoded size of each drawer message of an event without encoding all of them. The messages of an
+     * event only differ by their usernames, so only the first message is encoded and the size of each message is
+     * derived from the length of its usernames. The estimate is exact unless a username contains escaped characters.
+     * @param messages the drawer messages of an event, as returned by {@link #buildDrawerMessages}.
+     * @return the estimated size in bytes of each message.
+     */
+    public static int[] estimateMessageSizes(final List<Message<JsonObject>> messages) {
+        int[] sizes = new int[messages.size()];
+        if (messages.isEmpty()) {
+            return sizes;
+        }
+        JsonObject firstPayload = messages.getFirst().getPayload();
+        int sharedSize = firstPayload.toBuffer().length() - getUsernamesSize(firstPayload);
+        for (int i = 0; i < messages.size(); i++) {
+            sizes[i] = sharedSize + getUsernamesSize(messages.get(i).getPayload());
+        }
+        return sizes;
+    }
+
+    private static int getUsernamesSize(final JsonObject payload) {
+        int size = 0;
+        for (Object username : payload.getJsonArray("usernames")) {
+            // The username is encoded between quotes and followed by a separator.
+            size += username.toString().getBytes(UTF_8).length + 3;
+        }
+        return size;
+    }
+
+    private static Message<JsonObject> buildDrawerMessage(final DrawerEntryPayload entryPayloadModel, final Set<String> recipients, final UUID cloudEventId, final String kafkaKey) {
         DrawerEntry drawerEntry = new DrawerEntry();
         drawerEntry.setPayload(entryPayloadModel);
         drawerEntry.setUsernames(recipients);
         JsonObject myPayload = JsonObject.mapFrom(drawerEntry);
 
         OutgoingCloudEventMetadata<JsonObject> cloudEventMetadata = OutgoingCloudEventMetadata.<JsonObject>builder()
-            .withId(entryPayloadModel.getEventId().toString())
+            .withId(cloudEventId.toString())
             .withType(CE_TYPE)
             .withSpecVersion(CE_SPEC_VERSION)
             .withDataContentType("application/json")
@@ -35,7 +95,12 @@ public class DrawerPayloadBuilder {
 
         Log.debugf("Built message %s", myPayload);
 
+        OutgoingKafkaRecordMetadata<String> kafkaMetadata = OutgoingKafkaRecordMetadata.<String>builder()
+            .withKey(kafkaKey)
+            .build();
+
         return Message.of(myPayload)
-            .addMetadata(cloudEventMetadata);
+            .addMetadata(cloudEventMetadata)
+            .addMetadata(kafkaMetadata);
     }
 }
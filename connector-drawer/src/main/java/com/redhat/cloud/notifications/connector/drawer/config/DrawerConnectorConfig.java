@@ -9,8 +9,13 @@ import java.util.Map;
 @ApplicationScoped
 public class DrawerConnectorConfig extends HttpConnectorConfig {
 
+    private static final String MAX_USERNAMES_PER_MESSAGE = "notifications.connector.drawer.max-usernames-per-message";
     private static final String RECIPIENTS_RESOLVER_USER_SERVICE_URL = "notifications.connector.recipients-resolver.url";
 
+    // The recipients of an event are split into several drawer messages above that size.
+    @ConfigProperty(name = MAX_USERNAMES_PER_MESSAGE, defaultValue = "1000")
+    int maxUsernamesPerMessage;
+
     @ConfigProperty(name = RECIPIENTS_RESOLVER_USER_SERVICE_URL)
     String recipientsResolverServiceURL;
 
@@ -26,6 +31,7 @@ public class DrawerConnectorConfig extends HttpConnectorConfig {
     @Override
     protected Map<String, Object> getLoggedConfiguration() {
         Map<String, Object> config = super.getLoggedConfiguration();
+        config.put(MAX_USERNAMES_PER_MESSAGE, maxUsernamesPerMessage);
         config.put(RECIPIENTS_RESOLVER_USER_SERVICE_URL, recipientsResolverServiceURL);
         config.put(toggleUseCommonTemplateModule, useCommonTemplateModule());
         config.put(togglePushNotificationsToKafka, pushNotificationsToKafka());
@@ -40,4 +46,8 @@ public class DrawerConnectorConfig extends HttpConnectorConfig {
         return unleash.isEnabled(togglePushNotificationsToKafka, true);
     }
 
+    public int getMaxUsernamesPerMessage() {
+        return maxUsernamesPerMessage;
+    }
+
 }
@@ -0,0 +1,86 @@
+package com.redhat.cloud.notifications.connector.drawer;
+
+import com.redhat.cloud.notifications.connector.drawer.models.DrawerEntryPayload;
+import io.smallrye.reactive.messaging.ce.impl.DefaultOutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import io.vertx.core.json.JsonObject;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrawerPayloadBuilderTest {
+
+    private static final UUID EVENT_ID = UUID.fromString("3ccfb747-610d-42e9-97de-05d43d07319d");
+
+    @Test
+    void testRecipientsAreSplitIntoStableChunks() {
+        DrawerEntryPayload payload = new DrawerEntryPayload();
+        payload.setEventId(EVENT_ID);
+        payload.setTitle("the title");
+        Set<String> recipients = Set.of("user-5", "user-3", "user-1", "user-4", "user-2");
+
+        List<Message<JsonObject>> messages = DrawerPayloadBuilder.buildDrawerMessages(payload, recipients, 2);
+
+        assertEquals(3, messages.size());
+        assertEquals(List.of("user-1", "user-2"), messages.get(0).getPayload().getJsonArray("usernames").getList());
+        assertEquals(List.of("user-3", "user-4"), messages.get(1).getPayload().getJsonArray("usernames").getList());
+        assertEquals(List.of("user-5"), messages.get(2).getPayload().getJsonArray("usernames").getList());
+
+        Set<String> cloudEventIds = new HashSet<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Message<JsonObject> message = messages.get(i);
+            assertEquals(EVENT_ID.toString(), message.getPayload().getJsonObject("payload").getString("id"));
+            assertEquals(EVENT_ID + "/" + i, message.getMetadata(OutgoingKafkaRecordMetadata.class).get().getKey());
+            cloudEventIds.add(message.getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId());
+        }
+        assertEquals(3, cloudEventIds.size());
+        assertTrue(cloudEventIds.contains(EVENT_ID.toString()));
+
+        // A retried event produces the same chunks with the same IDs.
+        List<Message<JsonObject>> retriedMessages = DrawerPayloadBuilder.buildDrawerMessages(payload, new HashSet<>(recipients), 2);
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(messages.get(i).getPayload().getJsonArray("usernames"), retriedMessages.get(i).getPayload().getJsonArray("usernames"));
+            assertEquals(messages.get(i).getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId(),
+                retriedMessages.get(i).getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId());
+        }
+        assertNotEquals(messages.get(0).getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId(),
+            messages.get(1).getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId());
+    }
+
+    @Test
+    void testSmallRecipientsSetIsNotSplit() {
+        DrawerEntryPayload payload = new DrawerEntryPayload();
+        payload.setEventId(EVENT_ID);
+
+        List<Message<JsonObject>> messages = DrawerPayloadBuilder.buildDrawerMessages(payload, Set.of("user-1", "user-2"), 1000);
+
+        assertEquals(1, messages.size());
+        assertEquals(2, messages.getFirst().getPayload().getJsonArray("usernames").size());
+        assertEquals(EVENT_ID.toString(), messages.getFirst().getMetadata(DefaultOutgoingCloudEventMetadata.class).get().getId());
+    }
+
+    @Test
+    void testMessageSizesEstimate() {
+        DrawerEntryPayload payload = new DrawerEntryPayload();
+        payload.setEventId(EVENT_ID);
+        payload.setTitle("the title");
+        Set<String> recipients = Set.of("user-1", "user-22", "user-333", "usér-4444", "user-55555");
+
+        List<Message<JsonObject>> messages = DrawerPayloadBuilder.buildDrawerMessages(payload, recipients, 2);
+        int[] sizes = DrawerPayloadBuilder.estimateMessageSizes(messages);
+
+        assertEquals(messages.size(), sizes.length);
+        for (int i = 0; i < messages.size(); i++) {
+            assertEquals(messages.get(i).getPayload().toBuffer().length(), sizes[i]);
+        }
+        assertEquals(0, DrawerPayloadBuilder.estimateMessageSizes(List.of()).length);
+    }
+}
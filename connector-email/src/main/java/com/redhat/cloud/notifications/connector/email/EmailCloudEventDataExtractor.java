@@ -61,7 +61,7 @@ public class EmailCloudEventDataExtractor extends CloudEventDataExtractor {
         if (null != payloadId) {
             final PayloadDetails payloadDetails = this.internalEngine.getPayloadDetails(payloadId);
             Log.debugf("Received payload from engine %s", payloadDetails);
-            dataToProcess = new JsonObject(payloadDetails.contents());
+            dataToProcess = new JsonObject(payloadDetails.decompressedContents());
             exchange.setProperty(ExchangeProperty.PAYLOAD_ID, payloadId);
             exchange.setProperty(ORG_ID, dataToProcess.getString("org_id"));
             exchange.setProperty(ENDPOINT_ID, dataToProcess.getString("endpoint_id"));
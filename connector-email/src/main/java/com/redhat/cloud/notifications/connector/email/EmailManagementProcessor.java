@@ -10,12 +10,18 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -42,6 +48,16 @@ public class EmailManagementProcessor implements Processor {
     static final String BOP_RESPONSE_TIME_METRIC = "email.bop.response.time";
     static final String RECIPIENTS_RESOLVER_RESPONSE_TIME_METRIC = "email.recipients_resolver.response.time";
 
+    private Timer bopResponseTimer;
+
+    @PostConstruct
+    void postConstruct() {
+        // Each BOP request carries one chunk of the recipients, the histogram shows the latency distribution per chunk.
+        bopResponseTimer = Timer.builder(BOP_RESPONSE_TIME_METRIC)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
     @Override
     public void process(final Exchange exchange) {
         // fetch recipients
@@ -61,15 +77,49 @@ public class EmailManagementProcessor implements Processor {
         final String subject = exchange.getProperty(ExchangeProperty.RENDERED_SUBJECT, String.class);
         final String body = exchange.getProperty(ExchangeProperty.RENDERED_BODY, String.class);
         final String sender = exchange.getProperty(ExchangeProperty.EMAIL_SENDER, String.class);
+        final String orgId = exchange.getProperty(ORG_ID, String.class);
+        final String historyId = exchange.getProperty(ID, String.class);
+
+        if (packedRecipients.size() == 1) {
+            sendChunkToBop(packedRecipients.getFirst(), subject, body, sender);
+            Log.infof("Sent Email notification 1/1 [orgId=%s, historyId=%s]", orgId, historyId);
+            return;
+        }
 
-        for (int i = 0; i < packedRecipients.size(); i++) {
-            final Timer.Sample bopResponseTimeMetric = Timer.start(meterRegistry);
-            bopManager.sendToBop(packedRecipients.get(i), subject, body, sender);
-            bopResponseTimeMetric.stop(meterRegistry.timer(BOP_RESPONSE_TIME_METRIC));
-            Log.infof("Sent Email notification %d/%d [orgId=%s, historyId=%s]", i + 1, packedRecipients.size(), exchange.getProperty(ORG_ID, String.class), exchange.getProperty(ID, String.class));
+        // The chunks share the same content, they are sent concurrently with a bounded parallelism.
+        AtomicInteger sentChunks = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(packedRecipients.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(emailConnectorConfig.getBopMaxConcurrentRequests(), Thread.ofVirtual().factory())) {
+            for (List<String> recipients : packedRecipients) {
+                futures.add(executor.submit(() -> {
+                    sendChunkToBop(recipients, subject, body, sender);
+                    Log.infof("Sent Email notification %d/%d [orgId=%s, historyId=%s]", sentChunks.incrementAndGet(), packedRecipients.size(), orgId, historyId);
+                }));
+            }
+        }
+
+        // The executor is closed once all the chunks were processed, the first failure is propagated to the route.
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Sending email to BOP service failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending email to BOP service", e);
+            }
         }
     }
 
+    private void sendChunkToBop(List<String> recipients, String subject, String body, String sender) {
+        final Timer.Sample bopResponseTimeMetric = Timer.start(meterRegistry);
+        bopManager.sendToBop(recipients, subject, body, sender);
+        bopResponseTimeMetric.stop(bopResponseTimer);
+    }
+
     private static List<List<String>> partition(Set<String> collection, int n) {
         AtomicInteger counter = new AtomicInteger();
         return collection.stream()
@@ -14,6 +14,7 @@ public class EmailConnectorConfig extends HttpConnectorConfig {
     private static final String BOP_API_TOKEN = "notifications.connector.user-provider.bop.api_token";
     private static final String BOP_CLIENT_ID = "notifications.connector.user-provider.bop.client_id";
     private static final String BOP_ENV = "notifications.connector.user-provider.bop.env";
+    private static final String BOP_MAX_CONCURRENT_REQUESTS = "notifications.connector.bop.max-concurrent-requests";
     private static final String KAFKA_INCOMING_HIGH_VOLUME_MAX_POLL_INTERVAL_MS = "notifications.connector.kafka.incoming.high-volume.max-poll-interval-ms";
     private static final String KAFKA_INCOMING_HIGH_VOLUME_MAX_POLL_RECORDS = "notifications.connector.kafka.incoming.high-volume.max-poll-records";
     private static final String KAFKA_INCOMING_HIGH_VOLUME_POLL_ON_ERROR = "notifications.connector.kafka.incoming.high-volume.poll-on-error";
@@ -31,6 +32,13 @@ public class EmailConnectorConfig extends HttpConnectorConfig {
     @ConfigProperty(name = BOP_ENV)
     String bopEnv;
 
+    /*
+     * Maximum number of BOP requests sent concurrently for a single notification
+     * whose recipients are split into several emails.
+     */
+    @ConfigProperty(name = BOP_MAX_CONCURRENT_REQUESTS, defaultValue = "4")
+    int bopMaxConcurrentRequests;
+
     // https://docs.confluent.io/platform/current/installation/configuration/consumer-configs.html#max-poll-interval-ms
     @ConfigProperty(name = KAFKA_INCOMING_HIGH_VOLUME_MAX_POLL_INTERVAL_MS, defaultValue = "300000")
     int incomingKafkaHighVolumeMaxPollIntervalMs;
@@ -74,6 +82,7 @@ public class EmailConnectorConfig extends HttpConnectorConfig {
          */
 
         config.put(BOP_ENV, bopEnv);
+        config.put(BOP_MAX_CONCURRENT_REQUESTS, bopMaxConcurrentRequests);
         config.put(KAFKA_INCOMING_HIGH_VOLUME_MAX_POLL_INTERVAL_MS, incomingKafkaHighVolumeMaxPollIntervalMs);
         config.put(KAFKA_INCOMING_HIGH_VOLUME_MAX_POLL_RECORDS, incomingKafkaHighVolumeMaxPollRecords);
         config.put(KAFKA_INCOMING_HIGH_VOLUME_POLL_ON_ERROR, incomingKafkaHighVolumePollOnError);
@@ -103,6 +112,10 @@ public class EmailConnectorConfig extends HttpConnectorConfig {
         return this.bopEnv;
     }
 
+    public int getBopMaxConcurrentRequests() {
+        return bopMaxConcurrentRequests;
+    }
+
     public int getIncomingKafkaHighVolumeMaxPollIntervalMs() {
         return this.incomingKafkaHighVolumeMaxPollIntervalMs;
     }
@@ -2,6 +2,14 @@ package com.redhat.cloud.notifications.connector.email.payload;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Represents the response sent by the engine when requested for a payload.
  * @param contents the received payload contents.
@@ -12,4 +20,27 @@ public record PayloadDetails(@JsonProperty("contents") String contents) {
      * payload that we send over Kafka.
      */
     public static final String PAYLOAD_DETAILS_ID_KEY = "payload_details_id";
+    /**
+     * The marker that prefixes the contents which were compressed with gzip
+     * and then encoded with Base64 by the engine.
+     */
+    public static final String GZIP_CONTENTS_PREFIX = "gzip:";
+
+    /**
+     * Returns the payload contents, decompressing them if the engine stored
+     * them compressed.
+     * @return the JSON payload contents.
+     */
+    public String decompressedContents() {
+        if (contents == null || !contents.startsWith(GZIP_CONTENTS_PREFIX)) {
+            return contents;
+        }
+
+        final byte[] compressed = Base64.getDecoder().decode(contents.substring(GZIP_CONTENTS_PREFIX.length()));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), UTF_8);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
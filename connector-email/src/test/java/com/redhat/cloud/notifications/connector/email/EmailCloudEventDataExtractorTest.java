@@ -15,12 +15,16 @@ import org.apache.camel.quarkus.test.CamelQuarkusTestSupport;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import static com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty.EMAIL_RECIPIENTS;
 import static com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty.EMAIL_SENDER;
@@ -30,6 +34,7 @@ import static com.redhat.cloud.notifications.connector.email.constants.ExchangeP
 import static com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty.SUBSCRIBED_BY_DEFAULT;
 import static com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty.SUBSCRIBERS;
 import static com.redhat.cloud.notifications.connector.email.constants.ExchangeProperty.UNSUBSCRIBERS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.camel.test.junit6.TestSupport.createExchangeWithBody;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
@@ -156,6 +161,37 @@ public class EmailCloudEventDataExtractorTest extends CamelQuarkusTestSupport {
         assertTrue(exchange.getProperty(RENDERED_SUBJECT, String.class).startsWith("Instant notification"));
     }
 
+    /**
+     * Tests that a payload stored compressed by the engine is decompressed
+     * before being processed.
+     */
+    @Test
+    void testCompressedPayloadFetchedFromEngine() throws IOException {
+
+        String payloadId = "456";
+        JsonObject mockedPayload = JsonObject.of(
+            "recipient_settings", new ArrayList<>(),
+            "event_data", generateDefaultPatchEventData()
+        );
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(mockedPayload.encode().getBytes(UTF_8));
+        }
+        String contents = PayloadDetails.GZIP_CONTENTS_PREFIX + Base64.getEncoder().encodeToString(compressed.toByteArray());
+        when(internalEngine.getPayloadDetails(payloadId)).thenReturn(new PayloadDetails(contents));
+
+        Exchange exchange = createExchangeWithBody(context, "");
+
+        JsonObject cloudEventData = new JsonObject();
+        cloudEventData.put(PayloadDetails.PAYLOAD_DETAILS_ID_KEY, payloadId);
+
+        emailCloudEventDataExtractor.extract(exchange, cloudEventData);
+
+        assertEquals(payloadId, exchange.getProperty(ExchangeProperty.PAYLOAD_ID, String.class));
+        assertTrue(exchange.getProperty(RENDERED_BODY, String.class).startsWith("<!DOCTYPE html PUBLIC"));
+    }
+
     public static Map<String, Object> generateDefaultPatchEventData() {
         Map<String, Object> source = new HashMap<>();
         source.put("event_type", Map.of("display_name", Rhel.PATCH_NEW_ADVISORY));
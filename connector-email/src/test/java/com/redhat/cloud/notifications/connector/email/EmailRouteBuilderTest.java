@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.redhat.cloud.notifications.connector.ConnectorRoutesTest.KAFKA_SOURCE_MOCK;
@@ -46,10 +47,12 @@ import static email.TestAdvisorTemplate.JSON_ADVISOR_DEFAULT_AGGREGATION_CONTEXT
 import static email.TestInventoryTemplate.JSON_INVENTORY_DEFAULT_AGGREGATION_CONTEXT;
 import static email.TestPatchTemplate.JSON_PATCH_DEFAULT_AGGREGATION_CONTEXT;
 import static email.TestResourceOptimizationTemplate.JSON_RESOURCE_OPTIMIZATION_DEFAULT_AGGREGATION_CONTEXT;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.camel.builder.AdviceWith.adviceWith;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -226,6 +229,63 @@ class EmailRouteBuilderTest extends CamelQuarkusTestSupport {
         }
     }
 
+    @Test
+    void testBopChunksSentConcurrently() throws Exception {
+        Set<User> users = TestUtils.createUsers("user-1", "user-2", "user-3", "user-4", "user-5", "user-6", "user-7");
+        String strUsers = objectMapper.writeValueAsString(users);
+        initMocks(200, strUsers, 200, null);
+
+        // Each chunk waits for the other ones, which only completes if the three chunks are sent at the same time.
+        CountDownLatch sendingChunks = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            sendingChunks.countDown();
+            if (!sendingChunks.await(5, SECONDS)) {
+                throw new IllegalStateException("The chunks were not sent concurrently");
+            }
+            return invocation.callRealMethod();
+        }).when(bopManager).sendToBop(anyList(), anyString(), anyString(), anyString());
+
+        kafkaConnectorToEngine.expectedMessageCount(1);
+        buildCloudEventAndSendIt(null);
+
+        kafkaConnectorToEngine.assertIsSatisfied(10000);
+
+        final ArgumentCaptor<List<String>> listCaptor = ArgumentCaptor.forClass((Class) List.class);
+        verify(bopManager, times(3))
+            .sendToBop(listCaptor.capture(), anyString(), anyString(), anyString());
+
+        checkRecipientsAndHistory(users.size(), listCaptor.getAllValues(), kafkaConnectorToEngine, false, "user-1-email");
+    }
+
+    @Test
+    void testFailureOfOneBopChunk() throws Exception {
+        Set<User> users = TestUtils.createUsers("user-1", "user-2", "user-3", "user-4", "user-5", "user-6", "user-7");
+        String strUsers = objectMapper.writeValueAsString(users);
+        initMocks(200, strUsers, 200, null);
+
+        // Only the chunk which contains the first user is rejected by BOP.
+        MockServerLifecycleManager.getClient().stubFor(
+            post(urlEqualTo("/v1/sendEmails"))
+                .atPriority(1)
+                .withRequestBody(containing("user-1-email"))
+                .willReturn(aResponse()
+                    .withStatus(500)
+                    .withHeader("Content-Type", "application/json"))
+        );
+
+        kafkaConnectorToEngine.expectedMessageCount(1);
+        buildCloudEventAndSendIt(null);
+
+        kafkaConnectorToEngine.assertIsSatisfied();
+
+        // The other chunks are still sent, but the notification is reported as failed.
+        List<JsonObject> responseDetails = checkRecipientsAndHistoryFailure(kafkaConnectorToEngine, 7, true);
+        for (JsonObject responseDetail : responseDetails) {
+            assertEquals(500, responseDetail.getJsonObject("error").getInteger("http_status_code"));
+        }
+        MockServerLifecycleManager.getClient().verify(2, postRequestedFor(urlEqualTo("/v1/sendEmails")).withRequestBody(notContaining("user-1-email")));
+    }
+
     @Test
     void testFailureFetchingRecipientsInternalError() throws Exception {
 
@@ -324,7 +384,9 @@ class EmailRouteBuilderTest extends CamelQuarkusTestSupport {
 
     private List<JsonObject> checkRecipientsAndHistoryFailure(MockEndpoint kafkaEndpoint, int expectedRecipientNumber, boolean errorDetailsExpected) {
 
-        int expectedBopRequests = expectedRecipientNumber > 0 ? 1 : 0;
+        // The chunks are sent concurrently, a failing chunk does not prevent the other ones from being sent.
+        int chunkSize = emailConnectorConfig.getMaxRecipientsPerEmail() - 1;
+        int expectedBopRequests = (expectedRecipientNumber + chunkSize - 1) / chunkSize;
         verify(bopManager, times(expectedBopRequests))
             .sendToBop(anyList(), anyString(), anyString(), anyString());
 
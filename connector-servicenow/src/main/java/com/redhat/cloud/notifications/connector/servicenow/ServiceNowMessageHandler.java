@@ -62,6 +62,9 @@ public class ServiceNowMessageHandler extends MessageHandler {
                 ? serviceNowRestClient.postWithBasicAuth(authorizationHeader.get(), notification.getTargetUrl(), payload)
                 : serviceNowRestClient.post(notification.getTargetUrl(), payload)) {
             handledMessageDetails.httpStatus = response.getStatus();
+        } catch (WebApplicationException e) {
+            authenticationLoader.invalidateIfUnauthorized(notification.getOrgId(), notification.metadata.getJsonObject(AUTHENTICATION_KEY), e);
+            throw e;
         }
 
         Log.infof("Delivered event %s (orgId %s account %s) to %s",
@@ -76,6 +76,9 @@ public class SplunkMessageHandler extends MessageHandler {
 
         try (Response response = splunkRestClient.post(authorizationHeader, targetUrl, payload)) {
             handledMessageDetails.httpStatus = response.getStatus();
+        } catch (WebApplicationException e) {
+            authenticationLoader.invalidateIfUnauthorized(notification.getOrgId(), notification.metadata.getJsonObject(AUTHENTICATION_KEY), e);
+            throw e;
         }
 
         Log.infof("Delivered event %s (orgId %s account %s) to %s",
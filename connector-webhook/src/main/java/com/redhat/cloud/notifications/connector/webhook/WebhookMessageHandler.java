@@ -53,24 +53,29 @@ public class WebhookMessageHandler extends MessageHandler {
         handledMessageDetails.targetUrl = notification.getEndpointProperties().getTargetUrl();
 
         final String encodedPayload = notification.getPayload().encode();
-        if (authenticationResultOptional.isPresent()) {
-            if (BEARER == authenticationResultOptional.get().authenticationType) {
-                final String bearerToken = "Bearer " + authenticationResultOptional.get().password;
-                try (Response response = webhookRestClient.postWithBearer(bearerToken, notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
-                    handledMessageDetails.httpStatus = response.getStatus();
+        try {
+            if (authenticationResultOptional.isPresent()) {
+                if (BEARER == authenticationResultOptional.get().authenticationType) {
+                    final String bearerToken = "Bearer " + authenticationResultOptional.get().password;
+                    try (Response response = webhookRestClient.postWithBearer(bearerToken, notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
+                        handledMessageDetails.httpStatus = response.getStatus();
+                    }
+                } else if (SECRET_TOKEN == authenticationResultOptional.get().authenticationType) {
+                    final String insightToken = authenticationResultOptional.get().password;
+                    try (Response response = webhookRestClient.postWithInsightToken(insightToken, notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
+                        handledMessageDetails.httpStatus = response.getStatus();
+                    }
+                } else {
+                    throw new RuntimeException("Unsupported authentication type: " + authenticationResultOptional.get().authenticationType);
                 }
-            } else if (SECRET_TOKEN == authenticationResultOptional.get().authenticationType) {
-                final String insightToken = authenticationResultOptional.get().password;
-                try (Response response = webhookRestClient.postWithInsightToken(insightToken, notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
+            } else {
+                try (Response response = webhookRestClient.post(notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
                     handledMessageDetails.httpStatus = response.getStatus();
                 }
-            } else {
-                throw new RuntimeException("Unsupported authentication type: " + authenticationResultOptional.get().authenticationType);
-            }
-        } else {
-            try (Response response = webhookRestClient.post(notification.getEndpointProperties().getTargetUrl(), encodedPayload)) {
-                handledMessageDetails.httpStatus = response.getStatus();
             }
+        } catch (WebApplicationException e) {
+            authenticationLoader.invalidateIfUnauthorized(notification.getOrgId(), notification.getAuthentication(), e);
+            throw e;
         }
 
         return handledMessageDetails;
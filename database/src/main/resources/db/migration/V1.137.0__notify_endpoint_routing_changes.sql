@@ -0,0 +1,70 @@
+-- Notifies the engine instances listening on the "endpoint_routing_changes" channel whenever the endpoints targeted
+-- by the events of an org may have changed, so that they can invalidate their in-memory endpoint routing table.
+-- The payload is the org ID of the changed endpoint, or an empty string when the change affects all orgs (endpoints
+-- without an org ID are shared by all orgs).
+
+CREATE OR REPLACE FUNCTION notify_endpoint_routing_change_from_endpoint() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('endpoint_routing_changes', COALESCE(OLD.org_id, ''));
+        RETURN OLD;
+    END IF;
+    IF TG_OP = 'UPDATE' AND OLD.org_id IS DISTINCT FROM NEW.org_id THEN
+        PERFORM pg_notify('endpoint_routing_changes', COALESCE(OLD.org_id, ''));
+    END IF;
+    PERFORM pg_notify('endpoint_routing_changes', COALESCE(NEW.org_id, ''));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- The server_errors columns are updated very frequently by the engine and have no impact on the routing, so they
+-- don't fire this trigger.
+CREATE TRIGGER trg_endpoints_routing_change
+    AFTER INSERT OR DELETE OR UPDATE OF org_id, enabled, status, endpoint_type_v2, endpoint_sub_type ON endpoints
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint();
+
+-- Used by the endpoint/event type links and by the endpoint properties tables, which all reference the endpoint
+-- through a column named after the first trigger argument.
+CREATE OR REPLACE FUNCTION notify_endpoint_routing_change_from_endpoint_reference() RETURNS trigger AS $$
+DECLARE
+    changed_endpoint_id UUID;
+    changed_org_id TEXT;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed_endpoint_id := (to_jsonb(OLD) ->> TG_ARGV[0])::UUID;
+    ELSE
+        changed_endpoint_id := (to_jsonb(NEW) ->> TG_ARGV[0])::UUID;
+    END IF;
+
+    SELECT org_id INTO changed_org_id FROM endpoints WHERE id = changed_endpoint_id;
+    -- When the endpoint itself was deleted, the notification was already sent by the endpoints trigger.
+    IF FOUND THEN
+        PERFORM pg_notify('endpoint_routing_changes', COALESCE(changed_org_id, ''));
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        RETURN OLD;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_endpoint_event_type_routing_change
+    AFTER INSERT OR UPDATE OR DELETE ON endpoint_event_type
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint_reference('endpoint_id');
+
+CREATE TRIGGER trg_endpoint_webhooks_routing_change
+    AFTER INSERT OR UPDATE OR DELETE ON endpoint_webhooks
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint_reference('id');
+
+CREATE TRIGGER trg_camel_properties_routing_change
+    AFTER INSERT OR UPDATE OR DELETE ON camel_properties
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint_reference('id');
+
+CREATE TRIGGER trg_pagerduty_properties_routing_change
+    AFTER INSERT OR UPDATE OR DELETE ON pagerduty_properties
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint_reference('id');
+
+CREATE TRIGGER trg_email_properties_routing_change
+    AFTER INSERT OR UPDATE OR DELETE ON email_properties
+    FOR EACH ROW EXECUTE FUNCTION notify_endpoint_routing_change_from_endpoint_reference('id');
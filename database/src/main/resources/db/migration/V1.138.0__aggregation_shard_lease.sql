@@ -0,0 +1,13 @@
+-- The daily digest aggregation job shards the orgs by hashing their ID. A worker processes a shard only while it holds
+-- the lease of that shard, so that several workers (threads or pods) never process the same orgs concurrently.
+-- An expired lease (lease_until in the past) can be taken over, which protects against crashed workers.
+-- The schedule slot of the last completed processing of a shard is recorded, so that a worker which starts late for the
+-- same slot does not send the digests of that shard again.
+
+CREATE TABLE aggregation_shard_lease (
+    shard INTEGER NOT NULL,
+    owner TEXT NOT NULL,
+    lease_until TIMESTAMP NOT NULL,
+    completed_slot TIMESTAMP,
+    CONSTRAINT pk_aggregation_shard_lease PRIMARY KEY (shard)
+);
@@ -0,0 +1,12 @@
+-- The engine caches the subscribers of the events per org. The backend bumps the version of an org in the same
+-- transaction as any change to the email_subscriptions rows of that org, and the engine periodically reads the
+-- versions updated recently to invalidate its cache entries.
+
+CREATE TABLE email_subscriptions_version (
+    org_id TEXT NOT NULL,
+    version BIGINT NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    CONSTRAINT pk_email_subscriptions_version PRIMARY KEY (org_id)
+);
+
+CREATE INDEX ix_email_subscriptions_version_updated ON email_subscriptions_version (updated);
@@ -0,0 +1,239 @@
+-- The event log retention used to DELETE the expired rows from the 'event' table and let the deletion cascade to the
+-- 'notification_history' and 'drawer_read_status' tables. On large volumes, these deletions bloat the tables, cause long
+-- vacuum cycles and lock contention with the ingestion. The three tables are converted to daily range partitions so
+-- that the retention drops whole partitions instead.
+--
+-- The history entries and the read statuses are partitioned on the creation date of their event, which is stored in a
+-- new 'event_created' column. The partitions of the three tables share the same bounds, the foreign keys toward the
+-- 'event' table can be kept and a day of the event log is dropped at once.
+--
+-- The conversion must not stop the ingestion, so it is done online in three steps:
+-- - V1.140.0 (this script) adds the nullable 'event_created' column and creates the partitioned tables next to the
+--   current ones. Triggers copy every write of the current tables to the partitioned tables.
+-- - V1.140.1 copies the existing rows to the partitioned tables in small batches, each one in its own transaction.
+-- - V1.140.2 replaces the current tables with the partitioned tables.
+-- Only this script and V1.140.2 lock the current tables, and only for catalog changes.
+
+SET LOCAL lock_timeout = '10s';
+
+ALTER TABLE notification_history
+    ADD COLUMN event_created TIMESTAMP;
+
+ALTER TABLE drawer_read_status
+    ADD COLUMN event_created TIMESTAMP;
+
+COMMENT ON COLUMN notification_history.event_created IS 'Creation date of the event, the table is partitioned on it';
+COMMENT ON COLUMN drawer_read_status.event_created IS 'Creation date of the event, the table is partitioned on it';
+
+-- The engine and backend instances deployed before this migration do not write the new column, it is filled from the
+-- event of the row.
+CREATE OR REPLACE FUNCTION fill_event_created() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.event_created IS NULL THEN
+        SELECT e.created INTO NEW.event_created FROM event e WHERE e.id = NEW.event_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE PLPGSQL;
+
+CREATE TRIGGER trg_notification_history_event_created
+    BEFORE INSERT OR UPDATE ON notification_history
+    FOR EACH ROW EXECUTE FUNCTION fill_event_created();
+
+CREATE TRIGGER trg_drawer_read_status_event_created
+    BEFORE INSERT OR UPDATE ON drawer_read_status
+    FOR EACH ROW EXECUTE FUNCTION fill_event_created();
+
+-- The primary key of a partitioned table has to include the partition key. The columns are declared in the same order
+-- as in the current tables, so that a row of a current table can be copied as is.
+CREATE TABLE event_partitioned (
+    LIKE event INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE INCLUDING COMMENTS,
+    CONSTRAINT pk_event_partitioned PRIMARY KEY (id, created)
+) PARTITION BY RANGE (created);
+
+CREATE TABLE notification_history_partitioned (
+    LIKE notification_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE INCLUDING COMMENTS,
+    CONSTRAINT notification_history_partitioned_pkey PRIMARY KEY (id, event_created)
+) PARTITION BY RANGE (event_created);
+
+CREATE TABLE drawer_read_status_partitioned (
+    LIKE drawer_read_status INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE INCLUDING COMMENTS,
+    CONSTRAINT drawer_read_status_partitioned_pkey PRIMARY KEY (org_id, user_id, event_id, event_created)
+) PARTITION BY RANGE (event_created);
+
+-- The rows which do not belong to any daily partition, such as the rows created while the partitions of the coming
+-- days are missing, are stored in the default partitions. The retention deletes them from there.
+CREATE TABLE event_default PARTITION OF event_partitioned DEFAULT;
+CREATE TABLE notification_history_default PARTITION OF notification_history_partitioned DEFAULT;
+CREATE TABLE drawer_read_status_default PARTITION OF drawer_read_status_partitioned DEFAULT;
+
+-- The partitions are named after the final tables, they keep their names when the partitioned tables are renamed.
+DO $$
+DECLARE
+    partitioned_table TEXT;
+    partition_day DATE;
+BEGIN
+    FOREACH partitioned_table IN ARRAY ARRAY['event', 'notification_history', 'drawer_read_status'] LOOP
+        FOR partition_day IN
+            SELECT generate_series((NOW() AT TIME ZONE 'UTC') - INTERVAL '16 days', (NOW() AT TIME ZONE 'UTC') + INTERVAL '14 days', INTERVAL '1 day')::DATE
+        LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                partitioned_table || '_' || to_char(partition_day, 'YYYYMMDD'), partitioned_table || '_partitioned', partition_day, partition_day + 1);
+        END LOOP;
+    END LOOP;
+END;
+$$;
+
+-- The indexes are created while the partitioned tables are still empty. An index created on a partitioned table is
+-- created on each of its partitions, including the normalized queries indexes from V1.130.0 and V1.133.0. The queries
+-- filtered on 'created' only scan the partitions of the requested days. Index names are unique in a schema, so the
+-- indexes get a temporary name which is replaced with the current one by V1.140.2.
+CREATE TABLE event_log_partitioned_index (
+    partitioned_name TEXT PRIMARY KEY,
+    name TEXT NOT NULL
+);
+
+DO $$
+DECLARE
+    index_definition RECORD;
+    partitioned_name TEXT;
+BEGIN
+    FOR index_definition IN
+        SELECT i.indexname, i.indexdef
+        FROM pg_indexes i
+        WHERE i.schemaname = current_schema()
+            AND i.tablename IN ('event', 'notification_history', 'drawer_read_status')
+            AND i.indexname NOT IN ('pk_event', 'notification_history_pkey', 'drawer_read_status_pkey')
+    LOOP
+        partitioned_name := left(index_definition.indexname, 51) || '_partitioned';
+        EXECUTE regexp_replace(index_definition.indexdef, '^CREATE (UNIQUE )?INDEX \S+ ON (\S+\.)?(\w+) ',
+            'CREATE \1INDEX ' || quote_ident(partitioned_name) || ' ON \3_partitioned ');
+        INSERT INTO event_log_partitioned_index (partitioned_name, name) VALUES (partitioned_name, index_definition.indexname);
+    END LOOP;
+END;
+$$;
+
+-- The foreign keys which do not reference the 'event' table, such as 'fk_event_event_type_id', are copied as is.
+DO $$
+DECLARE
+    foreign_key RECORD;
+BEGIN
+    FOR foreign_key IN
+        SELECT c.conname, t.relname, pg_get_constraintdef(c.oid) AS definition
+        FROM pg_constraint c
+        JOIN pg_class t ON t.oid = c.conrelid
+        WHERE c.contype = 'f'
+            AND c.connamespace = current_schema()::regnamespace
+            AND t.relname IN ('event', 'notification_history', 'drawer_read_status')
+            AND c.confrelid <> 'event'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', foreign_key.relname || '_partitioned', foreign_key.conname, foreign_key.definition);
+    END LOOP;
+END;
+$$;
+
+ALTER TABLE notification_history_partitioned
+    ADD CONSTRAINT fk_notification_history_event FOREIGN KEY (event_id, event_created) REFERENCES event_partitioned (id, created) ON DELETE CASCADE;
+
+ALTER TABLE drawer_read_status_partitioned
+    ADD CONSTRAINT fk_drawer_read_status_event FOREIGN KEY (event_id, event_created) REFERENCES event_partitioned (id, created) ON DELETE CASCADE;
+
+CREATE TRIGGER trg_event_severity_order
+    BEFORE INSERT OR UPDATE OF severity ON event_partitioned
+    FOR EACH ROW EXECUTE FUNCTION set_severity_order();
+
+-- Every write of a current table is copied to its partitioned table, in the same transaction. A history entry or a read
+-- status may belong to an event which has not been copied yet, that event is copied first. The old rows of the
+-- history and read status tables have no creation date of their event, they are matched on the other primary key
+-- columns when they are deleted.
+DO $$
+DECLARE
+    mirrored RECORD;
+    conflict_action TEXT;
+BEGIN
+    FOR mirrored IN
+        SELECT *
+        FROM (VALUES
+            ('event', 'id, created', 'id = OLD.id', ''),
+            ('notification_history', 'id, event_created', 'id = OLD.id',
+                'INSERT INTO event_partitioned SELECT e.* FROM event e WHERE e.id = NEW.event_id ON CONFLICT DO NOTHING;'),
+            ('drawer_read_status', 'org_id, user_id, event_id, event_created', 'org_id = OLD.org_id AND user_id = OLD.user_id AND event_id = OLD.event_id',
+                'INSERT INTO event_partitioned SELECT e.* FROM event e WHERE e.id = NEW.event_id ON CONFLICT DO NOTHING;')
+        ) AS t (table_name, key_columns, old_key_condition, copy_event)
+    LOOP
+        SELECT COALESCE('UPDATE SET ' || string_agg(format('%1$I = EXCLUDED.%1$I', a.attname), ', ' ORDER BY a.attnum), 'NOTHING')
+        INTO conflict_action
+        FROM pg_attribute a
+        WHERE a.attrelid = mirrored.table_name::regclass
+            AND a.attnum > 0
+            AND NOT a.attisdropped
+            AND a.attname <> ALL (string_to_array(replace(mirrored.key_columns, ' ', ''), ','));
+
+        EXECUTE format($function$
+            CREATE OR REPLACE FUNCTION %1$I() RETURNS TRIGGER AS $body$
+            BEGIN
+                IF TG_OP = 'DELETE' THEN
+                    DELETE FROM %2$I WHERE %3$s;
+                ELSE
+                    %4$s
+                    INSERT INTO %2$I SELECT NEW.* ON CONFLICT (%5$s) DO %6$s;
+                END IF;
+                RETURN NULL;
+            END;
+            $body$ LANGUAGE PLPGSQL
+        $function$, 'mirror_' || mirrored.table_name, mirrored.table_name || '_partitioned', mirrored.old_key_condition,
+            mirrored.copy_event, mirrored.key_columns, conflict_action);
+
+        EXECUTE format('CREATE TRIGGER %I AFTER INSERT OR UPDATE OR DELETE ON %I FOR EACH ROW EXECUTE FUNCTION %I()',
+            'trg_' || mirrored.table_name || '_mirror', mirrored.table_name, 'mirror_' || mirrored.table_name);
+    END LOOP;
+END;
+$$;
+
+-- Copies the rows which existed before the triggers above to the partitioned tables. The events are read by batches in
+-- the order of their ID and each batch is committed, so the copy can be resumed from the last committed batch. The rows
+-- are locked while they are copied, a concurrent deletion waits for the copy and is then copied by the triggers. The
+-- history entries and read statuses are copied by filling their 'event_created' column, the update is copied by the
+-- triggers.
+CREATE TABLE event_log_partitioning_progress (
+    last_event_id UUID NOT NULL
+);
+
+INSERT INTO event_log_partitioning_progress (last_event_id) VALUES ('00000000-0000-0000-0000-000000000000');
+
+CREATE OR REPLACE PROCEDURE copyEventLogToPartitions(batch_size INTEGER) AS $$
+DECLARE
+    resume_after UUID;
+    event_ids UUID[];
+BEGIN
+    SELECT p.last_event_id INTO resume_after FROM event_log_partitioning_progress p;
+    LOOP
+        SELECT array_agg(b.id ORDER BY b.id) INTO event_ids
+        FROM (
+            SELECT e.id FROM event e WHERE e.id > resume_after ORDER BY e.id LIMIT batch_size
+        ) b;
+        EXIT WHEN event_ids IS NULL;
+
+        WITH locked AS (
+            SELECT * FROM event e WHERE e.id = ANY(event_ids) FOR KEY SHARE
+        )
+        INSERT INTO event_partitioned
+        SELECT * FROM locked
+        ON CONFLICT DO NOTHING;
+
+        UPDATE notification_history nh
+        SET event_created = e.created
+        FROM event e
+        WHERE e.id = nh.event_id AND nh.event_id = ANY(event_ids) AND nh.event_created IS NULL;
+
+        UPDATE drawer_read_status drs
+        SET event_created = e.created
+        FROM event e
+        WHERE e.id = drs.event_id AND drs.event_id = ANY(event_ids) AND drs.event_created IS NULL;
+
+        resume_after := event_ids[array_length(event_ids, 1)];
+        UPDATE event_log_partitioning_progress SET last_event_id = resume_after;
+        COMMIT;
+    END LOOP;
+END;
+$$ LANGUAGE PLPGSQL;
@@ -0,0 +1,4 @@
+-- Copies the existing event log rows to the partitioned tables created by V1.140.0. Each batch is committed, so this
+-- script is executed outside of a transaction (see the .conf file next to it). If the migration is interrupted, the
+-- next execution resumes from the last committed batch.
+CALL copyEventLogToPartitions(10000);
@@ -0,0 +1,148 @@
+-- Replaces the event log tables with the partitioned tables created by V1.140.0 and filled by V1.140.1. The triggers
+-- of V1.140.0 kept the partitioned tables up to date, so this script only changes the catalog: the current tables are
+-- locked for a short time and the ingestion is not stopped.
+
+SET LOCAL lock_timeout = '10s';
+
+LOCK TABLE event, notification_history, drawer_read_status IN ACCESS EXCLUSIVE MODE;
+
+-- The payloads are deleted once they have been read by the connectors. The leftovers are deleted by cleanEventLog()
+-- since the foreign key cannot reference the partitioned 'event' table without the creation date of the event.
+ALTER TABLE payload_details
+    DROP CONSTRAINT fk_payload_details_event_id;
+
+DROP TABLE drawer_read_status;
+DROP TABLE notification_history;
+DROP TABLE event;
+
+ALTER TABLE event_partitioned RENAME TO event;
+ALTER TABLE event RENAME CONSTRAINT pk_event_partitioned TO pk_event;
+ALTER TABLE notification_history_partitioned RENAME TO notification_history;
+ALTER TABLE notification_history RENAME CONSTRAINT notification_history_partitioned_pkey TO notification_history_pkey;
+ALTER TABLE drawer_read_status_partitioned RENAME TO drawer_read_status;
+ALTER TABLE drawer_read_status RENAME CONSTRAINT drawer_read_status_partitioned_pkey TO drawer_read_status_pkey;
+
+DO $$
+DECLARE
+    partitioned_index RECORD;
+BEGIN
+    FOR partitioned_index IN
+        SELECT partitioned_name, name FROM event_log_partitioned_index
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', partitioned_index.partitioned_name, partitioned_index.name);
+    END LOOP;
+END;
+$$;
+
+DROP TABLE event_log_partitioned_index;
+DROP TABLE event_log_partitioning_progress;
+DROP PROCEDURE copyEventLogToPartitions(INTEGER);
+DROP FUNCTION mirror_event();
+DROP FUNCTION mirror_notification_history();
+DROP FUNCTION mirror_drawer_read_status();
+DROP FUNCTION fill_event_created();
+
+-- The engine instances deployed before V1.140.0 insert history entries without the creation date of their event until
+-- they are replaced. Such rows are routed to the default partition, where they are inserted again through the parent
+-- table with the creation date of their event, which routes them to their daily partition.
+--
+-- The backend instances deployed before V1.140.0 cannot mark drawer notifications as read once this script is applied:
+-- their 'ON CONFLICT (org_id, user_id, event_id)' clause no longer matches the primary key of 'drawer_read_status'.
+-- This script is applied by the backend instance which replaces them, so that lasts as long as the rollout.
+CREATE OR REPLACE FUNCTION route_missing_event_created() RETURNS TRIGGER AS $$
+BEGIN
+    SELECT e.created INTO NEW.event_created FROM event e WHERE e.id = NEW.event_id;
+    IF NEW.event_created IS NULL THEN
+        -- The event does not exist, the row is rejected by the NOT NULL constraint of the column.
+        RETURN NEW;
+    END IF;
+    EXECUTE format('INSERT INTO %I SELECT ($1).* ON CONFLICT DO NOTHING', TG_ARGV[0]) USING NEW;
+    RETURN NULL;
+END;
+$$ LANGUAGE PLPGSQL;
+
+CREATE TRIGGER trg_notification_history_default_event_created
+    BEFORE INSERT ON notification_history_default
+    FOR EACH ROW WHEN (NEW.event_created IS NULL) EXECUTE FUNCTION route_missing_event_created('notification_history');
+
+CREATE TRIGGER trg_drawer_read_status_default_event_created
+    BEFORE INSERT ON drawer_read_status_default
+    FOR EACH ROW WHEN (NEW.event_created IS NULL) EXECUTE FUNCTION route_missing_event_created('drawer_read_status');
+
+-- Creates the daily partitions of the event log tables between the given days, both included. This procedure is
+-- executed from an OpenShift CronJob, through cleanEventLog(), to create the partitions of the coming days.
+CREATE OR REPLACE PROCEDURE createEventLogPartitions(first_day DATE, last_day DATE) AS $$
+DECLARE
+    partitioned_table TEXT;
+    partition_day DATE;
+BEGIN
+    FOREACH partitioned_table IN ARRAY ARRAY['event', 'notification_history', 'drawer_read_status'] LOOP
+        partition_day := first_day;
+        WHILE partition_day <= last_day LOOP
+            BEGIN
+                EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partitioned_table || '_' || to_char(partition_day, 'YYYYMMDD'), partitioned_table, partition_day, partition_day + 1);
+            EXCEPTION WHEN check_violation THEN
+                -- The default partition already contains rows of that day, they stay there until they expire.
+                RAISE WARNING 'Partition of % for % not created: the default partition contains rows of that day', partitioned_table, partition_day;
+            END;
+            partition_day := partition_day + 1;
+        END LOOP;
+    END LOOP;
+END;
+$$ LANGUAGE PLPGSQL;
+
+-- The copy of V1.140.1 may have lasted for days, the partitions of the coming days are created again.
+CALL createEventLogPartitions((NOW() AT TIME ZONE 'UTC')::DATE, ((NOW() AT TIME ZONE 'UTC') + INTERVAL '14 days')::DATE);
+
+-- This stored procedure deletes the event log entries that are no longer needed.
+-- It is executed from an OpenShift CronJob.
+-- The daily partitions which only contain expired entries are detached and dropped, the entries of the day which
+-- contains the retention limit are dropped with their partition during the following day. The partitions of the coming
+-- days are created by the same execution.
+CREATE OR REPLACE PROCEDURE cleanEventLog() AS $$
+DECLARE
+    retention_limit TIMESTAMP := NOW() AT TIME ZONE 'UTC' - INTERVAL '15 days';
+    partitioned_table TEXT;
+    expired_partition TEXT;
+    dropped INTEGER := 0;
+    deleted INTEGER;
+BEGIN
+    RAISE INFO '% Event log purge starting. Entries older than 15 days will be deleted.', NOW();
+    CALL createEventLogPartitions((NOW() AT TIME ZONE 'UTC')::DATE, ((NOW() AT TIME ZONE 'UTC') + INTERVAL '14 days')::DATE);
+
+    -- Detaching a partition locks its parent table, the ingestion must not wait behind a long query.
+    PERFORM set_config('lock_timeout', '10s', true);
+
+    -- The partitions referencing the 'event' partitions are dropped first.
+    FOREACH partitioned_table IN ARRAY ARRAY['drawer_read_status', 'notification_history', 'event'] LOOP
+        FOR expired_partition IN
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = partitioned_table::regclass
+                AND c.relname ~ ('^' || partitioned_table || '_[0-9]{8}$')
+                AND to_date(right(c.relname, 8), 'YYYYMMDD') + 1 <= retention_limit
+            ORDER BY c.relname
+        LOOP
+            BEGIN
+                EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', partitioned_table, expired_partition);
+                EXECUTE format('DROP TABLE %I', expired_partition);
+                dropped := dropped + 1;
+            EXCEPTION WHEN lock_not_available THEN
+                RAISE WARNING 'Partition % not dropped: its parent table is locked, it will be dropped by the next execution', expired_partition;
+            END;
+        END LOOP;
+    END LOOP;
+
+    -- The deletion cascades to the default partitions of the other tables.
+    DELETE FROM event_default WHERE created < retention_limit;
+    GET DIAGNOSTICS deleted = ROW_COUNT;
+    DELETE FROM payload_details WHERE created < retention_limit;
+    RAISE INFO '% Event log purge ended. % partitions were dropped and % entries were deleted from the default partition.', NOW(), dropped, deleted;
+END;
+$$ LANGUAGE PLPGSQL;
+
+ANALYZE event;
+ANALYZE notification_history;
+ANALYZE drawer_read_status;
@@ -0,0 +1,7 @@
+-- The daily digest reads the events of an org and an application page by page, ordered by creation date and ID, with
+-- the (created, id) > (:afterCreated, :afterId) keyset condition. With both columns sorted in the same direction, the
+-- index read backward matches that order and the condition bounds the index scan.
+DROP INDEX ix_event_org_id_application_id;
+
+CREATE INDEX ix_event_org_id_application_id
+    ON event (org_id, application_id, created DESC, id DESC);
@@ -0,0 +1,5 @@
+-- The cursor pagination of the event log and the drawer reads the events of an org ordered by creation date and ID,
+-- both descending, with the (created, id) < (:cursorCreated, :cursorId) keyset condition. This index matches that order
+-- and the condition bounds the index scan, so the next page is found without reading the preceding events.
+CREATE INDEX ix_event_org_id_created_id
+    ON event (org_id, created DESC, id DESC);
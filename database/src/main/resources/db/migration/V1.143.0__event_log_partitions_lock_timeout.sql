@@ -0,0 +1,111 @@
+-- Creating a partition locks its parent table like detaching one does, but cleanEventLog() created the partitions of
+-- the coming days before it set the lock timeout, so the ingestion could wait behind a long query for the whole
+-- creation. The lock timeout is now set first and a partition which cannot be created because its parent table is
+-- locked is skipped. The partitions are created 14 days ahead, so a skipped partition is created by a later execution
+-- long before it is needed. cleanEventLog() also held every lock it took until the end of its execution, it now commits
+-- after each step.
+
+CREATE OR REPLACE PROCEDURE createEventLogPartitions(first_day DATE, last_day DATE) AS $$
+DECLARE
+    partitioned_table TEXT;
+    partition_day DATE;
+BEGIN
+    FOREACH partitioned_table IN ARRAY ARRAY['event', 'notification_history', 'drawer_read_status'] LOOP
+        partition_day := first_day;
+        WHILE partition_day <= last_day LOOP
+            BEGIN
+                EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    partitioned_table || '_' || to_char(partition_day, 'YYYYMMDD'), partitioned_table, partition_day, partition_day + 1);
+            EXCEPTION
+                WHEN check_violation THEN
+                    -- The default partition already contains rows of that day, they stay there until they expire.
+                    RAISE WARNING 'Partition of % for % not created: the default partition contains rows of that day', partitioned_table, partition_day;
+                WHEN lock_not_available THEN
+                    RAISE WARNING 'Partition of % for % not created: its parent table is locked, it will be created by the next execution', partitioned_table, partition_day;
+            END;
+            partition_day := partition_day + 1;
+        END LOOP;
+    END LOOP;
+END;
+$$ LANGUAGE PLPGSQL;
+
+-- This stored procedure deletes the event log entries that are no longer needed.
+-- It is executed from an OpenShift CronJob and commits after each step, so it has to be called outside of a transaction.
+-- The daily partitions which only contain expired entries are detached and dropped, the entries of the day which
+-- contains the retention limit are dropped with their partition during the following day. The partitions of the coming
+-- days are created by the same execution.
+--
+-- A lock taken on a parent table is released as soon as the partition which needed it is created or dropped, instead of
+-- being held until the end of the execution. The partitions cannot be detached with DETACH PARTITION CONCURRENTLY, which
+-- PostgreSQL does not allow while the partitioned table has a default partition, and which cannot be executed from a
+-- procedure. The entries of the default partitions are deleted by bounded batches.
+CREATE OR REPLACE PROCEDURE cleanEventLog() AS $$
+DECLARE
+    retention_limit TIMESTAMP := NOW() AT TIME ZONE 'UTC' - INTERVAL '15 days';
+    batch_size CONSTANT INTEGER := 10000;
+    partition_day DATE;
+    partitioned_table TEXT;
+    expired_partition TEXT;
+    dropped INTEGER := 0;
+    deleted INTEGER := 0;
+    batch_deleted INTEGER;
+BEGIN
+    RAISE INFO '% Event log purge starting. Entries older than 15 days will be deleted.', NOW();
+
+    -- The lock timeout is reset by each commit, it is set again at the start of each step.
+    FOR partition_day IN
+        SELECT generate_series(NOW() AT TIME ZONE 'UTC', (NOW() AT TIME ZONE 'UTC') + INTERVAL '14 days', INTERVAL '1 day')::DATE
+    LOOP
+        PERFORM set_config('lock_timeout', '10s', true);
+        CALL createEventLogPartitions(partition_day, partition_day);
+        COMMIT;
+    END LOOP;
+
+    -- The partitions referencing the 'event' partitions are dropped first.
+    FOREACH partitioned_table IN ARRAY ARRAY['drawer_read_status', 'notification_history', 'event'] LOOP
+        FOR expired_partition IN
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = partitioned_table::regclass
+                AND c.relname ~ ('^' || partitioned_table || '_[0-9]{8}$')
+                AND to_date(right(c.relname, 8), 'YYYYMMDD') + 1 <= retention_limit
+            ORDER BY c.relname
+        LOOP
+            PERFORM set_config('lock_timeout', '10s', true);
+            BEGIN
+                EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', partitioned_table, expired_partition);
+                EXECUTE format('DROP TABLE %I', expired_partition);
+                dropped := dropped + 1;
+            EXCEPTION WHEN lock_not_available THEN
+                RAISE WARNING 'Partition % not dropped: its parent table is locked, it will be dropped by the next execution', expired_partition;
+            END;
+            COMMIT;
+        END LOOP;
+    END LOOP;
+
+    -- The deletion cascades to the default partitions of the other tables.
+    LOOP
+        DELETE FROM event_default
+        WHERE id IN (
+            SELECT id FROM event_default WHERE created < retention_limit LIMIT batch_size
+        );
+        GET DIAGNOSTICS batch_deleted = ROW_COUNT;
+        deleted := deleted + batch_deleted;
+        COMMIT;
+        EXIT WHEN batch_deleted < batch_size;
+    END LOOP;
+
+    LOOP
+        DELETE FROM payload_details
+        WHERE id IN (
+            SELECT id FROM payload_details WHERE created < retention_limit LIMIT batch_size
+        );
+        GET DIAGNOSTICS batch_deleted = ROW_COUNT;
+        COMMIT;
+        EXIT WHEN batch_deleted < batch_size;
+    END LOOP;
+
+    RAISE INFO '% Event log purge ended. % partitions were dropped and % entries were deleted from the default partition.', NOW(), dropped, deleted;
+END;
+$$ LANGUAGE PLPGSQL;
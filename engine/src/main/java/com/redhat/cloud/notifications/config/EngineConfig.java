@@ -1,9 +1,10 @@
 package com.redhat.cloud.notifications.config;
 
+import com.redhat.cloud.notifications.unleash.CompiledToggle;
+import com.redhat.cloud.notifications.unleash.CompiledToggles;
 import com.redhat.cloud.notifications.unleash.ToggleRegistry;
 import com.redhat.cloud.notifications.unleash.UnleashContextBuilder;
 import io.getunleash.Unleash;
-import io.getunleash.UnleashContext;
 import io.quarkus.logging.Log;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,7 +14,10 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.UUID;
 
@@ -29,6 +33,14 @@ public class EngineConfig {
     private static final String EVENT_CONSUMER_MAX_THREAD_POOL_SIZE = "notifications.event-consumer.max-thread-pool-size";
     private static final String EVENT_CONSUMER_KEEP_ALIVE_TIME_SECONDS = "notifications.event-consumer.keep-alive-time-seconds";
     private static final String EVENT_CONSUMER_QUEUE_CAPACITY = "notifications.event-consumer.queue-capacity";
+    private static final String EVENT_CONSUMER_SHUTDOWN_TIMEOUT = "notifications.event-consumer.shutdown-timeout";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_ENABLED = "notifications.event-consumer.fair-scheduling.enabled";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY = "notifications.event-consumer.fair-scheduling.queue-capacity";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY_PER_ORG = "notifications.event-consumer.fair-scheduling.queue-capacity-per-org";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_MAX_CONCURRENCY_PER_ORG = "notifications.event-consumer.fair-scheduling.max-concurrency-per-org";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_ORG_WEIGHTS = "notifications.event-consumer.fair-scheduling.org-weights";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_MAX_PARKINGS = "notifications.event-consumer.fair-scheduling.max-parkings";
+    private static final String EVENT_CONSUMER_FAIR_SCHEDULING_PARKING_DELAY = "notifications.event-consumer.fair-scheduling.parking-delay";
     private static final String SECURED_EMAIL_TEMPLATES = "notifications.use-secured-email-templates.enabled";
     private static final String KAFKA_TOCAMEL_MAXIMUM_REQUEST_SIZE = "mp.messaging.outgoing.tocamel.max.request.size";
     private static final String PROCESSOR_CONNECTORS_MAX_SERVER_ERRORS = "processor.connectors.max-server-errors";
@@ -50,6 +62,14 @@ public class EngineConfig {
     private static final String NOTIFICATIONS_INGRESSREPLAY_START_TIME = "notifications.ingressreplay.start.time";
     private static final String NOTIFICATIONS_INGRESSREPLAY_END_TIME = "notifications.ingressreplay.end.time";
     private static final String EVENTS_EXPORT_PAGE_SIZE = "notifications.events.export.page-size";
+    private static final String ENDPOINT_ROUTING_TABLE_ENABLED = "notifications.endpoint-routing-table.enabled";
+    private static final String ENDPOINT_ROUTING_TABLE_MAX_ENTRY_AGE = "notifications.endpoint-routing-table.max-entry-age";
+    private static final String ENDPOINT_ROUTING_TABLE_WARM_UP_WINDOW = "notifications.endpoint-routing-table.warm-up-window";
+    private static final String SUBSCRIPTION_CACHE_ENABLED = "notifications.subscription-cache.enabled";
+    private static final String SUBSCRIPTION_CACHE_MAX_ENTRY_AGE = "notifications.subscription-cache.max-entry-age";
+    private static final String CONNECTOR_SENDER_BATCHED_HISTORY_ENABLED = "notifications.connector-sender.batched-history.enabled";
+    private static final String CONNECTOR_SENDER_BATCHED_HISTORY_MAX_SIZE = "notifications.connector-sender.batched-history.max-size";
+    private static final String PAYLOAD_DETAILS_COMPRESSION_ENABLED = "notifications.payload-details.compression.enabled";
 
     /*
      * Unleash configuration
@@ -67,6 +87,12 @@ public class EngineConfig {
     private String toggleSkipProcessingMessagesOnReplayService;
     private String toggleSubscriptionsDeduplicationWillBeNotified;
     private String normalizedQueriesToggle;
+    private String recipientsResolverBatchToggle;
+    private CompiledToggle<String> compiledDrawerToggle;
+    private CompiledToggle<UUID> compiledBlacklistedEndpointsToggle;
+    private CompiledToggle<UUID> compiledBlacklistedEventTypesToggle;
+    private CompiledToggle<String> compiledIncludeSeverityToFilterRecipientsToggle;
+    private CompiledToggle<String> compiledNormalizedQueriesToggle;
 
     @ConfigProperty(name = "processor.email.aggregation.use-recipients-resolver-clowdapp.enabled", defaultValue = "true")
     @Deprecated(forRemoval = true, since = "To be removed when we're done migrating to Unleash in all environments")
@@ -100,6 +126,63 @@ public class EngineConfig {
     @ConfigProperty(name = EVENT_CONSUMER_QUEUE_CAPACITY, defaultValue = "1")
     int eventConsumerQueueCapacity;
 
+    /**
+     * How long the engine waits on shutdown for the asynchronous processing
+     * of the events that were already consumed from Kafka.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_SHUTDOWN_TIMEOUT, defaultValue = "PT30S")
+    Duration eventConsumerShutdownTimeout;
+
+    /**
+     * Whether the asynchronous processing of the events should be scheduled
+     * fairly between the orgs, with one sub-queue per org, instead of using
+     * a single queue shared by all orgs.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_ENABLED, defaultValue = "false")
+    boolean eventConsumerFairSchedulingEnabled;
+
+    /**
+     * The maximum number of events waiting for a processing slot, all orgs
+     * included. The Kafka consumer is blocked when that capacity is reached.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY, defaultValue = "500")
+    int eventConsumerFairSchedulingQueueCapacity;
+
+    /**
+     * The maximum number of events of a single org waiting for a processing
+     * slot. The events of an org exceeding that capacity are parked in a
+     * dedicated topic instead of blocking the Kafka consumer.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY_PER_ORG, defaultValue = "50")
+    int eventConsumerFairSchedulingQueueCapacityPerOrg;
+
+    /**
+     * The maximum number of events of a single org processed at the same time.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_MAX_CONCURRENCY_PER_ORG, defaultValue = "3")
+    int eventConsumerFairSchedulingMaxConcurrencyPerOrg;
+
+    /**
+     * Custom round-robin weights of some orgs, formatted as {@code <org_id>:<weight>}.
+     * The orgs without a custom weight have a weight of 1.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_ORG_WEIGHTS)
+    Optional<List<String>> eventConsumerFairSchedulingOrgWeights;
+
+    /**
+     * The maximum number of times a single event can be parked. An event
+     * which reached that limit is processed synchronously.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_MAX_PARKINGS, defaultValue = "5")
+    int eventConsumerFairSchedulingMaxParkings;
+
+    /**
+     * How long a parked event waits before it is consumed again, multiplied
+     * by the number of times it has been parked.
+     */
+    @ConfigProperty(name = EVENT_CONSUMER_FAIR_SCHEDULING_PARKING_DELAY, defaultValue = "PT1S")
+    Duration eventConsumerFairSchedulingParkingDelay;
+
     // Only used in special environments.
     @ConfigProperty(name = SECURED_EMAIL_TEMPLATES, defaultValue = "false")
     boolean useSecuredEmailTemplates;
@@ -153,12 +236,75 @@ public class EngineConfig {
     @ConfigProperty(name = EVENTS_EXPORT_PAGE_SIZE, defaultValue = "5000")
     int eventsExportPageSize;
 
+    /**
+     * Whether the target endpoints of the events should be resolved from the
+     * in-memory {@code EndpointRoutingTable} instead of being queried from
+     * the DB for each event.
+     */
+    @ConfigProperty(name = ENDPOINT_ROUTING_TABLE_ENABLED, defaultValue = "false")
+    boolean endpointRoutingTableEnabled;
+
+    /**
+     * The maximum age of an entry of the endpoint routing table. This is a
+     * safety net in case a change notification from the DB is missed.
+     */
+    @ConfigProperty(name = ENDPOINT_ROUTING_TABLE_MAX_ENTRY_AGE, defaultValue = "PT10M")
+    Duration endpointRoutingTableMaxEntryAge;
+
+    /**
+     * The endpoint routing table is warmed at startup with the org IDs and
+     * event types of the events received during that window.
+     */
+    @ConfigProperty(name = ENDPOINT_ROUTING_TABLE_WARM_UP_WINDOW, defaultValue = "PT15M")
+    Duration endpointRoutingTableWarmUpWindow;
+
+    /**
+     * Whether the subscribers and unsubscribers of the events should be read
+     * from the in-memory {@code SubscriptionCache} instead of being queried
+     * from the DB for each event.
+     */
+    @ConfigProperty(name = SUBSCRIPTION_CACHE_ENABLED, defaultValue = "false")
+    boolean subscriptionCacheEnabled;
+
+    /**
+     * The maximum age of an entry of the subscription cache. This is a safety
+     * net for the subscription changes which do not bump the org version.
+     */
+    @ConfigProperty(name = SUBSCRIPTION_CACHE_MAX_ENTRY_AGE, defaultValue = "PT10M")
+    Duration subscriptionCacheMaxEntryAge;
+
+    /**
+     * Whether the history stubs created while processing an event should be
+     * inserted with a single statement before the messages are sent to the
+     * connectors, instead of being inserted one by one.
+     */
+    @ConfigProperty(name = CONNECTOR_SENDER_BATCHED_HISTORY_ENABLED, defaultValue = "false")
+    boolean connectorSenderBatchedHistoryEnabled;
+
+    /**
+     * The maximum number of messages buffered while processing an event
+     * before the history stubs are inserted and the messages are sent.
+     */
+    @ConfigProperty(name = CONNECTOR_SENDER_BATCHED_HISTORY_MAX_SIZE, defaultValue = "100")
+    int connectorSenderBatchedHistoryMaxSize;
+
+    /**
+     * Whether the payloads which are too large to be sent through Kafka
+     * should be stored compressed in the DB. The email connector must be
+     * able to decompress them before this is enabled.
+     */
+    @ConfigProperty(name = PAYLOAD_DETAILS_COMPRESSION_ENABLED, defaultValue = "false")
+    boolean payloadDetailsCompressionEnabled;
+
     @Inject
     ToggleRegistry toggleRegistry;
 
     @Inject
     Unleash unleash;
 
+    @Inject
+    CompiledToggles compiledToggles;
+
     @PostConstruct
     void postConstruct() {
         asyncAggregationToggle = toggleRegistry.register("async-aggregation", true);
@@ -174,12 +320,21 @@ public class EngineConfig {
         toggleSkipProcessingMessagesOnReplayService = toggleRegistry.register("skip-processing-on-replay-service", true);
         toggleSubscriptionsDeduplicationWillBeNotified = toggleRegistry.register("subscriptions-deduplication-will-be-notified", true);
         normalizedQueriesToggle = toggleRegistry.register("normalized-queries", true);
+        recipientsResolverBatchToggle = toggleRegistry.register("recipients-resolver-batch", true);
+
+        // These toggles are evaluated for each event or each endpoint, their decisions are kept until the toggles change.
+        compiledDrawerToggle = compiledToggles.compileWithOrgId(drawerToggle);
+        compiledBlacklistedEndpointsToggle = compiledToggles.compile(toggleBlacklistedEndpoints, "endpointId");
+        compiledBlacklistedEventTypesToggle = compiledToggles.compile(toggleBlacklistedEventTypes, "eventTypeId");
+        compiledIncludeSeverityToFilterRecipientsToggle = compiledToggles.compileWithOrgId(toggleIncludeSeverityToFilterRecipients);
+        compiledNormalizedQueriesToggle = compiledToggles.compileWithOrgId(normalizedQueriesToggle);
     }
 
     void logConfigAtStartup(@Observes Startup event) {
 
         Map<String, Object> config = new TreeMap<>();
         config.put(asyncAggregationToggle, isAsyncAggregationEnabled());
+        config.put(recipientsResolverBatchToggle, isRecipientsResolverBatchEnabled());
         config.put(DEFAULT_TEMPLATE, isDefaultTemplateEnabled());
         config.put(drawerToggle, isDrawerEnabled(null));
         config.put(exportServiceHccClusterToggle, isExportServiceHccClusterEnabled(null));
@@ -188,6 +343,14 @@ public class EngineConfig {
         config.put(EVENT_CONSUMER_MAX_THREAD_POOL_SIZE, eventConsumerMaxThreadPoolSize);
         config.put(EVENT_CONSUMER_KEEP_ALIVE_TIME_SECONDS, eventConsumerKeepAliveTimeSeconds);
         config.put(EVENT_CONSUMER_QUEUE_CAPACITY, eventConsumerQueueCapacity);
+        config.put(EVENT_CONSUMER_SHUTDOWN_TIMEOUT, eventConsumerShutdownTimeout);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_ENABLED, eventConsumerFairSchedulingEnabled);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY, eventConsumerFairSchedulingQueueCapacity);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_QUEUE_CAPACITY_PER_ORG, eventConsumerFairSchedulingQueueCapacityPerOrg);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_MAX_CONCURRENCY_PER_ORG, eventConsumerFairSchedulingMaxConcurrencyPerOrg);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_ORG_WEIGHTS, getEventConsumerFairSchedulingOrgWeights());
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_MAX_PARKINGS, eventConsumerFairSchedulingMaxParkings);
+        config.put(EVENT_CONSUMER_FAIR_SCHEDULING_PARKING_DELAY, eventConsumerFairSchedulingParkingDelay);
         config.put(kafkaConsumedTotalCheckerToggle, isKafkaConsumedTotalCheckerEnabled());
         config.put(KAFKA_TOCAMEL_MAXIMUM_REQUEST_SIZE, getKafkaToCamelMaximumRequestSize());
         config.put(SECURED_EMAIL_TEMPLATES, isSecuredEmailTemplatesEnabled());
@@ -206,6 +369,14 @@ public class EngineConfig {
         config.put(valkeyEventDeduplicatorToggle, isValkeyEventDeduplicatorEnabled());
         config.put(IN_MEMORY_DB_ENABLED, isInMemoryDbEnabled());
         config.put(EVENTS_EXPORT_PAGE_SIZE, getEventsExportPageSize());
+        config.put(ENDPOINT_ROUTING_TABLE_ENABLED, isEndpointRoutingTableEnabled());
+        config.put(ENDPOINT_ROUTING_TABLE_MAX_ENTRY_AGE, getEndpointRoutingTableMaxEntryAge());
+        config.put(ENDPOINT_ROUTING_TABLE_WARM_UP_WINDOW, getEndpointRoutingTableWarmUpWindow());
+        config.put(SUBSCRIPTION_CACHE_ENABLED, isSubscriptionCacheEnabled());
+        config.put(SUBSCRIPTION_CACHE_MAX_ENTRY_AGE, getSubscriptionCacheMaxEntryAge());
+        config.put(CONNECTOR_SENDER_BATCHED_HISTORY_ENABLED, isConnectorSenderBatchedHistoryEnabled());
+        config.put(CONNECTOR_SENDER_BATCHED_HISTORY_MAX_SIZE, getConnectorSenderBatchedHistoryMaxSize());
+        config.put(PAYLOAD_DETAILS_COMPRESSION_ENABLED, isPayloadDetailsCompressionEnabled());
 
         Log.info("=== Startup configuration ===");
         config.forEach((key, value) -> {
@@ -217,6 +388,10 @@ public class EngineConfig {
         return unleash.isEnabled(asyncAggregationToggle, false);
     }
 
+    public boolean isRecipientsResolverBatchEnabled() {
+        return unleash.isEnabled(recipientsResolverBatchToggle, false);
+    }
+
     public boolean isAsyncEventProcessing() {
         return unleash.isEnabled(asyncEventProcessingToggle, false);
     }
@@ -226,8 +401,7 @@ public class EngineConfig {
     }
 
     public boolean isDrawerEnabled(String orgId) {
-        UnleashContext unleashContext = UnleashContextBuilder.buildUnleashContextWithOrgId(orgId);
-        return unleash.isEnabled(drawerToggle, unleashContext, false);
+        return compiledDrawerToggle.isEnabled(orgId);
     }
 
     public boolean isEmailsOnlyModeEnabled() {
@@ -250,6 +424,51 @@ public class EngineConfig {
         return eventConsumerQueueCapacity;
     }
 
+    public Duration getEventConsumerShutdownTimeout() {
+        return eventConsumerShutdownTimeout;
+    }
+
+    public boolean isEventConsumerFairSchedulingEnabled() {
+        return eventConsumerFairSchedulingEnabled;
+    }
+
+    public int getEventConsumerFairSchedulingQueueCapacity() {
+        return eventConsumerFairSchedulingQueueCapacity;
+    }
+
+    public int getEventConsumerFairSchedulingQueueCapacityPerOrg() {
+        return eventConsumerFairSchedulingQueueCapacityPerOrg;
+    }
+
+    public int getEventConsumerFairSchedulingMaxConcurrencyPerOrg() {
+        return eventConsumerFairSchedulingMaxConcurrencyPerOrg;
+    }
+
+    public int getEventConsumerFairSchedulingMaxParkings() {
+        return eventConsumerFairSchedulingMaxParkings;
+    }
+
+    public Duration getEventConsumerFairSchedulingParkingDelay() {
+        return eventConsumerFairSchedulingParkingDelay;
+    }
+
+    public Map<String, Integer> getEventConsumerFairSchedulingOrgWeights() {
+        Map<String, Integer> orgWeights = new HashMap<>();
+        for (String orgWeight : eventConsumerFairSchedulingOrgWeights.orElse(List.of())) {
+            String[] parts = orgWeight.trim().split(":");
+            if (parts.length == 2) {
+                try {
+                    orgWeights.put(parts[0], Math.max(1, Integer.parseInt(parts[1])));
+                    continue;
+                } catch (NumberFormatException ignored) {
+                    // The invalid entry is logged below.
+                }
+            }
+            Log.warnf("Ignoring invalid org weight: %s", orgWeight);
+        }
+        return orgWeights;
+    }
+
     public boolean isKafkaConsumedTotalCheckerEnabled() {
         return unleash.isEnabled(kafkaConsumedTotalCheckerToggle, false);
     }
@@ -260,10 +479,7 @@ public class EngineConfig {
 
     public boolean isBlacklistedEndpoint(final UUID endpointId) {
         if (null != endpointId) {
-            UnleashContext unleashContext = UnleashContext.builder()
-                .addProperty("endpointId", endpointId.toString())
-                .build();
-            return unleash.isEnabled(toggleBlacklistedEndpoints, unleashContext, false);
+            return compiledBlacklistedEndpointsToggle.isEnabled(endpointId);
         } else {
             return false;
         }
@@ -271,10 +487,7 @@ public class EngineConfig {
 
     public boolean isBlacklistedEventType(final UUID eventTypeId) {
         if (null != eventTypeId) {
-            UnleashContext unleashContext = UnleashContext.builder()
-                .addProperty("eventTypeId", eventTypeId.toString())
-                .build();
-            return unleash.isEnabled(toggleBlacklistedEventTypes, unleashContext, false);
+            return compiledBlacklistedEventTypesToggle.isEnabled(eventTypeId);
         } else {
             return false;
         }
@@ -319,7 +532,7 @@ public class EngineConfig {
     }
 
     public boolean isIncludeSeverityToFilterRecipientsEnabled(String orgId) {
-        return unleash.isEnabled(toggleIncludeSeverityToFilterRecipients, UnleashContextBuilder.buildUnleashContextWithOrgId(orgId), false);
+        return compiledIncludeSeverityToFilterRecipientsToggle.isEnabled(orgId);
     }
 
     public boolean isSkipMessageProcessing() {
@@ -343,7 +556,7 @@ public class EngineConfig {
     }
 
     public boolean isNormalizedQueriesEnabled(String orgId) {
-        return unleash.isEnabled(normalizedQueriesToggle, UnleashContextBuilder.buildUnleashContextWithOrgId(orgId), false);
+        return compiledNormalizedQueriesToggle.isEnabled(orgId);
     }
 
     public boolean isValkeyEventDeduplicatorEnabled() {
@@ -358,6 +571,38 @@ public class EngineConfig {
         return eventsExportPageSize;
     }
 
+    public boolean isEndpointRoutingTableEnabled() {
+        return endpointRoutingTableEnabled;
+    }
+
+    public boolean isSubscriptionCacheEnabled() {
+        return subscriptionCacheEnabled;
+    }
+
+    public Duration getSubscriptionCacheMaxEntryAge() {
+        return subscriptionCacheMaxEntryAge;
+    }
+
+    public boolean isConnectorSenderBatchedHistoryEnabled() {
+        return connectorSenderBatchedHistoryEnabled;
+    }
+
+    public int getConnectorSenderBatchedHistoryMaxSize() {
+        return connectorSenderBatchedHistoryMaxSize;
+    }
+
+    public boolean isPayloadDetailsCompressionEnabled() {
+        return payloadDetailsCompressionEnabled;
+    }
+
+    public Duration getEndpointRoutingTableMaxEntryAge() {
+        return endpointRoutingTableMaxEntryAge;
+    }
+
+    public Duration getEndpointRoutingTableWarmUpWindow() {
+        return endpointRoutingTableWarmUpWindow;
+    }
+
     public String getLightwellSender() {
         return rhLightwellSender;
     }
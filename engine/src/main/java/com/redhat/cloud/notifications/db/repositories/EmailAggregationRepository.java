@@ -1,13 +1,18 @@
 package com.redhat.cloud.notifications.db.repositories;
 
+import com.redhat.cloud.notifications.Severity;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.EventAggregationCriterion;
+import com.redhat.cloud.notifications.models.EventType;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @ApplicationScoped
 public class EmailAggregationRepository {
@@ -15,15 +20,65 @@ public class EmailAggregationRepository {
     @Inject
     EntityManager entityManager;
 
-    public List<Event> getEmailAggregationBasedOnEvent(EventAggregationCriterion key, LocalDateTime start, LocalDateTime end, int firstResultIndex, int maxResults) {
-        String query = "FROM Event JOIN FETCH eventType WHERE orgId = :orgId AND applicationId = :applicationId AND created > :start AND created <= :end ORDER BY created";
-        return entityManager.createQuery(query, Event.class)
+    /**
+     * Retrieves a page of the events that need to be aggregated for the given key, ordered by creation date and ID.
+     * The pagination is based on a keyset cursor. The cursor is a row comparison and the order matches the
+     * {@code ix_event_org_id_application_id (org_id, application_id, created DESC, id DESC)} index read backward, so
+     * each page starts its index scan right after the cursor, whatever the number of pages that were already read.
+     * <p>
+     * Only the columns needed by the aggregation are retrieved and the returned events are not managed by the
+     * persistence context. They must not be persisted or modified.
+     * @param key the aggregation key.
+     * @param start the start (excluded) of the aggregation window.
+     * @param end the end (included) of the aggregation window.
+     * @param after the last event of the previous page, or {@code null} to retrieve the first page.
+     * @param maxResults the page size.
+     * @return the events of the page.
+     */
+    public List<Event> getEmailAggregationBasedOnEvent(EventAggregationCriterion key, LocalDateTime start, LocalDateTime end, Event after, int maxResults) {
+        String query = "SELECT e.id, e.created, e.orgId, e.bundleId, e.bundleDisplayName, e.applicationId, e.applicationDisplayName, " +
+            "e.eventTypeDisplayName, e.payload, e.severity, et.id, et.name, et.subscribedByDefault " +
+            "FROM Event e JOIN e.eventType et " +
+            "WHERE e.orgId = :orgId AND e.applicationId = :applicationId AND e.created > :start AND e.created <= :end";
+        if (after != null) {
+            query += " AND (e.created, e.id) > (:afterCreated, :afterId)";
+        }
+        query += " ORDER BY e.created, e.id";
+
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(query, Object[].class)
             .setParameter("orgId", key.getOrgId())
             .setParameter("applicationId", key.getApplicationId())
             .setParameter("start", start)
             .setParameter("end", end)
-            .setFirstResult(firstResultIndex)
-            .setMaxResults(maxResults)
-            .getResultList();
+            .setMaxResults(maxResults);
+        if (after != null) {
+            typedQuery.setParameter("afterCreated", after.getCreated())
+                .setParameter("afterId", after.getId());
+        }
+
+        return typedQuery.getResultList().stream()
+            .map(EmailAggregationRepository::toEvent)
+            .toList();
+    }
+
+    private static Event toEvent(Object[] row) {
+        EventType eventType = new EventType();
+        eventType.setId((UUID) row[10]);
+        eventType.setName((String) row[11]);
+        eventType.setSubscribedByDefault((boolean) row[12]);
+
+        Event event = new Event();
+        event.setId((UUID) row[0]);
+        event.setCreated(((Timestamp) row[1]).toLocalDateTime());
+        event.setOrgId((String) row[2]);
+        event.setBundleId((UUID) row[3]);
+        event.setBundleDisplayName((String) row[4]);
+        event.setApplicationId((UUID) row[5]);
+        event.setApplicationDisplayName((String) row[6]);
+        event.setEventTypeDisplayName((String) row[7]);
+        event.setPayload((String) row[8]);
+        event.setSeverity((Severity) row[9]);
+        event.setEventType(eventType);
+        return event;
     }
 }
@@ -116,6 +116,12 @@ public class EndpointRepository {
         for (Endpoint endpoint : endpoints) {
             if (endpoint.getOrgId() == null) {
                 if (endpoint.getType() != null && INTERNAL_ENDPOINT_TYPES.contains(endpoint.getType())) {
+                    /*
+                     * The endpoint is shared by all orgs. It is detached before its org ID is set, otherwise the
+                     * persistence context would return the modified instance when the same endpoint is queried
+                     * for another org.
+                     */
+                    entityManager.detach(endpoint);
                     endpoint.setOrgId(orgId);
                 } else {
                     Log.warnf("Invalid endpoint configured in default behavior group: %s", endpoint.getId());
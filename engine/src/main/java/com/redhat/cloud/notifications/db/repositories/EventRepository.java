@@ -10,6 +10,7 @@ import jakarta.transaction.Transactional;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -33,6 +34,20 @@ public class EventRepository {
         return event;
     }
 
+    /**
+     * Persists all the given events within a single transaction. The inserts
+     * are sent to the DB as JDBC batches, which size is controlled by the
+     * {@code quarkus.hibernate-orm.jdbc.statement-batch-size} configuration
+     * property.
+     * @param events the events to persist.
+     */
+    @Transactional
+    public void createAll(List<Event> events) {
+        for (Event event : events) {
+            entityManager.persist(event);
+        }
+    }
+
     /**
      * Finds the events related to the provided org id in order to export
      * them, returning an {@link Iterator} that fetches one bounded page at a
@@ -195,6 +210,19 @@ public class EventRepository {
             .getResultList();
     }
 
+    /**
+     * Finds the distinct org IDs and event type IDs of the events created
+     * after the given date.
+     * @param since the minimum creation date of the events.
+     * @return a list of {@code [orgId, eventTypeId]} pairs.
+     */
+    public List<Object[]> findOrgIdsAndEventTypeIdsSince(final LocalDateTime since) {
+        final String hql = "SELECT DISTINCT e.orgId, e.eventType.id FROM Event e WHERE e.created > :since";
+        return entityManager.createQuery(hql, Object[].class)
+            .setParameter("since", Timestamp.valueOf(since))
+            .getResultList();
+    }
+
     @Transactional
     public void updateDrawerNotification(Event event) {
         String hql = "UPDATE Event SET renderedDrawerNotification = :renderedDrawerNotification WHERE id = :id";
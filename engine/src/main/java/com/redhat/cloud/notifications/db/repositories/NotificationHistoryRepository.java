@@ -3,16 +3,26 @@ package com.redhat.cloud.notifications.db.repositories;
 import com.redhat.cloud.notifications.db.converters.NotificationHistoryDetailsConverter;
 import com.redhat.cloud.notifications.events.ConnectorReceiver;
 import com.redhat.cloud.notifications.models.Endpoint;
-import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.NotificationHistory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static java.util.stream.Collectors.toSet;
+
 @ApplicationScoped
 public class NotificationHistoryRepository {
 
@@ -26,8 +36,8 @@ public class NotificationHistoryRepository {
          * guarantee the endpoint will still exist in the DB at the time when the history is written. If it's gone, then
          * the subquery will return null.
          */
-        String hql = "INSERT INTO notification_history (id, invocation_time, invocation_result, status, details, event_id, endpoint_type_v2, endpoint_sub_type, created, endpoint_id) " +
-                "VALUES (:id, :invocationTime, :invocationResult, :status, :details, :eventId, :endpointType, :endpointSubType, :created, " +
+        String hql = "INSERT INTO notification_history (id, invocation_time, invocation_result, status, details, event_id, event_created, endpoint_type_v2, endpoint_sub_type, created, endpoint_id) " +
+                "VALUES (:id, :invocationTime, :invocationResult, :status, :details, :eventId, :eventCreated, :endpointType, :endpointSubType, :created, " +
                 "(SELECT id FROM endpoints WHERE id = :endpointId))";
         history.prePersist();
         entityManager.createNativeQuery(hql)
@@ -37,6 +47,7 @@ public class NotificationHistoryRepository {
                 .setParameter("status", history.getStatus().toString())
                 .setParameter("details", new NotificationHistoryDetailsConverter().convertToDatabaseColumn(history.getDetails()))
                 .setParameter("eventId", history.getEvent().getId())
+                .setParameter("eventCreated", history.getEventCreated())
                 .setParameter("endpointType", history.getEndpointType().name())
                 .setParameter("endpointSubType", history.getEndpointSubType())
                 .setParameter("created", history.getCreated())
@@ -45,7 +56,55 @@ public class NotificationHistoryRepository {
     }
 
     /**
-     * Update a stub history item with data we have received from the Camel sender
+     * Creates several history items with a single statement. Like {@link #createNotificationHistory(NotificationHistory)},
+     * the endpoint of each history item is only referenced if it still exists in the DB.
+     *
+     * @param histories the history items to create
+     */
+    @Transactional
+    public void createNotificationHistories(List<NotificationHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO notification_history (id, invocation_time, invocation_result, status, details, event_id, event_created, endpoint_type_v2, endpoint_sub_type, created, endpoint_id) " +
+                "SELECT v.id, v.invocation_time, v.invocation_result, v.status, v.details, v.event_id, v.event_created, v.endpoint_type, v.endpoint_sub_type, v.created, e.id " +
+                "FROM (VALUES ");
+        for (int i = 0; i < histories.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(:id").append(i).append(" AS uuid), CAST(:invocationTime").append(i).append(" AS integer), CAST(:invocationResult")
+                .append(i).append(" AS boolean), CAST(:status").append(i).append(" AS text), CAST(:details").append(i).append(" AS text), CAST(:eventId")
+                .append(i).append(" AS uuid), CAST(:eventCreated").append(i).append(" AS timestamp), CAST(:endpointType").append(i).append(" AS text), CAST(:endpointSubType").append(i).append(" AS text), CAST(:created")
+                .append(i).append(" AS timestamp), CAST(:endpointId").append(i).append(" AS uuid))");
+        }
+        sql.append(") AS v (id, invocation_time, invocation_result, status, details, event_id, event_created, endpoint_type, endpoint_sub_type, created, endpoint_id) " +
+                "LEFT JOIN endpoints e ON e.id = v.endpoint_id");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        NotificationHistoryDetailsConverter detailsConverter = new NotificationHistoryDetailsConverter();
+        for (int i = 0; i < histories.size(); i++) {
+            NotificationHistory history = histories.get(i);
+            history.prePersist();
+            query.setParameter("id" + i, history.getId())
+                .setParameter("invocationTime" + i, history.getInvocationTime())
+                .setParameter("invocationResult" + i, history.isInvocationResult())
+                .setParameter("status" + i, history.getStatus().toString())
+                .setParameter("details" + i, detailsConverter.convertToDatabaseColumn(history.getDetails()))
+                .setParameter("eventId" + i, history.getEvent().getId())
+                .setParameter("eventCreated" + i, history.getEventCreated())
+                .setParameter("endpointType" + i, history.getEndpointType().name())
+                .setParameter("endpointSubType" + i, history.getEndpointSubType())
+                .setParameter("created" + i, history.getCreated())
+                .setParameter("endpointId" + i, history.getEndpoint().getId());
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Update a stub history item with data we have received from the Camel sender. If the creation date of the event
+     * of the history item is known, the history item is only searched in the partition of that date.
      *
      * @see ConnectorReceiver
      */
@@ -54,40 +113,142 @@ public class NotificationHistoryRepository {
         String hql = "UPDATE NotificationHistory " +
                 "SET details = :details, invocationResult = :result, status = :status, invocationTime = :invocationTime " +
                 "WHERE id = :id";
-        int count = entityManager.createQuery(hql)
+        if (notificationHistory.getEventCreated() != null) {
+            hql += " AND eventCreated = :eventCreated";
+        }
+        Query query = entityManager.createQuery(hql)
                 .setParameter("details", notificationHistory.getDetails())
                 .setParameter("result", notificationHistory.isInvocationResult())
                 .setParameter("status", notificationHistory.getStatus())
                 .setParameter("id", notificationHistory.getId())
-                .setParameter("invocationTime", notificationHistory.getInvocationTime())
-                .executeUpdate();
-        return count > 0;
+                .setParameter("invocationTime", notificationHistory.getInvocationTime());
+        if (notificationHistory.getEventCreated() != null) {
+            query.setParameter("eventCreated", notificationHistory.getEventCreated());
+        }
+        return query.executeUpdate() > 0;
     }
 
-    public Endpoint getEndpointForHistoryId(String historyId) {
+    /**
+     * Updates several stub history items with a single statement. If the creation dates of the events of all history
+     * items are known, the history items are only searched in the partitions of these dates.
+     *
+     * @param notificationHistories the history items to update
+     * @return the IDs of the history items that were found and updated
+     * @see ConnectorReceiver
+     */
+    @Transactional
+    public Set<UUID> updateHistoryItems(List<NotificationHistory> notificationHistories) {
+        if (notificationHistories.isEmpty()) {
+            return Set.of();
+        }
 
-        String query = "SELECT e from Endpoint e, NotificationHistory h WHERE h.id = :id AND e.id = h.endpoint.id";
-        UUID hid = UUID.fromString(historyId);
+        Set<LocalDateTime> eventCreatedDates = getEventCreatedDates(notificationHistories);
 
-        try {
-            return entityManager.createQuery(query, Endpoint.class)
-                    .setParameter("id", hid)
-                    .getSingleResult();
-        } catch (NoResultException e) {
-            return null;
+        StringBuilder sql = new StringBuilder("UPDATE notification_history AS h " +
+                "SET details = v.details, invocation_result = v.invocation_result, status = v.status, invocation_time = v.invocation_time " +
+                "FROM (VALUES ");
+        for (int i = 0; i < notificationHistories.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(CAST(:id").append(i).append(" AS uuid), CAST(:details").append(i).append(" AS text), CAST(:result")
+                .append(i).append(" AS boolean), CAST(:status").append(i).append(" AS text), CAST(:invocationTime").append(i).append(" AS integer))");
+        }
+        sql.append(") AS v (id, details, invocation_result, status, invocation_time) WHERE h.id = v.id");
+        if (!eventCreatedDates.isEmpty()) {
+            sql.append(" AND h.event_created IN (:eventCreatedDates)");
         }
+        sql.append(" RETURNING h.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), UUID.class);
+        NotificationHistoryDetailsConverter detailsConverter = new NotificationHistoryDetailsConverter();
+        for (int i = 0; i < notificationHistories.size(); i++) {
+            NotificationHistory notificationHistory = notificationHistories.get(i);
+            query.setParameter("id" + i, notificationHistory.getId())
+                .setParameter("details" + i, detailsConverter.convertToDatabaseColumn(notificationHistory.getDetails()))
+                .setParameter("result" + i, notificationHistory.isInvocationResult())
+                .setParameter("status" + i, notificationHistory.getStatus().toString())
+                .setParameter("invocationTime" + i, notificationHistory.getInvocationTime());
+        }
+        if (!eventCreatedDates.isEmpty()) {
+            query.setParameter("eventCreatedDates", eventCreatedDates);
+        }
+        List<UUID> updatedIds = query.getResultList();
+        return new HashSet<>(updatedIds);
     }
 
-    public Event getEventIdFromHistoryId(UUID historyId) {
+    /**
+     * Retrieves the endpoints of several history items with a single query. If the creation dates of the events of all
+     * history items are known, the history items are only searched in the partitions of these dates.
+     *
+     * @param historyItems the history items, only their ID and event creation date are used
+     * @return the endpoints indexed by history ID, the history items without an endpoint are not included
+     */
+    public Map<UUID, Endpoint> getEndpointsForHistoryItems(Collection<NotificationHistory> historyItems) {
+        if (historyItems.isEmpty()) {
+            return Map.of();
+        }
 
-        String query = "SELECT e from Event e, NotificationHistory h WHERE h.id = :id AND e.id = h.event.id";
+        Set<LocalDateTime> eventCreatedDates = getEventCreatedDates(historyItems);
+
+        String hql = "SELECT h.id, e FROM NotificationHistory h JOIN h.endpoint e WHERE h.id IN (:ids)";
+        if (!eventCreatedDates.isEmpty()) {
+            hql += " AND h.eventCreated IN (:eventCreatedDates)";
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(hql, Object[].class)
+                .setParameter("ids", historyItems.stream().map(NotificationHistory::getId).collect(toSet()));
+        if (!eventCreatedDates.isEmpty()) {
+            query.setParameter("eventCreatedDates", eventCreatedDates);
+        }
+
+        Map<UUID, Endpoint> endpoints = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            endpoints.put((UUID) row[0], (Endpoint) row[1]);
+        }
+        return endpoints;
+    }
 
+    /**
+     * Retrieves the endpoint of a history item.
+     *
+     * @param historyId the ID of the history item
+     * @param eventCreated the creation date of the event of the history item, or {@code null} if it is unknown, in which
+     *                     case all partitions are searched
+     * @return the endpoint, or {@code null} if the history item or its endpoint no longer exist
+     */
+    public Endpoint getEndpointForHistoryId(String historyId, LocalDateTime eventCreated) {
+
+        String hql = "SELECT e from Endpoint e, NotificationHistory h WHERE h.id = :id AND e.id = h.endpoint.id";
+        if (eventCreated != null) {
+            hql += " AND h.eventCreated = :eventCreated";
+        }
+        UUID hid = UUID.fromString(historyId);
+
+        TypedQuery<Endpoint> query = entityManager.createQuery(hql, Endpoint.class)
+                .setParameter("id", hid);
+        if (eventCreated != null) {
+            query.setParameter("eventCreated", eventCreated);
+        }
         try {
-            return entityManager.createQuery(query, Event.class)
-                .setParameter("id", historyId)
-                .getSingleResult();
+            return query.getSingleResult();
         } catch (NoResultException e) {
             return null;
         }
     }
+
+    /*
+     * The history items are partitioned on the creation date of their event, which is carried through the connectors
+     * round trip. The connectors responses produced before that date was carried don't contain it, so if any history
+     * item lacks it, an empty set is returned and all partitions have to be searched.
+     */
+    private static Set<LocalDateTime> getEventCreatedDates(Collection<NotificationHistory> historyItems) {
+        Set<LocalDateTime> eventCreatedDates = new HashSet<>();
+        for (NotificationHistory historyItem : historyItems) {
+            if (historyItem.getEventCreated() == null) {
+                return Set.of();
+            }
+            eventCreatedDates.add(historyItem.getEventCreated());
+        }
+        return eventCreatedDates;
+    }
 }
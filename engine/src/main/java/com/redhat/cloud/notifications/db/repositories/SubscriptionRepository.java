@@ -9,6 +9,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,22 @@ public class SubscriptionRepository {
         }
     }
 
+    /**
+     * Retrieves the subscriptions versions of the orgs which were bumped by the backend after the given date.
+     * @param since the date after which the versions were bumped.
+     * @return the org IDs and their subscriptions version.
+     */
+    public Map<String, Long> getSubscriptionsVersionsUpdatedSince(LocalDateTime since) {
+        String sql = "SELECT org_id, version FROM email_subscriptions_version WHERE updated > :since";
+
+        List<Object[]> records = entityManager.createNativeQuery(sql)
+            .setParameter("since", since)
+            .getResultList();
+
+        return records.stream()
+            .collect(Collectors.toMap(elt -> (String) elt[0], elt -> ((Number) elt[1]).longValue()));
+    }
+
     public Map<String, Set<String>> getSubscribersByEventType(String orgId, UUID appId, SubscriptionType subscriptionType) {
         return getSubscriptionsByEventType(orgId, appId, subscriptionType, true);
     }
@@ -0,0 +1,81 @@
+package com.redhat.cloud.notifications.db.routing;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+/**
+ * Listens to the notifications sent by the DB triggers on the {@value #CHANNEL} channel whenever the endpoints of an
+ * org change, and invalidates the matching entries from the {@link EndpointRoutingTable}.
+ */
+@ApplicationScoped
+public class EndpointRoutingChangesListener {
+
+    static final String CHANNEL = "endpoint_routing_changes";
+    private static final int NOTIFICATIONS_TIMEOUT_MS = 500;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    EngineConfig engineConfig;
+
+    @Inject
+    EndpointRoutingTable endpointRoutingTable;
+
+    // This connection is kept open for as long as the routing table is enabled, LISTEN is bound to the session.
+    private Connection connection;
+
+    @Scheduled(every = "${notifications.endpoint-routing-table.listen-period:1s}", concurrentExecution = SKIP)
+    void pollNotifications() {
+        if (!engineConfig.isEndpointRoutingTableEnabled()) {
+            return;
+        }
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = dataSource.getConnection();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // The notifications sent while no connection was listening were lost.
+                endpointRoutingTable.invalidateAll();
+            }
+
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(NOTIFICATIONS_TIMEOUT_MS);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    Log.debugf("Received endpoint routing change notification [orgId=%s]", notification.getParameter());
+                    endpointRoutingTable.invalidate(notification.getParameter());
+                }
+            }
+        } catch (SQLException e) {
+            Log.warn("Could not poll the endpoint routing change notifications, the endpoint routing table will be invalidated", e);
+            closeConnection();
+            endpointRoutingTable.invalidateAll();
+        }
+    }
+
+    @PreDestroy
+    void closeConnection() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                Log.debug("Could not close the endpoint routing change notifications connection", e);
+            }
+            connection = null;
+        }
+    }
+}
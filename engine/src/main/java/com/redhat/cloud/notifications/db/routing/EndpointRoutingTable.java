@@ -0,0 +1,191 @@
+package com.redhat.cloud.notifications.db.routing;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.db.repositories.EventRepository;
+import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * In-memory index of the endpoints targeted by the events, keyed by org ID and event type ID. It replaces the
+ * {@link EndpointRepository#getTargetEndpointsWithoutUsingBgs(String, EventType)} query on the ingest path when
+ * {@link EngineConfig#isEndpointRoutingTableEnabled()} is {@code true}. The entries are invalidated by the
+ * {@link EndpointRoutingChangesListener} whenever the DB reports a change to the endpoints of an org.
+ */
+@ApplicationScoped
+public class EndpointRoutingTable {
+
+    public static final String HIT_COUNTER_NAME = "endpoint.routing.table.hit";
+    public static final String MISS_COUNTER_NAME = "endpoint.routing.table.miss";
+    public static final String EXPIRED_COUNTER_NAME = "endpoint.routing.table.expired";
+    public static final String INVALIDATION_COUNTER_NAME = "endpoint.routing.table.invalidation";
+    public static final String ENTRY_AGE_TIMER_NAME = "endpoint.routing.table.entry.age";
+    public static final String SIZE_GAUGE_NAME = "endpoint.routing.table.size";
+
+    static final String TAG_KEY_SCOPE = "scope";
+    static final String SCOPE_ORG = "org";
+    static final String SCOPE_ALL = "all";
+
+    @Inject
+    EndpointRepository endpointRepository;
+
+    @Inject
+    EventRepository eventRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EngineConfig engineConfig;
+
+    @Inject
+    MeterRegistry registry;
+
+    /*
+     * The endpoints are grouped by org ID first, so that all the entries of an org can be invalidated at once. The
+     * lists stored in this map are immutable and are shared between the threads processing the events.
+     */
+    private final Map<String, Map<UUID, Entry>> entriesByOrgId = new ConcurrentHashMap<>();
+
+    /*
+     * Incremented each time the table is invalidated. It is used to detect that an invalidation happened while
+     * endpoints were loaded from the DB, in which case the loaded endpoints may be outdated and are not stored.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter expiredCounter;
+    private Counter orgInvalidationCounter;
+    private Counter fullInvalidationCounter;
+    private Timer entryAgeTimer;
+
+    @PostConstruct
+    void init() {
+        hitCounter = registry.counter(HIT_COUNTER_NAME);
+        missCounter = registry.counter(MISS_COUNTER_NAME);
+        expiredCounter = registry.counter(EXPIRED_COUNTER_NAME);
+        orgInvalidationCounter = registry.counter(INVALIDATION_COUNTER_NAME, TAG_KEY_SCOPE, SCOPE_ORG);
+        fullInvalidationCounter = registry.counter(INVALIDATION_COUNTER_NAME, TAG_KEY_SCOPE, SCOPE_ALL);
+        entryAgeTimer = registry.timer(ENTRY_AGE_TIMER_NAME);
+        registry.gauge(SIZE_GAUGE_NAME, entriesByOrgId, entries -> entries.values().stream().mapToInt(Map::size).sum());
+    }
+
+    /**
+     * Warms the table with the org IDs and event types of the events received recently, so that the first events
+     * processed after a restart do not all hit the DB.
+     */
+    @ActivateRequestContext
+    void warmUp(@Observes Startup event) {
+        if (!engineConfig.isEndpointRoutingTableEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            LocalDateTime since = LocalDateTime.now(UTC).minus(engineConfig.getEndpointRoutingTableWarmUpWindow());
+            List<Object[]> routingKeys = eventRepository.findOrgIdsAndEventTypeIdsSince(since);
+            for (Object[] routingKey : routingKeys) {
+                String orgId = (String) routingKey[0];
+                EventType eventType = entityManager.getReference(EventType.class, routingKey[1]);
+                load(orgId, eventType);
+                // The persistence context does not need to keep track of the loaded endpoints.
+                entityManager.clear();
+            }
+            Log.infof("Endpoint routing table warmed with %d entries in %d ms", routingKeys.size(), NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            // The table still works without being warmed, it will be populated as the events are processed.
+            Log.warn("Endpoint routing table warm-up failed", e);
+        }
+    }
+
+    /**
+     * Returns the endpoints targeted by the events of the given org and event type.
+     * @param orgId the org ID of the event.
+     * @param eventType the event type of the event.
+     * @return an immutable list of endpoints, with their properties loaded.
+     */
+    public List<Endpoint> getTargetEndpoints(String orgId, EventType eventType) {
+        if (!engineConfig.isEndpointRoutingTableEnabled()) {
+            return endpointRepository.getTargetEndpointsWithoutUsingBgs(orgId, eventType);
+        }
+
+        Map<UUID, Entry> orgEntries = entriesByOrgId.get(orgId);
+        Entry entry = orgEntries == null ? null : orgEntries.get(eventType.getId());
+        if (entry == null) {
+            missCounter.increment();
+        } else {
+            long age = System.nanoTime() - entry.loadedAt();
+            if (age <= engineConfig.getEndpointRoutingTableMaxEntryAge().toNanos()) {
+                hitCounter.increment();
+                entryAgeTimer.record(age, NANOSECONDS);
+                return entry.endpoints();
+            }
+            expiredCounter.increment();
+        }
+
+        return load(orgId, eventType);
+    }
+
+    /**
+     * Invalidates all entries of the given org. A {@code null} or empty org ID
+     * invalidates the whole table, because endpoints without an org ID are
+     * shared by all orgs.
+     * @param orgId the org ID.
+     */
+    public void invalidate(String orgId) {
+        if (orgId == null || orgId.isEmpty()) {
+            invalidateAll();
+        } else {
+            generation.incrementAndGet();
+            entriesByOrgId.remove(orgId);
+            orgInvalidationCounter.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entriesByOrgId.clear();
+        fullInvalidationCounter.increment();
+    }
+
+    private List<Endpoint> load(String orgId, EventType eventType) {
+        long loadGeneration = generation.get();
+        List<Endpoint> endpoints = List.copyOf(endpointRepository.getTargetEndpointsWithoutUsingBgs(orgId, eventType));
+
+        Entry entry = new Entry(endpoints, System.nanoTime());
+        Map<UUID, Entry> orgEntries = entriesByOrgId.computeIfAbsent(orgId, unused -> new ConcurrentHashMap<>());
+        orgEntries.put(eventType.getId(), entry);
+
+        /*
+         * The generation is checked after the entry was stored, otherwise an invalidation could happen between the
+         * check and the storage of outdated endpoints.
+         */
+        if (generation.get() != loadGeneration) {
+            orgEntries.remove(eventType.getId(), entry);
+        }
+        return endpoints;
+    }
+
+    private record Entry(List<Endpoint> endpoints, long loadedAt) { }
+}
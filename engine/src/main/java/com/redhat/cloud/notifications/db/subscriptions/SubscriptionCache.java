@@ -0,0 +1,217 @@
+package com.redhat.cloud.notifications.db.subscriptions;
+
+import com.redhat.cloud.notifications.Severity;
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
+import com.redhat.cloud.notifications.models.SubscriptionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * In-memory cache of the subscribers and unsubscribers of the events, keyed by org ID, event type ID, subscription type
+ * and severity. It replaces the {@link SubscriptionRepository#getSubscribers} and
+ * {@link SubscriptionRepository#getUnsubscribers} queries on the ingest path when
+ * {@link EngineConfig#isSubscriptionCacheEnabled()} is {@code true}. The backend bumps the subscriptions version of an
+ * org whenever the subscriptions of that org change, and the entries of the org are invalidated when the new version
+ * is polled from the DB.
+ */
+@ApplicationScoped
+public class SubscriptionCache {
+
+    public static final String HIT_COUNTER_NAME = "subscription.cache.hit";
+    public static final String MISS_COUNTER_NAME = "subscription.cache.miss";
+    public static final String EXPIRED_COUNTER_NAME = "subscription.cache.expired";
+    public static final String INVALIDATION_COUNTER_NAME = "subscription.cache.invalidation";
+    public static final String SIZE_GAUGE_NAME = "subscription.cache.size";
+
+    /*
+     * The versions are bumped in transactions which may commit a while after the bump. The versions are therefore
+     * polled over a window which overlaps the previous polls, so that late commits are not missed.
+     */
+    static final Duration POLL_OVERLAP = Duration.ofMinutes(1L);
+
+    @Inject
+    SubscriptionRepository subscriptionRepository;
+
+    @Inject
+    EngineConfig engineConfig;
+
+    @Inject
+    MeterRegistry registry;
+
+    /*
+     * The entries are grouped by org ID first, so that all the entries of an org can be invalidated at once. The sets
+     * stored in this map are immutable and are shared between the threads processing the events.
+     */
+    private final Map<String, Map<Key, Entry>> entriesByOrgId = new ConcurrentHashMap<>();
+
+    /*
+     * Incremented each time the cache is invalidated. It is used to detect that an invalidation happened while
+     * subscriptions were loaded from the DB, in which case the loaded subscriptions may be outdated and are not stored.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    // Only accessed from the scheduled poll, which never runs concurrently.
+    private Map<String, Long> polledVersions = Map.of();
+    private LocalDateTime lastSuccessfulPoll;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter expiredCounter;
+    private Counter invalidationCounter;
+
+    @PostConstruct
+    void init() {
+        hitCounter = registry.counter(HIT_COUNTER_NAME);
+        missCounter = registry.counter(MISS_COUNTER_NAME);
+        expiredCounter = registry.counter(EXPIRED_COUNTER_NAME);
+        invalidationCounter = registry.counter(INVALIDATION_COUNTER_NAME);
+        registry.gauge(SIZE_GAUGE_NAME, this, SubscriptionCache::size);
+    }
+
+    /**
+     * Returns the users subscribed to the events of the given org and event type.
+     * @return an immutable set of usernames.
+     */
+    public Set<String> getSubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType, Optional<Severity> severity) {
+        return get(orgId, new Key(eventTypeId, subscriptionType, severity.orElse(null), true));
+    }
+
+    /**
+     * Returns the users unsubscribed from the events of the given org and event type.
+     * @return an immutable set of usernames.
+     */
+    public Set<String> getUnsubscribers(String orgId, UUID eventTypeId, SubscriptionType subscriptionType, Optional<Severity> severity) {
+        return get(orgId, new Key(eventTypeId, subscriptionType, severity.orElse(null), false));
+    }
+
+    @Scheduled(every = "${notifications.subscription-cache.poll-period:5s}", concurrentExecution = SKIP)
+    @ActivateRequestContext
+    void pollVersions() {
+        if (!engineConfig.isSubscriptionCacheEnabled()) {
+            return;
+        }
+        LocalDateTime pollStart = LocalDateTime.now(UTC);
+        LocalDateTime since = (lastSuccessfulPoll == null ? pollStart : lastSuccessfulPoll).minus(POLL_OVERLAP);
+        try {
+            Map<String, Long> versions = subscriptionRepository.getSubscriptionsVersionsUpdatedSince(since);
+            for (Map.Entry<String, Long> version : versions.entrySet()) {
+                // The orgs polled again with the same version because of the overlap were already invalidated.
+                if (!version.getValue().equals(polledVersions.get(version.getKey()))) {
+                    Log.debugf("Subscriptions version changed [orgId=%s, version=%d]", version.getKey(), version.getValue());
+                    invalidate(version.getKey());
+                }
+            }
+            polledVersions = versions;
+            lastSuccessfulPoll = pollStart;
+        } catch (Exception e) {
+            Log.warn("Could not poll the subscriptions versions, the subscription cache will be invalidated", e);
+            invalidateAll();
+        }
+    }
+
+    /*
+     * The expired entries are otherwise only replaced when they are read again, so the entries of the orgs and event
+     * types which stopped receiving events would be kept forever.
+     */
+    @Scheduled(every = "${notifications.subscription-cache.purge-period:1m}", concurrentExecution = SKIP)
+    void purgeExpiredEntries() {
+        long maxEntryAge = engineConfig.getSubscriptionCacheMaxEntryAge().toNanos();
+        long now = System.nanoTime();
+        for (String orgId : entriesByOrgId.keySet()) {
+            entriesByOrgId.computeIfPresent(orgId, (unused, orgEntries) -> {
+                orgEntries.values().removeIf(entry -> now - entry.loadedAt() > maxEntryAge);
+                return orgEntries.isEmpty() ? null : orgEntries;
+            });
+        }
+    }
+
+    public void invalidate(String orgId) {
+        generation.incrementAndGet();
+        entriesByOrgId.remove(orgId);
+        invalidationCounter.increment();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entriesByOrgId.clear();
+        invalidationCounter.increment();
+    }
+
+    int size() {
+        return entriesByOrgId.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private Set<String> get(String orgId, Key key) {
+        if (!engineConfig.isSubscriptionCacheEnabled()) {
+            return Set.copyOf(load(orgId, key));
+        }
+
+        Map<Key, Entry> orgEntries = entriesByOrgId.get(orgId);
+        Entry entry = orgEntries == null ? null : orgEntries.get(key);
+        if (entry == null) {
+            missCounter.increment();
+        } else if (System.nanoTime() - entry.loadedAt() <= engineConfig.getSubscriptionCacheMaxEntryAge().toNanos()) {
+            hitCounter.increment();
+            return entry.usernames();
+        } else {
+            expiredCounter.increment();
+        }
+
+        long loadGeneration = generation.get();
+        // The usernames are interned because the same users are found in the entries of many event types and severities.
+        Set<String> usernames = load(orgId, key).stream()
+            .map(String::intern)
+            .collect(Collectors.toUnmodifiableSet());
+
+        Entry newEntry = new Entry(usernames, System.nanoTime());
+        // The entry is stored atomically with the org map, which may be removed concurrently by the purge.
+        Map<Key, Entry> newOrgEntries = entriesByOrgId.compute(orgId, (unused, orgEntries) -> {
+            Map<Key, Entry> entries = orgEntries == null ? new ConcurrentHashMap<>() : orgEntries;
+            entries.put(key, newEntry);
+            return entries;
+        });
+
+        /*
+         * The generation is checked after the entry was stored, otherwise an invalidation could happen between the
+         * check and the storage of outdated subscriptions.
+         */
+        if (generation.get() != loadGeneration) {
+            newOrgEntries.remove(key, newEntry);
+        }
+        return usernames;
+    }
+
+    private List<String> load(String orgId, Key key) {
+        Optional<Severity> severity = Optional.ofNullable(key.severity());
+        if (key.subscribed()) {
+            return subscriptionRepository.getSubscribers(orgId, key.eventTypeId(), key.subscriptionType(), severity);
+        } else {
+            return subscriptionRepository.getUnsubscribers(orgId, key.eventTypeId(), key.subscriptionType(), severity);
+        }
+    }
+
+    private record Key(UUID eventTypeId, SubscriptionType subscriptionType, Severity severity, boolean subscribed) { }
+
+    private record Entry(Set<String> usernames, long loadedAt) { }
+}
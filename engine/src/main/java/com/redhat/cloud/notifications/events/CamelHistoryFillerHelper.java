@@ -6,6 +6,7 @@ import com.redhat.cloud.notifications.models.NotificationStatus;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
 
@@ -23,6 +24,16 @@ public class CamelHistoryFillerHelper {
      * @see ConnectorReceiver
      */
     public boolean updateHistoryItem(Map<String, Object> jo) {
+        return notificationHistoryRepository.updateHistoryItem(toHistoryItem(jo));
+    }
+
+    /**
+     * Builds the history item update from the data we have received from the Camel sender
+     *
+     * @param jo Map containing the returned data
+     * @return the history item containing the updated fields
+     */
+    public NotificationHistory toHistoryItem(Map<String, Object> jo) {
         String historyId = (String) jo.get("historyId");
 
         if (historyId == null || historyId.isBlank()) {
@@ -59,7 +70,9 @@ public class CamelHistoryFillerHelper {
         history.setStatus(status);
         history.setDetails(details);
         history.setInvocationTime(duration);
+        // Used to search the history item in its own partition, it is null if the connector did not return it.
+        history.setEventCreated((LocalDateTime) jo.get("eventCreated"));
 
-        return notificationHistoryRepository.updateHistoryItem(history);
+        return history;
     }
 }
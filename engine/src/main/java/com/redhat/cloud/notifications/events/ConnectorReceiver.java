@@ -2,13 +2,16 @@ package com.redhat.cloud.notifications.events;
 
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.repositories.NotificationHistoryRepository;
+import com.redhat.cloud.notifications.events.EndpointErrorFromConnectorHelper.EndpointResponse;
 import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.NotificationHistory;
 import com.redhat.cloud.notifications.processors.drawer.DrawerProcessor;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
 import io.smallrye.reactive.messaging.annotations.Blocking;
-import io.vertx.core.json.Json;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
 import io.vertx.core.json.JsonObject;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -16,7 +19,20 @@ import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static com.redhat.cloud.notifications.processors.ConnectorSender.CLOUD_EVENT_EVENT_CREATED_EXTENSION;
 
 /**
  * We sent data via Camel. Now Camel informs us about the outcome,
@@ -26,6 +42,7 @@ import java.util.Map;
 public class ConnectorReceiver {
 
     public static final String FROMCAMEL_CHANNEL = "fromcamel";
+    public static final String FROMCAMEL_BATCH_CHANNEL = "fromcamelbatch";
     public static final String MESSAGES_ERROR_COUNTER_NAME = "camel.messages.error";
     public static final String MESSAGES_PROCESSED_COUNTER_NAME = "camel.messages.processed";
     public static final String EGRESS_CHANNEL = "egress";
@@ -64,16 +81,19 @@ public class ConnectorReceiver {
     public void processAsync(String payload) {
         try {
             Log.infof("Processing return from camel: %s", payload);
-            Map<String, Object> decodedPayload = decodeItem(payload);
+            ConnectorResponse response = decodeItem(payload);
 
-            String historyId = (String) decodedPayload.get("historyId");
-            final Endpoint endpoint = notificationHistoryRepository.getEndpointForHistoryId(historyId);
+            final Endpoint endpoint = notificationHistoryRepository.getEndpointForHistoryId(response.historyId(), response.eventCreated());
 
-            boolean updated = camelHistoryFillerHelper.updateHistoryItem(decodedPayload);
+            boolean updated = camelHistoryFillerHelper.updateHistoryItem(response.decodedPayload());
             if (!updated) {
-                Log.warnf("Camel notification history update failed because no record was found with [id=%s]", decodedPayload.get("historyId"));
+                Log.warnf("Camel notification history update failed because no record was found with [id=%s]", response.historyId());
+            }
+            if (endpoint == null) {
+                Log.debugf("Unable to update endpoint data from history %s, because it no longer exists", response.historyId());
+            } else {
+                endpointErrorFromConnectorHelper.manageEndpointsDisablingIfNeeded(List.of(new EndpointResponse(endpoint, response.data())));
             }
-            endpointErrorFromConnectorHelper.manageEndpointDisablingIfNeeded(endpoint, new JsonObject(payload));
         } catch (Exception e) {
             messagesErrorCounter.increment();
             Log.error("|  Failure to update the history", e);
@@ -82,18 +102,119 @@ public class ConnectorReceiver {
         }
     }
 
-    private Map<String, Object> decodeItem(String s) {
+    /**
+     * Consumes the return topic in batches. This consumer is disabled by default and is meant to replace the
+     * {@link #processAsync(String)} consumer when the connectors send a lot of responses, during email blasts for
+     * example: the endpoints of the whole batch are retrieved with one query and the history items are updated with
+     * one statement.
+     * @param batch the batch of Kafka records received from the return topic.
+     * @return a completion stage that is completed when the offsets of all records of the batch were acknowledged.
+     */
+    @Incoming(FROMCAMEL_BATCH_CHANNEL)
+    @Blocking
+    public CompletionStage<Void> processBatchAsync(KafkaRecordBatch<String, String> batch) {
+        List<KafkaRecord<String, String>> records = batch.getRecords();
+        processBatch(records.stream().map(Message::getPayload).toList());
+
+        // The offset of each record is acknowledged individually, whatever the outcome of its processing was.
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            acks[i] = records.get(i).ack().toCompletableFuture();
+        }
+        return CompletableFuture.allOf(acks);
+    }
 
-        // 1st step CloudEvent as String -> map
-        Map<String, Object> ceMap = Json.decodeValue(s, Map.class);
+    @ActivateRequestContext
+    public void processBatch(List<String> payloads) {
+        List<ConnectorResponse> responses = new ArrayList<>(payloads.size());
+        List<NotificationHistory> historyItems = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            try {
+                Log.infof("Processing return from camel: %s", payload);
+                ConnectorResponse response = decodeItem(payload);
+                historyItems.add(camelHistoryFillerHelper.toHistoryItem(response.decodedPayload()));
+                responses.add(response);
+            } catch (Exception e) {
+                messagesErrorCounter.increment();
+                messagesProcessedCounter.increment();
+                Log.error("|  Failure to update the history", e);
+            }
+        }
 
-        // Take the id from the CloudEvent as the historyId
-        String id = (String) ceMap.get("id");
+        if (responses.isEmpty()) {
+            return;
+        }
 
-        // 2nd step data item (as String) to final map
-        Map<String, Object> map = Json.decodeValue((String) ceMap.get("data"), Map.class);
-        map.put("historyId", id);
-        return map;
+        try {
+            Map<UUID, Endpoint> endpoints = notificationHistoryRepository.getEndpointsForHistoryItems(historyItems);
+
+            updateHistoryItems(historyItems);
+
+            List<EndpointResponse> endpointResponses = new ArrayList<>(responses.size());
+            for (int i = 0; i < responses.size(); i++) {
+                Endpoint endpoint = endpoints.get(historyItems.get(i).getId());
+                if (endpoint == null) {
+                    Log.debugf("Unable to update endpoint data from history %s, because it no longer exists", responses.get(i).historyId());
+                } else {
+                    endpointResponses.add(new EndpointResponse(endpoint, responses.get(i).data()));
+                }
+            }
+            endpointErrorFromConnectorHelper.manageEndpointsDisablingIfNeeded(endpointResponses);
+        } catch (Exception e) {
+            messagesErrorCounter.increment(responses.size());
+            Log.error("|  Failure to update the history", e);
+        } finally {
+            messagesProcessedCounter.increment(responses.size());
+        }
+    }
+
+    private void updateHistoryItems(List<NotificationHistory> historyItems) {
+        Set<UUID> updatedIds;
+        try {
+            updatedIds = notificationHistoryRepository.updateHistoryItems(historyItems);
+        } catch (Exception e) {
+            // The batch update was rolled back, each history item is updated individually to isolate the failure.
+            Log.warn("Batch update of history items failed, falling back to the update of each history item", e);
+            updatedIds = new HashSet<>();
+            for (NotificationHistory historyItem : historyItems) {
+                try {
+                    if (notificationHistoryRepository.updateHistoryItem(historyItem)) {
+                        updatedIds.add(historyItem.getId());
+                    }
+                } catch (Exception ex) {
+                    messagesErrorCounter.increment();
+                    Log.error("|  Failure to update the history", ex);
+                }
+            }
+        }
+        for (NotificationHistory historyItem : historyItems) {
+            if (!updatedIds.contains(historyItem.getId())) {
+                Log.warnf("Camel notification history update failed because no record was found with [id=%s]", historyItem.getId());
+            }
+        }
+    }
+
+    private static ConnectorResponse decodeItem(String s) {
+
+        // 1st step CloudEvent as String -> JSON object
+        JsonObject cloudEvent = new JsonObject(s);
+
+        // Take the id from the CloudEvent as the historyId
+        String id = cloudEvent.getString("id");
+
+        // The creation date of the event is missing from the responses of the messages sent before it was carried
+        String eventCreatedExtension = cloudEvent.getString(CLOUD_EVENT_EVENT_CREATED_EXTENSION);
+        LocalDateTime eventCreated = eventCreatedExtension == null ? null : LocalDateTime.parse(eventCreatedExtension);
+
+        // 2nd step data item (as String) to JSON object, its map is also used as the decoded payload
+        JsonObject data = new JsonObject(cloudEvent.getString("data"));
+        Map<String, Object> decodedPayload = new HashMap<>(data.getMap());
+        decodedPayload.put("historyId", id);
+        if (eventCreated != null) {
+            decodedPayload.put("eventCreated", eventCreated);
+        }
+        return new ConnectorResponse(id, eventCreated, data, decodedPayload);
     }
 
+    private record ConnectorResponse(String historyId, LocalDateTime eventCreated, JsonObject data, Map<String, Object> decodedPayload) { }
 }
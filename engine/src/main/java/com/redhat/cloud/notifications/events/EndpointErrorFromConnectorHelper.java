@@ -10,8 +10,12 @@ import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import static com.redhat.cloud.notifications.events.HttpErrorType.CONNECTION_REFUSED;
 import static com.redhat.cloud.notifications.events.HttpErrorType.CONNECT_TIMEOUT;
@@ -56,14 +60,26 @@ public class EndpointErrorFromConnectorHelper {
             return;
         }
 
-        JsonObject data = new JsonObject(payload.getString("data"));
         if (strHistoryId != null) {
+            manageEndpointsDisablingIfNeeded(List.of(new EndpointResponse(endpoint, new JsonObject(payload.getString("data")))));
+        }
+    }
+
+    /**
+     * Updates the endpoints from a batch of connector responses. The server errors are aggregated per endpoint, so
+     * that each endpoint is locked and updated only once for the whole batch.
+     * @param responses the connector responses, in the order they were received.
+     */
+    public void manageEndpointsDisablingIfNeeded(List<EndpointResponse> responses) {
+        Map<UUID, ServerErrors> serverErrorsByEndpoint = new LinkedHashMap<>();
+
+        for (EndpointResponse response : responses) {
+            Endpoint endpoint = response.endpoint();
+            JsonObject data = response.data();
 
             if (data.getBoolean("successful", false)) {
-                boolean reset = endpointRepository.resetEndpointServerErrors(endpoint.getId());
-                if (reset) {
-                    Log.infof("The server errors counter of endpoint %s was just reset", endpoint.getId());
-                }
+                // The successful call also resets the server errors received previously from the same batch.
+                serverErrorsByEndpoint.computeIfAbsent(endpoint.getId(), id -> new ServerErrors(endpoint)).reset();
             } else if (data.containsKey("error")) {
                 JsonObject error = data.getJsonObject("error");
                 Optional<HttpErrorType> httpErrorType = getHttpErrorType(error);
@@ -90,16 +106,30 @@ public class EndpointErrorFromConnectorHelper {
                          * number of endpoint failures allowed from the configuration is exceeded.
                          */
                         int deliveryAttempts = error.getInteger("delivery_attempts", 1);
-                        boolean disabled = endpointRepository.incrementEndpointServerErrors(endpoint.getId(), deliveryAttempts);
-                        if (disabled) {
-                            disabledWebhooksServerErrorCount.increment();
-                            Log.infof("Endpoint %s was disabled because it caused too many 5xx errors or IOExceptions while calling it", endpoint.getId());
-                            integrationDisabledNotifier.notify(endpoint, httpErrorType.get(), statusCode, endpoint.getServerErrors());
-                        }
+                        serverErrorsByEndpoint.computeIfAbsent(endpoint.getId(), id -> new ServerErrors(endpoint))
+                            .add(deliveryAttempts, httpErrorType.get(), statusCode);
                     }
                 }
             }
         }
+
+        for (ServerErrors serverErrors : serverErrorsByEndpoint.values()) {
+            Endpoint endpoint = serverErrors.endpoint;
+            if (serverErrors.reset) {
+                boolean reset = endpointRepository.resetEndpointServerErrors(endpoint.getId());
+                if (reset) {
+                    Log.infof("The server errors counter of endpoint %s was just reset", endpoint.getId());
+                }
+            }
+            if (serverErrors.count > 0) {
+                boolean disabled = endpointRepository.incrementEndpointServerErrors(endpoint.getId(), serverErrors.count);
+                if (disabled) {
+                    disabledWebhooksServerErrorCount.increment();
+                    Log.infof("Endpoint %s was disabled because it caused too many 5xx errors or IOExceptions while calling it", endpoint.getId());
+                    integrationDisabledNotifier.notify(endpoint, serverErrors.lastErrorType, serverErrors.lastStatusCode, endpoint.getServerErrors());
+                }
+            }
+        }
     }
 
     private static Optional<HttpErrorType> getHttpErrorType(JsonObject error) {
@@ -114,4 +144,30 @@ public class EndpointErrorFromConnectorHelper {
             return Optional.empty();
         }
     }
+
+    public record EndpointResponse(Endpoint endpoint, JsonObject data) { }
+
+    private static class ServerErrors {
+
+        final Endpoint endpoint;
+        boolean reset;
+        int count;
+        HttpErrorType lastErrorType;
+        Integer lastStatusCode;
+
+        ServerErrors(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void reset() {
+            reset = true;
+            count = 0;
+        }
+
+        void add(int deliveryAttempts, HttpErrorType errorType, Integer statusCode) {
+            count += deliveryAttempts;
+            lastErrorType = errorType;
+            lastStatusCode = statusCode;
+        }
+    }
 }
@@ -3,11 +3,14 @@ package com.redhat.cloud.notifications.events;
 import com.redhat.cloud.notifications.DelayedThrower;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.db.routing.EndpointRoutingTable;
 import com.redhat.cloud.notifications.ingress.Action;
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EndpointType;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.event.TestEventHelper;
+import com.redhat.cloud.notifications.processors.ConnectorSender;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.camel.google.chat.GoogleChatProcessor;
 import com.redhat.cloud.notifications.processors.camel.slack.SlackProcessor;
 import com.redhat.cloud.notifications.processors.camel.teams.TeamsProcessor;
@@ -48,6 +51,9 @@ public class EndpointProcessor {
     @Inject
     EndpointRepository endpointRepository;
 
+    @Inject
+    EndpointRoutingTable endpointRoutingTable;
+
     @Inject
     WebhookTypeProcessor webhookProcessor;
 
@@ -75,6 +81,12 @@ public class EndpointProcessor {
     @Inject
     PagerDutyProcessor pagerDutyProcessor;
 
+    @Inject
+    ConnectorSender connectorSender;
+
+    @Inject
+    EventTransformationContexts eventTransformationContexts;
+
     @Inject
     MeterRegistry registry;
 
@@ -95,6 +107,17 @@ public class EndpointProcessor {
     }
 
     public void process(Event event, boolean replayOnly, EndpointType endpointTypeToReplay, String endpointSubTypeToReplay) {
+        /*
+         * The messages sent to the connectors while processing the event are sent as a single batch, and the
+         * transformations of the event are shared by all the endpoint processors.
+         */
+        try (ConnectorSender.Batch batch = connectorSender.openBatch();
+             EventTransformationContexts.Scope transformationScope = eventTransformationContexts.open(event)) {
+            processEndpoints(event, replayOnly, endpointTypeToReplay, endpointSubTypeToReplay);
+        }
+    }
+
+    private void processEndpoints(Event event, boolean replayOnly, EndpointType endpointTypeToReplay, String endpointSubTypeToReplay) {
         processedItems.increment();
         final List<Endpoint> endpoints = new ArrayList<>();
         if (TestEventHelper.isIntegrationTestEvent(event)) {
@@ -110,7 +133,7 @@ public class EndpointProcessor {
 
             Log.debugf("[org_id: %s] Found %s endpoints for the aggregation event: %s", event.getOrgId(), endpoints.size(), event);
         } else {
-            endpoints.addAll(endpointRepository.getTargetEndpointsWithoutUsingBgs(event.getOrgId(), event.getEventType()));
+            endpoints.addAll(endpointRoutingTable.getTargetEndpoints(event.getOrgId(), event.getEventType()));
         }
 
         endpoints.removeIf(endpoint -> {
@@ -1,5 +1,8 @@
 package com.redhat.cloud.notifications.events;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.redhat.cloud.event.parser.ConsoleCloudEventParser;
 import com.redhat.cloud.event.parser.exceptions.ConsoleCloudEventParsingException;
 import com.redhat.cloud.notifications.Severity;
@@ -22,34 +25,58 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import io.quarkus.logging.Log;
 import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.kafka.KafkaRecord;
+import io.smallrye.reactive.messaging.kafka.KafkaRecordBatch;
+import io.smallrye.reactive.messaging.kafka.api.KafkaMessageMetadata;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import jakarta.persistence.NoResultException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
 
 import static com.redhat.cloud.notifications.events.KafkaMessageDeduplicator.MESSAGE_ID_HEADER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @ApplicationScoped
 public class EventConsumer {
 
     public static final String INGRESS_CHANNEL = "ingress";
+    public static final String INGRESS_BATCH_CHANNEL = "ingressbatch";
+    public static final String INGRESS_PARKED_CHANNEL = "ingressparked";
+    public static final String PARKING_CHANNEL = "parking";
+    public static final String PARKINGS_HEADER = "rh-notifications-parkings";
     public static final String REJECTED_COUNTER_NAME = "input.rejected";
     public static final String PROCESSING_ERROR_COUNTER_NAME = "input.processing.error";
     public static final String PROCESSING_BLACKLISTED_COUNTER_NAME = "input.processing.blacklisted";
+    public static final String PARKED_COUNTER_NAME = "input.fair-scheduler.parked";
     public static final String PROCESSING_EXCEPTION_COUNTER_NAME = "input.processing.exception";
     public static final String DUPLICATE_EVENT_COUNTER_NAME = "input.duplicate.event";
     public static final String CONSUMED_TIMER_NAME = "input.consumed";
@@ -61,6 +88,10 @@ public class EventConsumer {
 
     private static final String EVENT_TYPE_NOT_FOUND_MSG = "No event type found for key: %s";
     private static final String SOURCE_ENVIRONMENT_HEADER = "rh-source-environment";
+    private static final String ACTION_ORG_ID_FIELD = "org_id";
+    private static final String CLOUD_EVENT_ORG_ID_FIELD = "redhatorgid";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long PARKING_TIMEOUT_SECONDS = 10L;
 
     @Inject
     MeterRegistry registry;
@@ -98,6 +129,9 @@ public class EventConsumer {
     @Inject
     RecipientsAuthorizationCriterionExtractor recipientsAuthorizationCriterionExtractor;
 
+    @Channel(PARKING_CHANNEL)
+    Emitter<String> parkingEmitter;
+
     @Inject
     SeverityTransformer severityTransformer;
 
@@ -109,19 +143,21 @@ public class EventConsumer {
     private Counter rejectedCounter;
     private Counter processingErrorCounter;
     private Counter processingExceptionCounter;
+    private Counter parkedCounter;
     private ExecutorService executor;
+    private FairEventScheduler fairScheduler;
 
     @PostConstruct
     public void init() {
         rejectedCounter = registry.counter(REJECTED_COUNTER_NAME);
         processingErrorCounter = registry.counter(PROCESSING_ERROR_COUNTER_NAME);
         processingExceptionCounter = registry.counter(PROCESSING_EXCEPTION_COUNTER_NAME);
+        parkedCounter = registry.counter(PARKED_COUNTER_NAME);
 
         /*
          * The ThreadPoolExecutor#submit method from this executor is blocking. If it is called while all threads from
          * the pool are busy, the calling thread will wait until a thread from the pool is available.
          */
-        // TODO After we've confirmed the async processing works, additional code will be needed to shutdown the executor gracefully (wait until all threads are done with their work).
         executor = new ThreadPoolExecutor(
                 config.getEventConsumerCoreThreadPoolSize(),
                 config.getEventConsumerMaxThreadPoolSize(),
@@ -129,6 +165,38 @@ public class EventConsumer {
                 SECONDS,
                 buildBlockingQueue()
         );
+
+        if (config.isEventConsumerFairSchedulingEnabled()) {
+            fairScheduler = new FairEventScheduler(
+                    config.getEventConsumerMaxThreadPoolSize(),
+                    config.getEventConsumerFairSchedulingMaxConcurrencyPerOrg(),
+                    config.getEventConsumerFairSchedulingQueueCapacity(),
+                    config.getEventConsumerFairSchedulingQueueCapacityPerOrg(),
+                    config.getEventConsumerFairSchedulingOrgWeights(),
+                    registry
+            );
+            FairEventScheduler.registerGauges(registry, () -> fairScheduler);
+        }
+    }
+
+    /**
+     * The Kafka messages are acknowledged as soon as their asynchronous processing is scheduled, so the engine waits
+     * for the scheduled processing to be done before it stops. Otherwise, the events would be lost.
+     */
+    @PreDestroy
+    void shutdown() {
+        Duration timeout = config.getEventConsumerShutdownTimeout();
+        try {
+            if (fairScheduler != null && !fairScheduler.shutdownAndDrain(timeout)) {
+                Log.warn("Shutting down before the fair scheduler processed all events");
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout.toMillis(), MILLISECONDS)) {
+                Log.warn("Shutting down before the executor processed all events");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private BlockingQueue<Runnable> buildBlockingQueue() {
@@ -156,17 +224,145 @@ public class EventConsumer {
     @Blocking
     public CompletionStage<Void> consume(Message<String> message) {
         if (config.isAsyncEventProcessing()) {
-            /*
-             * Even though the processing will be asynchronous, this call will block the current thread until a thread
-             * from the pool is available.
-             */
-            executor.submit(() -> process(message));
+            try {
+                /*
+                 * Even though the processing will be asynchronous, this call will block the current thread until a
+                 * thread from the pool (or a slot from the fair scheduler) is available.
+                 */
+                if (fairScheduler != null) {
+                    if (!fairScheduler.submit(extractOrgId(message.getPayload()), () -> process(message))) {
+                        park(message);
+                    }
+                } else {
+                    executor.submit(() -> process(message));
+                }
+            } catch (RejectedExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                // The engine is shutting down, the message is processed synchronously to make sure it is not lost.
+                process(message);
+            }
         } else {
             process(message);
         }
         return message.ack();
     }
 
+    /**
+     * Consumes the events parked by {@link #park(Message)} once their parking delay has elapsed. The records of the
+     * parking topic are ordered by parking time, so waiting for the first one does not delay the following ones.
+     */
+    @Incoming(INGRESS_PARKED_CHANNEL)
+    @Blocking
+    public CompletionStage<Void> consumeParked(Message<String> message) {
+        Optional<Instant> parkedAt = message.getMetadata(KafkaMessageMetadata.class).map(KafkaMessageMetadata::getTimestamp);
+        if (parkedAt.isPresent()) {
+            Duration delay = config.getEventConsumerFairSchedulingParkingDelay().multipliedBy(getParkings(message));
+            long remainingMillis = Duration.between(Instant.now(), parkedAt.get().plus(delay)).toMillis();
+            if (remainingMillis > 0L) {
+                try {
+                    Thread.sleep(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return consume(message);
+    }
+
+    /**
+     * Sends an event of an org which exceeds its share of the fair scheduler to the parking topic, with the same key
+     * and headers, so that the Kafka consumer moves on to the events of the other orgs. The parked event is consumed
+     * again after a delay which grows with the number of times it has been parked. The event is processed
+     * synchronously if it has been parked too many times or if it cannot be parked, which keeps it from being lost.
+     * If the parked copy is eventually written after the timeout, it is only dropped as a duplicate when the event has
+     * a deduplication key.
+     */
+    private void park(Message<String> message) {
+        int parkings = getParkings(message);
+        if (parkings >= config.getEventConsumerFairSchedulingMaxParkings()) {
+            Log.debugf("Event parked %d times, it is processed synchronously", parkings);
+            process(message);
+            return;
+        }
+
+        RecordHeaders headers = new RecordHeaders();
+        OutgoingKafkaRecordMetadata.OutgoingKafkaRecordMetadataBuilder<Object> metadata = OutgoingKafkaRecordMetadata.<Object>builder();
+        message.getMetadata(KafkaMessageMetadata.class).ifPresent(incoming -> {
+            metadata.withKey(incoming.getKey());
+            incoming.getHeaders().forEach(header -> {
+                if (!PARKINGS_HEADER.equals(header.key())) {
+                    headers.add(header);
+                }
+            });
+        });
+        headers.add(PARKINGS_HEADER, String.valueOf(parkings + 1).getBytes(UTF_8));
+        metadata.withHeaders(headers);
+
+        CompletableFuture<Void> parked = new CompletableFuture<>();
+        Message<String> parkedMessage = Message.of(message.getPayload())
+                .addMetadata(metadata.build())
+                .withAck(() -> {
+                    parked.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(failure -> {
+                    parked.completeExceptionally(failure);
+                    return CompletableFuture.completedFuture(null);
+                });
+        try {
+            parkingEmitter.send(parkedMessage);
+            // This only waits for the Kafka producer, which is short compared to the processing of the event.
+            parked.get(PARKING_TIMEOUT_SECONDS, SECONDS);
+            parkedCounter.increment();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            Log.warn("Event parking failed, the event is processed synchronously", e);
+            process(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process(message);
+        }
+    }
+
+    private static int getParkings(Message<String> message) {
+        return message.getMetadata(KafkaMessageMetadata.class)
+                .map(metadata -> metadata.getHeaders().lastHeader(PARKINGS_HEADER))
+                .map(header -> {
+                    try {
+                        return Integer.parseInt(new String(header.value(), UTF_8));
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .orElse(0);
+    }
+
+    /**
+     * Extracts the org ID from the payload without parsing it entirely, so that the event can be scheduled before its
+     * actual processing starts. Both the Action and the Console Cloud Event formats are supported.
+     * @return the org ID, or an empty string if it could not be found.
+     */
+    static String extractOrgId(String payload) {
+        if (payload != null) {
+            try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String fieldName = parser.currentName();
+                        JsonToken valueToken = parser.nextToken();
+                        if (valueToken == JsonToken.VALUE_STRING && (ACTION_ORG_ID_FIELD.equals(fieldName) || CLOUD_EVENT_ORG_ID_FIELD.equals(fieldName))) {
+                            return parser.getText();
+                        }
+                        parser.skipChildren();
+                    }
+                }
+            } catch (IOException e) {
+                // The payload is invalid, it will be rejected during its processing.
+            }
+        }
+        return "";
+    }
+
     @ActivateRequestContext
     public void process(Message<String> message) {
         // This timer will have dynamic tag values based on the action parsed from the received message.
@@ -175,92 +371,16 @@ public class EventConsumer {
         Map<String, String> tags = new HashMap<>();
         Event event = null;
 
-        // The two following variables have to be final or effectively final. That why their type is String[] instead of String.
-        /*
-         * Step 1
-         * The payload (JSON) is parsed into an Action.
-         */
         try {
-
-            final EventWrapper<?, ?> eventWrapper = parsePayload(payload, tags);
-            /*
-             * The event data was successfully parsed (either as an action or a cloud event). Depending on the situation
-             * we now have a bundle/app/eventType triplet or a fully qualified name for the event type.
-             */
-
-            Map<String, Optional<String>> kafkaHeaders = kafkaHeadersExtractor.extract(message,
-                    MESSAGE_ID_HEADER,
-                    SOURCE_ENVIRONMENT_HEADER
-            );
-
-            /*
-             * Step 2
-             * The message ID is extracted from the event data - if it is not present we fallback to the kafka headers
-             * It can be null for now to give the onboarded
-             * apps time to change their integration and start sending the new header. The message ID will become
-             * mandatory with cloud events. We may want to throw an exception when it is null.
-             */
-            final UUID messageId = getMessageId(eventWrapper, kafkaHeaders.get(MESSAGE_ID_HEADER));
-
-            String msgId = messageId == null ? "null" : messageId.toString();
-            Log.infof("Processing received event [id=%s, %s=%s, orgId=%s, %s]",
-                    eventWrapper.getId(), MESSAGE_ID_HEADER, msgId, eventWrapper.getOrgId(), eventWrapper.getKey());
-
             /*
-             * Step 3
-             * We need to retrieve an EventType from the DB using the bundle/app/eventType triplet from the
-             * parsed Action.
+             * Steps 1 to 4
+             * The payload is parsed, the event type is retrieved and an Event is created from the current message.
              */
-            EventType eventType;
-            EventWrapper<?, ?> eventWrapperToProcess = eventWrapper;
-            try {
-                eventType = eventTypeRepository.getEventType(eventWrapperToProcess.getKey());
-
-                if (eventWrapperToProcess instanceof EventWrapperCloudEvent) {
-                    // We loaded a cloud event and identified the event-type it belongs to
-                    // At this point, lets check if we have a transformation available for this event
-                    // If we do, transform the event - Later this will be done on a by-integration basis
-                    Optional<CloudEventTransformer> transformer = cloudEventTransformerFactory.getTransformerIfSupported((EventWrapperCloudEvent) eventWrapperToProcess);
-                    if (transformer.isPresent()) {
-                        eventWrapperToProcess = new EventWrapperAction(
-                                transformer.get().toAction(
-                                        (EventWrapperCloudEvent) eventWrapperToProcess,
-                                        eventType.getApplication().getBundle().getName(),
-                                        eventType.getApplication().getName(),
-                                        eventType.getName()
-                        ));
-                    }
-                }
-
-                tags.computeIfAbsent(TAG_KEY_BUNDLE, key -> eventType.getApplication().getBundle().getName());
-                tags.computeIfAbsent(TAG_KEY_APPLICATION, key -> eventType.getApplication().getName());
-                tags.computeIfAbsent(TAG_KEY_EVENT_TYPE, key -> eventType.getName());
-
-                if (config.isBlacklistedEventType(eventType.getId())) {
-                    Log.debugf("Skipping event type [id=%s, name=%s] because it was blacklisted", eventType.getId(), eventType.getName());
-                    registry.counter(
-                        PROCESSING_BLACKLISTED_COUNTER_NAME,
-                        TAG_KEY_BUNDLE, tags.getOrDefault(TAG_KEY_BUNDLE, ""),
-                        TAG_KEY_APPLICATION, tags.getOrDefault(TAG_KEY_APPLICATION, ""),
-                        TAG_KEY_EVENT_TYPE, tags.getOrDefault(TAG_KEY_EVENT_TYPE, ""),
-                        TAG_KEY_EVENT_TYPE_FQN, tags.getOrDefault(TAG_KEY_EVENT_TYPE_FQN, ""))
-                        .increment();
-                    return;
-                }
-            } catch (NoResultException | IllegalArgumentException e) {
-                /*
-                 * A NoResultException was thrown because no EventType was found. The message is therefore
-                 * considered rejected.
-                 */
-                rejectedCounter.increment();
-                throw new NoResultException(String.format(EVENT_TYPE_NOT_FOUND_MSG, eventWrapperToProcess.getKey()));
+            event = buildEvent(message, tags);
+            if (event == null) {
+                // The event type was blacklisted.
+                return;
             }
-            /*
-             * Step 4
-             * The EventType was found. It's time to create an Event from the current message.
-             */
-            Optional<String> sourceEnvironmentHeader = kafkaHeaders.get(SOURCE_ENVIRONMENT_HEADER);
-            event = new Event(eventType, payload, eventWrapperToProcess, sourceEnvironmentHeader, messageId);
 
             /*
              * Step 5
@@ -269,60 +389,322 @@ public class EventConsumer {
              */
             boolean isNewEvent = eventDeduplicator.isNew(event);
             if (!isNewEvent) {
-                // The event is already known and should therefore be ignored.
-                Log.debug("Duplicated event ignored");
-                registry.counter(DUPLICATE_EVENT_COUNTER_NAME,
-                    TAG_KEY_BUNDLE, tags.getOrDefault(TAG_KEY_BUNDLE, ""),
-                    TAG_KEY_APPLICATION, tags.getOrDefault(TAG_KEY_APPLICATION, ""),
-                    TAG_KEY_EVENT_TYPE, tags.getOrDefault(TAG_KEY_EVENT_TYPE, ""))
-                    .increment();
+                incrementDuplicateCounter(tags);
             } else {
 
                 /*
                  * Step 6
                  * The event is not a duplicate. We can now persist it.
                  */
-                event.setHasAuthorizationCriterion(null != recipientsAuthorizationCriterionExtractor.extract(event));
-                updateSeverity(event);
-
+                prepareForPersistence(event);
                 eventRepository.create(event);
 
                 /*
                  * Step 7
                  * The Event and the Action it contains are processed by all relevant endpoint processors.
                  */
+                processEndpoints(event);
+            }
+        } catch (Exception e) {
+            handleProcessingException(e, payload, event);
+        } finally {
+            stopConsumedTimer(consumedTimer, tags);
+        }
+    }
+
+    /**
+     * Consumes the ingress topic in batches. This consumer is disabled by default and is meant to replace the
+     * {@link #consume(Message)} consumer when a tenant floods the ingress topic: the deduplication and the persistence
+     * of the events are then performed with a single DB round trip for the whole batch. Each record is still processed
+     * independently otherwise, so that a bad record cannot prevent the other records of the batch from being processed.
+     * @param batch the batch of Kafka records received from the ingress topic.
+     * @return a completion stage that is completed when the offsets of all records of the batch were acknowledged.
+     */
+    @Incoming(INGRESS_BATCH_CHANNEL)
+    @Blocking
+    public CompletionStage<Void> consumeBatch(KafkaRecordBatch<String, String> batch) {
+        List<KafkaRecord<String, String>> records = batch.getRecords();
+        processBatch(records);
+
+        // The offset of each record is acknowledged individually, whatever the outcome of its processing was.
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            acks[i] = records.get(i).ack().toCompletableFuture();
+        }
+        return CompletableFuture.allOf(acks);
+    }
+
+    @ActivateRequestContext
+    public void processBatch(List<? extends Message<String>> messages) {
+        List<BatchEntry> entries = new ArrayList<>(messages.size());
+
+        /*
+         * Steps 1 to 4
+         * Each payload is parsed and turned into an Event independently from the other records of the batch.
+         */
+        for (Message<String> message : messages) {
+            BatchEntry entry = new BatchEntry(message.getPayload(), Timer.start(registry));
+            try {
+                entry.event = buildEvent(message, entry.tags);
+                if (entry.event != null) {
+                    entries.add(entry);
+                } else {
+                    // The event type was blacklisted.
+                    complete(entry);
+                }
+            } catch (Exception e) {
+                fail(entry, e);
+            }
+        }
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        /*
+         * Step 5
+         * The whole batch is deduplicated at once.
+         */
+        List<BatchEntry> newEntries = deduplicate(entries);
+
+        /*
+         * Step 6
+         * The new events are persisted with a single JDBC batch.
+         */
+        List<BatchEntry> persistedEntries = persist(newEntries);
+
+        /*
+         * Step 7
+         * Each persisted Event is processed by all relevant endpoint processors.
+         */
+        for (BatchEntry entry : persistedEntries) {
+            try {
+                processEndpoints(entry.event);
+                complete(entry);
+            } catch (Exception e) {
+                fail(entry, e);
+            }
+        }
+    }
+
+    private List<BatchEntry> deduplicate(List<BatchEntry> entries) {
+        boolean[] newEvents;
+        try {
+            newEvents = eventDeduplicator.isNew(entries.stream().map(entry -> entry.event).toList());
+        } catch (Exception e) {
+            // The batch deduplication failed, each event is deduplicated individually to isolate the failure.
+            Log.warn("Batch deduplication failed, falling back to the deduplication of each event", e);
+            newEvents = new boolean[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                BatchEntry entry = entries.get(i);
+                try {
+                    newEvents[i] = eventDeduplicator.isNew(entry.event);
+                } catch (Exception ex) {
+                    fail(entry, ex);
+                }
+            }
+        }
+
+        List<BatchEntry> newEntries = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            BatchEntry entry = entries.get(i);
+            if (entry.done) {
+                continue;
+            }
+            if (!newEvents[i]) {
+                incrementDuplicateCounter(entry.tags);
+                complete(entry);
+            } else {
                 try {
-                    endpointProcessor.process(event);
+                    prepareForPersistence(entry.event);
+                    newEntries.add(entry);
                 } catch (Exception e) {
-                    /*
-                     * The Event processing failed.
-                     */
-                    processingErrorCounter.increment();
-                    throw e;
+                    fail(entry, e);
                 }
             }
+        }
+        return newEntries;
+    }
+
+    private List<BatchEntry> persist(List<BatchEntry> entries) {
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        try {
+            eventRepository.createAll(entries.stream().map(entry -> entry.event).toList());
+            return entries;
         } catch (Exception e) {
-            /*
-             * An exception was thrown at some point during the Kafka message processing,
-             * it is logged and added to the exception counter metric. Any deduplication
-             * events added in Valkey will be rolled back.
-             */
-            processingExceptionCounter.increment();
-            Log.infof(e, "Could not process the payload: %s", payload);
-            if (event != null && engineConfig.isInMemoryDbEnabled() && engineConfig.isValkeyEventDeduplicatorEnabled()) {
-                Event finalEvent = event;
-                Optional<String> dedupKey = eventDeduplicator.getEventDeduplicationConfig(event).getDeduplicationKey(event);
-                dedupKey.ifPresent(key -> valkeyService.removeEventFromDeduplication(finalEvent.getEventType().getId(), key));
+            // The batch insert was rolled back, each event is persisted individually to isolate the failure.
+            Log.warn("Batch insert of events failed, falling back to the insert of each event", e);
+            List<BatchEntry> persistedEntries = new ArrayList<>(entries.size());
+            for (BatchEntry entry : entries) {
+                // The identifier generated during the rolled back insert has to be discarded.
+                entry.event.setId(null);
+                try {
+                    eventRepository.create(entry.event);
+                    persistedEntries.add(entry);
+                } catch (Exception ex) {
+                    fail(entry, ex);
+                }
             }
-        } finally {
-            consumedTimer.stop(registry.timer(
-                    CONSUMED_TIMER_NAME,
+            return persistedEntries;
+        }
+    }
+
+    private void complete(BatchEntry entry) {
+        entry.done = true;
+        stopConsumedTimer(entry.consumedTimer, entry.tags);
+    }
+
+    private void fail(BatchEntry entry, Exception e) {
+        handleProcessingException(e, entry.payload, entry.event);
+        complete(entry);
+    }
+
+    /**
+     * Parses the payload of the given message and builds the Event that will be persisted and processed.
+     * @param message the Kafka message.
+     * @param tags the metrics tags, which are updated with the values found in the payload.
+     * @return the event, or {@code null} if the event type of the event was blacklisted.
+     */
+    private Event buildEvent(Message<String> message, Map<String, String> tags) {
+        String payload = message.getPayload();
+
+        /*
+         * Step 1
+         * The payload (JSON) is parsed into an Action.
+         */
+        final EventWrapper<?, ?> eventWrapper = parsePayload(payload, tags);
+        /*
+         * The event data was successfully parsed (either as an action or a cloud event). Depending on the situation
+         * we now have a bundle/app/eventType triplet or a fully qualified name for the event type.
+         */
+
+        Map<String, Optional<String>> kafkaHeaders = kafkaHeadersExtractor.extract(message,
+                MESSAGE_ID_HEADER,
+                SOURCE_ENVIRONMENT_HEADER
+        );
+
+        /*
+         * Step 2
+         * The message ID is extracted from the event data - if it is not present we fallback to the kafka headers
+         * It can be null for now to give the onboarded
+         * apps time to change their integration and start sending the new header. The message ID will become
+         * mandatory with cloud events. We may want to throw an exception when it is null.
+         */
+        final UUID messageId = getMessageId(eventWrapper, kafkaHeaders.get(MESSAGE_ID_HEADER));
+
+        String msgId = messageId == null ? "null" : messageId.toString();
+        Log.infof("Processing received event [id=%s, %s=%s, orgId=%s, %s]",
+                eventWrapper.getId(), MESSAGE_ID_HEADER, msgId, eventWrapper.getOrgId(), eventWrapper.getKey());
+
+        /*
+         * Step 3
+         * We need to retrieve an EventType from the DB using the bundle/app/eventType triplet from the
+         * parsed Action.
+         */
+        EventType eventType;
+        EventWrapper<?, ?> eventWrapperToProcess = eventWrapper;
+        try {
+            eventType = eventTypeRepository.getEventType(eventWrapperToProcess.getKey());
+
+            if (eventWrapperToProcess instanceof EventWrapperCloudEvent) {
+                // We loaded a cloud event and identified the event-type it belongs to
+                // At this point, lets check if we have a transformation available for this event
+                // If we do, transform the event - Later this will be done on a by-integration basis
+                Optional<CloudEventTransformer> transformer = cloudEventTransformerFactory.getTransformerIfSupported((EventWrapperCloudEvent) eventWrapperToProcess);
+                if (transformer.isPresent()) {
+                    eventWrapperToProcess = new EventWrapperAction(
+                            transformer.get().toAction(
+                                    (EventWrapperCloudEvent) eventWrapperToProcess,
+                                    eventType.getApplication().getBundle().getName(),
+                                    eventType.getApplication().getName(),
+                                    eventType.getName()
+                    ));
+                }
+            }
+
+            tags.computeIfAbsent(TAG_KEY_BUNDLE, key -> eventType.getApplication().getBundle().getName());
+            tags.computeIfAbsent(TAG_KEY_APPLICATION, key -> eventType.getApplication().getName());
+            tags.computeIfAbsent(TAG_KEY_EVENT_TYPE, key -> eventType.getName());
+
+            if (config.isBlacklistedEventType(eventType.getId())) {
+                Log.debugf("Skipping event type [id=%s, name=%s] because it was blacklisted", eventType.getId(), eventType.getName());
+                registry.counter(
+                    PROCESSING_BLACKLISTED_COUNTER_NAME,
                     TAG_KEY_BUNDLE, tags.getOrDefault(TAG_KEY_BUNDLE, ""),
                     TAG_KEY_APPLICATION, tags.getOrDefault(TAG_KEY_APPLICATION, ""),
                     TAG_KEY_EVENT_TYPE, tags.getOrDefault(TAG_KEY_EVENT_TYPE, ""),
-                    TAG_KEY_EVENT_TYPE_FQN, tags.getOrDefault(TAG_KEY_EVENT_TYPE_FQN, "")
-            ));
+                    TAG_KEY_EVENT_TYPE_FQN, tags.getOrDefault(TAG_KEY_EVENT_TYPE_FQN, ""))
+                    .increment();
+                return null;
+            }
+        } catch (NoResultException | IllegalArgumentException e) {
+            /*
+             * A NoResultException was thrown because no EventType was found. The message is therefore
+             * considered rejected.
+             */
+            rejectedCounter.increment();
+            throw new NoResultException(String.format(EVENT_TYPE_NOT_FOUND_MSG, eventWrapperToProcess.getKey()));
         }
+
+        /*
+         * Step 4
+         * The EventType was found. It's time to create an Event from the current message.
+         */
+        Optional<String> sourceEnvironmentHeader = kafkaHeaders.get(SOURCE_ENVIRONMENT_HEADER);
+        return new Event(eventType, payload, eventWrapperToProcess, sourceEnvironmentHeader, messageId);
+    }
+
+    private void prepareForPersistence(Event event) {
+        event.setHasAuthorizationCriterion(null != recipientsAuthorizationCriterionExtractor.extract(event));
+        updateSeverity(event);
+    }
+
+    private void processEndpoints(Event event) {
+        try {
+            endpointProcessor.process(event);
+        } catch (Exception e) {
+            /*
+             * The Event processing failed.
+             */
+            processingErrorCounter.increment();
+            throw e;
+        }
+    }
+
+    private void incrementDuplicateCounter(Map<String, String> tags) {
+        // The event is already known and should therefore be ignored.
+        Log.debug("Duplicated event ignored");
+        registry.counter(DUPLICATE_EVENT_COUNTER_NAME,
+            TAG_KEY_BUNDLE, tags.getOrDefault(TAG_KEY_BUNDLE, ""),
+            TAG_KEY_APPLICATION, tags.getOrDefault(TAG_KEY_APPLICATION, ""),
+            TAG_KEY_EVENT_TYPE, tags.getOrDefault(TAG_KEY_EVENT_TYPE, ""))
+            .increment();
+    }
+
+    private void handleProcessingException(Exception e, String payload, Event event) {
+        /*
+         * An exception was thrown at some point during the Kafka message processing,
+         * it is logged and added to the exception counter metric. Any deduplication
+         * events added in Valkey will be rolled back.
+         */
+        processingExceptionCounter.increment();
+        Log.infof(e, "Could not process the payload: %s", payload);
+        if (event != null && engineConfig.isInMemoryDbEnabled() && engineConfig.isValkeyEventDeduplicatorEnabled()) {
+            Optional<String> dedupKey = eventDeduplicator.getEventDeduplicationConfig(event).getDeduplicationKey(event);
+            dedupKey.ifPresent(key -> valkeyService.removeEventFromDeduplication(event.getEventType().getId(), key));
+        }
+    }
+
+    private void stopConsumedTimer(Timer.Sample consumedTimer, Map<String, String> tags) {
+        consumedTimer.stop(registry.timer(
+                CONSUMED_TIMER_NAME,
+                TAG_KEY_BUNDLE, tags.getOrDefault(TAG_KEY_BUNDLE, ""),
+                TAG_KEY_APPLICATION, tags.getOrDefault(TAG_KEY_APPLICATION, ""),
+                TAG_KEY_EVENT_TYPE, tags.getOrDefault(TAG_KEY_EVENT_TYPE, ""),
+                TAG_KEY_EVENT_TYPE_FQN, tags.getOrDefault(TAG_KEY_EVENT_TYPE_FQN, "")
+        ));
     }
 
     private void updateSeverity(Event event) {
@@ -370,4 +752,21 @@ public class EventConsumer {
 
         return messageId;
     }
+
+    /**
+     * Holds the processing state of a single record from a batch consumed by {@link #processBatch(List)}.
+     */
+    private static final class BatchEntry {
+
+        private final String payload;
+        private final Timer.Sample consumedTimer;
+        private final Map<String, String> tags = new HashMap<>();
+        private Event event;
+        private boolean done;
+
+        BatchEntry(String payload, Timer.Sample consumedTimer) {
+            this.payload = payload;
+            this.consumedTimer = consumedTimer;
+        }
+    }
 }
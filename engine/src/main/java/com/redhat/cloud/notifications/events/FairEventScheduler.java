@@ -0,0 +1,252 @@
+package com.redhat.cloud.notifications.events;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Schedules the asynchronous processing of the events fairly between the orgs. Each org has its own sub-queue and the
+ * sub-queues are served with a weighted round-robin onto virtual threads, so that an org sending a burst of events
+ * cannot monopolize the processing capacity of the engine:
+ * <ul>
+ *     <li>at most {@code maxConcurrency} tasks run at the same time, all orgs included</li>
+ *     <li>at most {@code maxConcurrencyPerOrg} tasks of the same org run at the same time</li>
+ *     <li>an org is served up to its weight (1 by default) tasks per round-robin turn</li>
+ * </ul>
+ * An org cannot have more than {@code queueCapacityPerOrg} tasks waiting: the {@link #submit(String, Runnable)} method
+ * rejects its tasks without blocking instead, so a flooding org does not prevent the Kafka messages of the other orgs
+ * from being consumed. The method only blocks when {@code queueCapacity} tasks are already waiting, all orgs included,
+ * which prevents more Kafka messages from being consumed until some capacity is available.
+ */
+final class FairEventScheduler {
+
+    static final String QUEUE_DEPTH_GAUGE_NAME = "input.fair-scheduler.queue.depth";
+    static final String RUNNING_GAUGE_NAME = "input.fair-scheduler.running";
+    static final String ORGS_GAUGE_NAME = "input.fair-scheduler.orgs";
+    static final String WAIT_TIMER_NAME = "input.fair-scheduler.wait";
+    static final String TAG_KEY_ORG_ID = "org_id";
+    /** Wait times are only tagged with the org ID of the orgs that have a custom weight to limit the metric cardinality. */
+    static final String OTHER_ORGS_TAG_VALUE = "other";
+
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerOrg;
+    private final int queueCapacity;
+    private final int queueCapacityPerOrg;
+    private final Map<String, Integer> orgWeights;
+    private final MeterRegistry registry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+
+    // The following fields are guarded by the lock.
+    private final Map<String, OrgQueue> orgQueues = new HashMap<>();
+    private final Queue<OrgQueue> readyOrgQueues = new ArrayDeque<>();
+    private int queued;
+    private int running;
+    private boolean shutdown;
+    // Set once the drain is over, the executor no longer accepts tasks.
+    private boolean terminated;
+
+    FairEventScheduler(int maxConcurrency, int maxConcurrencyPerOrg, int queueCapacity, int queueCapacityPerOrg, Map<String, Integer> orgWeights, MeterRegistry registry) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerOrg = maxConcurrencyPerOrg;
+        this.queueCapacity = queueCapacity;
+        this.queueCapacityPerOrg = Math.max(1, queueCapacityPerOrg);
+        this.orgWeights = Map.copyOf(orgWeights);
+        this.registry = registry;
+    }
+
+    /**
+     * Registers the gauges of the scheduler returned by the given supplier. The gauges are identified by their name
+     * only, so they must be registered once per registry, even if the scheduler is replaced.
+     */
+    static void registerGauges(MeterRegistry registry, Supplier<FairEventScheduler> scheduler) {
+        // The supplier is usually a lambda which nothing else references, it must not be weakly referenced.
+        Gauge.builder(QUEUE_DEPTH_GAUGE_NAME, scheduler, current -> current.get().readGuarded(() -> current.get().queued))
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder(RUNNING_GAUGE_NAME, scheduler, current -> current.get().readGuarded(() -> current.get().running))
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder(ORGS_GAUGE_NAME, scheduler, current -> current.get().readGuarded(() -> current.get().orgQueues.size()))
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Queues a task in the sub-queue of the given org. This method blocks while the scheduler is full.
+     * @param orgId the org ID, or an empty string if it is unknown.
+     * @param task the task to run.
+     * @return {@code false} if the task was rejected because the sub-queue of the org is full.
+     * @throws RejectedExecutionException if the scheduler was shut down.
+     */
+    boolean submit(String orgId, Runnable task) throws InterruptedException {
+        lock.lock();
+        try {
+            OrgQueue orgQueue = orgQueues.get(orgId);
+            // This check is done before waiting for some global capacity, so that a flooding org is never waited for.
+            if (orgQueue != null && orgQueue.tasks.size() >= queueCapacityPerOrg && !shutdown) {
+                return false;
+            }
+            while (queued >= queueCapacity && !shutdown) {
+                notFull.await();
+            }
+            if (shutdown) {
+                throw new RejectedExecutionException("The event scheduler was shut down");
+            }
+            orgQueue = orgQueues.computeIfAbsent(orgId, OrgQueue::new);
+            if (orgQueue.tasks.size() >= queueCapacityPerOrg) {
+                // The sub-queue of the org was filled while waiting for some global capacity.
+                return false;
+            }
+            orgQueue.tasks.add(new QueuedTask(task, Timer.start(registry)));
+            queued++;
+            if (!orgQueue.ready && orgQueue.running < maxConcurrencyPerOrg) {
+                orgQueue.ready = true;
+                readyOrgQueues.add(orgQueue);
+            }
+            dispatch();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting new tasks and waits until all queued and running tasks are done, or until the timeout expires.
+     * @return {@code true} if all tasks were completed before the timeout expired.
+     */
+    boolean shutdownAndDrain(Duration timeout) throws InterruptedException {
+        long remainingNanos = timeout.toNanos();
+        lock.lock();
+        try {
+            shutdown = true;
+            notFull.signalAll();
+            while (queued + running > 0 && remainingNanos > 0) {
+                remainingNanos = idle.awaitNanos(remainingNanos);
+            }
+            if (queued + running > 0) {
+                Log.warnf("Event scheduler drain timed out with %d queued and %d running tasks", queued, running);
+                return false;
+            }
+            return true;
+        } finally {
+            terminated = true;
+            lock.unlock();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    /** Must be called while holding the lock. */
+    private void dispatch() {
+        if (terminated) {
+            // The drain timed out and the executor was shut down, the tasks which are still queued are not started.
+            return;
+        }
+        while (running < maxConcurrency && !readyOrgQueues.isEmpty()) {
+            OrgQueue orgQueue = readyOrgQueues.peek();
+            if (orgQueue.credits == 0) {
+                // The org starts a new round-robin turn.
+                orgQueue.credits = orgWeights.getOrDefault(orgQueue.orgId, 1);
+            }
+            while (orgQueue.credits > 0 && running < maxConcurrency && orgQueue.running < maxConcurrencyPerOrg && !orgQueue.tasks.isEmpty()) {
+                orgQueue.credits--;
+                start(orgQueue, orgQueue.tasks.poll());
+            }
+            if (orgQueue.tasks.isEmpty() || orgQueue.running >= maxConcurrencyPerOrg) {
+                // The org will be made ready again when a task is submitted or when one of its tasks completes.
+                readyOrgQueues.poll();
+                orgQueue.ready = false;
+                orgQueue.credits = 0;
+            } else if (orgQueue.credits == 0) {
+                // The org goes back to the end of the round-robin.
+                readyOrgQueues.add(readyOrgQueues.poll());
+            }
+            // Otherwise, the global concurrency limit was reached and the org keeps its remaining credits.
+        }
+    }
+
+    /** Must be called while holding the lock. */
+    private void start(OrgQueue orgQueue, QueuedTask queuedTask) {
+        queued--;
+        running++;
+        orgQueue.running++;
+        notFull.signal();
+        String orgIdTag = orgWeights.containsKey(orgQueue.orgId) ? orgQueue.orgId : OTHER_ORGS_TAG_VALUE;
+        queuedTask.waitTimer.stop(registry.timer(WAIT_TIMER_NAME, TAG_KEY_ORG_ID, orgIdTag));
+        executor.execute(() -> {
+            try {
+                queuedTask.task.run();
+            } catch (Exception e) {
+                Log.error("Unexpected error while processing an event", e);
+            } finally {
+                complete(orgQueue);
+            }
+        });
+    }
+
+    private void complete(OrgQueue orgQueue) {
+        lock.lock();
+        try {
+            running--;
+            orgQueue.running--;
+            if (orgQueue.tasks.isEmpty()) {
+                if (orgQueue.running == 0) {
+                    orgQueues.remove(orgQueue.orgId);
+                }
+            } else if (!orgQueue.ready) {
+                orgQueue.ready = true;
+                readyOrgQueues.add(orgQueue);
+            }
+            dispatch();
+            if (queued + running == 0) {
+                idle.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int readGuarded(IntSupplier supplier) {
+        lock.lock();
+        try {
+            return supplier.getAsInt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class OrgQueue {
+
+        private final String orgId;
+        private final Queue<QueuedTask> tasks = new ArrayDeque<>();
+        private int running;
+        private int credits;
+        private boolean ready;
+
+        OrgQueue(String orgId) {
+            this.orgId = orgId;
+        }
+    }
+
+    private record QueuedTask(Runnable task, Timer.Sample waitTimer) {
+    }
+}
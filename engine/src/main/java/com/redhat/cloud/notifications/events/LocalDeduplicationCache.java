@@ -0,0 +1,63 @@
+package com.redhat.cloud.notifications.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the deduplication keys that were successfully set in Valkey by this engine instance, until their
+ * expiry date. A key found in this cache is a duplicate for sure, which saves a round trip to Valkey. A key missing
+ * from this cache may still be a duplicate because it could have been set by another engine instance, so Valkey
+ * remains the source of truth in that case.
+ */
+final class LocalDeduplicationCache {
+
+    private final Cache<String, Long> expiryByKey;
+
+    LocalDeduplicationCache(int maxSize) {
+        // The expired keys and the keys exceeding the maximum size are evicted by Caffeine in amortized constant time.
+        expiryByKey = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new KeyExpiry())
+            .executor(Runnable::run)
+            .build();
+    }
+
+    boolean isKnownDuplicate(String key) {
+        return expiryByKey.getIfPresent(key) != null;
+    }
+
+    void put(String key, long expiryEpochSecond) {
+        expiryByKey.put(key, expiryEpochSecond);
+    }
+
+    void remove(String key) {
+        expiryByKey.invalidate(key);
+    }
+
+    int size() {
+        expiryByKey.cleanUp();
+        return (int) expiryByKey.estimatedSize();
+    }
+
+    private static final class KeyExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long expiryEpochSecond, long currentTime) {
+            return TimeUnit.SECONDS.toNanos(Math.max(0L, expiryEpochSecond - Instant.now().getEpochSecond()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long expiryEpochSecond, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiryEpochSecond, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long expiryEpochSecond, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
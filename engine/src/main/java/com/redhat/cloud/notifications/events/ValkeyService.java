@@ -1,10 +1,14 @@
 package com.redhat.cloud.notifications.events;
 
 import com.redhat.cloud.notifications.config.EngineConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
 import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Command;
 import io.vertx.mutiny.redis.client.Redis;
 import io.vertx.mutiny.redis.client.RedisAPI;
+import io.vertx.mutiny.redis.client.Request;
 import io.vertx.mutiny.redis.client.Response;
 import io.vertx.redis.client.RedisOptions;
 import jakarta.annotation.PostConstruct;
@@ -16,15 +20,24 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /** Stores and retrieves data from remote cache (i.e. Valkey). */
 @ApplicationScoped
 public class ValkeyService {
 
-    private static final String EVENT_DEDUPLICATION_KEY = "engine:event-deduplication";
+    private static final String EVENT_DEDUPLICATION_KEY = "engine:event-deduplication:";
+    private static final String PIPELINE_SIZE_SUMMARY_NAME = "valkey.pipeline.size";
+    private static final String LOCAL_DEDUPLICATION_HIT_COUNTER_NAME = "valkey.deduplication.local.hit";
+    private static final String LOCAL_DEDUPLICATION_SIZE_GAUGE_NAME = "valkey.deduplication.local.size";
 
     @ConfigProperty(name = "valkey-service.ttl", defaultValue = "PT24H")
     Duration ttl;
@@ -35,20 +48,47 @@ public class ValkeyService {
     @ConfigProperty(name = "quarkus.redis.password", defaultValue = "")
     Optional<String> valkeyPassword;
 
+    /** Maximum number of commands sent to Valkey in a single pipeline. */
+    @ConfigProperty(name = "valkey-service.pipeline.max-size", defaultValue = "100")
+    int pipelineMaxSize;
+
+    /** Maximum time to wait for the responses of a pipeline. */
+    @ConfigProperty(name = "valkey-service.pipeline.timeout", defaultValue = "PT10S")
+    Duration pipelineTimeout;
+
+    /** Maximum number of deduplication keys remembered locally, see {@link LocalDeduplicationCache}. */
+    @ConfigProperty(name = "valkey-service.local-deduplication-cache.max-size", defaultValue = "100000")
+    int localDeduplicationCacheMaxSize;
+
     @Inject
     EngineConfig config;
 
     @Inject
     Vertx vertx;
 
+    @Inject
+    MeterRegistry registry;
+
     /** The underlying client connecting to Valkey. */
     private Redis valkeyClient;
 
     /** Implementation of the Redis/Valkey API, using {@link #valkeyClient} */
     private RedisAPI valkey;
 
+    /** Commands waiting to be sent to Valkey in the next pipeline. */
+    private final Queue<PendingCommand> pendingCommands = new ConcurrentLinkedQueue<>();
+
+    /** Whether a thread is currently sending the pending commands to Valkey. */
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private LocalDeduplicationCache localDeduplicationCache;
+    private DistributionSummary pipelineSizeSummary;
+
     @PostConstruct
     void initialize() {
+        localDeduplicationCache = new LocalDeduplicationCache(localDeduplicationCacheMaxSize);
+        pipelineSizeSummary = registry.summary(PIPELINE_SIZE_SUMMARY_NAME);
+        registry.gauge(LOCAL_DEDUPLICATION_SIZE_GAUGE_NAME, localDeduplicationCache, LocalDeduplicationCache::size);
         if (config.isInMemoryDbEnabled()) {
             if (valkeyHost.isEmpty() || valkeyHost.get().isEmpty()) {
                 throw new IllegalStateException("In-memory DB enabled, but Valkey connection string was not provided");
@@ -69,7 +109,7 @@ public class ValkeyService {
     }
 
     public static String formatDeduplicationKey(UUID eventTypeId, String deduplicationKey) {
-        return String.format("%s:%s:%s", EVENT_DEDUPLICATION_KEY, eventTypeId, deduplicationKey);
+        return EVENT_DEDUPLICATION_KEY + eventTypeId + ":" + deduplicationKey;
     }
 
     public String runHealthCheck() throws Exception {
@@ -83,43 +123,81 @@ public class ValkeyService {
     /**
      * Verifies that the event has not been previously processed. The format of saved keys is
      * {@code engine:event-deduplication:<event_type>:<deduplication_key>}.
+     * <p>
+     * The SET command is pipelined with the commands of the other threads deduplicating events at the same time,
+     * so concurrent callers share a single round trip to Valkey.
      *
      * @see com.redhat.cloud.notifications.events.deduplication.EventDeduplicator EventDeduplicator
      */
     public boolean isNewEvent(UUID eventTypeId, String deduplicationKey, LocalDateTime deleteAfter) {
-        String key = formatDeduplicationKey(eventTypeId, deduplicationKey);
-        String deleteAfterIso = deleteAfter.format(DateTimeFormatter.ISO_DATE_TIME);
-        boolean isNew;
-
-        Response valkeyResp = valkey.setAndAwait(List.of(
-                key,
-                deleteAfterIso,
-                "NX",
-                "EXAT",
-                String.valueOf(deleteAfter.toEpochSecond(ZoneOffset.UTC))
-        ));
-
-        if (valkeyResp == null) {
-            isNew = false;
-        } else {
-            try {
-                isNew = valkeyResp.toString().equals("OK");
-            } catch (Exception ignored) {
-                // Invalid response could not be mapped to string. Assume event is new
-                // dedup key may include private information, so other fields are used
-                Log.warnf("unable to check for duplicate event in Valkey [event_type_id=%s, delete_after=%s, deduplication_key=%s]",
-                        eventTypeId, deleteAfterIso, deduplicationKey);
-                isNew = true;
+        return isNewEvents(List.of(new DeduplicationRequest(eventTypeId, deduplicationKey, deleteAfter)))[0];
+    }
+
+    /**
+     * Verifies that the events have not been previously processed, with a single round trip to Valkey. If several
+     * requests share the same event type and deduplication key, only the first one of them is considered new.
+     *
+     * @return an array containing, for each request at the same position in the given list, whether the event is new.
+     * @see #isNewEvent(UUID, String, LocalDateTime)
+     */
+    public boolean[] isNewEvents(List<DeduplicationRequest> requests) {
+        boolean[] newEvents = new boolean[requests.size()];
+        List<String> keys = new ArrayList<>(requests.size());
+        List<CompletableFuture<Response>> responses = new ArrayList<>(requests.size());
+
+        for (DeduplicationRequest request : requests) {
+            String key = formatDeduplicationKey(request.eventTypeId(), request.deduplicationKey());
+            keys.add(key);
+            if (localDeduplicationCache.isKnownDuplicate(key)) {
+                registry.counter(LOCAL_DEDUPLICATION_HIT_COUNTER_NAME).increment();
+                responses.add(null);
+            } else {
+                LocalDateTime deleteAfter = request.deleteAfter();
+                responses.add(enqueue(Request.cmd(Command.SET)
+                        .arg(key)
+                        .arg(deleteAfter.format(DateTimeFormatter.ISO_DATE_TIME))
+                        .arg("NX")
+                        .arg("EXAT")
+                        .arg(deleteAfter.toEpochSecond(ZoneOffset.UTC))));
             }
         }
+        flushPendingCommands();
 
-        return isNew;
+        for (int i = 0; i < requests.size(); i++) {
+            if (responses.get(i) == null) {
+                continue;
+            }
+            DeduplicationRequest request = requests.get(i);
+            Response valkeyResp = await(responses.get(i));
+            if (valkeyResp == null) {
+                newEvents[i] = false;
+            } else {
+                try {
+                    newEvents[i] = valkeyResp.toString().equals("OK");
+                    if (newEvents[i]) {
+                        localDeduplicationCache.put(keys.get(i), request.deleteAfter().toEpochSecond(ZoneOffset.UTC));
+                    }
+                } catch (Exception ignored) {
+                    // Invalid response could not be mapped to string. Assume event is new
+                    // dedup key may include private information, so other fields are used
+                    Log.warnf("unable to check for duplicate event in Valkey [event_type_id=%s, delete_after=%s, deduplication_key=%s]",
+                            request.eventTypeId(), request.deleteAfter(), request.deduplicationKey());
+                    newEvents[i] = true;
+                }
+            }
+        }
+
+        return newEvents;
     }
 
     /** This method should only be called to remove a key that may have been inserted by {@link #isNewEvent(UUID, String, LocalDateTime)} */
     public boolean removeEventFromDeduplication(UUID eventTypeId, String deduplicationKey) {
+        String key = formatDeduplicationKey(eventTypeId, deduplicationKey);
+        localDeduplicationCache.remove(key);
         try {
-            return valkey.delAndAwait(List.of(formatDeduplicationKey(eventTypeId, deduplicationKey))).toBoolean();
+            CompletableFuture<Response> response = enqueue(Request.cmd(Command.DEL).arg(key));
+            flushPendingCommands();
+            return await(response).toBoolean();
         } catch (Exception ignored) {
             Log.warnf(
                     "Failed to remove duplicate event from Valkey during rollback [event_type_id=%s, deduplication_key=%s]",
@@ -127,4 +205,72 @@ public class ValkeyService {
             return false;
         }
     }
+
+    private CompletableFuture<Response> enqueue(Request request) {
+        PendingCommand command = new PendingCommand(request, new CompletableFuture<>());
+        pendingCommands.add(command);
+        return command.response();
+    }
+
+    /**
+     * Sends the pending commands to Valkey, unless another thread is already doing it. The thread which sends the
+     * commands keeps going until the queue is empty, so the commands enqueued while a pipeline is in flight are sent
+     * together in the next pipeline.
+     */
+    private void flushPendingCommands() {
+        while (!pendingCommands.isEmpty() && flushing.compareAndSet(false, true)) {
+            try {
+                List<PendingCommand> commands = new ArrayList<>();
+                PendingCommand command = pendingCommands.poll();
+                while (command != null) {
+                    commands.add(command);
+                    command = commands.size() < pipelineMaxSize ? pendingCommands.poll() : null;
+                }
+                if (!commands.isEmpty()) {
+                    sendPipeline(commands);
+                }
+            } finally {
+                flushing.set(false);
+            }
+        }
+    }
+
+    private void sendPipeline(List<PendingCommand> commands) {
+        pipelineSizeSummary.record(commands.size());
+        List<Request> requests = new ArrayList<>(commands.size());
+        for (PendingCommand command : commands) {
+            requests.add(command.request());
+        }
+        try {
+            List<Response> responses = valkeyClient.batch(requests).await().atMost(pipelineTimeout);
+            for (int i = 0; i < commands.size(); i++) {
+                commands.get(i).response().complete(responses.get(i));
+            }
+        } catch (Throwable t) {
+            // The callers are waiting for their responses, they must be notified of the failure.
+            for (PendingCommand command : commands) {
+                command.response().completeExceptionally(t);
+            }
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> response) {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Valkey response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public record DeduplicationRequest(UUID eventTypeId, String deduplicationKey, LocalDateTime deleteAfter) {
+    }
+
+    private record PendingCommand(Request request, CompletableFuture<Response> response) {
+    }
 }
@@ -2,14 +2,22 @@ package com.redhat.cloud.notifications.events.deduplication;
 
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.events.ValkeyService;
+import com.redhat.cloud.notifications.events.ValkeyService.DeduplicationRequest;
 import com.redhat.cloud.notifications.models.Event;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @ApplicationScoped
@@ -63,6 +71,104 @@ public class EventDeduplicator {
         }
     }
 
+    /**
+     * Deduplicates a batch of events. All events of the batch are deduplicated with a single round trip to Valkey
+     * or Postgres, depending on the deduplication backend. If several events from the batch share the same deduplication key,
+     * only the first one of them is considered new.
+     * @param events the events to deduplicate.
+     * @return an array containing, for each event at the same position in the given list, whether the event is new.
+     */
+    @Transactional
+    public boolean[] isNew(List<Event> events) {
+        boolean[] newEvents = new boolean[events.size()];
+
+        if (engineConfig.isInMemoryDbEnabled() && engineConfig.isValkeyEventDeduplicatorEnabled()) {
+            return valkeyEventDeduplication(events);
+        }
+
+        List<String> keys = new ArrayList<>(events.size());
+        StringBuilder sql = new StringBuilder("INSERT INTO event_deduplication(event_type_id, deduplication_key, delete_after) VALUES ");
+        Map<String, Object> parameters = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            EventDeduplicationConfig eventDeduplicationConfig = getEventDeduplicationConfig(event);
+            Optional<String> deduplicationKey = eventDeduplicationConfig.getDeduplicationKey(event);
+
+            if (deduplicationKey.isEmpty()) {
+                // Events are always considered new if no deduplication key is available.
+                newEvents[i] = true;
+                keys.add(null);
+            } else {
+                if (!parameters.isEmpty()) {
+                    sql.append(", ");
+                }
+                sql.append("(:eventTypeId").append(i)
+                    .append(", :deduplicationKey").append(i)
+                    .append(", :deleteAfter").append(i).append(")");
+                parameters.put("eventTypeId" + i, event.getEventType().getId());
+                parameters.put("deduplicationKey" + i, deduplicationKey.get());
+                parameters.put("deleteAfter" + i, eventDeduplicationConfig.getDeleteAfter(event));
+                keys.add(formatKey(event.getEventType().getId(), deduplicationKey.get()));
+            }
+        }
+
+        if (parameters.isEmpty()) {
+            return newEvents;
+        }
+
+        sql.append(" ON CONFLICT (event_type_id, deduplication_key) DO NOTHING RETURNING event_type_id, deduplication_key");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> insertedRows = query.getResultList();
+        Set<String> insertedKeys = new HashSet<>();
+        for (Object[] insertedRow : insertedRows) {
+            insertedKeys.add(formatKey((UUID) insertedRow[0], (String) insertedRow[1]));
+        }
+
+        for (int i = 0; i < events.size(); i++) {
+            String key = keys.get(i);
+            // Removing the key guarantees that only the first event with a given key is considered new.
+            if (key != null && insertedKeys.remove(key)) {
+                newEvents[i] = true;
+            }
+        }
+        return newEvents;
+    }
+
+    private boolean[] valkeyEventDeduplication(List<Event> events) {
+        boolean[] newEvents = new boolean[events.size()];
+        List<Integer> positions = new ArrayList<>(events.size());
+        List<DeduplicationRequest> requests = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            EventDeduplicationConfig eventDeduplicationConfig = getEventDeduplicationConfig(event);
+            Optional<String> deduplicationKey = eventDeduplicationConfig.getDeduplicationKey(event);
+
+            if (deduplicationKey.isEmpty()) {
+                // Events are always considered new if no deduplication key is available.
+                newEvents[i] = true;
+            } else {
+                positions.add(i);
+                requests.add(new DeduplicationRequest(event.getEventType().getId(), deduplicationKey.get(), eventDeduplicationConfig.getDeleteAfter(event)));
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            boolean[] newRequests = valkeyService.isNewEvents(requests);
+            for (int i = 0; i < newRequests.length; i++) {
+                newEvents[positions.get(i)] = newRequests[i];
+            }
+        }
+        return newEvents;
+    }
+
+    private static String formatKey(UUID eventTypeId, String deduplicationKey) {
+        return eventTypeId + ":" + deduplicationKey;
+    }
+
     private boolean postgresEventDeduplication(UUID eventTypeId, Optional<String> deduplicationKey, LocalDateTime deleteAfter) {
         String sql = "INSERT INTO event_deduplication(event_type_id, deduplication_key, delete_after) " +
                 "VALUES (:eventTypeId, :deduplicationKey, :deleteAfter) " +
@@ -12,10 +12,13 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.opentelemetry.context.Context;
 import io.quarkus.logging.Log;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import io.smallrye.reactive.messaging.TracingMetadata;
 import io.smallrye.reactive.messaging.ce.CloudEventMetadata;
 import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadata;
+import io.smallrye.reactive.messaging.ce.OutgoingCloudEventMetadataBuilder;
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -25,8 +28,12 @@ import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static com.redhat.cloud.notifications.models.EndpointType.EMAIL_SUBSCRIPTION;
 import static com.redhat.cloud.notifications.models.NotificationHistory.getHistoryStub;
@@ -49,6 +56,11 @@ public class ConnectorSender {
     // TODO notification should end with a s but eventing-integrations does not expect it...
     public static final String CLOUD_EVENT_TYPE_PREFIX = "com.redhat.console.notification.toCamel.";
     public static final String X_RH_NOTIFICATIONS_CONNECTOR_HEADER = "x-rh-notifications-connector";
+    /**
+     * Cloud Event extension carrying the creation date of the event of the history item. The connectors return it in
+     * their responses, so that the history item is only searched in its own partition.
+     */
+    public static final String CLOUD_EVENT_EVENT_CREATED_EXTENSION = "eventcreated";
 
     private static final String NOTIFICATIONS_PAYLOAD_STORED_DATABASE_METRIC_NAME = "notifications.payload.stored.database";
     private static final String TAG_KEY_CONNECTOR = "connector";
@@ -75,6 +87,42 @@ public class ConnectorSender {
     @Inject
     PayloadDetailsRepository payloadDetailsRepository;
 
+    /*
+     * The messages deferred by the batch opened on the current thread by openBatch. The value is null when no batch
+     * is open, which means the messages are sent immediately.
+     */
+    private final ThreadLocal<List<PendingMessage>> pendingMessages = new ThreadLocal<>();
+
+    private record PendingMessage(Event event, String connector, NotificationHistory history, JsonObject payload) { }
+
+    @FunctionalInterface
+    public interface Batch extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Opens a batch on the current thread. Until the batch is closed, or until the buffer of pending messages is full,
+     * the messages sent to the connectors are deferred. The history stubs of the deferred messages are then inserted
+     * with a single statement before the messages are sent. The returned batch has no effect if the batched history
+     * inserts are disabled or if a batch is already open on the current thread.
+     * @return the batch, which must be closed once the processing of the event is done.
+     */
+    public Batch openBatch() {
+        if (!engineConfig.isConnectorSenderBatchedHistoryEnabled() || pendingMessages.get() != null) {
+            return () -> { };
+        }
+
+        pendingMessages.set(new ArrayList<>());
+        return () -> {
+            try {
+                flush();
+            } finally {
+                pendingMessages.remove();
+            }
+        };
+    }
+
     public void send(Event event, Endpoint endpoint, JsonObject payload) {
         payload.put("org_id", event.getOrgId());
         payload.put("endpoint_id", endpoint.getId());
@@ -87,17 +135,22 @@ public class ConnectorSender {
         Log.infof("Sending notification to connector [orgId=%s, eventId=%s, connector=%s, historyId=%s]",
                 event.getOrgId(), event.getId(), connector, history.getId());
 
-        notificationHistoryRepository.createNotificationHistory(history);
+        List<PendingMessage> pending = pendingMessages.get();
+        if (pending == null) {
+            notificationHistoryRepository.createNotificationHistory(history);
+        }
 
-        // Measure the payload size.
-        final int payloadSize = payload.toString().getBytes().length;
+        // Measure the payload size. The payload is encoded once, and the
+        // encoded bytes are reused if the payload needs to be stored.
+        final Buffer encodedPayload = payload.toBuffer();
+        final int payloadSize = encodedPayload.length();
         recordMetrics(event, connector, payloadSize);
 
         // When the payload to be sent is greater than the configured limit,
         // store the payload in the database so that we can fetch it from the
         // connectors themselves.
         if (endpoint.getType() == EMAIL_SUBSCRIPTION && this.engineConfig.getKafkaToCamelMaximumRequestSize() <= payloadSize) {
-            final PayloadDetails payloadDetails = new PayloadDetails(event, payload);
+            final PayloadDetails payloadDetails = new PayloadDetails(event, encodedPayload, this.engineConfig.isPayloadDetailsCompressionEnabled());
             this.payloadDetailsRepository.save(payloadDetails);
 
             payload = new JsonObject();
@@ -109,8 +162,60 @@ public class ConnectorSender {
             ).increment();
         }
 
+        if (pending == null) {
+            emit(new PendingMessage(event, connector, history, payload));
+        } else {
+            pending.add(new PendingMessage(event, connector, history, payload));
+            if (pending.size() >= engineConfig.getConnectorSenderBatchedHistoryMaxSize()) {
+                flush();
+            }
+        }
+    }
+
+    private void flush() {
+        List<PendingMessage> pending = pendingMessages.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingMessage> messages = new ArrayList<>(pending);
+        pending.clear();
+
+        List<PendingMessage> created;
         try {
-            Message<JsonObject> message = buildMessage(payload, history.getId(), connector);
+            notificationHistoryRepository.createNotificationHistories(messages.stream().map(PendingMessage::history).toList());
+            created = messages;
+        } catch (Exception e) {
+            // The batch insert was rolled back, each history stub is inserted individually to isolate the failure.
+            Log.warn("Batch insert of history stubs failed, falling back to the insert of each history stub", e);
+            created = new ArrayList<>();
+            for (PendingMessage message : messages) {
+                try {
+                    notificationHistoryRepository.createNotificationHistory(message.history());
+                    created.add(message);
+                } catch (Exception ex) {
+                    Log.errorf(ex, "Failed to create history stub, the notification will not be sent to the connector [orgId=%s, eventId=%s, connector=%s, historyId=%s]",
+                        message.event().getOrgId(), message.event().getId(), message.connector(), message.history().getId());
+                }
+            }
+        }
+
+        // The messages are only sent once their history stubs exist, so that the connectors responses can update them.
+        for (PendingMessage message : created) {
+            emit(message);
+        }
+    }
+
+    private void emit(PendingMessage pendingMessage) {
+        Event event = pendingMessage.event();
+        String connector = pendingMessage.connector();
+        NotificationHistory history = pendingMessage.history();
+        try {
+            /*
+             * The Kafka delivery is asynchronous. If the message cannot be delivered, the history stub is updated from
+             * the delivery callback so that it does not remain in the PROCESSING status forever.
+             */
+            Message<JsonObject> message = buildMessage(pendingMessage.payload(), history, connector)
+                .withNack(throwable -> CompletableFuture.runAsync(() -> markAsFailed(event, connector, history, throwable), Infrastructure.getDefaultWorkerPool()));
 
             if (this.engineConfig.isOutgoingKafkaHighVolumeTopicEnabled()
                 && this.isEventFromHighVolumeApplication(event)
@@ -122,21 +227,29 @@ public class ConnectorSender {
                 Log.debugf("[event_id: %s] Event sent through regular Kafka topic", event.getId());
             }
         } catch (Exception e) {
-            history.setStatus(FAILED_INTERNAL);
-            history.setDetails(Map.of("failure", e.getMessage()));
+            markAsFailed(event, connector, history, e);
+        }
+    }
+
+    private void markAsFailed(Event event, String connector, NotificationHistory history, Throwable failure) {
+        history.setStatus(FAILED_INTERNAL);
+        history.setDetails(Map.of("failure", String.valueOf(failure.getMessage())));
+        try {
             notificationHistoryRepository.updateHistoryItem(history);
-            Log.infof(e, "Failed to send notification to connector [orgId=%s, eventId=%s, connector=%s, historyId=%s]",
-                    event.getOrgId(), event.getId(), connector, history.getId());
+        } catch (Exception e) {
+            Log.errorf(e, "Failed to update the history of a notification that could not be sent [historyId=%s]", history.getId());
         }
+        Log.infof(failure, "Failed to send notification to connector [orgId=%s, eventId=%s, connector=%s, historyId=%s]",
+                event.getOrgId(), event.getId(), connector, history.getId());
     }
 
-    private static Message<JsonObject> buildMessage(JsonObject payload, UUID historyId, String connector) {
+    private static Message<JsonObject> buildMessage(JsonObject payload, NotificationHistory history, String connector) {
 
         OutgoingKafkaRecordMetadata<String> kafkaMetadata = buildOutgoingKafkaRecordMetadata(connector);
 
-        String cloudEventId = historyId.toString();
+        String cloudEventId = history.getId().toString();
         String cloudEventType = CLOUD_EVENT_TYPE_PREFIX + connector;
-        CloudEventMetadata<String> cloudEventMetadata = buildCloudEventMetadata(cloudEventId, cloudEventType);
+        CloudEventMetadata<String> cloudEventMetadata = buildCloudEventMetadata(cloudEventId, cloudEventType, history.getEventCreated());
 
         TracingMetadata tracingMetadata = TracingMetadata.withPrevious(Context.current());
 
@@ -154,12 +267,15 @@ public class ConnectorSender {
                 .build();
     }
 
-    private static OutgoingCloudEventMetadata<String> buildCloudEventMetadata(String id, String type) {
-        return OutgoingCloudEventMetadata.<String>builder()
+    private static OutgoingCloudEventMetadata<String> buildCloudEventMetadata(String id, String type, LocalDateTime eventCreated) {
+        OutgoingCloudEventMetadataBuilder<String> builder = OutgoingCloudEventMetadata.<String>builder()
                 .withId(id)
                 .withType(type)
-                .withDataContentType("application/json")
-                .build();
+                .withDataContentType("application/json");
+        if (eventCreated != null) {
+            builder.withExtension(CLOUD_EVENT_EVENT_CREATED_EXTENSION, eventCreated.toString());
+        }
+        return builder.build();
     }
 
     private static String getConnector(Endpoint endpoint) {
@@ -0,0 +1,87 @@
+package com.redhat.cloud.notifications.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Memoizes the transformations of an event which are shared by all the endpoint processors. Each transformation is
+ * computed lazily the first time it is requested. The returned values are shared and must never be modified, the
+ * processors that need to add data to them must work on a copy.
+ * @see EventTransformationContexts
+ */
+public final class EventTransformationContext {
+
+    private final Event event;
+    private final BaseTransformer baseTransformer;
+    private final ObjectMapper objectMapper;
+
+    private JsonObject jsonObject;
+    private Buffer encoded;
+    private Map<String, Object> map;
+
+    EventTransformationContext(Event event, BaseTransformer baseTransformer, ObjectMapper objectMapper) {
+        this.event = event;
+        this.baseTransformer = baseTransformer;
+        this.objectMapper = objectMapper;
+    }
+
+    Event getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the result of {@link BaseTransformer#toJsonObject(Event)}, which must not be modified.
+     */
+    public JsonObject getJsonObject() {
+        if (jsonObject == null) {
+            jsonObject = baseTransformer.toJsonObject(event);
+        }
+        return jsonObject;
+    }
+
+    /**
+     * @return the UTF-8 encoded JSON of {@link #getJsonObject()}, which must not be modified.
+     */
+    public Buffer getEncoded() {
+        if (encoded == null) {
+            encoded = getJsonObject().toBuffer();
+        }
+        return encoded;
+    }
+
+    /**
+     * @return an unmodifiable {@link Map} view of {@link #getJsonObject()}, made of plain Java maps and lists.
+     */
+    public Map<String, Object> getMap() {
+        if (map == null) {
+            map = Collections.unmodifiableMap(readMap(getEncoded().getBytes()));
+        }
+        return map;
+    }
+
+    /**
+     * Converts additional data to a {@link Map} the same way {@link #getMap()} is built, so that it can be merged into
+     * a copy of that map.
+     * @param data the additional data.
+     * @return the additional data as a mutable {@link Map}.
+     */
+    public Map<String, Object> toMap(JsonObject data) {
+        return readMap(data.toBuffer().getBytes());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(byte[] json) {
+        try {
+            return objectMapper.readValue(json, Map.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Event data transformation failed", e);
+        }
+    }
+}
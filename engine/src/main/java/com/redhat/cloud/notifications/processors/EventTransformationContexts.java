@@ -0,0 +1,57 @@
+package com.redhat.cloud.notifications.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Provides the {@link EventTransformationContext} of the event processed on the current thread, so that the endpoint
+ * processors of an event share the same transformations instead of transforming the event again.
+ */
+@ApplicationScoped
+public class EventTransformationContexts {
+
+    @Inject
+    BaseTransformer baseTransformer;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final ThreadLocal<EventTransformationContext> openContext = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Opens the transformation context of an event on the current thread. The returned scope has no effect if a
+     * context is already open on the current thread.
+     * @param event the event which is about to be processed.
+     * @return the scope, which must be closed once the processing of the event is done.
+     */
+    public Scope open(Event event) {
+        if (openContext.get() != null) {
+            return () -> { };
+        }
+        openContext.set(new EventTransformationContext(event, baseTransformer, objectMapper));
+        return openContext::remove;
+    }
+
+    /**
+     * Returns the transformation context of the given event. If no context was opened for that event on the current
+     * thread, a new context is returned and its transformations will not be shared.
+     * @param event the event being processed.
+     * @return the transformation context of the event.
+     */
+    public EventTransformationContext get(Event event) {
+        EventTransformationContext context = openContext.get();
+        if (context != null && context.getEvent() == event) {
+            return context;
+        }
+        return new EventTransformationContext(event, baseTransformer, objectMapper);
+    }
+}
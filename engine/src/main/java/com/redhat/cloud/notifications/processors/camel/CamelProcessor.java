@@ -1,7 +1,5 @@
 package com.redhat.cloud.notifications.processors.camel;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.DelayedThrower;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.models.CamelProperties;
@@ -10,12 +8,14 @@ import com.redhat.cloud.notifications.models.Environment;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
 import com.redhat.cloud.notifications.processors.EndpointTypeProcessor;
+import com.redhat.cloud.notifications.processors.EventTransformationContext;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.InsightsUrlsBuilder;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,7 +27,7 @@ public abstract class CamelProcessor extends EndpointTypeProcessor {
     EngineConfig engineConfig;
 
     @Inject
-    BaseTransformer baseTransformer;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     Environment environment;
@@ -35,9 +35,6 @@ public abstract class CamelProcessor extends EndpointTypeProcessor {
     @Inject
     InsightsUrlsBuilder insightsUrlsBuilder;
 
-    @Inject
-    ObjectMapper objectMapper;
-
     @Inject
     ConnectorSender connectorSender;
 
@@ -67,24 +64,24 @@ public abstract class CamelProcessor extends EndpointTypeProcessor {
     }
 
     protected Map<String, Object> convertEventAsDataMap(Event event) {
-        JsonObject data = baseTransformer.toJsonObject(event);
-        insightsUrlsBuilder.buildInventoryUrl(data, getIntegrationType()).ifPresent(url -> data.put("inventory_url", url));
-        data.put("application_url", insightsUrlsBuilder.buildApplicationUrl(data, getIntegrationType()));
+        EventTransformationContext transformationContext = eventTransformationContexts.get(event);
+        // The event data is shared with the other processors and must not be modified.
+        JsonObject data = transformationContext.getJsonObject();
+
+        JsonObject additionalData = new JsonObject();
+        insightsUrlsBuilder.buildInventoryUrl(data, getIntegrationType()).ifPresent(url -> additionalData.put("inventory_url", url));
+        additionalData.put("application_url", insightsUrlsBuilder.buildApplicationUrl(data, getIntegrationType()));
 
         JsonObject context = data.getJsonObject("context");
         if (context != null) {
-            context.put("environment_url", environment.url());
+            context = context.copy().put("environment_url", environment.url());
         } else {
             context = JsonObject.of("environment_url", environment.url());
         }
-        data.put("context", context);
+        additionalData.put("context", context);
 
-        Map<String, Object> dataAsMap;
-        try {
-            dataAsMap = objectMapper.readValue(data.encode(), Map.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(getIntegrationName() + " notification data transformation failed", e);
-        }
+        Map<String, Object> dataAsMap = new LinkedHashMap<>(transformationContext.getMap());
+        dataAsMap.putAll(transformationContext.toMap(additionalData));
         return dataAsMap;
     }
 
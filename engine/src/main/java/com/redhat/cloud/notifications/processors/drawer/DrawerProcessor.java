@@ -1,24 +1,22 @@
 package com.redhat.cloud.notifications.processors.drawer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.Severity;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.repositories.ApplicationRepository;
 import com.redhat.cloud.notifications.db.repositories.BundleRepository;
 import com.redhat.cloud.notifications.db.repositories.EventRepository;
-import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
+import com.redhat.cloud.notifications.db.subscriptions.SubscriptionCache;
 import com.redhat.cloud.notifications.models.DrawerEntryPayload;
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.Environment;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.SystemEndpointTypeProcessor;
 import com.redhat.cloud.notifications.processors.email.connector.dto.RecipientSettings;
 import com.redhat.cloud.notifications.qute.templates.IntegrationType;
 import com.redhat.cloud.notifications.qute.templates.TemplateDefinition;
 import com.redhat.cloud.notifications.qute.templates.TemplateService;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import com.redhat.cloud.notifications.utils.RecipientsAuthorizationCriterionExtractor;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
@@ -39,10 +37,7 @@ import static com.redhat.cloud.notifications.transformers.BaseTransformer.EVENT_
 public class DrawerProcessor extends SystemEndpointTypeProcessor {
 
     @Inject
-    BaseTransformer baseTransformer;
-
-    @Inject
-    ObjectMapper objectMapper;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     EventRepository eventRepository;
@@ -54,7 +49,7 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
     ConnectorSender connectorSender;
 
     @Inject
-    SubscriptionRepository subscriptionRepository;
+    SubscriptionCache subscriptionCache;
 
     @Inject
     ApplicationRepository applicationRepository;
@@ -86,15 +81,9 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
         }
 
         // build event thought qute template
-        JsonObject data = baseTransformer.toJsonObject(event);
-
         Map<String, Object> dataAsMap = new HashMap<>();
-        try {
-            dataAsMap.put("data", objectMapper.readValue(data.encode(), Map.class));
-            dataAsMap.put("environment", JsonObject.mapFrom(environment));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Drawer notification data transformation failed", e);
-        }
+        dataAsMap.put("data", eventTransformationContexts.get(event).getMap());
+        dataAsMap.put("environment", JsonObject.mapFrom(environment));
 
         String renderedData = buildNotificationMessage(dataAsMap);
 
@@ -111,7 +100,7 @@ public class DrawerProcessor extends SystemEndpointTypeProcessor {
         }
 
         final Set<String> unsubscribers =
-                Set.copyOf(subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), DRAWER, eventSeverity));
+                subscriptionCache.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), DRAWER, eventSeverity);
         final Set<RecipientSettings> recipientSettings = extractAndTransformRecipientSettings(event, endpoints);
 
         // Prepare all the data to be sent to the connector.
@@ -14,8 +14,10 @@ import com.redhat.cloud.notifications.models.EventType;
 import com.redhat.cloud.notifications.models.SubscriptionType;
 import com.redhat.cloud.notifications.processors.email.aggregators.AbstractEmailPayloadAggregator;
 import com.redhat.cloud.notifications.processors.email.aggregators.EmailPayloadAggregatorFactory;
+import com.redhat.cloud.notifications.recipients.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.User;
 import com.redhat.cloud.notifications.recipients.recipientsresolver.ExternalRecipientsResolver;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.RecipientsQuery;
 import com.redhat.cloud.notifications.recipients.request.ActionRecipientSettings;
 import com.redhat.cloud.notifications.recipients.request.EndpointRecipientSettings;
 import com.redhat.cloud.notifications.transformers.BaseTransformer;
@@ -28,17 +30,18 @@ import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import static java.util.Map.Entry;
-import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
 
 @ApplicationScoped
@@ -73,7 +76,6 @@ public class EmailAggregator {
 
     public Map<User, Map<String, Object>> getAggregated(UUID appId, EventAggregationCriterion aggregationKey, SubscriptionType subscriptionType, LocalDateTime start, LocalDateTime end) {
 
-        Map<User, AbstractEmailPayloadAggregator> aggregated = new HashMap<>();
         Map<String, Set<String>> subscribersByEventType = subscriptionRepository
                 .getSubscribersByEventType(aggregationKey.getOrgId(), appId, subscriptionType);
         Map<String, Set<String>> unsubscribersByEventType = subscriptionRepository
@@ -84,109 +86,185 @@ public class EmailAggregator {
             subscribersWithSeverities = Optional.of(subscriptionRepository.getSubscriptionsByEventTypeWithSeverities(aggregationKey.getOrgId(), appId, subscriptionType));
         }
 
-        aggregationBasedOnEvent(aggregationKey, start, end, subscribersByEventType, unsubscribersByEventType, subscribersWithSeverities, aggregated);
+        // The recipients are resolved once per group for the whole aggregation window, whatever the number of events.
+        Map<RecipientsGroup, Set<User>> recipientsByGroup = new HashMap<>();
+        Map<UUID, Set<Endpoint>> endpointsByEventType = new HashMap<>();
+        int eventsCount = readAggregatedEvents(aggregationKey, start, end, endpointsByEventType, page -> resolveRecipients(aggregationKey.getOrgId(),
+            page.stream().map(AggregatedEvent::group).toList(), subscribersByEventType, unsubscribersByEventType, recipientsByGroup));
+        Log.infof("%d elements were aggregated for key %s into %d recipients groups", eventsCount, aggregationKey, recipientsByGroup.size());
 
-        return aggregated.entrySet().stream()
-                .filter(entry -> !entry.getValue().isEmpty())
-                .collect(toMap(
-                        Entry::getKey,
-                        entry -> entry.getValue().getContext()
-                ));
+        Map<AggregationCohort, Set<User>> usersByCohort = groupRecipientsByCohort(recipientsByGroup, subscribersWithSeverities);
+        Log.debugf("%d recipients were grouped into %d aggregation cohorts for key %s", recipientsByGroup.values().stream().mapToInt(Set::size).sum(), usersByCohort.size(), aggregationKey);
+
+        return aggregateForCohorts(aggregationKey, start, end, endpointsByEventType, usersByCohort);
     }
 
-    private void aggregationBasedOnEvent(EventAggregationCriterion eventAggregationCriteria,
-                                         LocalDateTime start,
-                                         LocalDateTime end,
-                                         Map<String, Set<String>> subscribersByEventType,
-                                         Map<String, Set<String>> unsubscribersByEventType,
-                                         Optional<Map<String, Set<SubscribedEventTypeSeverities>>> subscribersWithSeverities,
-                                         Map<User, AbstractEmailPayloadAggregator> aggregated) {
-        int offset = 0;
-        int totalAggregatedElements = 0;
+    /*
+     * Reads the events of the aggregation window page by page with a keyset cursor and hands each page to the given
+     * consumer. Each event of a page is transformed into an EmailAggregation exactly once, and that instance is shared
+     * by everything the consumer does with it. The events are not managed by the persistence context and a page is no
+     * longer referenced once it has been consumed, so the memory used by a read only grows with the page size.
+     */
+    private int readAggregatedEvents(EventAggregationCriterion eventAggregationCriteria,
+                                     LocalDateTime start,
+                                     LocalDateTime end,
+                                     Map<UUID, Set<Endpoint>> endpointsByEventType,
+                                     Consumer<List<AggregatedEvent>> pageConsumer) {
+        Event lastEvent = null;
+        int eventsCount = 0;
 
         List<Event> aggregations;
         do {
             // Retrieve paginated aggregations that match the given key.
-            aggregations = emailAggregationRepository.getEmailAggregationBasedOnEvent(eventAggregationCriteria, start, end, offset, maxPageSize);
-            offset += maxPageSize;
+            aggregations = emailAggregationRepository.getEmailAggregationBasedOnEvent(eventAggregationCriteria, start, end, lastEvent, maxPageSize);
+            if (!aggregations.isEmpty()) {
+                lastEvent = aggregations.getLast();
+            }
 
+            List<AggregatedEvent> page = new ArrayList<>(aggregations.size());
             for (Event aggregation : aggregations) {
-                Set<User> recipients = resolveRecipients(aggregation, subscribersByEventType, unsubscribersByEventType);
-                aggregateForRecipients(recipients, aggregation, eventAggregationCriteria, subscribersWithSeverities, aggregated);
+                recipientsAuthorizationCriterionExtractor.initEventWrapper(aggregation);
+                EmailAggregation eventDataToAggregate = new EmailAggregation(
+                    aggregation.getOrgId(),
+                    eventAggregationCriteria.getBundle(),
+                    eventAggregationCriteria.getApplication(),
+                    baseTransformer.toJsonObject(aggregation),
+                    aggregation.getSeverity(),
+                    aggregation.getEventType().getId());
+                RecipientsGroup group = getRecipientsGroup(aggregation, eventDataToAggregate, endpointsByEventType);
+                page.add(new AggregatedEvent(group, eventDataToAggregate));
             }
-            totalAggregatedElements += aggregations.size();
+            pageConsumer.accept(page);
+            eventsCount += page.size();
         } while (maxPageSize == aggregations.size());
-        Log.infof("%d elements were aggregated for key %s", totalAggregatedElements, eventAggregationCriteria);
+        return eventsCount;
+    }
+
+    /*
+     * Events that share the same event type, recipient settings and authorization criterion have the same recipients.
+     * The target endpoints only depend on the event type because the org ID is part of the aggregation key.
+     */
+    private RecipientsGroup getRecipientsGroup(Event aggregation, EmailAggregation eventDataToAggregate, Map<UUID, Set<Endpoint>> endpointsByEventType) {
+        EventType eventType = aggregation.getEventType();
+
+        Set<Endpoint> endpoints = endpointsByEventType.computeIfAbsent(eventType.getId(), eventTypeId -> Set.copyOf(endpointRepository
+            .getTargetEmailSubscriptionEndpoints(aggregation.getOrgId(), eventTypeId)));
+
+        RecipientsAuthorizationCriterion externalAuthorizationCriterion = recipientsAuthorizationCriterionExtractor.extract(eventDataToAggregate);
+
+        Set<RecipientSettings> recipientSettings = Stream.concat(
+            endpoints.stream().map(EndpointRecipientSettings::new),
+            getActionRecipientSettings(new JsonObject(aggregation.getPayload()))
+        ).collect(toSet());
+
+        return new RecipientsGroup(eventType.getName(), eventType.isSubscribedByDefault(), recipientSettings, externalAuthorizationCriterion);
     }
 
     /*
-     * Determines who will actually receive the aggregation email for a single event.
+     * Determines who will actually receive the aggregation email for each recipients group that was not resolved yet.
      * All users who subscribed to the current application and subscription type combination are recipient candidates.
      * The actual recipients list may differ from the candidates depending on the endpoint properties and the action settings.
      * The target endpoint properties will determine whether each candidate will actually receive an email.
+     * All unresolved groups are sent to the recipients-resolver with a single batched request.
      */
-    private Set<User> resolveRecipients(Event aggregation,
-                                        Map<String, Set<String>> subscribersByEventType,
-                                        Map<String, Set<String>> unsubscribersByEventType) {
-        EventType eventType = aggregation.getEventType();
+    private void resolveRecipients(String orgId,
+                                   List<RecipientsGroup> groups,
+                                   Map<String, Set<String>> subscribersByEventType,
+                                   Map<String, Set<String>> unsubscribersByEventType,
+                                   Map<RecipientsGroup, Set<User>> recipientsByGroup) {
+        List<RecipientsGroup> unresolvedGroups = groups.stream()
+            .filter(group -> !recipientsByGroup.containsKey(group))
+            .distinct()
+            .toList();
+        if (unresolvedGroups.isEmpty()) {
+            return;
+        }
+
+        List<RecipientsQuery> queries = unresolvedGroups.stream()
+            .map(group -> ExternalRecipientsResolver.buildRecipientsQuery(
+                orgId,
+                group.recipientSettings(),
+                subscribersByEventType.getOrDefault(group.eventTypeName(), Collections.emptySet()),
+                unsubscribersByEventType.getOrDefault(group.eventTypeName(), Collections.emptySet()),
+                group.subscribedByDefault(),
+                group.authorizationCriterion()
+            ))
+            .toList();
 
-        Set<Endpoint> endpoints = Set.copyOf(endpointRepository
-            .getTargetEmailSubscriptionEndpoints(aggregation.getOrgId(), eventType.getId()));
-
-        Set<String> subscribers = subscribersByEventType.getOrDefault(eventType.getName(), Collections.emptySet());
-        Set<String> unsubscribers = unsubscribersByEventType.getOrDefault(eventType.getName(), Collections.emptySet());
-
-        // extract() sets the event wrapper on the aggregation if not already set
-        RecipientsAuthorizationCriterion externalAuthorizationCriterion = recipientsAuthorizationCriterionExtractor.extract(aggregation);
-
-        return externalRecipientsResolver.recipientUsers(
-            aggregation.getOrgId(),
-            Stream.concat(
-                endpoints.stream().map(EndpointRecipientSettings::new),
-                getActionRecipientSettings(new JsonObject(aggregation.getPayload()))
-            ).collect(toSet()),
-            subscribers,
-            unsubscribers,
-            eventType.isSubscribedByDefault(),
-            externalAuthorizationCriterion
-        ).stream().filter(user -> user.getEmail() != null && !user.getEmail().isBlank()).collect(toSet());
+        List<Set<User>> recipients = externalRecipientsResolver.recipientUsers(queries);
+        for (int i = 0; i < unresolvedGroups.size(); i++) {
+            recipientsByGroup.put(unresolvedGroups.get(i), recipients.get(i).stream()
+                .filter(user -> user.getEmail() != null && !user.getEmail().isBlank())
+                .collect(toSet()));
+        }
     }
 
     /*
-     * For each recipient, creates or retrieves an existing aggregator and feeds the event into it.
-     * A single aggregator instance is shared across all events for a given user, accumulating data
-     * throughout the aggregation window.
+     * A user receives the events of all the recipients groups they belong to, filtered with their severity subscriptions.
+     * Users who belong to the same recipients groups and share the same severity subscriptions would therefore build
+     * exactly the same aggregation: they are grouped into a cohort which owns a single aggregator.
      */
-    private void aggregateForRecipients(Set<User> recipients,
-                                        Event aggregation,
-                                        EventAggregationCriterion eventAggregationCriteria,
-                                        Optional<Map<String, Set<SubscribedEventTypeSeverities>>> subscribersWithSeverities,
-                                        Map<User, AbstractEmailPayloadAggregator> aggregated) {
-        recipients.forEach(recipient -> {
+    private Map<AggregationCohort, Set<User>> groupRecipientsByCohort(Map<RecipientsGroup, Set<User>> recipientsByGroup,
+                                                                     Optional<Map<String, Set<SubscribedEventTypeSeverities>>> subscribersWithSeverities) {
+        Map<User, Set<RecipientsGroup>> groupsByUser = new HashMap<>();
+        recipientsByGroup.forEach((group, users) -> users.forEach(user ->
+            groupsByUser.computeIfAbsent(user, unused -> new HashSet<>()).add(group)
+        ));
+
+        Map<AggregationCohort, Set<User>> usersByCohort = new HashMap<>();
+        groupsByUser.forEach((user, groups) -> {
             Set<SubscribedEventTypeSeverities> userSubscribedSeverities = subscribersWithSeverities
-                .map(map -> map.get(recipient.getUsername()))
+                .map(map -> map.get(user.getUsername()))
                 .orElse(null);
+            usersByCohort.computeIfAbsent(new AggregationCohort(groups, userSubscribedSeverities), unused -> new HashSet<>()).add(user);
+        });
+        return usersByCohort;
+    }
 
-            // We may or may not have already initialized an aggregator for the recipient.
-            AbstractEmailPayloadAggregator aggregator = aggregated.computeIfAbsent(
-                recipient,
-                notUsed -> EmailPayloadAggregatorFactory.by(eventAggregationCriteria, recipient.getUsername(), userSubscribedSeverities));
-
+    /*
+     * Feeds each event into the aggregator of every cohort that belongs to the recipients group of the event.
+     * The severity filtering of the cohort is applied by its aggregator, and the resulting context is computed once
+     * per cohort and shared by all of its users. The cohorts depend on all the recipients groups of the window, so
+     * the events are read a second time and each page is fed into the aggregators as soon as it is read, instead of
+     * keeping the events of the whole window in memory between both reads.
+     */
+    private Map<User, Map<String, Object>> aggregateForCohorts(EventAggregationCriterion eventAggregationCriteria,
+                                                               LocalDateTime start,
+                                                               LocalDateTime end,
+                                                               Map<UUID, Set<Endpoint>> endpointsByEventType,
+                                                               Map<AggregationCohort, Set<User>> usersByCohort) {
+        Map<AggregationCohort, AbstractEmailPayloadAggregator> aggregators = new HashMap<>();
+        Map<RecipientsGroup, List<AbstractEmailPayloadAggregator>> aggregatorsByGroup = new HashMap<>();
+        usersByCohort.forEach((cohort, users) -> {
+            // The username is only used for logging purposes by the aggregator.
+            String username = users.iterator().next().getUsername();
+            AbstractEmailPayloadAggregator aggregator = EmailPayloadAggregatorFactory.by(eventAggregationCriteria, username, cohort.severities());
             if (aggregator == null) {
-                Log.warnf("No aggregator found for %s/%s, skipping recipient %s",
-                    eventAggregationCriteria.getBundle(), eventAggregationCriteria.getApplication(), recipient.getUsername());
+                Log.warnf("No aggregator found for %s/%s, skipping %d recipients",
+                    eventAggregationCriteria.getBundle(), eventAggregationCriteria.getApplication(), users.size());
                 return;
             }
+            aggregators.put(cohort, aggregator);
+            cohort.groups().forEach(group -> aggregatorsByGroup.computeIfAbsent(group, unused -> new ArrayList<>()).add(aggregator));
+        });
 
-            EmailAggregation eventDataToAggregate = new EmailAggregation(
-                aggregation.getOrgId(),
-                eventAggregationCriteria.getBundle(),
-                eventAggregationCriteria.getApplication(),
-                baseTransformer.toJsonObject(aggregation),
-                aggregation.getSeverity(),
-                aggregation.getEventType().getId());
-            aggregator.aggregate(eventDataToAggregate);
+        if (!aggregators.isEmpty()) {
+            readAggregatedEvents(eventAggregationCriteria, start, end, endpointsByEventType, page -> {
+                for (AggregatedEvent event : page) {
+                    aggregatorsByGroup.getOrDefault(event.group(), Collections.emptyList())
+                        .forEach(aggregator -> aggregator.aggregate(event.aggregation()));
+                }
+            });
+        }
+
+        Map<User, Map<String, Object>> aggregatedByUser = new HashMap<>();
+        aggregators.forEach((cohort, aggregator) -> {
+            if (!aggregator.isEmpty()) {
+                Map<String, Object> context = aggregator.getContext();
+                usersByCohort.get(cohort).forEach(user -> aggregatedByUser.put(user, context));
+            }
         });
+        return aggregatedByUser;
     }
 
     private Stream<ActionRecipientSettings> getActionRecipientSettings(JsonObject payload) {
@@ -201,4 +279,18 @@ public class EmailAggregator {
         }
         return Stream.empty();
     }
+
+    private record RecipientsGroup(
+        String eventTypeName,
+        boolean subscribedByDefault,
+        Set<RecipientSettings> recipientSettings,
+        RecipientsAuthorizationCriterion authorizationCriterion
+    ) { }
+
+    private record AggregatedEvent(RecipientsGroup group, EmailAggregation aggregation) { }
+
+    /*
+     * The severities are null when the severity filtering is disabled or when the user has no severity subscriptions.
+     */
+    private record AggregationCohort(Set<RecipientsGroup> groups, Set<SubscribedEventTypeSeverities> severities) { }
 }
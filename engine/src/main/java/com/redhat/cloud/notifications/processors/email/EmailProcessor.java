@@ -1,22 +1,21 @@
 package com.redhat.cloud.notifications.processors.email;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.cloud.notifications.Severity;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
-import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
+import com.redhat.cloud.notifications.db.subscriptions.SubscriptionCache;
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.Environment;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
+import com.redhat.cloud.notifications.processors.EventTransformationContext;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.SystemEndpointTypeProcessor;
 import com.redhat.cloud.notifications.processors.email.connector.dto.EmailNotification;
 import com.redhat.cloud.notifications.processors.email.connector.dto.RecipientSettings;
 import com.redhat.cloud.notifications.qute.templates.IntegrationType;
 import com.redhat.cloud.notifications.qute.templates.TemplateDefinition;
 import com.redhat.cloud.notifications.qute.templates.TemplateService;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import com.redhat.cloud.notifications.utils.RecipientsAuthorizationCriterionExtractor;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
@@ -24,6 +23,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -50,7 +50,7 @@ public class EmailProcessor extends SystemEndpointTypeProcessor {
     TemplateService quteTemplateService;
 
     @Inject
-    SubscriptionRepository subscriptionRepository;
+    SubscriptionCache subscriptionCache;
 
     @Inject
     RecipientsAuthorizationCriterionExtractor recipientsAuthorizationCriterionExtractor;
@@ -59,10 +59,7 @@ public class EmailProcessor extends SystemEndpointTypeProcessor {
     Environment environment;
 
     @Inject
-    BaseTransformer baseTransformer;
-
-    @Inject
-    ObjectMapper objectMapper;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     EngineConfig engineConfig;
@@ -98,9 +95,9 @@ public class EmailProcessor extends SystemEndpointTypeProcessor {
 
         if (event.getEventType().isSubscribedByDefault()) {
             subscribers = Collections.emptySet();
-            unsubscribers = Set.copyOf(subscriptionRepository.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT, eventSeverity));
+            unsubscribers = subscriptionCache.getUnsubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT, eventSeverity);
         } else {
-            subscribers = Set.copyOf(subscriptionRepository.getSubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT, eventSeverity));
+            subscribers = subscriptionCache.getSubscribers(event.getOrgId(), event.getEventType().getId(), INSTANT, eventSeverity);
             unsubscribers = Collections.emptySet();
         }
 
@@ -151,18 +148,17 @@ public class EmailProcessor extends SystemEndpointTypeProcessor {
     }
 
     protected Map<String, Object> convertEventAsDataMap(Event event, EmailPendo pendoMessage, boolean ignoreUserPreferences) {
-        JsonObject data = baseTransformer.toJsonObject(event);
-        data.put("environment", JsonObject.mapFrom(environment));
-        data.put("pendo_message", pendoMessage);
-        data.put("ignore_user_preferences", ignoreUserPreferences);
-        data.put("orgId", event.getOrgId());
-
-        Map<String, Object> dataAsMap;
-        try {
-            dataAsMap = objectMapper.readValue(data.encode(), Map.class);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Instant email notification data transformation failed", e);
-        }
+        EventTransformationContext context = eventTransformationContexts.get(event);
+
+        JsonObject additionalData = new JsonObject();
+        additionalData.put("environment", JsonObject.mapFrom(environment));
+        additionalData.put("pendo_message", pendoMessage);
+        additionalData.put("ignore_user_preferences", ignoreUserPreferences);
+        additionalData.put("orgId", event.getOrgId());
+
+        // The event data shared with the other processors is copied before the additional data is added to it.
+        Map<String, Object> dataAsMap = new LinkedHashMap<>(context.getMap());
+        dataAsMap.putAll(context.toMap(additionalData));
         return dataAsMap;
     }
 }
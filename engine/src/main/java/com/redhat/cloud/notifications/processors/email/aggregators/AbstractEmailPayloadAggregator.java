@@ -17,6 +17,12 @@ public abstract class AbstractEmailPayloadAggregator {
     private Set<SubscribedEventTypeSeverities> userSeverities;
     JsonObject context = new JsonObject();
 
+    /**
+     * Adds an event to the aggregation context. The same {@link EmailAggregation} instance is fed into the aggregators
+     * of all the recipients of the event, so its payload must never be modified. Parts of the payload can be added to
+     * the context without copying them as long as they are not modified afterward.
+     * @param aggregation the event to aggregate, shared with other aggregators.
+     */
     abstract void processEmailAggregation(EmailAggregation aggregation);
 
     public void aggregate(EmailAggregation aggregation) {
@@ -8,8 +8,8 @@ import com.redhat.cloud.notifications.models.Environment;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
 import com.redhat.cloud.notifications.processors.EndpointTypeProcessor;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.InsightsUrlsBuilder;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
 import io.vertx.core.json.JsonObject;
@@ -31,7 +31,7 @@ public class EventingProcessor extends EndpointTypeProcessor {
     EngineConfig engineConfig;
 
     @Inject
-    BaseTransformer baseTransformer;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     InsightsUrlsBuilder insightsUrlsBuilder;
@@ -85,7 +85,7 @@ public class EventingProcessor extends EndpointTypeProcessor {
             metaData.put("authentication", authentication);
         }
 
-        final JsonObject payload = baseTransformer.toJsonObject(event);
+        final JsonObject payload = eventTransformationContexts.get(event).getJsonObject().copy();
         insightsUrlsBuilder.buildInventoryUrl(payload, endpoint.getSubType()).ifPresent(url -> payload.put("inventory_url", url));
         payload.put("application_url", insightsUrlsBuilder.buildApplicationUrl(payload, endpoint.getSubType()));
         if (endpoint.getSubType().equals("splunk")) {
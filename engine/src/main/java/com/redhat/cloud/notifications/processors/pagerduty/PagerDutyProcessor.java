@@ -7,8 +7,8 @@ import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.PagerDutyProperties;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
 import com.redhat.cloud.notifications.processors.EndpointTypeProcessor;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import com.redhat.cloud.notifications.processors.InsightsUrlsBuilder;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
@@ -33,7 +33,7 @@ public class PagerDutyProcessor extends EndpointTypeProcessor {
     public static final String PAGERDUTY_STATIC_SEVERITY = "pagerduty_static_severity";
 
     @Inject
-    BaseTransformer transformer;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     EngineConfig engineConfig;
@@ -76,7 +76,7 @@ public class PagerDutyProcessor extends EndpointTypeProcessor {
         PagerDutyProperties properties = endpoint.getProperties(PagerDutyProperties.class);
 
         JsonObject connectorData = new JsonObject();
-        JsonObject transformedEvent = transformer.toJsonObject(event);
+        JsonObject transformedEvent = eventTransformationContexts.get(event).getJsonObject().copy();
         insightsUrlsBuilder.buildInventoryUrl(transformedEvent, endpoint.getType().name()).ifPresent(url -> transformedEvent.put("inventory_url", url));
         transformedEvent.put("application_url", insightsUrlsBuilder.buildApplicationUrl(transformedEvent, endpoint.getType().name()));
         // TODO RHCLOUD-41561: remove once fully migrated to tenant-provided severity levels
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.processors.payload;
 
 import com.redhat.cloud.notifications.models.CreationTimestamped;
 import com.redhat.cloud.notifications.models.Event;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,7 +11,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @Entity(name = "PayloadDetails")
 @Table(name = "payload_details")
@@ -20,6 +28,12 @@ public class PayloadDetails extends CreationTimestamped {
      * payload that we send over Kafka.
      */
     public static final String PAYLOAD_DETAILS_ID_KEY = "payload_details_id";
+    /**
+     * The marker that prefixes the contents which were compressed with gzip
+     * and then encoded with Base64. The contents without that marker are
+     * plain JSON.
+     */
+    public static final String GZIP_CONTENTS_PREFIX = "gzip:";
 
     @Column(name = "id")
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -41,6 +55,31 @@ public class PayloadDetails extends CreationTimestamped {
         this.contents = contents.encode();
     }
 
+    /**
+     * Creates the payload details from contents which were already encoded.
+     * @param event the event the payload belongs to.
+     * @param encodedContents the UTF-8 encoded JSON contents.
+     * @param compressed whether the contents should be stored compressed.
+     */
+    public PayloadDetails(final Event event, final Buffer encodedContents, final boolean compressed) {
+        this.eventId = event.getId();
+        if (compressed) {
+            this.contents = GZIP_CONTENTS_PREFIX + Base64.getEncoder().encodeToString(gzip(encodedContents.getBytes()));
+        } else {
+            this.contents = encodedContents.toString(UTF_8);
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
     public UUID getId() {
         return id;
     }
@@ -7,7 +7,7 @@ import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.WebhookProperties;
 import com.redhat.cloud.notifications.processors.ConnectorSender;
 import com.redhat.cloud.notifications.processors.EndpointTypeProcessor;
-import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import com.redhat.cloud.notifications.processors.EventTransformationContexts;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.logging.Log;
@@ -29,7 +29,7 @@ public class WebhookTypeProcessor extends EndpointTypeProcessor {
     public static final String PROCESSED_WEBHOOK_COUNTER = "processor.webhook.processed";
 
     @Inject
-    BaseTransformer transformer;
+    EventTransformationContexts eventTransformationContexts;
 
     @Inject
     EngineConfig engineConfig;
@@ -69,7 +69,7 @@ public class WebhookTypeProcessor extends EndpointTypeProcessor {
 
         WebhookProperties properties = endpoint.getProperties(WebhookProperties.class);
 
-        final JsonObject payload = transformer.toJsonObject(event);
+        final JsonObject payload = eventTransformationContexts.get(event).getJsonObject().copy();
 
         final JsonObject connectorData = new JsonObject();
 
@@ -1,5 +1,6 @@
 package com.redhat.cloud.notifications.recipients.recipientsresolver;
 
+import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
 import com.redhat.cloud.notifications.recipients.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.User;
@@ -16,6 +17,8 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,9 +29,13 @@ public class ExternalRecipientsResolver {
     @RestClient
     RecipientsResolverService recipientsResolverService;
 
+    @Inject
+    EngineConfig engineConfig;
+
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_ATTEMPTS = "notifications.recipients-resolver.retry.max-attempts";
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_INITIAL_BACKOFF = "notifications.recipients-resolver.retry.initial-backoff";
     public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_BACKOFF = "notifications.recipients-resolver.retry.max-backoff";
+    public static final String NOTIFICATIONS_RECIPIENTS_RESOLVER_BATCH_SIZE = "notifications.recipients-resolver.batch-size";
 
     @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_ATTEMPTS, defaultValue = "3")
     int maxRetryAttempts;
@@ -39,6 +46,9 @@ public class ExternalRecipientsResolver {
     @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_RETRY_MAX_BACKOFF, defaultValue = "1S")
     Duration maxRetryBackoff;
 
+    @ConfigProperty(name = NOTIFICATIONS_RECIPIENTS_RESOLVER_BATCH_SIZE, defaultValue = "50")
+    int batchSize;
+
     private RetryPolicy<Object> retryPolicy;
 
     @PostConstruct
@@ -60,6 +70,33 @@ public class ExternalRecipientsResolver {
 
     @CacheResult(cacheName = "recipients-resolver-results")
     public Set<User> recipientUsers(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, RecipientsAuthorizationCriterion recipientsAuthorizationCriterion) {
+        RecipientsQuery recipientsQuery = buildRecipientsQuery(orgId, recipientSettings, subscribers, unsubscribers, subscribedByDefault, recipientsAuthorizationCriterion);
+        Set<User> recipientsList = retryOnError(() -> recipientsResolverService.getRecipients(recipientsQuery));
+        return recipientsList;
+    }
+
+    /**
+     * Resolves the recipients of several queries with as few HTTP requests as possible. The queries are sent to the
+     * recipients-resolver in chunks of {@link #batchSize} queries. Until the batch endpoint is enabled with its Unleash
+     * toggle, which requires a recipients-resolver version which provides it, the queries are sent one by one.
+     * @return the recipients of each query, in the same order as the queries.
+     */
+    public List<Set<User>> recipientUsers(List<RecipientsQuery> recipientsQueries) {
+        List<Set<User>> recipients = new ArrayList<>(recipientsQueries.size());
+        if (!engineConfig.isRecipientsResolverBatchEnabled()) {
+            for (RecipientsQuery recipientsQuery : recipientsQueries) {
+                recipients.add(retryOnError(() -> recipientsResolverService.getRecipients(recipientsQuery)));
+            }
+            return recipients;
+        }
+        for (int i = 0; i < recipientsQueries.size(); i += batchSize) {
+            List<RecipientsQuery> chunk = recipientsQueries.subList(i, Math.min(i + batchSize, recipientsQueries.size()));
+            recipients.addAll(retryOnError(() -> recipientsResolverService.getRecipientsBatch(chunk)));
+        }
+        return recipients;
+    }
+
+    public static RecipientsQuery buildRecipientsQuery(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, RecipientsAuthorizationCriterion recipientsAuthorizationCriterion) {
         RecipientsQuery recipientsQuery = new RecipientsQuery();
         recipientsQuery.subscribers = Set.copyOf(subscribers);
         recipientsQuery.unsubscribers = Set.copyOf(unsubscribers);
@@ -72,8 +109,7 @@ public class ExternalRecipientsResolver {
         recipientsQuery.recipientSettings = recipientSettingsSet;
         recipientsQuery.subscribedByDefault = subscribedByDefault;
         recipientsQuery.recipientsAuthorizationCriterion = recipientsAuthorizationCriterion;
-        Set<User> recipientsList = retryOnError(() -> recipientsResolverService.getRecipients(recipientsQuery));
-        return recipientsList;
+        return recipientsQuery;
     }
 
 }
@@ -5,40 +5,108 @@ import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.EventType;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @QuarkusTestResource(TestLifecycleManager.class)
 public class EventLogCleanerTest {
 
+    private static final String BUNDLE_NAME = "event-log-cleaner-bundle";
+
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    AgroalDataSource dataSource;
+
+    // The procedures commit, so the test data is committed too and has to be deleted after each test.
+    @AfterEach
+    void afterEach() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            deleteAllEvents();
+            entityManager.createQuery("DELETE FROM Bundle WHERE name = :name")
+                    .setParameter("name", BUNDLE_NAME)
+                    .executeUpdate();
+        });
+    }
+
     @Test
-    @Transactional
-    void testPostgresStoredProcedure() {
-        deleteAllEvents();
-        EventType eventType = createEventType();
-        createEvent(eventType, now().minus(Duration.ofHours(1L)));
-        createEvent(eventType, now().minus(Duration.ofDays(16L)));
-        createEvent(eventType, now().minus(Duration.ofDays(62L)));
+    void testPostgresStoredProcedure() throws SQLException {
+        QuarkusTransaction.requiringNew().run(() -> {
+            deleteAllEvents();
+            EventType eventType = createEventType();
+            createEvent(eventType, now().minus(Duration.ofHours(1L)));
+            createEvent(eventType, now().minus(Duration.ofDays(16L)));
+            createEvent(eventType, now().minus(Duration.ofDays(62L)));
+        });
         assertEquals(3L, count());
-        entityManager.createNativeQuery("CALL cleanEventLog()").executeUpdate();
+        cleanEventLog();
         assertEquals(1L, count());
     }
 
+    @Test
+    void testExpiredPartitionsAreDropped() throws SQLException {
+        LocalDate expiredDay = now().toLocalDate().minusDays(20L);
+        QuarkusTransaction.requiringNew().run(() -> {
+            deleteAllEvents();
+            entityManager.createNativeQuery("CALL createEventLogPartitions(CAST(:day AS DATE), CAST(:day AS DATE))")
+                    .setParameter("day", expiredDay.toString())
+                    .executeUpdate();
+        });
+        String expiredPartition = "event_" + expiredDay.format(DateTimeFormatter.BASIC_ISO_DATE);
+        assertTrue(partitionExists(expiredPartition));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            EventType eventType = createEventType();
+            createEvent(eventType, expiredDay.atTime(12, 0));
+            createEvent(eventType, now().minus(Duration.ofHours(1L)));
+        });
+        cleanEventLog();
+
+        assertEquals(1L, count());
+        assertFalse(partitionExists(expiredPartition));
+        assertFalse(partitionExists("notification_history_" + expiredDay.format(DateTimeFormatter.BASIC_ISO_DATE)));
+        // The partitions of the coming days are created by the same procedure.
+        assertTrue(partitionExists("event_" + now().toLocalDate().plusDays(14L).format(DateTimeFormatter.BASIC_ISO_DATE)));
+    }
+
+    /*
+     * The procedure commits after each step, it cannot be called from a transaction. It is called from a connection in
+     * auto-commit mode, like the CronJob does.
+     */
+    private void cleanEventLog() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CALL cleanEventLog()");
+        }
+    }
+
+    private boolean partitionExists(String partitionName) {
+        return QuarkusTransaction.requiringNew().call(() -> entityManager.createNativeQuery("SELECT to_regclass(:partitionName) IS NOT NULL", Boolean.class)
+                .setParameter("partitionName", partitionName)
+                .getSingleResult());
+    }
+
     private Integer deleteAllEvents() {
         return entityManager.createQuery("DELETE FROM Event")
                 .executeUpdate();
@@ -46,7 +114,7 @@ public class EventLogCleanerTest {
 
     private EventType createEventType() {
         Bundle bundle = new Bundle();
-        bundle.setName("bundle");
+        bundle.setName(BUNDLE_NAME);
         bundle.setDisplayName("Bundle");
         bundle.prePersist();
         entityManager.persist(bundle);
@@ -76,8 +144,8 @@ public class EventLogCleanerTest {
     }
 
     private Long count() {
-        return entityManager.createQuery("SELECT COUNT(*) FROM Event", Long.class)
-                .getSingleResult();
+        return QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery("SELECT COUNT(*) FROM Event", Long.class)
+                .getSingleResult());
     }
 
     private static LocalDateTime now() {
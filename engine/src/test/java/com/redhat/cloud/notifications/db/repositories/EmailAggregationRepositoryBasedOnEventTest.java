@@ -1,5 +1,6 @@
 package com.redhat.cloud.notifications.db.repositories;
 
+import com.redhat.cloud.notifications.TestHelpers;
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
 import com.redhat.cloud.notifications.models.Application;
@@ -13,7 +14,12 @@ import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -52,7 +58,7 @@ public class EmailAggregationRepositoryBasedOnEventTest {
         resourceHelpers.addEventEmailAggregation(ORG_ID, "other-bundle", APP_NAME, PAYLOAD2);
         resourceHelpers.addEventEmailAggregation(ORG_ID, BUNDLE_NAME, "other-app", PAYLOAD2);
 
-        List<Event> aggregations = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, 0, 10);
+        List<Event> aggregations = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, null, 10);
         assertEquals(2, aggregations.size());
         assertTrue(aggregations.stream().map(Event::getOrgId).allMatch(ORG_ID::equals));
         assertTrue(aggregations.stream().map(Event::getBundleId).allMatch(application.getBundleId()::equals));
@@ -63,5 +69,36 @@ public class EmailAggregationRepositoryBasedOnEventTest {
         resourceHelpers.clearEvents();
     }
 
+    @Test
+    void testKeysetPagination() {
+        LocalDateTime start = LocalDateTime.now(UTC).minusHours(1L);
+        LocalDateTime end = LocalDateTime.now(UTC).plusHours(1L);
+        Application application = resourceHelpers.findOrCreateApplication(BUNDLE_NAME, APP_NAME);
+        EventAggregationCriterion key =  new EventAggregationCriterion(ORG_ID, application.getBundleId(), application.getId(), BUNDLE_NAME, APP_NAME);
 
+        resourceHelpers.clearEvents();
+        Set<UUID> eventIds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            eventIds.add(resourceHelpers.addEventEmailAggregation(ORG_ID, BUNDLE_NAME, APP_NAME, PAYLOAD1).getId());
+        }
+
+        List<Event> firstPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, null, 2);
+        List<Event> secondPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, firstPage.getLast(), 2);
+        List<Event> thirdPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, secondPage.getLast(), 2);
+        List<Event> fourthPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(key, start, end, thirdPage.getLast(), 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(1, thirdPage.size());
+        assertTrue(fourthPage.isEmpty());
+
+        Set<UUID> readEventIds = Stream.of(firstPage, secondPage, thirdPage)
+            .flatMap(List::stream)
+            .map(Event::getId)
+            .collect(Collectors.toSet());
+        assertEquals(eventIds, readEventIds);
+        assertTrue(firstPage.stream().noneMatch(entityManager::contains));
+        assertEquals(TestHelpers.eventType, firstPage.getFirst().getEventType().getName());
+
+        resourceHelpers.clearEvents();
+    }
 }
@@ -18,13 +18,18 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.Test;
 
 import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.models.EndpointType.CAMEL;
 import static com.redhat.cloud.notifications.models.EndpointType.WEBHOOK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @QuarkusTestResource(TestLifecycleManager.class)
@@ -77,6 +82,80 @@ public class NotificationHistoryRepositoryTest {
         assertEquals(history.getDetails(), persistedHistory.getDetails());
     }
 
+    @Test
+    void testUpdateHistoryItems() {
+        NotificationHistory history1 = initData(0L, NotificationStatus.PROCESSING, WEBHOOK, null, null);
+        NotificationHistory history2 = initData(0L, NotificationStatus.PROCESSING, CAMEL, "slack", null);
+        repository.createNotificationHistory(history1);
+        repository.createNotificationHistory(history2);
+
+        NotificationHistory update1 = new NotificationHistory();
+        update1.setId(history1.getId());
+        update1.setStatus(NotificationStatus.SUCCESS);
+        update1.setDetails(Map.of("outcome", "ok"));
+        update1.setInvocationTime(123L);
+        NotificationHistory update2 = new NotificationHistory();
+        update2.setId(history2.getId());
+        update2.setStatus(NotificationStatus.FAILED_EXTERNAL);
+        update2.setDetails(Map.of("outcome", "ko"));
+        update2.setInvocationTime(456L);
+        NotificationHistory unknownUpdate = new NotificationHistory();
+        unknownUpdate.setId(UUID.randomUUID());
+        unknownUpdate.setStatus(NotificationStatus.SUCCESS);
+        unknownUpdate.setInvocationTime(789L);
+
+        Set<UUID> updatedIds = repository.updateHistoryItems(List.of(update1, update2, unknownUpdate));
+        assertEquals(Set.of(history1.getId(), history2.getId()), updatedIds);
+
+        for (NotificationHistory update : List.of(update1, update2)) {
+            NotificationHistory persistedHistory = entityManager.find(NotificationHistory.class, update.getId());
+            assertEquals(update.getStatus(), persistedHistory.getStatus());
+            assertEquals(update.isInvocationResult(), persistedHistory.isInvocationResult());
+            assertEquals(update.getInvocationTime(), persistedHistory.getInvocationTime());
+            assertEquals(update.getDetails(), persistedHistory.getDetails());
+        }
+
+        Map<UUID, Endpoint> endpoints = repository.getEndpointsForHistoryItems(List.of(update1, update2, unknownUpdate));
+        assertEquals(2, endpoints.size());
+        assertEquals(history1.getEndpoint().getId(), endpoints.get(history1.getId()).getId());
+        assertEquals(history2.getEndpoint().getId(), endpoints.get(history2.getId()).getId());
+    }
+
+    @Test
+    void testUpdateHistoryItemsWithEventCreated() {
+        NotificationHistory history1 = initData(0L, NotificationStatus.PROCESSING, WEBHOOK, null, null);
+        NotificationHistory history2 = initData(0L, NotificationStatus.PROCESSING, CAMEL, "slack", null);
+        repository.createNotificationHistory(history1);
+        repository.createNotificationHistory(history2);
+
+        // The history items are only searched with the creation date of their event.
+        NotificationHistory update1 = buildUpdate(history1.getId(), history1.getEventCreated());
+        NotificationHistory update2 = buildUpdate(history2.getId(), history2.getEventCreated());
+        assertEquals(Set.of(history1.getId(), history2.getId()), repository.updateHistoryItems(List.of(update1, update2)));
+        Map<UUID, Endpoint> endpoints = repository.getEndpointsForHistoryItems(List.of(update1, update2));
+        assertEquals(history1.getEndpoint().getId(), endpoints.get(history1.getId()).getId());
+        assertEquals(history2.getEndpoint().getId(), endpoints.get(history2.getId()).getId());
+        assertTrue(repository.updateHistoryItem(update1));
+        assertEquals(history1.getEndpoint().getId(), repository.getEndpointForHistoryId(history1.getId().toString(), history1.getEventCreated()).getId());
+
+        // A history item is not found with the creation date of another event.
+        NotificationHistory wrongUpdate = buildUpdate(history1.getId(), history1.getEventCreated().minusDays(1L));
+        assertEquals(Set.of(), repository.updateHistoryItems(List.of(wrongUpdate)));
+        assertTrue(repository.getEndpointsForHistoryItems(List.of(wrongUpdate)).isEmpty());
+        assertFalse(repository.updateHistoryItem(wrongUpdate));
+        assertNull(repository.getEndpointForHistoryId(history1.getId().toString(), wrongUpdate.getEventCreated()));
+    }
+
+    private static NotificationHistory buildUpdate(UUID historyId, LocalDateTime eventCreated) {
+        NotificationHistory update = new NotificationHistory();
+        update.setId(historyId);
+        update.setEventCreated(eventCreated);
+        update.setStatus(NotificationStatus.SUCCESS);
+        update.setDetails(Map.of("outcome", "ok"));
+        update.setInvocationTime(123L);
+        return update;
+    }
+
     @Transactional
     NotificationHistory initData(Long invocationTime, NotificationStatus status, EndpointType endpointType,
             String endpointSubType, Map<String, Object> details) {
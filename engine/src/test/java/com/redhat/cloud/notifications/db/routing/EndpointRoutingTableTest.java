@@ -0,0 +1,152 @@
+package com.redhat.cloud.notifications.db.routing;
+
+import com.redhat.cloud.notifications.MicrometerAssertionHelper;
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.EventType;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static com.redhat.cloud.notifications.db.routing.EndpointRoutingTable.EXPIRED_COUNTER_NAME;
+import static com.redhat.cloud.notifications.db.routing.EndpointRoutingTable.HIT_COUNTER_NAME;
+import static com.redhat.cloud.notifications.db.routing.EndpointRoutingTable.MISS_COUNTER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+public class EndpointRoutingTableTest {
+
+    private static final String ORG_ID_1 = "org-id-1";
+    private static final String ORG_ID_2 = "org-id-2";
+
+    @Inject
+    EndpointRoutingTable endpointRoutingTable;
+
+    @InjectMock
+    EndpointRepository endpointRepository;
+
+    /*
+     * The listener is mocked to prevent the scheduled notifications polling from invalidating the table while the
+     * tests are running.
+     */
+    @InjectMock
+    EndpointRoutingChangesListener endpointRoutingChangesListener;
+
+    @InjectSpy
+    EngineConfig engineConfig;
+
+    @Inject
+    MicrometerAssertionHelper micrometerAssertionHelper;
+
+    @BeforeEach
+    void beforeEach() {
+        when(engineConfig.isEndpointRoutingTableEnabled()).thenReturn(true);
+        endpointRoutingTable.invalidateAll();
+        micrometerAssertionHelper.saveCounterValuesBeforeTest(HIT_COUNTER_NAME, MISS_COUNTER_NAME, EXPIRED_COUNTER_NAME);
+    }
+
+    @AfterEach
+    void afterEach() {
+        micrometerAssertionHelper.clearSavedValues();
+    }
+
+    @Test
+    void testHitAfterMiss() {
+        EventType eventType = buildEventType();
+        Endpoint endpoint = buildEndpoint();
+        when(endpointRepository.getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType)).thenReturn(List.of(endpoint));
+
+        assertEquals(List.of(endpoint), endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType));
+        assertEquals(List.of(endpoint), endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType));
+
+        verify(endpointRepository, times(1)).getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType);
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 1);
+    }
+
+    @Test
+    void testOrgInvalidation() {
+        EventType eventType = buildEventType();
+        when(endpointRepository.getTargetEndpointsWithoutUsingBgs(any(), eq(eventType))).thenReturn(List.of(buildEndpoint()));
+
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_2, eventType);
+        endpointRoutingTable.invalidate(ORG_ID_1);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_2, eventType);
+
+        verify(endpointRepository, times(2)).getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType);
+        verify(endpointRepository, times(1)).getTargetEndpointsWithoutUsingBgs(ORG_ID_2, eventType);
+    }
+
+    @Test
+    void testInvalidationOfEndpointsSharedByAllOrgs() {
+        EventType eventType = buildEventType();
+        when(endpointRepository.getTargetEndpointsWithoutUsingBgs(any(), eq(eventType))).thenReturn(List.of(buildEndpoint()));
+
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_2, eventType);
+        // An empty org ID is sent by the DB triggers when an endpoint without an org ID changes.
+        endpointRoutingTable.invalidate("");
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_2, eventType);
+
+        verify(endpointRepository, times(2)).getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType);
+        verify(endpointRepository, times(2)).getTargetEndpointsWithoutUsingBgs(ORG_ID_2, eventType);
+    }
+
+    @Test
+    void testExpiredEntry() {
+        when(engineConfig.getEndpointRoutingTableMaxEntryAge()).thenReturn(Duration.ZERO);
+        EventType eventType = buildEventType();
+        when(endpointRepository.getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType)).thenReturn(List.of(buildEndpoint()));
+
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+
+        verify(endpointRepository, times(2)).getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType);
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(EXPIRED_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 0);
+    }
+
+    @Test
+    void testDisabled() {
+        when(engineConfig.isEndpointRoutingTableEnabled()).thenReturn(false);
+        EventType eventType = buildEventType();
+        when(endpointRepository.getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType)).thenReturn(List.of(buildEndpoint()));
+
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+        endpointRoutingTable.getTargetEndpoints(ORG_ID_1, eventType);
+
+        verify(endpointRepository, times(2)).getTargetEndpointsWithoutUsingBgs(ORG_ID_1, eventType);
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 0);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 0);
+    }
+
+    private static EventType buildEventType() {
+        EventType eventType = new EventType();
+        eventType.setId(UUID.randomUUID());
+        return eventType;
+    }
+
+    private static Endpoint buildEndpoint() {
+        Endpoint endpoint = new Endpoint();
+        endpoint.setId(UUID.randomUUID());
+        return endpoint;
+    }
+}
@@ -0,0 +1,157 @@
+package com.redhat.cloud.notifications.db.subscriptions;
+
+import com.redhat.cloud.notifications.MicrometerAssertionHelper;
+import com.redhat.cloud.notifications.Severity;
+import com.redhat.cloud.notifications.config.EngineConfig;
+import com.redhat.cloud.notifications.db.repositories.SubscriptionRepository;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectSpy;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.redhat.cloud.notifications.db.subscriptions.SubscriptionCache.HIT_COUNTER_NAME;
+import static com.redhat.cloud.notifications.db.subscriptions.SubscriptionCache.MISS_COUNTER_NAME;
+import static com.redhat.cloud.notifications.models.SubscriptionType.DRAWER;
+import static com.redhat.cloud.notifications.models.SubscriptionType.INSTANT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+public class SubscriptionCacheTest {
+
+    private static final String ORG_ID_1 = "org-id-1";
+    private static final String ORG_ID_2 = "org-id-2";
+
+    @Inject
+    SubscriptionCache subscriptionCache;
+
+    @InjectMock
+    SubscriptionRepository subscriptionRepository;
+
+    @InjectSpy
+    EngineConfig engineConfig;
+
+    @Inject
+    MicrometerAssertionHelper micrometerAssertionHelper;
+
+    @BeforeEach
+    void beforeEach() {
+        when(engineConfig.isSubscriptionCacheEnabled()).thenReturn(true);
+        when(subscriptionRepository.getSubscriptionsVersionsUpdatedSince(any())).thenReturn(Map.of());
+        when(subscriptionRepository.getSubscribers(anyString(), any(UUID.class), any(), any())).thenReturn(List.of("alice", "bob"));
+        when(subscriptionRepository.getUnsubscribers(anyString(), any(UUID.class), any(), any())).thenReturn(List.of("carol"));
+        subscriptionCache.invalidateAll();
+        micrometerAssertionHelper.saveCounterValuesBeforeTest(HIT_COUNTER_NAME, MISS_COUNTER_NAME);
+    }
+
+    @AfterEach
+    void afterEach() {
+        micrometerAssertionHelper.clearSavedValues();
+    }
+
+    @Test
+    void testHitAfterMiss() {
+        UUID eventTypeId = UUID.randomUUID();
+
+        Set<String> subscribers = subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        assertEquals(Set.of("alice", "bob"), subscribers);
+        assertSame(subscribers, subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty()));
+
+        verify(subscriptionRepository, times(1)).getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 1);
+    }
+
+    @Test
+    void testEntriesAreKeyedBySubscriptionTypeAndSeverity() {
+        UUID eventTypeId = UUID.randomUUID();
+
+        assertEquals(Set.of("carol"), subscriptionCache.getUnsubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty()));
+        assertEquals(Set.of("carol"), subscriptionCache.getUnsubscribers(ORG_ID_1, eventTypeId, DRAWER, Optional.empty()));
+        assertEquals(Set.of("carol"), subscriptionCache.getUnsubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.of(Severity.CRITICAL)));
+        assertEquals(Set.of("alice", "bob"), subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty()));
+
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 4);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 0);
+    }
+
+    @Test
+    void testVersionBumpInvalidatesOrg() {
+        UUID eventTypeId = UUID.randomUUID();
+        when(subscriptionRepository.getSubscriptionsVersionsUpdatedSince(any())).thenReturn(Map.of(ORG_ID_1, 1L));
+        subscriptionCache.pollVersions();
+
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        subscriptionCache.getSubscribers(ORG_ID_2, eventTypeId, INSTANT, Optional.empty());
+
+        // The same version is polled again because the poll windows overlap, the entries are kept.
+        subscriptionCache.pollVersions();
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        subscriptionCache.getSubscribers(ORG_ID_2, eventTypeId, INSTANT, Optional.empty());
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 2);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 2);
+
+        // The backend bumped the version of the first org.
+        when(subscriptionRepository.getSubscriptionsVersionsUpdatedSince(any())).thenReturn(Map.of(ORG_ID_1, 2L));
+        subscriptionCache.pollVersions();
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        subscriptionCache.getSubscribers(ORG_ID_2, eventTypeId, INSTANT, Optional.empty());
+
+        verify(subscriptionRepository, times(2)).getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        verify(subscriptionRepository, times(1)).getSubscribers(ORG_ID_2, eventTypeId, INSTANT, Optional.empty());
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 3);
+        micrometerAssertionHelper.assertCounterIncrement(HIT_COUNTER_NAME, 3);
+    }
+
+    @Test
+    void testPollFailureInvalidatesAll() {
+        UUID eventTypeId = UUID.randomUUID();
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+
+        when(subscriptionRepository.getSubscriptionsVersionsUpdatedSince(any())).thenThrow(new RuntimeException("DB unavailable"));
+        subscriptionCache.pollVersions();
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+
+        verify(subscriptionRepository, times(2)).getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+    }
+
+    @Test
+    void testPurgeExpiredEntries() {
+        subscriptionCache.getSubscribers(ORG_ID_1, UUID.randomUUID(), INSTANT, Optional.empty());
+        subscriptionCache.getSubscribers(ORG_ID_2, UUID.randomUUID(), INSTANT, Optional.empty());
+
+        subscriptionCache.purgeExpiredEntries();
+        assertEquals(2, subscriptionCache.size());
+
+        when(engineConfig.getSubscriptionCacheMaxEntryAge()).thenReturn(Duration.ZERO);
+        subscriptionCache.purgeExpiredEntries();
+        assertEquals(0, subscriptionCache.size());
+    }
+
+    @Test
+    void testDisabled() {
+        when(engineConfig.isSubscriptionCacheEnabled()).thenReturn(false);
+        UUID eventTypeId = UUID.randomUUID();
+
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        subscriptionCache.getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+
+        verify(subscriptionRepository, times(2)).getSubscribers(ORG_ID_1, eventTypeId, INSTANT, Optional.empty());
+        micrometerAssertionHelper.assertCounterIncrement(MISS_COUNTER_NAME, 0);
+    }
+}
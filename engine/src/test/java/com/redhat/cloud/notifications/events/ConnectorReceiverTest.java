@@ -21,14 +21,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.FROMCAMEL_CHANNEL;
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.MESSAGES_ERROR_COUNTER_NAME;
 import static com.redhat.cloud.notifications.events.ConnectorReceiver.MESSAGES_PROCESSED_COUNTER_NAME;
+import static com.redhat.cloud.notifications.processors.ConnectorSender.CLOUD_EVENT_EVENT_CREATED_EXTENSION;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -54,6 +59,9 @@ public class ConnectorReceiverTest {
     @InjectSpy
     EndpointRepository endpointRepository;
 
+    @Inject
+    ConnectorReceiver connectorReceiver;
+
     final String expectedHistoryId = UUID.randomUUID().toString();
 
     @BeforeEach
@@ -64,7 +72,7 @@ public class ConnectorReceiverTest {
         );
         final Endpoint endpoint = new Endpoint();
         endpoint.setId(UUID.fromString(expectedHistoryId));
-        Mockito.when(notificationHistoryRepository.getEndpointForHistoryId(Mockito.eq(expectedHistoryId))).thenReturn(endpoint);
+        Mockito.when(notificationHistoryRepository.getEndpointForHistoryId(Mockito.eq(expectedHistoryId), Mockito.any())).thenReturn(endpoint);
     }
 
     @AfterEach
@@ -115,39 +123,23 @@ public class ConnectorReceiverTest {
 
     @Test
     void testValidPayloadWithDeletedEndpoint() {
-        testPayload(UUID.randomUUID().toString(), true, 67549274, null, NotificationStatus.SUCCESS);
+        testPayload(UUID.randomUUID().toString(), null, true, 67549274, null, NotificationStatus.SUCCESS);
+    }
+
+    @Test
+    void testValidPayloadWithEventCreated() {
+        testPayload(expectedHistoryId, LocalDateTime.of(2026, 10, 18, 9, 15, 30, 123456000), true, 15, null, NotificationStatus.SUCCESS);
     }
 
     private void testPayload(boolean isSuccessful, long expectedDuration, String expectedOutcome, NotificationStatus expectedNotificationStatus) {
-        testPayload(expectedHistoryId, isSuccessful, expectedDuration, expectedOutcome, expectedNotificationStatus);
+        testPayload(expectedHistoryId, null, isSuccessful, expectedDuration, expectedOutcome, expectedNotificationStatus);
     }
 
-    private void testPayload(String historyId, boolean isSuccessful, long expectedDuration, String expectedOutcome, NotificationStatus expectedNotificationStatus) {
+    private void testPayload(String historyId, LocalDateTime eventCreated, boolean isSuccessful, long expectedDuration, String expectedOutcome, NotificationStatus expectedNotificationStatus) {
 
         String expectedDetailsType = "com.redhat.console.notification.toCamel.tower";
         String expectedDetailsTarget = "1.2.3.4";
-
-        HashMap<String, Object> dataMap = new HashMap<>(Map.of(
-                "duration", expectedDuration,
-                "finishTime", 1639476503209L,
-                "details", Map.of(
-                        "type", expectedDetailsType,
-                        "target", expectedDetailsTarget
-                ),
-                "successful", isSuccessful
-        ));
-
-        dataMap.put("outcome", expectedOutcome);
-
-        String payload = Json.encode(Map.of(
-                "specversion", "1.0",
-                "source", "demo-log",
-                "type", "com.redhat.cloud.notifications.history",
-                "time", "2021-12-14T10:08:23.217Z",
-                "id", historyId,
-                "content-type", "application/json",
-                "data", Json.encode(dataMap)
-        ));
+        String payload = buildPayload(historyId, eventCreated, isSuccessful, expectedDuration, expectedOutcome);
         inMemoryConnector.source(FROMCAMEL_CHANNEL).send(payload);
 
         micrometerAssertionHelper.awaitAndAssertCounterIncrement(MESSAGES_PROCESSED_COUNTER_NAME, 1);
@@ -155,7 +147,9 @@ public class ConnectorReceiverTest {
 
         ArgumentCaptor<NotificationHistory> nhUpdate = ArgumentCaptor.forClass(NotificationHistory.class);
         verify(notificationHistoryRepository, times(1)).updateHistoryItem(nhUpdate.capture());
-        verify(notificationHistoryRepository, times(1)).getEndpointForHistoryId(nhUpdate.getValue().getId().toString());
+        verify(notificationHistoryRepository, times(1)).getEndpointForHistoryId(nhUpdate.getValue().getId().toString(), eventCreated);
+        // The history item is only searched in its own partition when the connector returned the creation date of its event.
+        assertEquals(eventCreated, nhUpdate.getValue().getEventCreated());
 
         verifyNoMoreInteractions(notificationHistoryRepository);
 
@@ -178,5 +172,70 @@ public class ConnectorReceiverTest {
         }
     }
 
+    @Test
+    void testBatch() {
+        String otherHistoryId = UUID.randomUUID().toString();
+        LocalDateTime eventCreated = LocalDateTime.of(2026, 10, 18, 9, 15, 30);
+        final Endpoint endpoint = new Endpoint();
+        endpoint.setId(UUID.fromString(expectedHistoryId));
+        Mockito.when(notificationHistoryRepository.getEndpointsForHistoryItems(Mockito.anyCollection()))
+                .thenReturn(Map.of(UUID.fromString(expectedHistoryId), endpoint));
+        Mockito.when(notificationHistoryRepository.updateHistoryItems(Mockito.anyList()))
+                .thenReturn(Set.of(UUID.fromString(expectedHistoryId), UUID.fromString(otherHistoryId)));
+
+        connectorReceiver.processBatch(List.of(
+                buildPayload(expectedHistoryId, eventCreated, true, 15, null),
+                "I am not valid!",
+                buildPayload(otherHistoryId, eventCreated, false, 20, "failure")
+        ));
+
+        micrometerAssertionHelper.assertCounterIncrement(MESSAGES_PROCESSED_COUNTER_NAME, 3);
+        micrometerAssertionHelper.assertCounterIncrement(MESSAGES_ERROR_COUNTER_NAME, 1);
+
+        // The history items are updated with a single statement.
+        ArgumentCaptor<List<NotificationHistory>> updates = ArgumentCaptor.forClass(List.class);
+        verify(notificationHistoryRepository, times(1)).updateHistoryItems(updates.capture());
+        verify(notificationHistoryRepository, never()).updateHistoryItem(Mockito.any());
+        assertEquals(2, updates.getValue().size());
+        assertEquals(NotificationStatus.SUCCESS, updates.getValue().get(0).getStatus());
+        assertEquals(NotificationStatus.FAILED_EXTERNAL, updates.getValue().get(1).getStatus());
+        assertEquals(eventCreated, updates.getValue().get(0).getEventCreated());
+        assertEquals(eventCreated, updates.getValue().get(1).getEventCreated());
+        verify(notificationHistoryRepository, times(1)).getEndpointsForHistoryItems(updates.getValue());
+
+        // Only the history item with an existing endpoint updates its endpoint.
+        verify(endpointRepository, times(1)).resetEndpointServerErrors(UUID.fromString(expectedHistoryId));
+    }
+
+    private static String buildPayload(String historyId, LocalDateTime eventCreated, boolean isSuccessful, long expectedDuration, String expectedOutcome) {
+        String expectedDetailsType = "com.redhat.console.notification.toCamel.tower";
+        String expectedDetailsTarget = "1.2.3.4";
+
+        HashMap<String, Object> dataMap = new HashMap<>(Map.of(
+                "duration", expectedDuration,
+                "finishTime", 1639476503209L,
+                "details", Map.of(
+                        "type", expectedDetailsType,
+                        "target", expectedDetailsTarget
+                ),
+                "successful", isSuccessful
+        ));
+
+        dataMap.put("outcome", expectedOutcome);
 
+        HashMap<String, Object> cloudEvent = new HashMap<>(Map.of(
+                "specversion", "1.0",
+                "source", "demo-log",
+                "type", "com.redhat.cloud.notifications.history",
+                "time", "2021-12-14T10:08:23.217Z",
+                "id", historyId,
+                "content-type", "application/json",
+                "data", Json.encode(dataMap)
+        ));
+        if (eventCreated != null) {
+            cloudEvent.put(CLOUD_EVENT_EVENT_CREATED_EXTENSION, eventCreated.toString());
+        }
+
+        return Json.encode(cloudEvent);
+    }
 }
@@ -2,6 +2,7 @@ package com.redhat.cloud.notifications.events;
 
 import com.redhat.cloud.notifications.MicrometerAssertionHelper;
 import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.events.EndpointErrorFromConnectorHelper.EndpointResponse;
 import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EndpointType;
 import io.quarkus.test.InjectMock;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.List;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.events.EndpointErrorFromConnectorHelper.CLIENT_TAG_VALUE;
@@ -24,6 +26,7 @@ import static com.redhat.cloud.notifications.events.HttpErrorType.HTTP_4XX;
 import static com.redhat.cloud.notifications.events.HttpErrorType.HTTP_5XX;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -101,6 +104,32 @@ class EndpointErrorFromConnectorHelperTest {
         assertMetrics(0, 1);
     }
 
+    @Test
+    void testServerErrorsAggregatedPerEndpoint() {
+        final Endpoint endpoint1 = mockEndpointFromNotificationHistorySearch();
+        final Endpoint endpoint2 = mockEndpointFromNotificationHistorySearch();
+
+        endpointErrorFromConnectorHelper.manageEndpointsDisablingIfNeeded(List.of(
+            toEndpointResponse(endpoint1, buildTestPayload(false, HTTP_5XX, 503)),
+            toEndpointResponse(endpoint2, buildTestPayload(false, HTTP_5XX, 503)),
+            toEndpointResponse(endpoint1, buildTestPayload(false, HTTP_5XX, 503)),
+            // The success resets the errors of endpoint 2 that were received before it.
+            toEndpointResponse(endpoint2, buildTestPayload(true, null, 200)),
+            toEndpointResponse(endpoint1, buildTestPayload(false, HTTP_5XX, 503))
+        ));
+
+        verify(endpointRepository, times(1)).incrementEndpointServerErrors(eq(endpoint1.getId()), eq(12));
+        verify(endpointRepository, times(1)).resetEndpointServerErrors(endpoint2.getId());
+        verify(endpointRepository, never()).incrementEndpointServerErrors(eq(endpoint2.getId()), anyInt());
+        verify(endpointRepository, never()).resetEndpointServerErrors(endpoint1.getId());
+        verifyNoInteractions(integrationDisabledNotifier);
+        assertMetrics(0, 0);
+    }
+
+    private static EndpointResponse toEndpointResponse(Endpoint endpoint, JsonObject payload) {
+        return new EndpointResponse(endpoint, new JsonObject(payload.getString("data")));
+    }
+
     @NotNull
     private Endpoint mockEndpointFromNotificationHistorySearch() {
         // Create an Endpoint which will be simulated to be fetched from the database.
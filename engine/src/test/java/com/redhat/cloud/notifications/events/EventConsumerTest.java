@@ -31,6 +31,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -57,6 +58,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
@@ -92,6 +94,9 @@ public class EventConsumerTest {
     @InjectSpy
     EngineConfig config;
 
+    @Inject
+    EventConsumer eventConsumer;
+
     @Inject
     ResourceHelpers resourceHelpers;
 
@@ -391,6 +396,53 @@ public class EventConsumerTest {
         verify(eventDeduplicator, times(1)).isNew(any(Event.class));
     }
 
+    @Test
+    void testBatchWithInvalidAndDuplicatePayloads() {
+        EventType eventType = mockGetEventTypeAndCreateEvent();
+        Action action = buildValidAction(false);
+        String payload = serializeAction(action);
+        UUID messageId = UUID.randomUUID();
+        Message<String> message = buildMessageWithId(messageId.toString().getBytes(UTF_8), payload);
+        Message<String> invalidMessage = buildMessageWithId(UUID.randomUUID().toString().getBytes(UTF_8), "I am not a valid payload!");
+
+        eventConsumer.processBatch(List.of(message, invalidMessage, message));
+
+        micrometerAssertionHelper.awaitAndAssertTimerIncrement(CONSUMED_TIMER_NAME, 3);
+        assertEquals(2L, getTimerCount(action.getBundle(), action.getApplication(), action.getEventType()));
+        assertEquals(1L, getTimerCount("", "", ""));
+        micrometerAssertionHelper.assertCounterIncrement(MESSAGE_ID_VALID_COUNTER_NAME, 2);
+        micrometerAssertionHelper.assertCounterIncrement(REJECTED_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(PROCESSING_EXCEPTION_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrementWithTags(DUPLICATE_EVENT_COUNTER_NAME, 1,
+            TAG_KEY_BUNDLE, BUNDLE, TAG_KEY_APPLICATION, APP, TAG_KEY_EVENT_TYPE, EVENT_TYPE);
+        assertNoCounterIncrement(
+                PROCESSING_ERROR_COUNTER_NAME,
+                MESSAGE_ID_INVALID_COUNTER_NAME,
+                MESSAGE_ID_MISSING_COUNTER_NAME
+        );
+        final Event processedEvent = verifyExactlyOneProcessing(eventType, payload, action, false);
+        assertEquals(messageId, processedEvent.getExternalId());
+        verify(eventDeduplicator, times(1)).isNew(anyList());
+        verify(eventDeduplicator, never()).isNew(any(Event.class));
+    }
+
+    @Test
+    void testBatchProcessingErrorDoesNotAffectOtherRecords() {
+        mockGetEventTypeAndCreateEvent();
+        Action action1 = buildValidAction(false);
+        Action action2 = buildValidAction(false);
+        doThrow(new RuntimeException("I am a forced exception!"))
+                .doNothing()
+                .when(endpointProcessor).process(any(Event.class));
+
+        eventConsumer.processBatch(List.of(Message.of(serializeAction(action1)), Message.of(serializeAction(action2))));
+
+        micrometerAssertionHelper.awaitAndAssertTimerIncrement(CONSUMED_TIMER_NAME, 2);
+        micrometerAssertionHelper.assertCounterIncrement(PROCESSING_ERROR_COUNTER_NAME, 1);
+        micrometerAssertionHelper.assertCounterIncrement(PROCESSING_EXCEPTION_COUNTER_NAME, 1);
+        verify(endpointProcessor, times(2)).process(any(Event.class));
+    }
+
     private EventType mockGetEventTypeAndCreateEvent() {
         return mockGetEventTypeAndCreateEvent(true);
     }
@@ -448,6 +500,15 @@ public class EventConsumerTest {
         }
     }
 
+    @Test
+    void testExtractOrgId() {
+        assertEquals(DEFAULT_ORG_ID, EventConsumer.extractOrgId(serializeAction(buildValidAction(true))));
+        assertEquals("12345", EventConsumer.extractOrgId("{\"data\":{\"org_id\":\"other\"},\"redhatorgid\":\"12345\"}"));
+        assertEquals("", EventConsumer.extractOrgId("{\"org_id\":42}"));
+        assertEquals("", EventConsumer.extractOrgId("I am not a valid payload!"));
+        assertEquals("", EventConsumer.extractOrgId(null));
+    }
+
     private static Action buildValidAction(boolean withAccountId) {
 
         Action action = EventPayloadTestHelper.buildValidAction(DEFAULT_ORG_ID, BUNDLE, APP, EVENT_TYPE);
@@ -0,0 +1,145 @@
+package com.redhat.cloud.notifications.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairEventSchedulerTest {
+
+    @Test
+    void testNoisyOrgDoesNotBlockOtherOrgs() throws InterruptedException {
+        FairEventScheduler scheduler = new FairEventScheduler(4, 2, 100, 100, Map.of(), new SimpleMeterRegistry());
+        CountDownLatch noisyOrgLatch = new CountDownLatch(1);
+        AtomicInteger noisyOrgRunning = new AtomicInteger();
+        AtomicInteger noisyOrgMaxRunning = new AtomicInteger();
+
+        for (int i = 0; i < 20; i++) {
+            scheduler.submit("noisy-org", () -> {
+                noisyOrgMaxRunning.accumulateAndGet(noisyOrgRunning.incrementAndGet(), Math::max);
+                try {
+                    noisyOrgLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                noisyOrgRunning.decrementAndGet();
+            });
+        }
+
+        // The noisy org is capped to 2 running tasks, and the other org is processed while the noisy org is stuck.
+        await().atMost(Duration.ofSeconds(5)).until(() -> noisyOrgRunning.get() == 2);
+        CountDownLatch quietOrgLatch = new CountDownLatch(1);
+        scheduler.submit("quiet-org", quietOrgLatch::countDown);
+        assertTrue(quietOrgLatch.await(5, SECONDS));
+
+        noisyOrgLatch.countDown();
+        assertTrue(scheduler.shutdownAndDrain(Duration.ofSeconds(10)));
+        assertEquals(2, noisyOrgMaxRunning.get());
+    }
+
+    @Test
+    void testFloodingOrgDoesNotDelayOtherOrgs() throws InterruptedException {
+        FairEventScheduler scheduler = new FairEventScheduler(2, 1, 100, 5, Map.of(), new SimpleMeterRegistry());
+        CountDownLatch floodingOrgLatch = new CountDownLatch(1);
+        Runnable floodingTask = () -> {
+            try {
+                floodingOrgLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // One task runs and five tasks are queued, the other ones are rejected without blocking the caller.
+        int accepted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (scheduler.submit("flooding-org", floodingTask)) {
+                accepted++;
+            }
+        }
+        assertEquals(6, accepted);
+
+        CountDownLatch quietOrgLatch = new CountDownLatch(1);
+        assertTrue(scheduler.submit("quiet-org", quietOrgLatch::countDown));
+        assertTrue(quietOrgLatch.await(5, SECONDS));
+
+        floodingOrgLatch.countDown();
+        assertTrue(scheduler.shutdownAndDrain(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void testWeightedRoundRobin() throws InterruptedException {
+        FairEventScheduler scheduler = new FairEventScheduler(1, 10, 100, 100, Map.of("org-a", 2), new SimpleMeterRegistry());
+        CountDownLatch blockerLatch = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // This task holds the only processing slot while the other tasks are queued.
+        scheduler.submit("blocker", () -> {
+            try {
+                blockerLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        for (String task : List.of("a1", "a2", "a3")) {
+            scheduler.submit("org-a", () -> order.add(task));
+        }
+        for (String task : List.of("b1", "b2")) {
+            scheduler.submit("org-b", () -> order.add(task));
+        }
+
+        blockerLatch.countDown();
+        assertTrue(scheduler.shutdownAndDrain(Duration.ofSeconds(10)));
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2"), order);
+    }
+
+    @Test
+    void testSubmitBlocksWhenFull() throws InterruptedException {
+        FairEventScheduler scheduler = new FairEventScheduler(1, 1, 1, 1, Map.of(), new SimpleMeterRegistry());
+        CountDownLatch latch = new CountDownLatch(1);
+        Runnable blockingTask = () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // The first task runs, the second one fills the queue.
+        scheduler.submit("org", blockingTask);
+        scheduler.submit("org", blockingTask);
+
+        List<String> submitted = new CopyOnWriteArrayList<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.submit("other-org", () -> { });
+                submitted.add("third");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(500L);
+        assertTrue(submitted.isEmpty());
+
+        latch.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> submitted.size() == 1);
+        assertTrue(scheduler.shutdownAndDrain(Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void testSubmitAfterShutdown() throws InterruptedException {
+        FairEventScheduler scheduler = new FairEventScheduler(1, 1, 1, 1, Map.of(), new SimpleMeterRegistry());
+        assertTrue(scheduler.shutdownAndDrain(Duration.ofSeconds(1)));
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit("org", () -> { }));
+    }
+}
@@ -0,0 +1,40 @@
+package com.redhat.cloud.notifications.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalDeduplicationCacheTest {
+
+    @Test
+    void testExpiredKeysAreNotDuplicates() {
+        LocalDeduplicationCache cache = new LocalDeduplicationCache(10);
+        long now = Instant.now().getEpochSecond();
+
+        cache.put("active", now + 3600);
+        cache.put("expired", now - 1);
+
+        assertTrue(cache.isKnownDuplicate("active"));
+        assertFalse(cache.isKnownDuplicate("expired"));
+        assertFalse(cache.isKnownDuplicate("unknown"));
+
+        cache.remove("active");
+        assertFalse(cache.isKnownDuplicate("active"));
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        LocalDeduplicationCache cache = new LocalDeduplicationCache(100);
+        long expiry = Instant.now().getEpochSecond() + 3600;
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("key-" + i, expiry);
+        }
+
+        assertEquals(100, cache.size());
+    }
+}
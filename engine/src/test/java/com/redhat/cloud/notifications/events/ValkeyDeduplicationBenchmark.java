@@ -0,0 +1,121 @@
+package com.redhat.cloud.notifications.events;
+
+import com.redhat.cloud.notifications.config.EngineConfig;
+import io.github.ss_bhatt.testcontainers.valkey.ValkeyContainer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.redhat.cloud.notifications.TestConstants.VALKEY_MAJOR_VERSION;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the throughput of the Valkey event deduplication when each event is deduplicated with its own round trip
+ * (the former implementation) and when the deduplication commands of concurrent threads are pipelined by
+ * {@link ValkeyService}. A Valkey container is started with Testcontainers, so Docker or Podman is required.
+ * <p>
+ * This is not a test, run the {@link #main(String[])} method with the engine test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class ValkeyDeduplicationBenchmark {
+
+    private final AtomicLong counter = new AtomicLong();
+    private ValkeyContainer valkeyContainer;
+    private Vertx vertx;
+    private RedisAPI valkey;
+    private ValkeyService valkeyService;
+    private UUID eventTypeId;
+    private LocalDateTime deleteAfter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        valkeyContainer = new ValkeyContainer(DockerImageName.parse("valkey/valkey:" + VALKEY_MAJOR_VERSION)
+                .asCompatibleSubstituteFor("docker.io/valkey/valkey"));
+        valkeyContainer.start();
+        String connectionString = valkeyContainer.getConnectionString().replace("valkey://", "redis://");
+
+        vertx = Vertx.vertx();
+        valkey = RedisAPI.api(Redis.createClient(vertx, connectionString));
+
+        EngineConfig config = mock(EngineConfig.class);
+        when(config.isInMemoryDbEnabled()).thenReturn(true);
+        valkeyService = new ValkeyService();
+        valkeyService.config = config;
+        valkeyService.vertx = vertx;
+        valkeyService.registry = new SimpleMeterRegistry();
+        valkeyService.valkeyHost = Optional.of(connectionString);
+        valkeyService.valkeyPassword = Optional.empty();
+        valkeyService.ttl = Duration.ofHours(24);
+        valkeyService.pipelineMaxSize = 100;
+        valkeyService.pipelineTimeout = Duration.ofSeconds(10);
+        valkeyService.localDeduplicationCacheMaxSize = 100_000;
+        valkeyService.initialize();
+
+        eventTypeId = UUID.randomUUID();
+        deleteAfter = LocalDateTime.now(ZoneOffset.UTC).plusHours(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        vertx.closeAndAwait();
+        valkeyContainer.stop();
+    }
+
+    @Benchmark
+    public boolean perEventRoundTrip() {
+        String key = ValkeyService.formatDeduplicationKey(eventTypeId, "benchmark-" + counter.incrementAndGet());
+        return valkey.setAndAwait(List.of(
+                key,
+                deleteAfter.format(DateTimeFormatter.ISO_DATE_TIME),
+                "NX",
+                "EXAT",
+                String.valueOf(deleteAfter.toEpochSecond(ZoneOffset.UTC))
+        )) != null;
+    }
+
+    @Benchmark
+    public boolean pipelined() {
+        return valkeyService.isNewEvent(eventTypeId, "benchmark-" + counter.incrementAndGet(), deleteAfter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValkeyDeduplicationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,6 +1,7 @@
 package com.redhat.cloud.notifications.events;
 
 import com.redhat.cloud.notifications.TestLifecycleManager;
+import com.redhat.cloud.notifications.events.ValkeyService.DeduplicationRequest;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -9,8 +10,15 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -76,4 +84,59 @@ class ValkeyServiceTest {
         Thread.sleep(Duration.ofSeconds(5));
         assertTrue(valkeyService.isNewEvent(eventTypeId, deduplicationKey, deleteAfter));
     }
+
+    @Test
+    void testAddEntriesInBatch() {
+        UUID eventTypeId = UUID.randomUUID();
+        String dedupKey1 = "dedup-key-batch-" + UUID.randomUUID();
+        String dedupKey2 = "dedup-key-batch-" + UUID.randomUUID();
+        LocalDateTime deleteAfter = LocalDateTime.now(ZoneOffset.UTC).plusDays(7);
+        assertTrue(valkeyService.isNewEvent(eventTypeId, dedupKey1, deleteAfter));
+
+        boolean[] newEvents = valkeyService.isNewEvents(List.of(
+                new DeduplicationRequest(eventTypeId, dedupKey1, deleteAfter),
+                new DeduplicationRequest(eventTypeId, dedupKey2, deleteAfter),
+                // Only the first occurrence of a key within a batch is new
+                new DeduplicationRequest(eventTypeId, dedupKey2, deleteAfter)
+        ));
+        assertArrayEquals(new boolean[] {false, true, false}, newEvents);
+    }
+
+    @Test
+    void testConcurrentEntries() throws Exception {
+        UUID eventTypeId = UUID.randomUUID();
+        String dedupKey = "dedup-key-concurrent-" + UUID.randomUUID();
+        LocalDateTime deleteAfter = LocalDateTime.now(ZoneOffset.UTC).plusDays(7);
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> valkeyService.isNewEvent(eventTypeId, dedupKey, deleteAfter)));
+            }
+            int newEvents = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    newEvents++;
+                }
+            }
+            // Exactly one of the concurrent callers wins the key
+            assertEquals(1, newEvents);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRemoveEntry() {
+        UUID eventTypeId = UUID.randomUUID();
+        String dedupKey = "dedup-key-remove-" + UUID.randomUUID();
+        LocalDateTime deleteAfter = LocalDateTime.now(ZoneOffset.UTC).plusDays(7);
+        assertTrue(valkeyService.isNewEvent(eventTypeId, dedupKey, deleteAfter));
+        assertFalse(valkeyService.isNewEvent(eventTypeId, dedupKey, deleteAfter));
+
+        // The rollback must also clear the key from the local cache
+        assertTrue(valkeyService.removeEventFromDeduplication(eventTypeId, dedupKey));
+        assertTrue(valkeyService.isNewEvent(eventTypeId, dedupKey, deleteAfter));
+    }
 }
@@ -21,6 +21,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -96,6 +97,40 @@ class EventDeduplicatorTest {
         assertFalse(eventDeduplicator.isNew(event3), "Duplicate event should return false");
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testIsNewWithBatch(final boolean valkeyDedupEnabled) {
+        when(config.isValkeyEventDeduplicatorEnabled()).thenReturn(valkeyDedupEnabled);
+        when(config.isInMemoryDbEnabled()).thenReturn(valkeyDedupEnabled);
+
+        EventType eventType = createEventType(TEST_BUNDLE_NAME, "test-app");
+        LocalDateTime dateTime = LocalDateTime.now(UTC_ZONE);
+
+        UUID knownEventId = UUID.randomUUID();
+        assertTrue(eventDeduplicator.isNew(buildEvent(knownEventId, eventType, dateTime)), "New event should return true");
+
+        UUID newEventId = UUID.randomUUID();
+        boolean[] newEvents = eventDeduplicator.isNew(List.of(
+            buildEvent(newEventId, eventType, dateTime),
+            buildEvent(knownEventId, eventType, dateTime),
+            buildEvent(newEventId, eventType, dateTime),
+            buildEvent(UUID.randomUUID(), eventType, dateTime)
+        ));
+
+        assertTrue(newEvents[0], "New event should return true");
+        assertFalse(newEvents[1], "Event already deduplicated before the batch should return false");
+        assertFalse(newEvents[2], "Duplicate event within the batch should return false");
+        assertTrue(newEvents[3], "New event should return true");
+    }
+
+    private static Event buildEvent(UUID eventId, EventType eventType, LocalDateTime dateTime) {
+        Event event = new Event();
+        event.setId(eventId);
+        event.setEventType(eventType);
+        event.setEventWrapper(new EventWrapperAction(ActionBuilder.build(dateTime)));
+        return event;
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void testIsNewWithSubscriptionsDeduplication(final boolean valkeyDedupEnabled) {
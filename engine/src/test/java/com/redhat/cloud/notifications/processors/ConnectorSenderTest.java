@@ -3,6 +3,7 @@ package com.redhat.cloud.notifications.processors;
 import com.redhat.cloud.notifications.TestLifecycleManager;
 import com.redhat.cloud.notifications.config.EngineConfig;
 import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.db.repositories.NotificationHistoryRepository;
 import com.redhat.cloud.notifications.db.repositories.PayloadDetailsRepository;
 import com.redhat.cloud.notifications.models.Application;
 import com.redhat.cloud.notifications.models.Bundle;
@@ -10,11 +11,14 @@ import com.redhat.cloud.notifications.models.Endpoint;
 import com.redhat.cloud.notifications.models.EndpointType;
 import com.redhat.cloud.notifications.models.Event;
 import com.redhat.cloud.notifications.models.EventType;
+import com.redhat.cloud.notifications.models.NotificationHistory;
+import com.redhat.cloud.notifications.models.NotificationStatus;
 import com.redhat.cloud.notifications.processors.payload.PayloadDetails;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectSpy;
+import io.smallrye.reactive.messaging.ce.CloudEventMetadata;
 import io.smallrye.reactive.messaging.memory.InMemoryConnector;
 import io.smallrye.reactive.messaging.memory.InMemorySink;
 import io.vertx.core.json.JsonObject;
@@ -26,8 +30,18 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 @QuarkusTest
 @QuarkusTestResource(TestLifecycleManager.class)
 public class ConnectorSenderTest {
@@ -44,6 +58,9 @@ public class ConnectorSenderTest {
     @InjectMock
     PayloadDetailsRepository payloadDetailsRepository;
 
+    @InjectSpy
+    NotificationHistoryRepository notificationHistoryRepository;
+
     @Inject
     ResourceHelpers resourceHelpers;
 
@@ -94,6 +111,10 @@ public class ConnectorSenderTest {
 
         Assertions.assertEquals(payload.encode(), receivedPayload.encode(), "the received payload does not match");
 
+        // Assert that the creation date of the event is carried so that the connector can return it.
+        final CloudEventMetadata<?> cloudEventMetadata = message.getMetadata(CloudEventMetadata.class).orElseThrow();
+        Assertions.assertEquals(event.getCreated().toString(), cloudEventMetadata.getExtension(ConnectorSender.CLOUD_EVENT_EVENT_CREATED_EXTENSION).orElse(null), "the creation date of the event was not carried");
+
         // Assert that the regular "tocamel" topic did not receive the event.
         final InMemorySink<JsonObject> regularMessages = this.inMemoryConnector.sink(ConnectorSender.TOCAMEL_CHANNEL);
 
@@ -151,4 +172,90 @@ public class ConnectorSenderTest {
 
         Assertions.assertEquals(expectedPayload.encode(), receivedPayload.encode(), "the received payload should only contain the payload's identifier");
     }
+
+    /**
+     * Tests that when the compression of the payloads is enabled, the
+     * payload stored in the database is compressed.
+     */
+    @Test
+    @Transactional
+    void testHeavyPayloadGetsStoredCompressed() throws IOException {
+        // Prepare the fixtures for our function.
+        final Bundle bundle = this.resourceHelpers.createBundle("bundle-test-compressed-payload");
+        final Application application = this.resourceHelpers.createApp(bundle.getId(), "app-test-compressed-payload");
+        final EventType eventType = this.resourceHelpers.createEventType(application.getId(), "event-test-compressed-payload");
+        final Event event = this.resourceHelpers.createEvent(eventType);
+        final Endpoint endpoint = this.resourceHelpers.createEndpoint(EndpointType.EMAIL_SUBSCRIPTION, null, true, 0);
+
+        final JsonObject payload = new JsonObject();
+        payload.put("flavor", "Red Hat Enterprise Linux");
+
+        Mockito.when(this.engineConfig.getKafkaToCamelMaximumRequestSize()).thenReturn(0);
+        Mockito.when(this.engineConfig.isPayloadDetailsCompressionEnabled()).thenReturn(true);
+
+        // Call the function under test.
+        this.connectorSender.send(event, endpoint, payload);
+
+        final ArgumentCaptor<PayloadDetails> payloadDetails = ArgumentCaptor.forClass(PayloadDetails.class);
+        Mockito.verify(this.payloadDetailsRepository, Mockito.times(1)).save(payloadDetails.capture());
+
+        final String contents = payloadDetails.getValue().getContents();
+        Assertions.assertTrue(contents.startsWith(PayloadDetails.GZIP_CONTENTS_PREFIX), "the stored payload should be compressed");
+
+        final byte[] compressed = Base64.getDecoder().decode(contents.substring(PayloadDetails.GZIP_CONTENTS_PREFIX.length()));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            Assertions.assertEquals(payload.encode(), new String(gzip.readAllBytes(), UTF_8), "the decompressed payload does not match");
+        }
+    }
+
+    /**
+     * Tests that when a batch is open, the history stubs are inserted with a
+     * single statement and the messages are only sent when the batch is
+     * closed. Tests also that a message which cannot be delivered flips the
+     * status of its history stub.
+     */
+    @Test
+    @Transactional
+    void testBatchedHistoryInserts() {
+        // Prepare the fixtures for our function.
+        final Bundle bundle = this.resourceHelpers.createBundle("bundle-test-batched-history");
+        final Application application = this.resourceHelpers.createApp(bundle.getId(), "app-test-batched-history");
+        final EventType eventType = this.resourceHelpers.createEventType(application.getId(), "event-test-batched-history");
+        final Event event = this.resourceHelpers.createEvent(eventType);
+        final Endpoint endpoint1 = this.resourceHelpers.createEndpoint(EndpointType.WEBHOOK, null, true, 0);
+        final Endpoint endpoint2 = this.resourceHelpers.createEndpoint(EndpointType.WEBHOOK, null, true, 0);
+
+        Mockito.when(this.engineConfig.isConnectorSenderBatchedHistoryEnabled()).thenReturn(true);
+
+        final InMemorySink<JsonObject> messages = this.inMemoryConnector.sink(ConnectorSender.TOCAMEL_CHANNEL);
+
+        // Call the function under test.
+        try (ConnectorSender.Batch batch = this.connectorSender.openBatch()) {
+            this.connectorSender.send(event, endpoint1, new JsonObject());
+            this.connectorSender.send(event, endpoint2, new JsonObject());
+
+            // Nothing is inserted or sent until the batch is closed.
+            Mockito.verifyNoInteractions(this.notificationHistoryRepository);
+            Assertions.assertEquals(0, messages.received().size());
+        }
+
+        final ArgumentCaptor<List<NotificationHistory>> histories = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(this.notificationHistoryRepository, Mockito.times(1)).createNotificationHistories(histories.capture());
+        Mockito.verify(this.notificationHistoryRepository, Mockito.never()).createNotificationHistory(Mockito.any());
+        Assertions.assertEquals(2, histories.getValue().size());
+
+        // Wait until we receive the messages.
+        Awaitility.await().until(
+            () -> messages.received().size() == 2
+        );
+
+        // Simulate a delivery failure of the first message.
+        final Message<JsonObject> message = messages.received().getFirst();
+        message.nack(new RuntimeException("delivery failed")).toCompletableFuture().join();
+
+        final ArgumentCaptor<NotificationHistory> failedHistory = ArgumentCaptor.forClass(NotificationHistory.class);
+        Mockito.verify(this.notificationHistoryRepository, Mockito.timeout(5000L)).updateHistoryItem(failedHistory.capture());
+        Assertions.assertEquals(NotificationStatus.FAILED_INTERNAL, failedHistory.getValue().getStatus());
+        Assertions.assertEquals(Map.of("failure", "delivery failed"), failedHistory.getValue().getDetails());
+    }
 }
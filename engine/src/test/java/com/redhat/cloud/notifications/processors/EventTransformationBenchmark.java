@@ -0,0 +1,131 @@
+package com.redhat.cloud.notifications.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.TestHelpers;
+import com.redhat.cloud.notifications.events.EventWrapperAction;
+import com.redhat.cloud.notifications.ingress.Action;
+import com.redhat.cloud.notifications.ingress.Context;
+import com.redhat.cloud.notifications.ingress.Metadata;
+import com.redhat.cloud.notifications.ingress.Payload;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of the event transformations done by the endpoint processors of an event routed to an instant
+ * email, a drawer notification and two Slack integrations, when each processor transforms the event on its own (the
+ * former implementation) and when the transformations are shared through an {@link EventTransformationContext}.
+ * The allocation per event is reported by the GC profiler as {@code gc.alloc.rate.norm}.
+ * <p>
+ * This is not a test, run the {@link #main(String[])} method with the engine test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EventTransformationBenchmark {
+
+    private static final int PROCESSORS = 4;
+
+    @Param({"advisor", "policies", "inventory"})
+    public String application;
+
+    private final BaseTransformer baseTransformer = new BaseTransformer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Event event;
+
+    @Setup
+    public void setup() {
+        Action action = switch (application) {
+            case "advisor" -> TestHelpers.createAdvisorAction("benchmark-account", "new-recommendation");
+            case "policies" -> TestHelpers.createPoliciesAction("benchmark-account", "rhel", "policies", "benchmark-host");
+            case "inventory" -> createInventoryAction();
+            default -> throw new IllegalArgumentException("Unknown application: " + application);
+        };
+        event = new Event();
+        event.setApplicationDisplayName(application);
+        event.setBundleDisplayName("Red Hat Enterprise Linux");
+        event.setEventTypeDisplayName("Benchmark");
+        event.setEventWrapper(new EventWrapperAction(action));
+    }
+
+    @Benchmark
+    public void perProcessorTransformation(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < PROCESSORS; i++) {
+            JsonObject data = baseTransformer.toJsonObject(event);
+            data.put("environment_url", "https://console.redhat.com");
+            blackhole.consume(objectMapper.readValue(data.encode(), Map.class));
+        }
+    }
+
+    @Benchmark
+    public void sharedTransformationContext(Blackhole blackhole) {
+        EventTransformationContext context = new EventTransformationContext(event, baseTransformer, objectMapper);
+        for (int i = 0; i < PROCESSORS; i++) {
+            Map<String, Object> data = new LinkedHashMap<>(context.getMap());
+            data.putAll(context.toMap(JsonObject.of("environment_url", "https://console.redhat.com")));
+            blackhole.consume(data);
+        }
+    }
+
+    private static Action createInventoryAction() {
+        Action action = new Action();
+        action.setBundle("rhel");
+        action.setApplication("inventory");
+        action.setEventType("validation-error");
+        action.setTimestamp(LocalDateTime.of(2020, 10, 3, 15, 22, 13, 25));
+        action.setAccountId("benchmark-account");
+        action.setOrgId("benchmark-org");
+        action.setContext(new Context.ContextBuilder()
+                .withAdditionalProperty("event_name", "Host Validation Error")
+                .build());
+        action.setEvents(List.of(
+                new com.redhat.cloud.notifications.ingress.Event.EventBuilder()
+                        .withMetadata(new Metadata.MetadataBuilder().build())
+                        .withPayload(new Payload.PayloadBuilder()
+                                .withAdditionalProperty("host_id", "benchmark-host")
+                                .withAdditionalProperty("display_name", "benchmark-host")
+                                .withAdditionalProperty("error", Map.of(
+                                        "code", "VE001",
+                                        "message", "Invalid host",
+                                        "stack_trace", "",
+                                        "severity", "error"
+                                ))
+                                .build())
+                        .build()
+        ));
+        return action;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventTransformationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
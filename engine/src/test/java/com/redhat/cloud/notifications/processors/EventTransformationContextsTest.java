@@ -0,0 +1,65 @@
+package com.redhat.cloud.notifications.processors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.cloud.notifications.TestHelpers;
+import com.redhat.cloud.notifications.events.EventWrapperAction;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EventTransformationContextsTest {
+
+    private EventTransformationContexts eventTransformationContexts;
+    private BaseTransformer baseTransformer;
+    private Event event;
+
+    @BeforeEach
+    void beforeEach() {
+        baseTransformer = spy(new BaseTransformer());
+        eventTransformationContexts = new EventTransformationContexts();
+        eventTransformationContexts.baseTransformer = baseTransformer;
+        eventTransformationContexts.objectMapper = new ObjectMapper();
+
+        event = new Event();
+        event.setEventWrapper(new EventWrapperAction(TestHelpers.createAdvisorAction("account", "new-recommendation")));
+    }
+
+    @Test
+    void testTransformationsSharedWhileOpen() {
+        try (EventTransformationContexts.Scope scope = eventTransformationContexts.open(event)) {
+            EventTransformationContext context = eventTransformationContexts.get(event);
+            assertSame(context, eventTransformationContexts.get(event));
+            assertSame(context.getJsonObject(), context.getJsonObject());
+            assertSame(context.getMap(), eventTransformationContexts.get(event).getMap());
+
+            // Another event processed on the same thread does not share the context.
+            assertNotSame(context, eventTransformationContexts.get(new Event()));
+        }
+        verify(baseTransformer, times(1)).toJsonObject(event);
+
+        // Once the scope is closed, the transformations are no longer shared.
+        assertNotSame(eventTransformationContexts.get(event), eventTransformationContexts.get(event));
+    }
+
+    @Test
+    void testMapMatchesJsonObject() {
+        EventTransformationContext context = eventTransformationContexts.get(event);
+        Map<String, Object> map = context.getMap();
+
+        assertEquals(context.getJsonObject(), new JsonObject(map));
+        assertEquals(context.getJsonObject().encode(), context.getEncoded().toString());
+        assertThrows(UnsupportedOperationException.class, () -> map.put("foo", "bar"));
+    }
+}
@@ -0,0 +1,201 @@
+package com.redhat.cloud.notifications.processors.email;
+
+import com.redhat.cloud.notifications.TestHelpers;
+import com.redhat.cloud.notifications.db.ResourceHelpers;
+import com.redhat.cloud.notifications.db.repositories.EmailAggregationRepository;
+import com.redhat.cloud.notifications.db.repositories.EndpointRepository;
+import com.redhat.cloud.notifications.models.Application;
+import com.redhat.cloud.notifications.models.Endpoint;
+import com.redhat.cloud.notifications.models.EndpointType;
+import com.redhat.cloud.notifications.models.Event;
+import com.redhat.cloud.notifications.models.EventAggregationCriterion;
+import com.redhat.cloud.notifications.models.SystemSubscriptionProperties;
+import com.redhat.cloud.notifications.recipients.User;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.RecipientsResolverService;
+import com.redhat.cloud.notifications.recipients.recipientsresolver.pojo.RecipientsQuery;
+import com.redhat.cloud.notifications.transformers.BaseTransformer;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.json.JsonObject;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seeds one million events for a single org and measures the wall time and the heap used by the daily digest
+ * aggregation of these events. It also compares the time needed to read the first and the last page of the keyset
+ * scan, which should be the same since each page starts its index scan right after the cursor, and logs the plan of
+ * the last page. This benchmark takes several minutes, it is only run when the
+ * {@code benchmark.daily-digest} system property is set to {@code true}:
+ * <pre>
+ * ./mvnw test -pl engine -Dtest=EmailAggregatorBenchmarkTest -Dbenchmark.daily-digest=true
+ * </pre>
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "benchmark.daily-digest", matches = "true")
+class EmailAggregatorBenchmarkTest {
+
+    private static final String ORG_ID = "benchmark-org";
+    private static final int EVENTS_COUNT = 1_000_000;
+    private static final int RECIPIENTS_COUNT = 1_000;
+
+    @Inject
+    EmailAggregator emailAggregator;
+
+    @Inject
+    ResourceHelpers resourceHelpers;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EmailAggregationRepository emailAggregationRepository;
+
+    @ConfigProperty(name = "notifications.aggregation.max-page-size", defaultValue = "100")
+    int pageSize;
+
+    @InjectMock
+    @RestClient
+    RecipientsResolverService recipientsResolverService;
+
+    @InjectMock
+    EndpointRepository endpointRepository;
+
+    @AfterEach
+    void afterEach() {
+        resourceHelpers.clearEvents();
+    }
+
+    @Test
+    void benchmarkDailyDigestAggregation() {
+        Application application = resourceHelpers.findOrCreateApplication("rhel", "advisor");
+        seedEvents();
+        mockRecipients();
+
+        EventAggregationCriterion aggregationKey = new EventAggregationCriterion(ORG_ID, application.getBundleId(), application.getId(), "rhel", "advisor");
+        LocalDateTime end = LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1L);
+        LocalDateTime start = end.minusDays(1L);
+
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memoryBean.getHeapMemoryUsage().getUsed();
+        long startTime = System.nanoTime();
+
+        Map<User, Map<String, Object>> result = emailAggregator.getAggregated(application.getId(), aggregationKey, DAILY, start, end);
+
+        long wallTimeMillis = (System.nanoTime() - startTime) / 1_000_000L;
+        long heapAfter = memoryBean.getHeapMemoryUsage().getUsed();
+        Log.infof("Daily digest aggregation of %d events for %d recipients: wall time %d ms, heap used %d MB before and %d MB after",
+            EVENTS_COUNT, RECIPIENTS_COUNT, wallTimeMillis, heapBefore / 1_048_576L, heapAfter / 1_048_576L);
+
+        assertEquals(RECIPIENTS_COUNT, result.size());
+
+        benchmarkKeysetPages(aggregationKey, start, end);
+    }
+
+    private void benchmarkKeysetPages(EventAggregationCriterion aggregationKey, LocalDateTime start, LocalDateTime end) {
+        // The cursor of the last page is the event which precedes the last page in the scan order.
+        Object[] cursor = (Object[]) entityManager.createNativeQuery("SELECT id, created FROM event WHERE org_id = :orgId ORDER BY created DESC, id DESC OFFSET :offset LIMIT 1")
+            .setParameter("orgId", ORG_ID)
+            .setParameter("offset", pageSize)
+            .getSingleResult();
+        Event after = new Event();
+        after.setId((UUID) cursor[0]);
+        after.setCreated(((Timestamp) cursor[1]).toLocalDateTime());
+
+        long startTime = System.nanoTime();
+        List<Event> firstPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(aggregationKey, start, end, null, pageSize);
+        long firstPageMicros = (System.nanoTime() - startTime) / 1_000L;
+
+        startTime = System.nanoTime();
+        List<Event> lastPage = emailAggregationRepository.getEmailAggregationBasedOnEvent(aggregationKey, start, end, after, pageSize);
+        long lastPageMicros = (System.nanoTime() - startTime) / 1_000L;
+
+        Log.infof("Keyset scan of %d events by pages of %d events: first page read in %d µs, last page read in %d µs",
+            EVENTS_COUNT, pageSize, firstPageMicros, lastPageMicros);
+
+        List<?> plan = entityManager.createNativeQuery("EXPLAIN (ANALYZE, BUFFERS) SELECT id FROM event " +
+                "WHERE org_id = :orgId AND application_id = :applicationId AND created > :start AND created <= :end " +
+                "AND (created, id) > (:afterCreated, :afterId) ORDER BY created, id LIMIT :limit")
+            .setParameter("orgId", ORG_ID)
+            .setParameter("applicationId", aggregationKey.getApplicationId())
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .setParameter("afterCreated", after.getCreated())
+            .setParameter("afterId", after.getId())
+            .setParameter("limit", pageSize)
+            .getResultList();
+        Log.infof("Plan of the last page:%n%s", plan.stream().map(String::valueOf).collect(Collectors.joining(System.lineSeparator())));
+
+        assertEquals(pageSize, firstPage.size());
+        assertEquals(pageSize, lastPage.size());
+    }
+
+    /*
+     * A template event is persisted with the resource helpers and then copied server-side, which is much faster
+     * than persisting one million entities.
+     */
+    private void seedEvents() {
+        JsonObject payload = TestHelpers.wrapActionToJsonObject(TestHelpers.createAdvisorAction("benchmark-account", "new-recommendation"));
+        payload.remove(BaseTransformer.SOURCE);
+        Event template = resourceHelpers.addEventEmailAggregation(ORG_ID, "rhel", "advisor", payload, false, null, "new-recommendation");
+
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery("""
+                INSERT INTO event (id, created, account_id, org_id, bundle_id, bundle_display_name, application_id,
+                    application_display_name, event_type_id, event_type_display_name, has_authorization_criterion, payload,
+                    source_environment, severity)
+                SELECT gen_random_uuid(), e.created - n * INTERVAL '50 microseconds', e.account_id, e.org_id, e.bundle_id,
+                    e.bundle_display_name, e.application_id, e.application_display_name, e.event_type_id,
+                    e.event_type_display_name, e.has_authorization_criterion, e.payload, e.source_environment, e.severity
+                FROM event e CROSS JOIN generate_series(1, :count) AS n
+                WHERE e.id = :templateId
+                """)
+            .setParameter("count", EVENTS_COUNT - 1)
+            .setParameter("templateId", template.getId())
+            .executeUpdate());
+    }
+
+    private void mockRecipients() {
+        Endpoint endpoint = new Endpoint();
+        endpoint.setProperties(new SystemSubscriptionProperties());
+        endpoint.setType(EndpointType.EMAIL_SUBSCRIPTION);
+        when(endpointRepository.getTargetEmailSubscriptionEndpoints(anyString(), any(UUID.class))).thenReturn(List.of(endpoint));
+
+        Set<User> users = IntStream.range(0, RECIPIENTS_COUNT).mapToObj(i -> {
+            User user = new User();
+            user.setUsername("user-" + i);
+            user.setEmail("user-" + i + "@example.com");
+            return user;
+        }).collect(Collectors.toSet());
+        when(recipientsResolverService.getRecipients(any(RecipientsQuery.class))).thenReturn(users);
+        when(recipientsResolverService.getRecipientsBatch(anyList())).then(parameters -> {
+            List<RecipientsQuery> queries = parameters.getArgument(0);
+            return queries.stream().map(query -> users).toList();
+        });
+    }
+}
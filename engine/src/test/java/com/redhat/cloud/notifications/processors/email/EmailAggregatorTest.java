@@ -40,18 +40,22 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static com.redhat.cloud.notifications.models.SubscriptionType.DAILY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -81,6 +85,9 @@ class EmailAggregatorTest {
     @InjectMock
     EngineConfig engineConfig;
 
+    @InjectSpy
+    BaseTransformer baseTransformer;
+
     Application application;
     EventType eventType1;
     EventType eventType2;
@@ -89,8 +96,9 @@ class EmailAggregatorTest {
     @BeforeEach
     void beforeEach() {
         emailAggregator.maxPageSize = 5;
+        when(engineConfig.isRecipientsResolverBatchEnabled()).thenReturn(true);
         clearCachedData("recipients-resolver-results");
-        clearInvocations(recipientsResolverService);
+        clearInvocations(recipientsResolverService, baseTransformer);
         resourceHelpers.clearEvents();
     }
 
@@ -113,15 +121,14 @@ class EmailAggregatorTest {
         endpoint.setType(EndpointType.EMAIL_SUBSCRIPTION);
 
         when(endpointRepository.getTargetEmailSubscriptionEndpoints(anyString(), any(UUID.class))).thenReturn(List.of(endpoint));
-        when(recipientsResolverService.getRecipients(any(RecipientsQuery.class))).then(parameters -> {
-            RecipientsQuery query = parameters.getArgument(0);
-            Set<String> users = query.subscribers;
-            return users.stream().map(usrStr -> {
+        when(recipientsResolverService.getRecipientsBatch(anyList())).then(parameters -> {
+            List<RecipientsQuery> queries = parameters.getArgument(0);
+            return queries.stream().map(query -> query.subscribers.stream().map(usrStr -> {
                 User usr = new User();
                 usr.setEmail(usrStr);
                 usr.setUsername(usrStr);
                 return usr;
-            }).collect(Collectors.toSet());
+            }).collect(Collectors.toSet())).toList();
         });
     }
 
@@ -132,13 +139,14 @@ class EmailAggregatorTest {
         // Test user subscription based on event type
         Map<User, Map<String, Object>> result = aggregate();
 
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(), anyInt());
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(0), eq(emailAggregator.maxPageSize));
+        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), any(), anyInt());
+        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(emailAggregator.maxPageSize));
 
         // nobody subscribed to the right event type yet
         assertEquals(0, result.size());
     }
 
+    // The window is read a first time to resolve the recipients, then a second time to feed the aggregators.
     @Test
     void shouldTestOneRecipientSubscribed() {
         initDataForSubscriptionTests();
@@ -146,15 +154,40 @@ class EmailAggregatorTest {
         resourceHelpers.createEventTypeEmailSubscription("org-1", "user-2", eventType1, DAILY);
         Map<User, Map<String, Object>> result = aggregate();
 
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(), anyInt());
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(0), eq(emailAggregator.maxPageSize));
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), any(), anyInt());
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(emailAggregator.maxPageSize));
 
         assertEquals(1, result.size());
         assertTrue(result.keySet().stream().findFirst().isPresent());
         User user = result.keySet().stream().findFirst().get();
         assertEquals("user-2", user.getEmail());
         assertEquals(4, getNewRecommendationsSize(result.get(user)));
-        verify(recipientsResolverService, times(4)).getRecipients(any(RecipientsQuery.class));
+        // All events share the same recipients group, which is resolved once with a batched request.
+        verify(recipientsResolverService, times(1)).getRecipientsBatch(argThat(queries -> queries.size() == 1));
+        verify(recipientsResolverService, never()).getRecipients(any(RecipientsQuery.class));
+    }
+
+    @Test
+    void shouldResolveRecipientsOneQueryAtATimeWhenBatchIsDisabled() {
+        when(engineConfig.isRecipientsResolverBatchEnabled()).thenReturn(false);
+        initDataForSubscriptionTests();
+        when(recipientsResolverService.getRecipients(any(RecipientsQuery.class))).then(parameters -> {
+            RecipientsQuery query = parameters.getArgument(0);
+            return query.subscribers.stream().map(usrStr -> {
+                User usr = new User();
+                usr.setEmail(usrStr);
+                usr.setUsername(usrStr);
+                return usr;
+            }).collect(Collectors.toSet());
+        });
+
+        resourceHelpers.createEventTypeEmailSubscription("org-1", "user-2", eventType1, DAILY);
+        Map<User, Map<String, Object>> result = aggregate();
+
+        assertEquals(1, result.size());
+        assertEquals("user-2", result.keySet().iterator().next().getEmail());
+        verify(recipientsResolverService, times(1)).getRecipients(any(RecipientsQuery.class));
+        verify(recipientsResolverService, never()).getRecipientsBatch(anyList());
     }
 
     @Test
@@ -175,8 +208,8 @@ class EmailAggregatorTest {
 
         Map<User, Map<String, Object>> result = aggregate();
 
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(), anyInt());
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(0), eq(emailAggregator.maxPageSize));
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), any(), anyInt());
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(emailAggregator.maxPageSize));
 
         assertEquals(1, result.size());
         assertTrue(result.keySet().stream().findFirst().isPresent());
@@ -184,7 +217,9 @@ class EmailAggregatorTest {
         assertEquals("user-2", user.getEmail());
         // we should have only one result here because only one event have the "MODERATE" severity
         assertEquals(1, getNewRecommendationsSize(result.get(user)));
-        verify(recipientsResolverService, times(4)).getRecipients(any(RecipientsQuery.class));
+        // All events share the same recipients group, which is resolved once with a batched request.
+        verify(recipientsResolverService, times(1)).getRecipientsBatch(argThat(queries -> queries.size() == 1));
+        verify(recipientsResolverService, never()).getRecipients(any(RecipientsQuery.class));
     }
 
     @Test
@@ -202,8 +237,8 @@ class EmailAggregatorTest {
         // because after the previous aggregate() call the email_aggregation DB table was not purged, we already have 4 records on database
         Map<User, Map<String, Object>> result = aggregate();
 
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(), anyInt());
-        verify(emailAggregationRepository, times(1)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(0), eq(emailAggregator.maxPageSize));
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), any(), anyInt());
+        verify(emailAggregationRepository, times(2)).getEmailAggregationBasedOnEvent(any(EventAggregationCriterion.class), any(LocalDateTime.class), any(LocalDateTime.class), isNull(), eq(emailAggregator.maxPageSize));
 
         assertEquals(1, result.size());
         assertTrue(result.keySet().stream().findFirst().isPresent());
@@ -211,7 +246,9 @@ class EmailAggregatorTest {
         assertEquals("user-2", user.getEmail());
         // we should have 0 result since user unsubscribed from all severities
         assertEquals(0, getNewRecommendationsSize(result.get(user)));
-        verify(recipientsResolverService, times(4)).getRecipients(any(RecipientsQuery.class));
+        // All events share the same recipients group, which is resolved once with a batched request.
+        verify(recipientsResolverService, times(1)).getRecipientsBatch(argThat(queries -> queries.size() == 1));
+        verify(recipientsResolverService, never()).getRecipients(any(RecipientsQuery.class));
 
         // disable the severity filtering
         when(engineConfig.isIncludeSeverityToFilterRecipientsEnabled(anyString())).thenReturn(false);
@@ -225,6 +262,31 @@ class EmailAggregatorTest {
         assertEquals(5, getNewRecommendationsSize(result.get(user)));
     }
 
+    @Test
+    void shouldTransformEachEventOnceWhateverTheNumberOfRecipients() {
+        when(engineConfig.isIncludeSeverityToFilterRecipientsEnabled(anyString())).thenReturn(true);
+        initDataForSubscriptionTests();
+
+        resourceHelpers.createEventTypeEmailSubscription("org-1", "user-2", eventType1, DAILY);
+        resourceHelpers.createEventTypeEmailSubscription("org-1", "user-3", eventType1, DAILY);
+        resourceHelpers.createEventTypeEmailSubscription("org-1", "user-4", eventType1, DAILY, Map.of(Severity.MODERATE, true));
+        resourceHelpers.createEventTypeEmailSubscription("org-1", "user-5", eventType1, DAILY);
+
+        Map<User, Map<String, Object>> result = aggregate();
+
+        // 4 events of the aggregation window are transformed once per read of the window, even though there are 4 recipients.
+        verify(baseTransformer, times(8)).toJsonObject(any());
+
+        assertEquals(4, result.size());
+        Map<String, Map<String, Object>> resultByUsername = result.entrySet().stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().getUsername(), Map.Entry::getValue));
+        assertEquals(4, getNewRecommendationsSize(resultByUsername.get("user-2")));
+        assertEquals(4, getNewRecommendationsSize(resultByUsername.get("user-3")));
+        assertEquals(1, getNewRecommendationsSize(resultByUsername.get("user-4")));
+        // Users with the same recipients groups and the same severity subscriptions share the same aggregation.
+        assertSame(resultByUsername.get("user-3"), resultByUsername.get("user-5"));
+    }
+
     private Map<User, Map<String, Object>> aggregate() {
         Map<User, Map<String, Object>> result = new HashMap<>();
 
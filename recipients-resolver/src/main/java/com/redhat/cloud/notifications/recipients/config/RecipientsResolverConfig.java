@@ -23,9 +23,13 @@ public class RecipientsResolverConfig {
      * Env vars configuration
      */
     private static final String MAX_RESULTS_PER_PAGE = "notifications.recipients-resolver.max-results-per-page";
+    private static final String MAX_CONCURRENT_PAGES = "notifications.recipients-resolver.max-concurrent-pages";
     private static final String RETRY_INITIAL_BACKOFF = "notifications.recipients-resolver.retry.initial-backoff";
     private static final String RETRY_MAX_ATTEMPTS = "notifications.recipients-resolver.retry.max-attempts";
     private static final String RETRY_MAX_BACKOFF = "notifications.recipients-resolver.retry.max-backoff";
+    private static final String USERS_CACHE_REFRESH_AFTER = "notifications.recipients-resolver.users-cache.refresh-after";
+    private static final String USERS_CACHE_MAX_STALENESS = "notifications.recipients-resolver.users-cache.max-staleness";
+    private static final String USERS_CACHE_PREFETCH_PERIOD = "notifications.recipients-resolver.users-cache.prefetch-period";
     private static final String WARN_IF_DURATION_EXCEEDS = "notifications.recipients-resolver.warn-if-request-duration-exceeds";
     public static final String MBOP_APITOKEN = "notifications.recipients-resolver.mbop.api_token";
     public static final String MBOP_CLIENT_ID = "notifications.recipients-resolver.mbop.client_id";
@@ -37,6 +41,7 @@ public class RecipientsResolverConfig {
     private static final String KESSEL_CLIENT_SECRET = "notifications.kessel.authn.client-secret";
     private static final String KESSEL_CLIENT_ISSUER = "notifications.kessel.authn.issuer";
     private static final String KESSEL_DOMAIN = "notifications.kessel.domain";
+    private static final String KESSEL_SUBJECTS_CACHE_TTL = "notifications.kessel.subjects-cache.ttl";
 
     /*
      * Unleash configuration
@@ -45,10 +50,18 @@ public class RecipientsResolverConfig {
     private String fetchUsersWithRbacToggle;
     private String useKesselToggle;
     private String rbacOidcAuthToggle;
+    private String userDirectorySnapshotToggle;
 
     @ConfigProperty(name = MAX_RESULTS_PER_PAGE, defaultValue = "1000")
     int maxResultsPerPage;
 
+    /**
+     * The maximum number of pages of users fetched concurrently from RBAC
+     * for a single org, when RBAC returns the total number of users.
+     */
+    @ConfigProperty(name = MAX_CONCURRENT_PAGES, defaultValue = "4")
+    int maxConcurrentPages;
+
     @ConfigProperty(name = RETRY_INITIAL_BACKOFF, defaultValue = "0.1S")
     Duration initialRetryBackoff;
 
@@ -58,6 +71,27 @@ public class RecipientsResolverConfig {
     @ConfigProperty(name = RETRY_MAX_BACKOFF, defaultValue = "1S")
     Duration maxRetryBackoff;
 
+    /**
+     * The age after which the users fetched from the external services are
+     * refreshed in the background, while the previous users are still served.
+     */
+    @ConfigProperty(name = USERS_CACHE_REFRESH_AFTER, defaultValue = "PT10M")
+    Duration usersCacheRefreshAfter;
+
+    /**
+     * The age after which the users fetched from the external services are no
+     * longer served, the callers then wait for the users to be fetched again.
+     */
+    @ConfigProperty(name = USERS_CACHE_MAX_STALENESS, defaultValue = "PT30M")
+    Duration usersCacheMaxStaleness;
+
+    /**
+     * How often the users of the orgs used recently are refreshed ahead of
+     * their refresh time.
+     */
+    @ConfigProperty(name = USERS_CACHE_PREFETCH_PERIOD, defaultValue = "PT1M")
+    Duration usersCachePrefetchPeriod;
+
     @ConfigProperty(name = WARN_IF_DURATION_EXCEEDS, defaultValue = "30S")
     Duration logTooLongRequestLimit;
 
@@ -109,12 +143,19 @@ public class RecipientsResolverConfig {
     @ConfigProperty(name = KESSEL_DOMAIN, defaultValue = "redhat")
     String kesselDomain;
 
+    /**
+     * How long the subjects authorized on a resource by Kessel are cached.
+     */
+    @ConfigProperty(name = KESSEL_SUBJECTS_CACHE_TTL, defaultValue = "PT1M")
+    Duration kesselSubjectsCacheTtl;
+
     @PostConstruct
     void postConstruct() {
         fetchUsersWithMbopToggle = toggleRegistry.register("fetch-users-with-mbop", true);
         fetchUsersWithRbacToggle = toggleRegistry.register("fetch-users-with-rbac", true);
         useKesselToggle = toggleRegistry.register("use-kessel", true);
         rbacOidcAuthToggle = toggleRegistry.register("rbac-oidc-auth", true);
+        userDirectorySnapshotToggle = toggleRegistry.register("user-directory-snapshot", true);
     }
 
     void logConfigAtStartup(@Observes Startup event) {
@@ -123,17 +164,23 @@ public class RecipientsResolverConfig {
         config.put(fetchUsersWithMbopToggle, isFetchUsersWithMbopEnabled(null));
         config.put(fetchUsersWithRbacToggle, isFetchUsersWithRbacEnabled(null));
         config.put(MAX_RESULTS_PER_PAGE, getMaxResultsPerPage());
+        config.put(MAX_CONCURRENT_PAGES, getMaxConcurrentPages());
         config.put(MBOP_ENV, getMbopEnv());
         config.put(RETRY_INITIAL_BACKOFF, getInitialRetryBackoff());
         config.put(RETRY_MAX_ATTEMPTS, getMaxRetryAttempts());
         config.put(RETRY_MAX_BACKOFF, getMaxRetryBackoff());
         config.put(WARN_IF_DURATION_EXCEEDS, getLogTooLongRequestLimit());
+        config.put(USERS_CACHE_REFRESH_AFTER, getUsersCacheRefreshAfter());
+        config.put(USERS_CACHE_MAX_STALENESS, getUsersCacheMaxStaleness());
+        config.put(USERS_CACHE_PREFETCH_PERIOD, getUsersCachePrefetchPeriod());
         config.put(useKesselToggle, isUseKesselEnabled(null));
         config.put(rbacOidcAuthToggle, isRbacOidcAuthEnabled(null));
+        config.put(userDirectorySnapshotToggle, isUserDirectorySnapshotEnabled(null));
         config.put(KESSEL_URL, getKesselUrl());
         config.put(KESSEL_TIMEOUT_MS, getKesselTimeoutMs());
         config.put(KESSEL_INSECURE_CLIENT_ENABLED, isKesselInsecureClientEnabled());
         config.put(KESSEL_DOMAIN, getKesselDomain());
+        config.put(KESSEL_SUBJECTS_CACHE_TTL, getKesselSubjectsCacheTtl());
 
         Log.info("=== Startup configuration ===");
         config.forEach((key, value) -> {
@@ -157,10 +204,18 @@ public class RecipientsResolverConfig {
         return unleash.isEnabled(rbacOidcAuthToggle, UnleashContextBuilder.buildUnleashContextWithOrgId(orgId), false);
     }
 
+    public boolean isUserDirectorySnapshotEnabled(String orgId) {
+        return unleash.isEnabled(userDirectorySnapshotToggle, UnleashContextBuilder.buildUnleashContextWithOrgId(orgId), false);
+    }
+
     public int getMaxResultsPerPage() {
         return maxResultsPerPage;
     }
 
+    public int getMaxConcurrentPages() {
+        return maxConcurrentPages;
+    }
+
     public int getMaxRetryAttempts() {
         return maxRetryAttempts;
     }
@@ -173,6 +228,18 @@ public class RecipientsResolverConfig {
         return maxRetryBackoff;
     }
 
+    public Duration getUsersCacheRefreshAfter() {
+        return usersCacheRefreshAfter;
+    }
+
+    public Duration getUsersCacheMaxStaleness() {
+        return usersCacheMaxStaleness;
+    }
+
+    public Duration getUsersCachePrefetchPeriod() {
+        return usersCachePrefetchPeriod;
+    }
+
     public String getMbopApiToken() {
         return mbopApiToken;
     }
@@ -224,4 +291,8 @@ public class RecipientsResolverConfig {
     public String getKesselDomain() {
         return kesselDomain;
     }
+
+    public Duration getKesselSubjectsCacheTtl() {
+        return kesselSubjectsCacheTtl;
+    }
 }
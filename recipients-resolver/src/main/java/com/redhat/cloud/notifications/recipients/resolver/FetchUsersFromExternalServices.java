@@ -27,8 +27,9 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
-import io.quarkus.cache.CacheResult;
 import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -46,10 +47,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
 import static java.lang.Boolean.TRUE;
 
 @ApplicationScoped
@@ -95,6 +102,10 @@ public class FetchUsersFromExternalServices {
 
     private Map</* orgId */ String, AtomicInteger> rbacUsers = new ConcurrentHashMap<>();
 
+    private RefreshAheadCache<UsersKey, List<User>> usersCache;
+    private RefreshAheadCache<GroupUsersKey, List<User>> groupUsersCache;
+    private final Map</* orgId */ String, UserDirectoryEntry> userDirectories = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void postConstruct() {
         retryPolicy = RetryPolicy.builder()
@@ -107,6 +118,31 @@ public class FetchUsersFromExternalServices {
                     Log.warn("Users fetching from external service failed", event.getException());
                 })
                 .build();
+
+        Duration refreshAfter = recipientsResolverConfig.getUsersCacheRefreshAfter();
+        Duration maxStaleness = recipientsResolverConfig.getUsersCacheMaxStaleness();
+        usersCache = new RefreshAheadCache<>("get-users", key -> fetchUsers(key.orgId(), key.adminsOnly()),
+            Infrastructure.getDefaultWorkerPool(), refreshAfter, maxStaleness, meterRegistry);
+        groupUsersCache = new RefreshAheadCache<>("get-group-users", key -> fetchGroupUsers(key.orgId(), key.adminsOnly(), key.groupId()),
+            Infrastructure.getDefaultWorkerPool(), refreshAfter, maxStaleness, meterRegistry);
+    }
+
+    /**
+     * Refreshes the users of the orgs used recently before they are due for a refresh, so that the requests for the
+     * most active orgs are never served stale users.
+     */
+    @Scheduled(every = "${notifications.recipients-resolver.users-cache.prefetch-period:PT1M}", concurrentExecution = SKIP)
+    void prefetchUsers() {
+        Duration margin = recipientsResolverConfig.getUsersCachePrefetchPeriod();
+        usersCache.prefetch(margin);
+        groupUsersCache.prefetch(margin);
+        userDirectories.keySet().removeIf(orgId -> !usersCache.contains(new UsersKey(orgId, false)));
+    }
+
+    public void invalidateCaches() {
+        usersCache.invalidateAll();
+        groupUsersCache.invalidateAll();
+        userDirectories.clear();
     }
 
     /**
@@ -122,8 +158,15 @@ public class FetchUsersFromExternalServices {
         }
     }
 
-    @CacheResult(cacheName = "recipients-users-provider-get-users")
+    /**
+     * Returns the users of an org. The users are cached and refreshed in the background once they are older than
+     * {@link RecipientsResolverConfig#getUsersCacheRefreshAfter()}.
+     */
     public List<User> getUsers(String orgId, boolean adminsOnly) {
+        return usersCache.get(new UsersKey(orgId, adminsOnly));
+    }
+
+    private List<User> fetchUsers(String orgId, boolean adminsOnly) {
         Timer.Sample getUsersTotalTimer = Timer.start(meterRegistry);
         LocalDateTime globalStartTime = LocalDateTime.now();
 
@@ -192,6 +235,24 @@ public class FetchUsersFromExternalServices {
         return users;
     }
 
+    /**
+     * Returns a snapshot of the users of an org, indexed for the resolution of the recipients. The snapshot is built
+     * from the users and admins returned by {@link #getUsers(String, boolean)}, and it is only built again when these
+     * cached users are refreshed.
+     * @param orgId the org ID.
+     * @return the snapshot of the users of the org.
+     */
+    public OrgUserDirectory getUserDirectory(String orgId) {
+        List<User> users = getUsers(orgId, false);
+        List<User> admins = getUsers(orgId, true);
+        return userDirectories.compute(orgId, (unused, entry) -> {
+            if (entry != null && entry.users() == users && entry.admins() == admins) {
+                return entry;
+            }
+            return new UserDirectoryEntry(users, admins, OrgUserDirectory.build(users, admins));
+        }).directory();
+    }
+
     private List<User> fetchUsersWithItUserService(String orgId, boolean adminsOnly) {
         List<User> users;
         List<ITUserResponse> usersPaging;
@@ -319,8 +380,11 @@ public class FetchUsersFromExternalServices {
         });
     }
 
-    @CacheResult(cacheName = "recipients-users-provider-get-group-users")
     public List<User> getGroupUsers(String orgId, boolean adminOnly, UUID groupId) {
+        return groupUsersCache.get(new GroupUsersKey(orgId, adminOnly, groupId));
+    }
+
+    private List<User> fetchGroupUsers(String orgId, boolean adminOnly, UUID groupId) {
         Timer.Sample getGroupUsersTotalTimer = Timer.start(meterRegistry);
         RbacGroup rbacGroup;
         try {
@@ -364,27 +428,86 @@ public class FetchUsersFromExternalServices {
         return Failsafe.with(retryPolicy).get(usersServiceCall);
     }
 
+    /*
+     * The first page gives the total number of users. When it is known, the remaining pages are fetched concurrently
+     * on virtual threads, with at most RecipientsResolverConfig#getMaxConcurrentPages requests in flight. The pages
+     * are added to the users list in order, as soon as they are received.
+     */
     private List<User> getWithPagination(Function<Integer, Page<RbacUser>> fetcher) {
+        int pageSize = recipientsResolverConfig.getMaxResultsPerPage();
         List<User> users = new ArrayList<>();
-        int page = 0;
-        Page<RbacUser> rbacUsers;
-        do {
-            rbacUsers = fetcher.apply(page++);
-            for (RbacUser rbacUser : rbacUsers.getData()) {
-                if (rbacUser.getActive()) {
-                    User user = new User();
-                    user.setUsername(rbacUser.getUsername());
-                    user.setEmail(rbacUser.getEmail());
-                    user.setAdmin(TRUE.equals(rbacUser.getOrgAdmin()));
-                    users.add(user);
+        Page<RbacUser> rbacUsers = fetcher.apply(0);
+        addActiveUsers(users, rbacUsers);
+        int page = 1;
+
+        Long count = rbacUsers.getMeta() == null ? null : rbacUsers.getMeta().getCount();
+        int maxConcurrentPages = recipientsResolverConfig.getMaxConcurrentPages();
+        if (rbacUsers.getData().size() == pageSize && count != null && count > pageSize && maxConcurrentPages > 1) {
+            int pagesCount = (int) ((count + pageSize - 1) / pageSize);
+            Semaphore permits = new Semaphore(maxConcurrentPages);
+            List<Future<Page<RbacUser>>> pages = new ArrayList<>(pagesCount - 1);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (; page < pagesCount; page++) {
+                    int currentPage = page;
+                    pages.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return fetcher.apply(currentPage);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+                try {
+                    for (Future<Page<RbacUser>> pageFuture : pages) {
+                        rbacUsers = awaitPage(pageFuture);
+                        addActiveUsers(users, rbacUsers);
+                    }
+                } catch (RuntimeException e) {
+                    // The remaining requests are useless if one of the pages could not be fetched.
+                    pages.forEach(pageFuture -> pageFuture.cancel(true));
+                    throw e;
                 }
             }
+        }
 
-            this.incrementSuccessesCounterWithTag(COUNTER_TAG_USER_PROVIDER_RBAC);
-        } while (rbacUsers.getData().size() == recipientsResolverConfig.getMaxResultsPerPage());
+        // The users may have changed while the pages were fetched, the last page is only known once a page is not full.
+        while (rbacUsers.getData().size() == pageSize) {
+            rbacUsers = fetcher.apply(page++);
+            addActiveUsers(users, rbacUsers);
+        }
         return users;
     }
 
+    private void addActiveUsers(List<User> users, Page<RbacUser> rbacUsers) {
+        for (RbacUser rbacUser : rbacUsers.getData()) {
+            if (rbacUser.getActive()) {
+                User user = new User();
+                user.setUsername(rbacUser.getUsername());
+                user.setEmail(rbacUser.getEmail());
+                user.setAdmin(TRUE.equals(rbacUser.getOrgAdmin()));
+                users.add(user);
+            }
+        }
+
+        this.incrementSuccessesCounterWithTag(COUNTER_TAG_USER_PROVIDER_RBAC);
+    }
+
+    private static Page<RbacUser> awaitPage(Future<Page<RbacUser>> pageFuture) {
+        try {
+            return pageFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching the users from RBAC", e);
+        } catch (ExecutionException e) {
+            // The Failsafe and REST client exceptions are thrown as if the page had been fetched from the caller thread.
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     List<User> transformMBOPUserToUser(final List<MBOPUser> mbopUsers) {
         final List<User> users = new ArrayList<>(mbopUsers.size());
         for (final MBOPUser mbopUser : mbopUsers) {
@@ -436,4 +559,10 @@ public class FetchUsersFromExternalServices {
     private void incrementSuccessesCounterWithTag(final String userProvider) {
         this.incrementCounter(COUNTER_TAG_SUCCESSES, userProvider);
     }
+
+    private record UsersKey(String orgId, boolean adminsOnly) { }
+
+    private record GroupUsersKey(String orgId, boolean adminsOnly, UUID groupId) { }
+
+    private record UserDirectoryEntry(List<User> users, List<User> admins, OrgUserDirectory directory) { }
 }
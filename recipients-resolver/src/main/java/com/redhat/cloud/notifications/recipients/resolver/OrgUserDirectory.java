@@ -0,0 +1,99 @@
+package com.redhat.cloud.notifications.recipients.resolver;
+
+import com.redhat.cloud.notifications.recipients.model.User;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the users of an org, built once each time the users are fetched from the external user
+ * directory. The users are indexed by their lowercase username and the sets of users are represented as bitsets of
+ * their position in the snapshot, so that resolving the recipients of a query does not need to normalize and compare
+ * the usernames of all the users of the org again.
+ */
+public final class OrgUserDirectory {
+
+    private final User[] users;
+    // Several users can share the same lowercase username, the directory does not normalize the usernames.
+    private final Map<String, int[]> indexesByLowerCaseUsername;
+    private final BitSet admins;
+
+    private OrgUserDirectory(User[] users, Map<String, int[]> indexesByLowerCaseUsername, BitSet admins) {
+        this.users = users;
+        this.indexesByLowerCaseUsername = indexesByLowerCaseUsername;
+        this.admins = admins;
+    }
+
+    /**
+     * Builds the snapshot of the users of an org.
+     * @param users all the users of the org.
+     * @param admins the admins of the org, as returned by the external user directory when only the admins are requested.
+     * @return the snapshot.
+     */
+    public static OrgUserDirectory build(List<User> users, List<User> admins) {
+        Map<String, int[]> indexesByLowerCaseUsername = new HashMap<>(users.size() * 4 / 3 + 1);
+        for (int i = 0; i < users.size(); i++) {
+            indexesByLowerCaseUsername.merge(users.get(i).getUsername().toLowerCase(), new int[] {i}, OrgUserDirectory::concat);
+        }
+
+        OrgUserDirectory directory = new OrgUserDirectory(users.toArray(new User[0]), indexesByLowerCaseUsername, new BitSet(users.size()));
+        for (User admin : admins) {
+            directory.setBits(directory.admins, admin.getUsername().toLowerCase());
+        }
+        return directory;
+    }
+
+    public int size() {
+        return users.length;
+    }
+
+    public User get(int index) {
+        return users[index];
+    }
+
+    /**
+     * Returns a new bitset of the users of the org.
+     * @param adminsOnly whether only the admins should be included.
+     * @return a bitset which can be modified by the caller.
+     */
+    public BitSet select(boolean adminsOnly) {
+        if (adminsOnly) {
+            return (BitSet) admins.clone();
+        }
+        BitSet all = new BitSet(users.length);
+        all.set(0, users.length);
+        return all;
+    }
+
+    /**
+     * Returns a new bitset of the users of the org whose username is included in the given set.
+     * @param lowerCaseUsernames the lowercase usernames.
+     * @return a bitset which can be modified by the caller.
+     */
+    public BitSet select(Set<String> lowerCaseUsernames) {
+        BitSet selected = new BitSet(users.length);
+        for (String lowerCaseUsername : lowerCaseUsernames) {
+            setBits(selected, lowerCaseUsername);
+        }
+        return selected;
+    }
+
+    private void setBits(BitSet bitSet, String lowerCaseUsername) {
+        int[] indexes = indexesByLowerCaseUsername.get(lowerCaseUsername);
+        if (indexes != null) {
+            for (int index : indexes) {
+                bitSet.set(index);
+            }
+        }
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = new int[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -4,12 +4,14 @@ import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
 import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
 import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.model.User;
-import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselService;
+import com.redhat.cloud.notifications.recipients.resolver.kessel.AuthorizedSubjects;
+import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselSubjectsCache;
 import io.quarkus.cache.CacheResult;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -29,7 +31,7 @@ public class RecipientsResolver {
     FetchUsersFromExternalServices fetchingUsers;
 
     @Inject
-    KesselService kesselLookupService;
+    KesselSubjectsCache kesselSubjectsCache;
 
     public Set<User> findRecipients(String orgId, Set<RecipientSettings> recipientSettings, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault) {
         return findRecipients(orgId, recipientSettings, subscribers, unsubscribers, subscribedByDefault, null);
@@ -41,20 +43,21 @@ public class RecipientsResolver {
         Set<String> lowerCaseSubscribers = toLowerCaseOrEmpty(subscribers);
         Set<String> lowerCaseUnsubscribers = toLowerCaseOrEmpty(unsubscribers);
 
-        Set<String> authorizedUserIds = new HashSet<>();
+        AuthorizedSubjects authorizedUserIds = AuthorizedSubjects.EMPTY;
         if (recipientsResolverConfig.isUseKesselEnabled(orgId) && null != recipientsAuthorizationCriterion) {
-            authorizedUserIds.addAll(findAuthorizedUsersWithCriterion(recipientsAuthorizationCriterion));
+            authorizedUserIds = kesselSubjectsCache.getAuthorizedSubjects(recipientsAuthorizationCriterion);
             Log.infof("Found %d authorized users in Kessel for orgId %s and criterion %s", authorizedUserIds.size(), orgId, recipientsAuthorizationCriterion);
         }
 
         final boolean applyKesselRestriction = recipientsAuthorizationCriterion != null && recipientsResolverConfig.isUseKesselEnabled(orgId);
+        final AuthorizedSubjects finalAuthorizedUserIds = authorizedUserIds;
 
         return recipientSettings.stream()
-            .flatMap(r -> recipientUsers(orgId, r, requestUsersIntersection, lowerCaseSubscribers, lowerCaseUnsubscribers, subscribedByDefault, authorizedUserIds, applyKesselRestriction).stream())
+            .flatMap(r -> recipientUsers(orgId, r, requestUsersIntersection, lowerCaseSubscribers, lowerCaseUnsubscribers, subscribedByDefault, finalAuthorizedUserIds, applyKesselRestriction).stream())
             .collect(toSet());
     }
 
-    private Set<User> recipientUsers(String orgId, RecipientSettings request, Optional<Set<String>> requestUsersIntersection, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, final Set<String> authorizedUserIds, boolean applyKesselRestriction) {
+    private Set<User> recipientUsers(String orgId, RecipientSettings request, Optional<Set<String>> requestUsersIntersection, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, final AuthorizedSubjects authorizedUserIds, boolean applyKesselRestriction) {
 
         /*
          * When:
@@ -67,6 +70,10 @@ public class RecipientsResolver {
             return Collections.emptySet();
         }
 
+        if (request.getGroupUUID() == null && recipientsResolverConfig.isUserDirectorySnapshotEnabled(orgId)) {
+            return recipientUsersFromDirectory(orgId, request, requestUsersIntersection, subscribers, unsubscribers, subscribedByDefault, authorizedUserIds, applyKesselRestriction);
+        }
+
         List<User> fetchedUsers;
         if (request.getGroupUUID() == null) {
             fetchedUsers = fetchingUsers.getUsers(orgId, request.isAdminsOnly());
@@ -112,6 +119,34 @@ public class RecipientsResolver {
         return recipients;
     }
 
+    /*
+     * Same filtering as above, but performed with bitsets over the cached snapshot of the org users. The usernames of
+     * the snapshot were normalized when the snapshot was built, so only the usernames of the query are lowercased.
+     */
+    private Set<User> recipientUsersFromDirectory(String orgId, RecipientSettings request, Optional<Set<String>> requestUsersIntersection, Set<String> subscribers, Set<String> unsubscribers, boolean subscribedByDefault, final AuthorizedSubjects authorizedUserIds, boolean applyKesselRestriction) {
+        OrgUserDirectory directory = fetchingUsers.getUserDirectory(orgId);
+
+        BitSet candidates = directory.select(request.isAdminsOnly());
+        requestUsersIntersection.ifPresent(users -> candidates.and(directory.select(users)));
+        if (!request.isIgnoreUserPreferences()) {
+            if (subscribedByDefault) {
+                candidates.andNot(directory.select(unsubscribers));
+            } else {
+                candidates.and(directory.select(subscribers));
+            }
+        }
+
+        Set<User> recipients = new HashSet<>(candidates.cardinality() * 4 / 3 + 1);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            User user = directory.get(i);
+            if (!applyKesselRestriction || authorizedUserIds.contains(user.getId())) {
+                recipients.add(user);
+            }
+        }
+        Log.infof("%d recipients found for org ID %s: %s", recipients.size(), orgId, recipients.stream().map(User::getUsername).collect(Collectors.toSet()));
+        return recipients;
+    }
+
     private static Set<String> toLowerCaseOrEmpty(Set<String> usernames) {
         if (usernames == null) {
             return Collections.emptySet();
@@ -144,12 +179,4 @@ public class RecipientsResolver {
             return Optional.of(result);
         }
     }
-
-    private Set<String> findAuthorizedUsersWithCriterion(RecipientsAuthorizationCriterion externalAuthorizationCriteria) {
-        Set<String> authorizedUsers = new HashSet<>();
-        if (externalAuthorizationCriteria != null) {
-            authorizedUsers = kesselLookupService.lookupSubjects(externalAuthorizationCriteria);
-        }
-        return authorizedUsers;
-    }
 }
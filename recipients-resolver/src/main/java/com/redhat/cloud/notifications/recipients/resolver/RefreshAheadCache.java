@@ -0,0 +1,187 @@
+package com.redhat.cloud.notifications.recipients.resolver;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.logging.Log;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Cache which keeps serving an entry after it is due for a refresh, while the entry is reloaded in the background.
+ * The callers only wait for the loader when there is no entry for the key or when the entry is older than the maximum
+ * staleness. The loads are single-flight: a single load runs at any time for a given key, and the concurrent callers
+ * which have to wait share its result.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public class RefreshAheadCache<K, V> {
+
+    public static final String REFRESH_TIMER_NAME = "recipients-resolver.cache.refresh";
+    public static final String STALENESS_TIMER_NAME = "recipients-resolver.cache.staleness";
+    public static final String SIZE_GAUGE_NAME = "recipients-resolver.cache.size";
+
+    private static final String TAG_KEY_CACHE = "cache";
+    private static final String TAG_KEY_RESULT = "result";
+
+    private final Function<K, V> loader;
+    private final Executor executor;
+    private final long refreshAfterNanos;
+    private final long maxStalenessNanos;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+    private final Timer refreshSuccessTimer;
+    private final Timer refreshFailureTimer;
+    private final Timer stalenessTimer;
+
+    /**
+     * @param name the name of the cache, used as a tag of the metrics.
+     * @param loader loads the value of a key, it is called from the caller thread or from the executor.
+     * @param executor runs the background refreshes.
+     * @param refreshAfter the age after which an entry is refreshed in the background.
+     * @param maxStaleness the age after which an entry is no longer served.
+     * @param registry the registry of the metrics.
+     */
+    public RefreshAheadCache(String name, Function<K, V> loader, Executor executor, Duration refreshAfter, Duration maxStaleness, MeterRegistry registry) {
+        this.loader = loader;
+        this.executor = executor;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.maxStalenessNanos = Math.max(maxStaleness.toNanos(), refreshAfterNanos);
+        refreshSuccessTimer = registry.timer(REFRESH_TIMER_NAME, TAG_KEY_CACHE, name, TAG_KEY_RESULT, "success");
+        refreshFailureTimer = registry.timer(REFRESH_TIMER_NAME, TAG_KEY_CACHE, name, TAG_KEY_RESULT, "failure");
+        stalenessTimer = registry.timer(STALENESS_TIMER_NAME, TAG_KEY_CACHE, name);
+        registry.gauge(SIZE_GAUGE_NAME, List.of(Tag.of(TAG_KEY_CACHE, name)), entries, Map::size);
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        long now = System.nanoTime();
+        if (entry != null) {
+            long age = now - entry.loadedAt();
+            if (age < maxStalenessNanos) {
+                entry.lastAccess = now;
+                if (age >= refreshAfterNanos) {
+                    // The stale entry is served while it is refreshed.
+                    stalenessTimer.record(age - refreshAfterNanos, NANOSECONDS);
+                    refreshAsync(key);
+                }
+                return entry.value();
+            }
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existingLoad = loads.putIfAbsent(key, load);
+        if (existingLoad == null) {
+            load(key, load);
+        } else {
+            load = existingLoad;
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Refreshes in the background the entries which were accessed since they were loaded and which are due for a
+     * refresh within the given margin, so that the entries used frequently are never served stale. The entries older
+     * than the maximum staleness are removed.
+     * @param margin how long before their refresh time the entries are refreshed.
+     */
+    public void prefetch(Duration margin) {
+        long now = System.nanoTime();
+        long prefetchAfterNanos = refreshAfterNanos - margin.toNanos();
+        entries.forEach((key, entry) -> {
+            long age = now - entry.loadedAt();
+            if (age >= maxStalenessNanos) {
+                entries.remove(key, entry);
+            } else if (age >= prefetchAfterNanos && entry.lastAccess > entry.loadedAt()) {
+                refreshAsync(key);
+            }
+        });
+    }
+
+    /**
+     * Removes the entries older than the maximum staleness, without refreshing any entry.
+     */
+    public void removeExpired() {
+        long now = System.nanoTime();
+        entries.forEach((key, entry) -> {
+            if (now - entry.loadedAt() >= maxStalenessNanos) {
+                entries.remove(key, entry);
+            }
+        });
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void refreshAsync(K key) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        if (loads.putIfAbsent(key, load) == null) {
+            try {
+                executor.execute(() -> load(key, load));
+            } catch (RejectedExecutionException e) {
+                // The entry will be refreshed by a later call.
+                loads.remove(key, load);
+            }
+        }
+    }
+
+    private void load(K key, CompletableFuture<V> load) {
+        long start = System.nanoTime();
+        try {
+            V value = loader.apply(key);
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+            refreshSuccessTimer.record(System.nanoTime() - start, NANOSECONDS);
+            load.complete(value);
+        } catch (RuntimeException e) {
+            // The previous entry, if any, is kept and served until its maximum staleness is reached.
+            refreshFailureTimer.record(System.nanoTime() - start, NANOSECONDS);
+            Log.debugf(e, "Cache load failed [key=%s]", key);
+            load.completeExceptionally(e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long loadedAt;
+        private volatile long lastAccess;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+
+        private V value() {
+            return value;
+        }
+
+        private long loadedAt() {
+            return loadedAt;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.redhat.cloud.notifications.recipients.resolver.kessel;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of the user IDs authorized on a resource by Kessel. The IDs are stored in a sorted array, which is
+ * much smaller than a hash set when thousands of subjects are cached, and is searched directly while the recipients
+ * are filtered.
+ */
+public final class AuthorizedSubjects {
+
+    public static final AuthorizedSubjects EMPTY = new AuthorizedSubjects(new String[0]);
+
+    private final String[] userIds;
+
+    private AuthorizedSubjects(String[] userIds) {
+        this.userIds = userIds;
+    }
+
+    public static AuthorizedSubjects of(Collection<String> userIds) {
+        String[] sortedUserIds = userIds.stream()
+            .distinct()
+            .sorted()
+            .toArray(String[]::new);
+        return new AuthorizedSubjects(sortedUserIds);
+    }
+
+    public boolean contains(String userId) {
+        return userId != null && Arrays.binarySearch(userIds, userId) >= 0;
+    }
+
+    public int size() {
+        return userIds.length;
+    }
+}
@@ -0,0 +1,76 @@
+package com.redhat.cloud.notifications.recipients.resolver.kessel;
+
+import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
+import com.redhat.cloud.notifications.ingress.Type;
+import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig;
+import com.redhat.cloud.notifications.recipients.resolver.RefreshAheadCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+
+import static io.quarkus.scheduler.Scheduled.ConcurrentExecution.SKIP;
+
+/**
+ * Caches the subjects authorized by Kessel, keyed by resource type, resource ID and relation, so that the resolution
+ * of the recipients of the events of the same resource does not stream the subjects from Kessel each time. The entries
+ * are never served after the TTL and the concurrent lookups of the same resource share a single Kessel call.
+ */
+@ApplicationScoped
+public class KesselSubjectsCache {
+
+    @Inject
+    KesselService kesselService;
+
+    @Inject
+    RecipientsResolverConfig recipientsResolverConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private RefreshAheadCache<SubjectsKey, AuthorizedSubjects> cache;
+
+    @PostConstruct
+    void postConstruct() {
+        Duration ttl = recipientsResolverConfig.getKesselSubjectsCacheTtl();
+        // The entries are not refreshed in the background, the authorizations must not be served once they expired.
+        cache = new RefreshAheadCache<>("kessel-subjects", key -> AuthorizedSubjects.of(kesselService.lookupSubjects(key.toCriterion())),
+            Infrastructure.getDefaultWorkerPool(), ttl, ttl, meterRegistry);
+    }
+
+    public AuthorizedSubjects getAuthorizedSubjects(RecipientsAuthorizationCriterion criterion) {
+        return cache.get(SubjectsKey.from(criterion));
+    }
+
+    @Scheduled(every = "1m", concurrentExecution = SKIP)
+    void removeExpired() {
+        cache.removeExpired();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record SubjectsKey(String namespace, String resourceType, String resourceId, String relation) {
+
+        static SubjectsKey from(RecipientsAuthorizationCriterion criterion) {
+            return new SubjectsKey(criterion.getType().getNamespace(), criterion.getType().getName(), criterion.getId(), criterion.getRelation());
+        }
+
+        RecipientsAuthorizationCriterion toCriterion() {
+            Type type = new Type();
+            type.setNamespace(namespace);
+            type.setName(resourceType);
+
+            RecipientsAuthorizationCriterion criterion = new RecipientsAuthorizationCriterion();
+            criterion.setType(type);
+            criterion.setId(resourceId);
+            criterion.setRelation(relation);
+            return criterion;
+        }
+    }
+}
@@ -12,6 +12,8 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 
@@ -28,17 +30,43 @@ public class RecipientsResolverResource {
     @Produces(APPLICATION_JSON)
     public Set<User> getRecipients(@NotNull @Valid RecipientsQuery recipientsQuery) {
         try {
-            return recipientsResolver.findRecipients(
+            return findRecipients(recipientsQuery);
+        } catch (StatusRuntimeException e) {
+            throw new WebApplicationException(String.format("Kessel error: %s", e.getMessage()));
+        } catch (Exception e) {
+            throw new WebApplicationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the recipients of several queries with a single HTTP request.
+     * @return the recipients of each query, in the same order as the queries.
+     */
+    @PUT
+    @Path("/batch")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public List<Set<User>> getRecipientsBatch(@NotNull @Valid List<@NotNull @Valid RecipientsQuery> recipientsQueries) {
+        try {
+            List<Set<User>> recipients = new ArrayList<>(recipientsQueries.size());
+            for (RecipientsQuery recipientsQuery : recipientsQueries) {
+                recipients.add(findRecipients(recipientsQuery));
+            }
+            return recipients;
+        } catch (StatusRuntimeException e) {
+            throw new WebApplicationException(String.format("Kessel error: %s", e.getMessage()));
+        } catch (Exception e) {
+            throw new WebApplicationException(e.getMessage());
+        }
+    }
+
+    private Set<User> findRecipients(RecipientsQuery recipientsQuery) {
+        return recipientsResolver.findRecipients(
                 recipientsQuery.orgId,
                 recipientsQuery.recipientSettings,
                 recipientsQuery.subscribers,
                 recipientsQuery.unsubscribers,
                 recipientsQuery.subscribedByDefault,
                 recipientsQuery.recipientsAuthorizationCriterion);
-        } catch (StatusRuntimeException e) {
-            throw new WebApplicationException(String.format("Kessel error: %s", e.getMessage()));
-        } catch (Exception e) {
-            throw new WebApplicationException(e.getMessage());
-        }
     }
 }
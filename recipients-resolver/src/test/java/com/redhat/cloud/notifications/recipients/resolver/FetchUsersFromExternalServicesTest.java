@@ -20,7 +20,6 @@ import com.redhat.cloud.notifications.recipients.resolver.rbac.RbacServiceToServ
 import com.redhat.cloud.notifications.recipients.resolver.rbac.RbacUser;
 import dev.failsafe.FailsafeException;
 import io.micrometer.core.instrument.Tags;
-import io.quarkus.cache.CacheInvalidateAll;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -38,6 +37,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static com.redhat.cloud.notifications.recipients.resolver.FetchUsersFromExternalServices.COUNTER_REQUESTS;
@@ -91,11 +91,15 @@ public class FetchUsersFromExternalServicesTest {
         // This is the default config. It has to be set because we're mocking RecipientsResolverConfig.
         when(recipientsResolverConfig.getInitialRetryBackoff()).thenReturn(Duration.ofMillis(100));
         when(recipientsResolverConfig.getMaxResultsPerPage()).thenReturn(1000);
+        when(recipientsResolverConfig.getMaxConcurrentPages()).thenReturn(4);
         when(recipientsResolverConfig.getMaxRetryAttempts()).thenReturn(3);
         when(recipientsResolverConfig.getMaxRetryBackoff()).thenReturn(Duration.ofSeconds(1));
         when(recipientsResolverConfig.getMbopApiToken()).thenReturn("na");
         when(recipientsResolverConfig.getMbopClientId()).thenReturn("na");
         when(recipientsResolverConfig.getMbopEnv()).thenReturn("na");
+        when(recipientsResolverConfig.getUsersCacheRefreshAfter()).thenReturn(Duration.ofMinutes(10));
+        when(recipientsResolverConfig.getUsersCacheMaxStaleness()).thenReturn(Duration.ofMinutes(30));
+        when(recipientsResolverConfig.getUsersCachePrefetchPeriod()).thenReturn(Duration.ofMinutes(1));
     }
 
     @Test
@@ -220,6 +224,32 @@ public class FetchUsersFromExternalServicesTest {
         }
     }
 
+    @Test
+    public void getAllUsersRBACWithConcurrentPages() {
+        when(recipientsResolverConfig.isFetchUsersWithRbacEnabled(anyString())).thenReturn(true);
+        when(recipientsResolverConfig.isFetchUsersWithRbacEnabled(isNull())).thenReturn(true);
+
+        int elements = 5321;
+        MockedUserAnswer answer = new MockedUserAnswer(elements, false);
+        when(rbacServiceToService.getUsers(Mockito.eq(DEFAULT_ORG_ID), Mockito.eq(false), Mockito.anyInt(), Mockito.anyInt()))
+            .then(invocationOnMock -> {
+                Page<RbacUser> page = answer.mockedUserAnswerRBAC(invocationOnMock.getArgument(2, Integer.class), invocationOnMock.getArgument(3, Integer.class), false);
+                page.setMeta(new Meta((long) elements));
+                return page;
+            });
+
+        List<User> users = fetchUsersFromExternalServices.getUsers(DEFAULT_ORG_ID, false);
+
+        // The pages are fetched concurrently, but the users are still sorted in the order of the pages.
+        assertEquals(elements, users.size());
+        for (int i = 0; i < elements; ++i) {
+            assertEquals(String.format("username-%d", i), users.get(i).getUsername());
+        }
+        final ArgumentCaptor<Integer> capturedOffset = ArgumentCaptor.forClass(Integer.class);
+        Mockito.verify(rbacServiceToService, Mockito.times(6)).getUsers(Mockito.eq(DEFAULT_ORG_ID), Mockito.eq(false), capturedOffset.capture(), Mockito.anyInt());
+        assertEquals(Set.of(0, 1000, 2000, 3000, 4000, 5000), Set.copyOf(capturedOffset.getAllValues()));
+    }
+
     @Test
     public void shouldReturnNoUsersWhenGroupNotFound() {
         UUID nonExistentGroup = UUID.randomUUID();
@@ -671,14 +701,11 @@ public class FetchUsersFromExternalServicesTest {
 
     /*
      * This would normally happen after a certain duration fixed in application.properties with the
-     * quarkus.cache.caffeine.recipient-users-provider-get-group-users.expire-after-write
-     * and
-     * quarkus.cache.caffeine.recipient-users-provider-get-users.expire-after-write key.
+     * notifications.recipients-resolver.users-cache.max-staleness key.
      */
-    @CacheInvalidateAll(cacheName = "recipients-users-provider-get-users")
-    @CacheInvalidateAll(cacheName = "recipients-users-provider-get-group-users")
     @BeforeEach
     void clearCached() {
+        fetchUsersFromExternalServices.invalidateCaches();
     }
 
     class MockedUserAnswer {
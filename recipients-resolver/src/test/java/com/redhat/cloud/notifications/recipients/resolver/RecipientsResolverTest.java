@@ -6,6 +6,7 @@ import com.redhat.cloud.notifications.recipients.config.RecipientsResolverConfig
 import com.redhat.cloud.notifications.recipients.model.RecipientSettings;
 import com.redhat.cloud.notifications.recipients.model.User;
 import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselService;
+import com.redhat.cloud.notifications.recipients.resolver.kessel.KesselSubjectsCache;
 import io.quarkus.cache.Cache;
 import io.quarkus.cache.CacheName;
 import io.quarkus.test.InjectMock;
@@ -48,6 +49,9 @@ public class RecipientsResolverTest {
     @InjectMock
     KesselService kesselService;
 
+    @Inject
+    KesselSubjectsCache kesselSubjectsCache;
+
     @InjectSpy
     RecipientsResolverConfig recipientsResolverConfig;
 
@@ -114,6 +118,7 @@ public class RecipientsResolverTest {
         ));
 
         recipientsCache.invalidateAll().await().indefinitely();
+        kesselSubjectsCache.invalidateAll();
     }
 
     @Test
@@ -620,6 +625,34 @@ public class RecipientsResolverTest {
         verifyNoMoreInteractions(fetchUsersFromExternalServices);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+        "false,false,false", "false,true,false", "false,false,true", "false,true,true",
+        "true,false,false", "true,true,false", "true,false,true", "true,true,true"
+    })
+    void testUserDirectorySnapshotResolvesSameRecipients(boolean subscribedByDefault, boolean adminsOnly, boolean ignoreUserPreferences) {
+        when(fetchUsersFromExternalServices.getUserDirectory(eq(ORG_ID))).thenReturn(
+            OrgUserDirectory.build(List.of(user1, user2, user3, admin1, admin2), List.of(admin1, admin2))
+        );
+        Set<RecipientSettings> recipientSettings = Set.of(
+            new RecipientSettings(adminsOnly, ignoreUserPreferences, null, emptySet()),
+            new RecipientSettings(false, ignoreUserPreferences, null, Set.of("USER1", "user2", "admin2"))
+        );
+        // The subscriptions are not case-sensitive.
+        Set<String> subscribers = Set.of("User1", "admin1", "admin2");
+        Set<String> unsubscribers = Set.of("user2", "ADMIN2");
+
+        Set<User> expected = recipientsResolver.findRecipients(ORG_ID, recipientSettings, subscribers, unsubscribers, subscribedByDefault);
+        recipientsCache.invalidateAll().await().indefinitely();
+
+        when(recipientsResolverConfig.isUserDirectorySnapshotEnabled(anyString())).thenReturn(true);
+        Set<User> recipients = recipientsResolver.findRecipients(ORG_ID, recipientSettings, subscribers, unsubscribers, subscribedByDefault);
+
+        assertEquals(expected, recipients);
+        // The snapshot is used once per recipient settings.
+        verify(fetchUsersFromExternalServices, times(2)).getUserDirectory(eq(ORG_ID));
+    }
+
     public User createUser(String userId, String username, boolean isAdmin) {
         User user = new User();
         user.setUsername(username);
@@ -0,0 +1,84 @@
+package com.redhat.cloud.notifications.recipients.resolver;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.redhat.cloud.notifications.recipients.resolver.RefreshAheadCache.REFRESH_TIMER_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RefreshAheadCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Runnable> backgroundTasks = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testStaleEntryIsServedWhileRefreshed() {
+        RefreshAheadCache<String, Integer> cache = new RefreshAheadCache<>("test", key -> loads.incrementAndGet(), backgroundTasks::add, Duration.ZERO, Duration.ofHours(1L), registry);
+
+        assertEquals(1, cache.get("org-id"));
+        // The entry is due for a refresh, it is still served and a single refresh is scheduled.
+        assertEquals(1, cache.get("org-id"));
+        assertEquals(1, cache.get("org-id"));
+        assertEquals(1, backgroundTasks.size());
+
+        runBackgroundTasks();
+        assertEquals(2, cache.get("org-id"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testExpiredEntryIsLoadedByCaller() {
+        RefreshAheadCache<String, Integer> cache = new RefreshAheadCache<>("test", key -> loads.incrementAndGet(), backgroundTasks::add, Duration.ZERO, Duration.ZERO, registry);
+
+        assertEquals(1, cache.get("org-id"));
+        assertEquals(2, cache.get("org-id"));
+        assertEquals(0, backgroundTasks.size());
+    }
+
+    @Test
+    void testFailedRefreshKeepsStaleEntry() {
+        RefreshAheadCache<String, Integer> cache = new RefreshAheadCache<>("test", key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("User directory unavailable");
+            }
+            return 1;
+        }, backgroundTasks::add, Duration.ZERO, Duration.ofHours(1L), registry);
+
+        assertEquals(1, cache.get("org-id"));
+        assertEquals(1, cache.get("org-id"));
+        runBackgroundTasks();
+        assertEquals(1, cache.get("org-id"));
+        assertEquals(1L, registry.get(REFRESH_TIMER_NAME).tag("result", "failure").timer().count());
+
+        // Without any entry to serve, the failure is thrown to the caller.
+        cache.invalidateAll();
+        assertThrows(IllegalStateException.class, () -> cache.get("org-id"));
+    }
+
+    @Test
+    void testPrefetchOnlyRefreshesAccessedEntries() {
+        RefreshAheadCache<String, Integer> cache = new RefreshAheadCache<>("test", key -> loads.incrementAndGet(), backgroundTasks::add, Duration.ofHours(1L), Duration.ofHours(2L), registry);
+
+        cache.get("hot-org-id");
+        cache.get("hot-org-id");
+        cache.get("cold-org-id");
+
+        cache.prefetch(Duration.ofHours(1L));
+        assertEquals(1, backgroundTasks.size());
+        runBackgroundTasks();
+        assertEquals(3, cache.get("hot-org-id"));
+    }
+
+    private void runBackgroundTasks() {
+        List<Runnable> tasks = new ArrayList<>(backgroundTasks);
+        backgroundTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,97 @@
+package com.redhat.cloud.notifications.recipients.resolver.kessel;
+
+import com.redhat.cloud.notifications.ingress.RecipientsAuthorizationCriterion;
+import com.redhat.cloud.notifications.ingress.Type;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+class KesselSubjectsCacheTest {
+
+    @Inject
+    KesselSubjectsCache kesselSubjectsCache;
+
+    @InjectMock
+    KesselService kesselService;
+
+    private static RecipientsAuthorizationCriterion buildCriterion(String resourceId, String relation) {
+        Type type = new Type();
+        type.setNamespace("namespace_test");
+        type.setName("host");
+
+        RecipientsAuthorizationCriterion criterion = new RecipientsAuthorizationCriterion();
+        criterion.setId(resourceId);
+        criterion.setRelation(relation);
+        criterion.setType(type);
+        return criterion;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        kesselSubjectsCache.invalidateAll();
+    }
+
+    @Test
+    void testSubjectsAreLookedUpOncePerResourceAndRelation() {
+        when(kesselService.lookupSubjects(any())).thenReturn(Set.of("userId2", "userId1"));
+
+        AuthorizedSubjects subjects = kesselSubjectsCache.getAuthorizedSubjects(buildCriterion("resource-id-1", "relationship"));
+        // Equal criteria built by another event share the same entry.
+        kesselSubjectsCache.getAuthorizedSubjects(buildCriterion("resource-id-1", "relationship"));
+        kesselSubjectsCache.getAuthorizedSubjects(buildCriterion("resource-id-1", "other_relationship"));
+        kesselSubjectsCache.getAuthorizedSubjects(buildCriterion("resource-id-2", "relationship"));
+
+        assertEquals(2, subjects.size());
+        assertTrue(subjects.contains("userId1"));
+        assertTrue(subjects.contains("userId2"));
+        assertFalse(subjects.contains("userId3"));
+        assertFalse(subjects.contains(null));
+
+        ArgumentCaptor<RecipientsAuthorizationCriterion> captor = ArgumentCaptor.forClass(RecipientsAuthorizationCriterion.class);
+        verify(kesselService, times(3)).lookupSubjects(captor.capture());
+        RecipientsAuthorizationCriterion criterion = captor.getAllValues().getFirst();
+        assertEquals("namespace_test", criterion.getType().getNamespace());
+        assertEquals("host", criterion.getType().getName());
+        assertEquals("resource-id-1", criterion.getId());
+        assertEquals("relationship", criterion.getRelation());
+    }
+
+    @Test
+    void testFailedLookupIsNotCached() {
+        when(kesselService.lookupSubjects(any()))
+            .thenThrow(new KesselTransientException(new StatusRuntimeException(Status.UNAVAILABLE)))
+            .thenReturn(Set.of("userId1"));
+
+        RecipientsAuthorizationCriterion criterion = buildCriterion("resource-id-1", "relationship");
+        assertThrows(KesselTransientException.class, () -> kesselSubjectsCache.getAuthorizedSubjects(criterion));
+
+        assertTrue(kesselSubjectsCache.getAuthorizedSubjects(criterion).contains("userId1"));
+        verify(kesselService, times(2)).lookupSubjects(any());
+    }
+
+    @Test
+    void testEmptySubjects() {
+        when(kesselService.lookupSubjects(any())).thenReturn(Set.of());
+
+        assertEquals(0, kesselSubjectsCache.getAuthorizedSubjects(buildCriterion("resource-id-1", "relationship")).size());
+        assertEquals(0, AuthorizedSubjects.of(List.of()).size());
+    }
+}
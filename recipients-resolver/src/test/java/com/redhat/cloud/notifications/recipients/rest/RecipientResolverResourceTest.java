@@ -21,6 +21,7 @@ import static io.restassured.http.ContentType.JSON;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -59,6 +60,41 @@ public class RecipientResolverResourceTest {
         Assertions.assertEquals(500, userList.size());
     }
 
+    @Test
+    public void testGetRecipientsBatch() throws JsonProcessingException {
+        RecipientsQuery recipientQuery1 = new RecipientsQuery();
+        recipientQuery1.recipientSettings = new HashSet<>();
+        recipientQuery1.orgId = "123456";
+        RecipientsQuery recipientQuery2 = new RecipientsQuery();
+        recipientQuery2.recipientSettings = new HashSet<>();
+        recipientQuery2.orgId = "654321";
+
+        when(recipientsResolver.findRecipients(eq("123456"), any(), any(), any(), anyBoolean(), any())).thenReturn(createUserList(10));
+        when(recipientsResolver.findRecipients(eq("654321"), any(), any(), any(), anyBoolean(), any())).thenReturn(createUserList(3));
+
+        List<List<User>> usersLists = given()
+            .when()
+            .contentType(JSON)
+            .body(OBJECT_MAPPER.writeValueAsString(List.of(recipientQuery1, recipientQuery2)))
+            .put("/internal/recipients-resolver/batch")
+            .then()
+            .statusCode(200).extract().response().as(new TypeRef<>() { });
+
+        Assertions.assertEquals(2, usersLists.size());
+        Assertions.assertEquals(10, usersLists.get(0).size());
+        Assertions.assertEquals(3, usersLists.get(1).size());
+        verify(recipientsResolver, times(2)).findRecipients(anyString(), any(), any(), any(), anyBoolean(), any());
+
+        // An invalid query makes the whole batch invalid.
+        given()
+            .when()
+            .contentType(JSON)
+            .body(OBJECT_MAPPER.writeValueAsString(List.of(recipientQuery1, new RecipientsQuery())))
+            .put("/internal/recipients-resolver/batch")
+            .then()
+            .statusCode(400);
+    }
+
     private static List<User> getRecipientsPage(RecipientsQuery resolverQuery) throws JsonProcessingException {
         return getRecipients(resolverQuery, 200).as(new TypeRef<>() { });
     }